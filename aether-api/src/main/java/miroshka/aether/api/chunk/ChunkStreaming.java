@@ -21,6 +21,8 @@ public interface ChunkStreaming {
 
     byte[] getCachedChunk(int chunkX, int chunkZ);
 
+    byte[] getCachedChunk(String serverName, String world, int chunkX, int chunkZ);
+
     void clearCache();
 
     void clearCacheForRadius(int centerX, int centerZ, int radius);
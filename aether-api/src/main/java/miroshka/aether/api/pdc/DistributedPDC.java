@@ -1,5 +1,6 @@
 package miroshka.aether.api.pdc;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,8 +22,12 @@ public interface DistributedPDC {
 
     CompletableFuture<Void> sync(UUID playerUuid);
 
+    void flush(UUID playerUuid);
+
     CompletableFuture<Void> load(UUID playerUuid);
 
+    CompletableFuture<Void> loadAll(Collection<UUID> playerUuids);
+
     void invalidateCache(UUID playerUuid);
 
     void setConflictResolver(ConflictResolver resolver);
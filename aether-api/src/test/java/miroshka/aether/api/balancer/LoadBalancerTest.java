@@ -11,10 +11,11 @@ class LoadBalancerTest {
         assertNotNull(LoadBalancer.BalancingStrategy.ROUND_ROBIN);
         assertNotNull(LoadBalancer.BalancingStrategy.LEAST_CONNECTIONS);
         assertNotNull(LoadBalancer.BalancingStrategy.LEAST_TPS_LOAD);
+        assertNotNull(LoadBalancer.BalancingStrategy.WEIGHTED);
         assertNotNull(LoadBalancer.BalancingStrategy.RANDOM);
         assertNotNull(LoadBalancer.BalancingStrategy.PRIORITY_QUEUE);
 
-        assertEquals(5, LoadBalancer.BalancingStrategy.values().length);
+        assertEquals(6, LoadBalancer.BalancingStrategy.values().length);
     }
 
     @Test
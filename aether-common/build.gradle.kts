@@ -1,12 +1,26 @@
 plugins {
     id("java-library")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 dependencies {
     api(libs.bundles.netty)
+    api(libs.netty.transport.epoll)
+    api(libs.netty.transport.io.uring)
+    runtimeOnly(variantOf(libs.netty.transport.epoll) { classifier("linux-x86_64") })
+    runtimeOnly(variantOf(libs.netty.transport.epoll) { classifier("linux-aarch_64") })
+    runtimeOnly(variantOf(libs.netty.transport.io.uring) { classifier("linux-x86_64") })
+    runtimeOnly(variantOf(libs.netty.transport.io.uring) { classifier("linux-aarch_64") })
     api(libs.snappy)
+    api(libs.lz4)
+    api(libs.zstd.jni)
     api(libs.snakeyaml)
     api(libs.slf4j.api)
     
     implementation(libs.bundles.logging)
 }
+
+jmh {
+    includeTests.set(false)
+    profilers.add("gc")
+}
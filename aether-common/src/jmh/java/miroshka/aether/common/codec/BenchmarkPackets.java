@@ -0,0 +1,100 @@
+package miroshka.aether.common.codec;
+
+import miroshka.aether.common.protocol.ChunkDataPacket;
+import miroshka.aether.common.protocol.EventBroadcastPacket;
+import miroshka.aether.common.protocol.NetworkStatePacket;
+import miroshka.aether.common.protocol.NodeSnapshotPacket;
+import miroshka.aether.common.protocol.PDCSyncPacket;
+import miroshka.aether.common.protocol.PDCVersion;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.ServerInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+final class BenchmarkPackets {
+
+    private BenchmarkPackets() {
+    }
+
+    static Packet create(String frameType) {
+        Random random = new Random(42);
+        return switch (frameType) {
+            case "NODE_SNAPSHOT" -> new NodeSnapshotPacket(87, 200, 19.97, System.currentTimeMillis(),
+                    Map.of("game_type", "bedwars", "motd", "Aether Network", "map", "lighthouse"));
+            case "NETWORK_STATE" -> networkState(random, 48);
+            case "CHUNK_DATA" -> {
+                byte[] chunkData = new byte[64 * 1024];
+                for (int i = 0; i < chunkData.length; i++) {
+                    chunkData[i] = (byte) (i % 97 < 80 ? 0 : random.nextInt(16));
+                }
+                yield new ChunkDataPacket(UUID.randomUUID(), "lobby-1", "survival-1", "world",
+                        ChunkDataPacket.ChunkAction.RESPONSE, 12, -7, chunkData);
+            }
+            case "PDC_SYNC" -> pdcSync(random, 64);
+            default -> throw new IllegalArgumentException("Unknown frame type: " + frameType);
+        };
+    }
+
+    static PDCSyncPacket pdcSync(Random random, int entryCount) {
+        Map<String, byte[]> data = new HashMap<>();
+        Map<String, PDCVersion> versions = new HashMap<>();
+        Map<String, PDCVersion> bases = new HashMap<>();
+        long clock = 1_700_000_000_000L << 16;
+        for (int i = 0; i < entryCount; i++) {
+            String key = "stats.mode_" + i;
+            String value = "{\"kills\":" + random.nextInt(5000) + ",\"deaths\":" + random.nextInt(5000)
+                    + ",\"wins\":" + random.nextInt(500) + ",\"kit\":\"" + (i % 3 == 0 ? "archer" : "warrior")
+                    + "\",\"unlocked\":[\"hat_1\",\"trail_fire\",\"cage_glass\"]}";
+            data.put(key, value.getBytes(StandardCharsets.UTF_8));
+            versions.put(key, new PDCVersion(clock + random.nextInt(1 << 16), "lobby-1"));
+            bases.put(key, new PDCVersion(clock, "lobby-1"));
+        }
+        return PDCSyncPacket.fullSync(new UUID(random.nextLong(), random.nextLong()), "Player_" + random.nextInt(1000),
+                data, versions, bases, PDCSyncPacket.UNSOLICITED);
+    }
+
+    static List<Packet> controlTraffic(Random random, int count) {
+        String[] servers = {"lobby-1", "lobby-2", "bedwars-1", "bedwars-2", "skywars-1", "survival-1"};
+        String[] modes = {"bedwars", "skywars", "survival", "lobby"};
+        List<Packet> packets = new ArrayList<>(count);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            timestamp += random.nextInt(250);
+            String server = servers[random.nextInt(servers.length)];
+            String mode = modes[random.nextInt(modes.length)];
+            packets.add(switch (i % 4) {
+                case 0, 1 -> new NodeSnapshotPacket(random.nextInt(200), 200, 20.0 - random.nextDouble(), timestamp,
+                        Map.of("game_type", mode, "bedrock-port", String.valueOf(19132 + random.nextInt(8)),
+                                "motd", "Aether Network", "map", mode + "_" + random.nextInt(6)));
+                case 2 -> new EventBroadcastPacket(random.nextBoolean() ? "player_join" : "player_quit", server,
+                        new UUID(random.nextLong(), random.nextLong()), "Player_" + random.nextInt(10_000),
+                        List.of("default", random.nextBoolean() ? "vip" : "member"),
+                        Map.of("server", server, "game_type", mode), timestamp);
+                default -> networkState(random, 4);
+            });
+        }
+        return packets;
+    }
+
+    static NetworkStatePacket networkState(Random random, int serverCount) {
+        List<ServerInfo> servers = new ArrayList<>();
+        int globalOnline = 0;
+        for (int i = 0; i < serverCount; i++) {
+            int online = random.nextInt(200);
+            globalOnline += online;
+            servers.add(new ServerInfo("server-" + i, online, 200, 20.0 - random.nextDouble(),
+                    System.currentTimeMillis(), Map.of("game_type", i % 2 == 0 ? "bedwars" : "skywars")));
+        }
+        Map<String, String> routingHints = new HashMap<>();
+        routingHints.put("bedwars_least_loaded", "server-0");
+        routingHints.put("skywars_least_loaded", "server-1");
+        return new NetworkStatePacket(globalOnline, servers.size(), 1024L, 30,
+                Map.of("network", "aether"), routingHints, servers);
+    }
+}
@@ -0,0 +1,109 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"NONE", "SNAPPY", "LZ4", "ZSTD"})
+    public FrameCompression codec;
+
+    @Param({"NETWORK_STATE", "PDC_SYNC"})
+    public String frameType;
+
+    private final ByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+    private final CompressionDictionaries dictionaries = new CompressionDictionaries();
+
+    private Packet packet;
+    private ByteBuf frame;
+    private int uncompressedSize;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        packet = BenchmarkPackets.create(frameType);
+        ByteBuf raw = alloc.directBuffer();
+        packet.encode(raw);
+        uncompressedSize = raw.readableBytes();
+        raw.release();
+
+        frame = alloc.directBuffer();
+        PacketEncoder.writeFrame(alloc, packet, frame, FrameOptions.of(codec), 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frame.release();
+    }
+
+    @Benchmark
+    public int compress(Ratio ratio) throws IOException {
+        ByteBuf out = alloc.directBuffer();
+        try {
+            PacketEncoder.writeFrame(alloc, packet, out, FrameOptions.of(codec), 0);
+            ratio.record(uncompressedSize, out.readableBytes() - ProtocolConstants.FRAME_HEADER_SIZE);
+            return out.readableBytes();
+        } finally {
+            out.release();
+        }
+    }
+
+    @Benchmark
+    public int decompress() throws IOException {
+        ByteBuf in = frame.duplicate();
+        int totalLength = in.readInt();
+        byte flags = in.readByte();
+        in.skipBytes(ProtocolConstants.FRAME_PACKET_ID_SIZE);
+        int payloadLength = totalLength - ProtocolConstants.FRAME_FLAGS_SIZE - ProtocolConstants.FRAME_PACKET_ID_SIZE;
+        ByteBuf payload = PacketDecoder.readPayload(alloc, in, flags, payloadLength, dictionaries);
+        try {
+            return payload.readableBytes();
+        } finally {
+            payload.release();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Ratio {
+
+        public long uncompressedBytes;
+        public long wireBytes;
+
+        void record(int uncompressed, int wire) {
+            uncompressedBytes += uncompressed;
+            wireBytes += wire;
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            uncompressedBytes = 0;
+            wireBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package miroshka.aether.common.codec;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryCompressionBenchmark {
+
+    private static final int TRAINING_PACKETS = 4096;
+    private static final int CORPUS_PACKETS = 1024;
+
+    @Param({"NONE", "ZSTD", "ZSTD_DICTIONARY"})
+    public String mode;
+
+    private final ByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+
+    private List<Packet> corpus;
+    private ZstdDictionary dictionary;
+    private ByteBuf out;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        List<Packet> training = BenchmarkPackets.controlTraffic(random, TRAINING_PACKETS);
+        corpus = BenchmarkPackets.controlTraffic(random, CORPUS_PACKETS);
+        dictionary = "ZSTD_DICTIONARY".equals(mode) ? train(training) : null;
+        out = alloc.directBuffer(64 * 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        out.release();
+    }
+
+    @Benchmark
+    public long encodeCorpus(Traffic traffic) throws IOException {
+        long wireBytes = 0;
+        for (Packet packet : corpus) {
+            out.clear();
+            switch (mode) {
+                case "NONE" -> PacketEncoder.writeFrame(alloc, packet, out, FrameOptions.of(FrameCompression.NONE),
+                        ProtocolConstants.COMPRESSION_THRESHOLD);
+                case "ZSTD" -> PacketEncoder.writeFrame(alloc, packet, out, FrameOptions.of(FrameCompression.ZSTD),
+                        0);
+                default -> PacketEncoder.writeFrame(alloc, packet, out,
+                        FrameOptions.of(FrameCompression.ZSTD).withDictionary(dictionary),
+                        ProtocolConstants.COMPRESSION_THRESHOLD);
+            }
+            wireBytes += out.readableBytes();
+        }
+        traffic.wireBytes += wireBytes;
+        traffic.packets += corpus.size();
+        return wireBytes;
+    }
+
+    private static ZstdDictionary train(List<Packet> training) {
+        ZstdDictTrainer trainer = new ZstdDictTrainer(16 * 1024 * 1024, 16 * 1024);
+        for (Packet packet : training) {
+            ByteBuf buffer = Unpooled.buffer();
+            packet.encode(buffer);
+            byte[] sample = new byte[buffer.readableBytes()];
+            buffer.readBytes(sample);
+            buffer.release();
+            trainer.addSample(sample);
+        }
+        return ZstdDictionary.of(1, trainer.trainSamples());
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Traffic {
+
+        public long wireBytes;
+        public long packets;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+            packets = 0;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.PacketRegistry;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import miroshka.aether.common.protocol.ProtocolErrorPacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xerial.snappy.Snappy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketDecoderBenchmark {
+
+    @Param({"NODE_SNAPSHOT", "NETWORK_STATE", "CHUNK_DATA"})
+    public String frameType;
+
+    private final List<Object> out = new ArrayList<>(1);
+
+    private EmbeddedChannel channel;
+    private PacketDecoder decoder;
+    private LegacyPacketDecoder legacyDecoder;
+    private ChannelHandlerContext decoderContext;
+    private ChannelHandlerContext legacyContext;
+    private ByteBuf frame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        decoder = new PacketDecoder();
+        legacyDecoder = new LegacyPacketDecoder();
+        channel = new EmbeddedChannel(decoder, legacyDecoder);
+        channel.config().setAllocator(PooledByteBufAllocator.DEFAULT);
+        decoderContext = channel.pipeline().context(decoder);
+        legacyContext = channel.pipeline().context(legacyDecoder);
+        frame = encodeFrame(BenchmarkPackets.create(frameType));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frame.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void pooledSliceDecode(Blackhole blackhole) throws Exception {
+        ByteBuf in = frame.retainedDuplicate();
+        try {
+            decoder.decode(decoderContext, in, out);
+            blackhole.consume(out.get(0));
+        } finally {
+            in.release();
+            out.clear();
+        }
+    }
+
+    @Benchmark
+    public void legacyCopyDecode(Blackhole blackhole) throws Exception {
+        ByteBuf in = frame.retainedDuplicate();
+        try {
+            legacyDecoder.decode(legacyContext, in, out);
+            blackhole.consume(out.get(0));
+        } finally {
+            in.release();
+            out.clear();
+        }
+    }
+
+    private static ByteBuf encodeFrame(Packet packet) {
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new PacketEncoder());
+        encoderChannel.writeOutbound(packet);
+        ByteBuf encoded = encoderChannel.readOutbound();
+        ByteBuf frame = PooledByteBufAllocator.DEFAULT.directBuffer(encoded.readableBytes());
+        frame.writeBytes(encoded);
+        encoded.release();
+        encoderChannel.finishAndReleaseAll();
+        return frame;
+    }
+
+    static final class LegacyPacketDecoder extends ByteToMessageDecoder {
+
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+            int totalLength = in.readInt();
+            if (in.readableBytes() < totalLength) {
+                return;
+            }
+
+            byte flags = in.readByte();
+            int packetId = in.readInt();
+            int payloadLength = totalLength - ProtocolConstants.FRAME_FLAGS_SIZE - ProtocolConstants.FRAME_PACKET_ID_SIZE;
+
+            byte[] rawPayload = new byte[payloadLength];
+            in.readBytes(rawPayload);
+
+            boolean compressed = (flags & ProtocolConstants.FLAG_COMPRESSION_ENABLED) != 0;
+            byte[] payload = compressed ? Snappy.uncompress(rawPayload) : rawPayload;
+            ByteBuf payloadBuffer = Unpooled.wrappedBuffer(payload);
+
+            try {
+                Optional<Packet> packetOpt = PacketRegistry.instance().decode(packetId, payloadBuffer);
+                out.add(packetOpt.isPresent() ? packetOpt.get() : ProtocolErrorPacket.unknownPacket(packetId));
+            } finally {
+                payloadBuffer.release();
+            }
+        }
+    }
+}
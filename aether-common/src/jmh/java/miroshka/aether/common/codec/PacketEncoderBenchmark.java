@@ -0,0 +1,83 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xerial.snappy.Snappy;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketEncoderBenchmark {
+
+    @Param({"NODE_SNAPSHOT", "NETWORK_STATE", "CHUNK_DATA"})
+    public String frameType;
+
+    private final PooledByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+
+    private Packet packet;
+    private ByteBuf out;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        packet = BenchmarkPackets.create(frameType);
+        out = alloc.directBuffer(256 * 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        out.release();
+    }
+
+    @Benchmark
+    public int singlePassEncode() throws Exception {
+        out.clear();
+        PacketEncoder.writeFrame(alloc, packet, out, FrameOptions.of(FrameCompression.SNAPPY),
+                ProtocolConstants.COMPRESSION_THRESHOLD);
+        return out.readableBytes();
+    }
+
+    @Benchmark
+    public int legacyCopyEncode() throws Exception {
+        out.clear();
+        ByteBuf payloadBuffer = alloc.buffer();
+        try {
+            packet.encode(payloadBuffer);
+            byte[] payload = new byte[payloadBuffer.readableBytes()];
+            payloadBuffer.readBytes(payload);
+
+            byte flags = 0;
+            if (payload.length > ProtocolConstants.COMPRESSION_THRESHOLD) {
+                flags |= ProtocolConstants.FLAG_COMPRESSION_ENABLED;
+            }
+            byte[] finalPayload = flags != 0 ? Snappy.compress(payload) : payload;
+
+            out.writeInt(ProtocolConstants.FRAME_FLAGS_SIZE + ProtocolConstants.FRAME_PACKET_ID_SIZE + finalPayload.length);
+            out.writeByte(flags);
+            out.writeInt(packet.packetId());
+            out.writeBytes(finalPayload);
+        } finally {
+            payloadBuffer.release();
+        }
+        return out.readableBytes();
+    }
+}
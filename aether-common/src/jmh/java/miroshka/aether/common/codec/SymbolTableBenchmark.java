@@ -0,0 +1,94 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import miroshka.aether.common.protocol.NetworkStatePacket;
+import miroshka.aether.common.protocol.ServerInfo;
+import miroshka.aether.common.protocol.SymbolContext;
+import miroshka.aether.common.protocol.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolTableBenchmark {
+
+    @Param({"false", "true"})
+    public boolean symbols;
+
+    private final List<Object> out = new ArrayList<>(1);
+
+    private EmbeddedChannel channel;
+    private PacketDecoder decoder;
+    private ChannelHandlerContext decoderContext;
+    private ByteBuf frame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NetworkStatePacket state = BenchmarkPackets.networkState(new Random(42), 48);
+        SymbolTable table = new SymbolTable();
+        for (ServerInfo server : state.servers()) {
+            table.intern(server.name());
+            table.internAll(server.extraData().keySet());
+        }
+        table.internAll(state.routingHints().keySet());
+
+        decoder = new PacketDecoder(new CompressionDictionaries(), table);
+        channel = new EmbeddedChannel(decoder);
+        channel.config().setAllocator(PooledByteBufAllocator.DEFAULT);
+        decoderContext = channel.pipeline().context(decoder);
+
+        PacketEncoder encoder = new PacketEncoder(CompressionPolicy.disabled());
+        if (symbols) {
+            encoder.useSymbols(new SymbolContext(table, table.size()));
+        }
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(encoder);
+        encoderChannel.writeOutbound(state);
+        ByteBuf encoded = encoderChannel.readOutbound();
+        frame = PooledByteBufAllocator.DEFAULT.directBuffer(encoded.readableBytes());
+        frame.writeBytes(encoded);
+        encoded.release();
+        encoderChannel.finishAndReleaseAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frame.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void decodeNetworkState(Blackhole blackhole) throws Exception {
+        ByteBuf in = frame.retainedDuplicate();
+        try {
+            decoder.decode(decoderContext, in, out);
+            blackhole.consume(out.get(0));
+        } finally {
+            in.release();
+            out.clear();
+        }
+    }
+}
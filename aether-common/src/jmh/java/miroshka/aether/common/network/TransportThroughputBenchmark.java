@@ -0,0 +1,132 @@
+package miroshka.aether.common.network;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import miroshka.aether.common.codec.PacketDecoder;
+import miroshka.aether.common.codec.PacketEncoder;
+import miroshka.aether.common.protocol.NodeSnapshotPacket;
+import miroshka.aether.common.protocol.Packet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportThroughputBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"NIO", "EPOLL", "IO_URING"})
+    public String transportName;
+
+    private final AtomicLong received = new AtomicLong();
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private EventLoopGroup clientGroup;
+    private Channel serverChannel;
+    private Channel clientChannel;
+    private Packet packet;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        NettyTransport transport = NettyTransport.fromName(transportName);
+        if (!transport.isAvailable()) {
+            throw new IllegalStateException(transport + " transport is not available on this host");
+        }
+        TransportSettings settings = new TransportSettings(transport, 1, 1, true, false, 32, 1,
+                LowPriorityPolicy.DEFER, 256, 8, 1, 64 * 1024, 256 * 1024);
+
+        bossGroup = transport.newEventLoopGroup(1, "bench-boss");
+        workerGroup = transport.newEventLoopGroup(1, "bench-worker");
+        clientGroup = transport.newEventLoopGroup(1, "bench-client");
+
+        ServerBootstrap serverBootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(transport.serverChannelClass())
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new PacketDecoder(), new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                received.incrementAndGet();
+                                ReferenceCountUtil.release(msg);
+                            }
+                        });
+                    }
+                });
+        transport.applyOptions(serverBootstrap, settings);
+        serverChannel = serverBootstrap.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .sync().channel();
+
+        Bootstrap clientBootstrap = new Bootstrap()
+                .group(clientGroup)
+                .channel(transport.channelClass())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .handler(new PacketEncoder());
+        transport.applyOptions(clientBootstrap, settings);
+        clientChannel = clientBootstrap.connect(serverChannel.localAddress()).sync().channel();
+
+        packet = new NodeSnapshotPacket(87, 200, 19.97, System.currentTimeMillis(),
+                Map.of("game_type", "bedwars", "motd", "Aether Network"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientChannel.close().syncUninterruptibly();
+        serverChannel.close().syncUninterruptibly();
+        clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long sendBatch() {
+        long target = received.get() + BATCH_SIZE;
+        clientChannel.eventLoop().execute(() -> {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                clientChannel.write(packet);
+            }
+            clientChannel.flush();
+        });
+        while (received.get() < target) {
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,130 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketHelperBenchmark {
+
+    @Param({"ASCII", "UTF8"})
+    public String text;
+
+    private String value;
+    private Map<String, String> properties;
+    private ByteBuf buffer;
+    private ByteBuf encodedString;
+    private ByteBuf encodedProperties;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        value = "ASCII".equals(text) ? "Aether Network | Bedwars Lobby #12" : "Сеть Aether | Лобби бедварс #12";
+        properties = new LinkedHashMap<>();
+        properties.put("game_type", "bedwars");
+        properties.put("bedrock-port", "19132");
+        properties.put("motd", value);
+        properties.put("map", "castle");
+        properties.put("mode", "solo");
+        properties.put("region", "eu-west");
+
+        buffer = PooledByteBufAllocator.DEFAULT.directBuffer(4096);
+        encodedString = PooledByteBufAllocator.DEFAULT.directBuffer(256);
+        PacketHelper.writeString(encodedString, value);
+        encodedProperties = PooledByteBufAllocator.DEFAULT.directBuffer(1024);
+        PacketHelper.writePropertyMap(encodedProperties, properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.release();
+        encodedString.release();
+        encodedProperties.release();
+    }
+
+    @Benchmark
+    public int writeString() {
+        buffer.clear();
+        PacketHelper.writeString(buffer, value);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public int legacyWriteString() {
+        buffer.clear();
+        legacyWriteString(buffer, value);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public String readString() {
+        encodedString.readerIndex(0);
+        return PacketHelper.readString(encodedString);
+    }
+
+    @Benchmark
+    public String legacyReadString() {
+        encodedString.readerIndex(0);
+        return legacyReadString(encodedString);
+    }
+
+    @Benchmark
+    public int writePropertyMap() {
+        buffer.clear();
+        PacketHelper.writePropertyMap(buffer, properties);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public Map<String, String> readPropertyMap() {
+        encodedProperties.readerIndex(0);
+        return PacketHelper.readPropertyMap(encodedProperties);
+    }
+
+    @Benchmark
+    public Map<String, String> legacyReadPropertyMap() {
+        encodedProperties.readerIndex(0);
+        int size = PacketHelper.readVarInt(encodedProperties);
+        Map<String, String> result = HashMap.newHashMap(size);
+        for (int i = 0; i < size; i++) {
+            result.put(legacyReadString(encodedProperties), legacyReadString(encodedProperties));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static void legacyWriteString(ByteBuf buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        PacketHelper.writeVarInt(buffer, bytes.length);
+        buffer.writeBytes(bytes);
+    }
+
+    private static String legacyReadString(ByteBuf buffer) {
+        int length = PacketHelper.readVarInt(buffer);
+        byte[] bytes = new byte[length];
+        buffer.readBytes(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
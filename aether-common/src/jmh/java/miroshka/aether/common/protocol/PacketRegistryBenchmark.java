@@ -0,0 +1,72 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketRegistryBenchmark {
+
+    @Param({"HEARTBEAT", "UNKNOWN"})
+    public String packet;
+
+    private final PacketRegistry registry = PacketRegistry.instance();
+    private final Map<Integer, Function<ByteBuf, ? extends Packet>> legacyDecoders = new HashMap<>();
+
+    private int packetId;
+    private ByteBuf payload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        legacyDecoders.put(PacketIds.HEARTBEAT, HeartbeatPacket::decode);
+        legacyDecoders.put(PacketIds.NETWORK_STATE, NetworkStatePacket::decode);
+        legacyDecoders.put(PacketIds.CHUNK_DATA, ChunkDataPacket::decode);
+        packetId = "HEARTBEAT".equals(packet) ? PacketIds.HEARTBEAT : 0x7F;
+        payload = PooledByteBufAllocator.DEFAULT.directBuffer(64);
+        new HeartbeatPacket(System.currentTimeMillis(), 1).encode(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        payload.release();
+    }
+
+    @Benchmark
+    public Packet arrayDispatch() {
+        payload.readerIndex(0);
+        return registry.read(packetId, payload);
+    }
+
+    @Benchmark
+    public Optional<Packet> legacyMapDispatch() {
+        payload.readerIndex(0);
+        Function<ByteBuf, ? extends Packet> decoder = legacyDecoders.get(packetId);
+        if (decoder == null) {
+            return Optional.empty();
+        }
+        return Optional.of(decoder.apply(payload));
+    }
+}
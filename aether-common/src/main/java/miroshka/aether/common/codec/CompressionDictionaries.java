@@ -0,0 +1,52 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class CompressionDictionaries {
+
+    private static final int RETAINED_DICTIONARIES = 4;
+
+    private final Map<Integer, ZstdDictionary> dictionaries = new ConcurrentHashMap<>();
+
+    private volatile ZstdDictionary latest;
+
+    public void register(ZstdDictionary dictionary) {
+        Objects.requireNonNull(dictionary, "dictionary");
+        dictionaries.put(dictionary.id(), dictionary);
+        latest = dictionary;
+        dictionaries.keySet().removeIf(id -> id <= dictionary.id() - RETAINED_DICTIONARIES);
+    }
+
+    public ZstdDictionary latest() {
+        return latest;
+    }
+
+    public ZstdDictionary get(int id) {
+        return dictionaries.get(id);
+    }
+
+    public int nextId() {
+        ZstdDictionary current = latest;
+        return current != null ? current.id() + 1 : 1;
+    }
+
+    ByteBuf decompress(ByteBufAllocator alloc, ByteBuf in, int payloadLength) throws IOException {
+        if (payloadLength < ZstdDictionary.HEADER_SIZE) {
+            in.skipBytes(payloadLength);
+            throw new IOException("Dictionary payload too short: " + payloadLength);
+        }
+        int id = ZstdDictionary.dictionaryId(in);
+        ZstdDictionary dictionary = dictionaries.get(id);
+        if (dictionary == null) {
+            in.skipBytes(payloadLength);
+            throw new IOException("Unknown compression dictionary: " + id);
+        }
+        return dictionary.decompress(alloc, in, payloadLength);
+    }
+}
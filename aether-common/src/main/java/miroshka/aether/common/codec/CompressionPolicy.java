@@ -0,0 +1,66 @@
+package miroshka.aether.common.codec;
+
+import miroshka.aether.common.protocol.PacketIds;
+import miroshka.aether.common.protocol.ProtocolConstants;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public record CompressionPolicy(List<FrameCompression> preferred, int defaultThreshold,
+        Map<Integer, Integer> packetThresholds, boolean dictionary) {
+
+    private static final Map<Integer, Integer> DEFAULT_PACKET_THRESHOLDS = Map.of(
+            PacketIds.NETWORK_STATE, 512,
+            PacketIds.NETWORK_STATE_DELTA, 512,
+            PacketIds.PDC_SYNC, 256,
+            PacketIds.CHUNK_DATA, 256,
+            PacketIds.STREAM_DATA, 256);
+
+    public CompressionPolicy {
+        Objects.requireNonNull(preferred, "preferred");
+        Objects.requireNonNull(packetThresholds, "packetThresholds");
+        if (defaultThreshold < 0) {
+            throw new IllegalArgumentException("defaultThreshold must not be negative");
+        }
+        preferred = preferred.stream().filter(c -> c != FrameCompression.NONE).distinct().toList();
+        packetThresholds = Map.copyOf(packetThresholds);
+    }
+
+    public static CompressionPolicy defaults() {
+        return new CompressionPolicy(
+                List.of(FrameCompression.ZSTD, FrameCompression.LZ4, FrameCompression.SNAPPY),
+                ProtocolConstants.COMPRESSION_THRESHOLD,
+                DEFAULT_PACKET_THRESHOLDS,
+                true);
+    }
+
+    public static CompressionPolicy disabled() {
+        return new CompressionPolicy(List.of(), ProtocolConstants.COMPRESSION_THRESHOLD, Map.of(), false);
+    }
+
+    public int thresholdFor(int packetId) {
+        return packetThresholds.getOrDefault(packetId, defaultThreshold);
+    }
+
+    public FrameCompression initialCompression() {
+        return preferred.contains(FrameCompression.SNAPPY) ? FrameCompression.SNAPPY : FrameCompression.NONE;
+    }
+
+    public FrameCompression negotiate(List<FrameCompression> offered) {
+        Objects.requireNonNull(offered, "offered");
+        if (offered.isEmpty()) {
+            return initialCompression();
+        }
+        for (FrameCompression compression : preferred) {
+            if (offered.contains(compression)) {
+                return compression;
+            }
+        }
+        return FrameCompression.NONE;
+    }
+
+    public String offer() {
+        return preferred.isEmpty() ? FrameCompression.NONE.id() : FrameCompression.formatList(preferred);
+    }
+}
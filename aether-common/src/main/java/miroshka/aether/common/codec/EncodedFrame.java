@@ -0,0 +1,95 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.DefaultByteBufHolder;
+import io.netty.handler.codec.EncoderException;
+import miroshka.aether.common.protocol.Packet;
+
+import java.util.Objects;
+
+public final class EncodedFrame extends DefaultByteBufHolder {
+
+    private final int packetId;
+    private final Packet.Priority priority;
+
+    private EncodedFrame(ByteBuf content, int packetId, Packet.Priority priority) {
+        super(content);
+        this.packetId = packetId;
+        this.priority = Objects.requireNonNull(priority, "priority");
+    }
+
+    public static EncodedFrame encode(ByteBufAllocator alloc, Packet packet) {
+        CompressionPolicy policy = CompressionPolicy.defaults();
+        return encode(alloc, packet, FrameOptions.of(policy.initialCompression()), policy);
+    }
+
+    public static EncodedFrame encode(ByteBufAllocator alloc, Packet packet, FrameOptions options,
+            CompressionPolicy policy) {
+        Objects.requireNonNull(alloc, "alloc");
+        Objects.requireNonNull(packet, "packet");
+        Objects.requireNonNull(options, "options");
+        Objects.requireNonNull(policy, "policy");
+
+        ByteBuf content = alloc.directBuffer();
+        try {
+            PacketEncoder.writeFrame(alloc, packet, content, options, policy.thresholdFor(packet.packetId()));
+        } catch (Exception e) {
+            content.release();
+            throw new EncoderException("Failed to encode packet 0x" + Integer.toHexString(packet.packetId()), e);
+        }
+        return new EncodedFrame(content, packet.packetId(), packet.priority());
+    }
+
+    public int packetId() {
+        return packetId;
+    }
+
+    public Packet.Priority priority() {
+        return priority;
+    }
+
+    @Override
+    public EncodedFrame replace(ByteBuf content) {
+        return new EncodedFrame(content, packetId, priority);
+    }
+
+    @Override
+    public EncodedFrame copy() {
+        return (EncodedFrame) super.copy();
+    }
+
+    @Override
+    public EncodedFrame duplicate() {
+        return (EncodedFrame) super.duplicate();
+    }
+
+    @Override
+    public EncodedFrame retainedDuplicate() {
+        return (EncodedFrame) super.retainedDuplicate();
+    }
+
+    @Override
+    public EncodedFrame retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public EncodedFrame retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public EncodedFrame touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public EncodedFrame touch(Object hint) {
+        super.touch(hint);
+        return this;
+    }
+}
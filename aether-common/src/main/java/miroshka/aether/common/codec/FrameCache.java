@@ -0,0 +1,35 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBufAllocator;
+import miroshka.aether.common.protocol.Packet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public final class FrameCache implements AutoCloseable {
+
+    private final ByteBufAllocator alloc;
+    private final Packet packet;
+    private final CompressionPolicy policy;
+    private final Map<FrameOptions, EncodedFrame> frames;
+
+    public FrameCache(ByteBufAllocator alloc, Packet packet, CompressionPolicy policy) {
+        this.alloc = Objects.requireNonNull(alloc, "alloc");
+        this.packet = Objects.requireNonNull(packet, "packet");
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.frames = new HashMap<>();
+    }
+
+    public EncodedFrame retainedFrame(FrameOptions options) {
+        Objects.requireNonNull(options, "options");
+        return frames.computeIfAbsent(options, key -> EncodedFrame.encode(alloc, packet, key, policy))
+                .retainedDuplicate();
+    }
+
+    @Override
+    public void close() {
+        frames.values().forEach(EncodedFrame::release);
+        frames.clear();
+    }
+}
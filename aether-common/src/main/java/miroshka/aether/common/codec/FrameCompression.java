@@ -0,0 +1,237 @@
+package miroshka.aether.common.codec;
+
+import com.github.luben.zstd.Zstd;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+public enum FrameCompression {
+    NONE(0),
+    SNAPPY(0),
+    LZ4(1),
+    ZSTD(2);
+
+    static final int ZSTD_LEVEL = 3;
+    static final int DICTIONARY_CODEC_ID = 3;
+
+    private static final int LENGTH_PREFIX_SIZE = 4;
+
+    private final int codecId;
+
+    FrameCompression(int codecId) {
+        this.codecId = codecId;
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<FrameCompression> fromName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String normalized = name.trim().toUpperCase(Locale.ROOT);
+        for (FrameCompression compression : values()) {
+            if (compression.name().equals(normalized)) {
+                return Optional.of(compression);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static List<FrameCompression> parseList(String value) {
+        List<FrameCompression> result = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return result;
+        }
+        for (String name : value.split(",")) {
+            fromName(name).filter(c -> !result.contains(c)).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    public static String formatList(List<FrameCompression> compressions) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (FrameCompression compression : compressions) {
+            joiner.add(compression.id());
+        }
+        return joiner.toString();
+    }
+
+    public byte frameFlags() {
+        if (this == NONE) {
+            return 0;
+        }
+        return (byte) (ProtocolConstants.FLAG_COMPRESSION_ENABLED | (codecId << ProtocolConstants.FLAG_CODEC_SHIFT));
+    }
+
+    public static boolean isDictionaryFrame(byte flags) {
+        int codecId = (flags & ProtocolConstants.FLAG_CODEC_MASK) >>> ProtocolConstants.FLAG_CODEC_SHIFT;
+        return (flags & ProtocolConstants.FLAG_COMPRESSION_ENABLED) != 0 && codecId == DICTIONARY_CODEC_ID;
+    }
+
+    public static FrameCompression fromFrameFlags(byte flags) throws IOException {
+        if ((flags & ProtocolConstants.FLAG_COMPRESSION_ENABLED) == 0) {
+            return NONE;
+        }
+        int codecId = (flags & ProtocolConstants.FLAG_CODEC_MASK) >>> ProtocolConstants.FLAG_CODEC_SHIFT;
+        return switch (codecId) {
+            case 0 -> SNAPPY;
+            case 1 -> LZ4;
+            case 2 -> ZSTD;
+            default -> throw new IOException("Unknown frame codec: " + codecId);
+        };
+    }
+
+    boolean compressInPlace(ByteBufAllocator alloc, ByteBuf out, int payloadStart, int payloadLength)
+            throws IOException {
+        if (this == NONE) {
+            return false;
+        }
+
+        ByteBuf staging = null;
+        ByteBuffer source;
+        if (out.isDirect() && out.nioBufferCount() == 1) {
+            source = out.nioBuffer(payloadStart, payloadLength);
+        } else {
+            staging = alloc.directBuffer(payloadLength);
+            staging.writeBytes(out, payloadStart, payloadLength);
+            source = staging.nioBuffer(0, payloadLength);
+        }
+
+        int prefix = this == SNAPPY ? 0 : LENGTH_PREFIX_SIZE;
+        int maxLength = prefix + maxCompressedLength(payloadLength);
+        ByteBuf compressed = alloc.directBuffer(maxLength);
+        try {
+            int compressedLength = prefix + compress(source, compressed.nioBuffer(0, maxLength), prefix);
+            if (compressedLength >= payloadLength) {
+                return false;
+            }
+            if (prefix > 0) {
+                compressed.setInt(0, payloadLength);
+            }
+            compressed.writerIndex(compressedLength);
+            out.writerIndex(payloadStart);
+            out.writeBytes(compressed);
+            return true;
+        } finally {
+            compressed.release();
+            if (staging != null) {
+                staging.release();
+            }
+        }
+    }
+
+    ByteBuf decompress(ByteBufAllocator alloc, ByteBuf in, int payloadLength) throws IOException {
+        if (this == NONE) {
+            return in.readRetainedSlice(payloadLength);
+        }
+
+        ByteBuf staging = null;
+        ByteBuffer source;
+        if (in.isDirect() && in.nioBufferCount() == 1) {
+            source = in.nioBuffer(in.readerIndex(), payloadLength);
+        } else {
+            staging = alloc.directBuffer(payloadLength);
+            staging.writeBytes(in, in.readerIndex(), payloadLength);
+            source = staging.nioBuffer(0, payloadLength);
+        }
+        in.skipBytes(payloadLength);
+
+        ByteBuf payload = null;
+        try {
+            int uncompressedLength;
+            if (this == SNAPPY) {
+                uncompressedLength = Snappy.uncompressedLength(source);
+            } else {
+                if (payloadLength < LENGTH_PREFIX_SIZE) {
+                    throw new IOException("Compressed payload too short: " + payloadLength);
+                }
+                uncompressedLength = source.getInt(0);
+                source = source.slice(LENGTH_PREFIX_SIZE, payloadLength - LENGTH_PREFIX_SIZE);
+            }
+            if (uncompressedLength < 0 || uncompressedLength > ProtocolConstants.MAX_FRAME_SIZE) {
+                throw new IOException("Invalid uncompressed length: " + uncompressedLength);
+            }
+
+            payload = alloc.directBuffer(uncompressedLength);
+            int written = decompress(source, payload.nioBuffer(0, uncompressedLength), uncompressedLength);
+            if (written != uncompressedLength) {
+                throw new IOException("Decompressed " + written + " bytes, expected " + uncompressedLength);
+            }
+            payload.writerIndex(written);
+            return payload;
+        } catch (IOException | RuntimeException e) {
+            if (payload != null) {
+                payload.release();
+            }
+            throw e;
+        } finally {
+            if (staging != null) {
+                staging.release();
+            }
+        }
+    }
+
+    private int maxCompressedLength(int length) {
+        return switch (this) {
+            case NONE -> length;
+            case SNAPPY -> Snappy.maxCompressedLength(length);
+            case LZ4 -> Codecs.LZ4_COMPRESSOR.maxCompressedLength(length);
+            case ZSTD -> (int) Zstd.compressBound(length);
+        };
+    }
+
+    private int compress(ByteBuffer source, ByteBuffer target, int targetOffset) throws IOException {
+        int targetLength = target.capacity() - targetOffset;
+        return switch (this) {
+            case NONE -> throw new IllegalStateException("NONE does not compress");
+            case SNAPPY -> Snappy.compress(source, target);
+            case LZ4 -> Codecs.LZ4_COMPRESSOR.compress(source, 0, source.remaining(), target, targetOffset,
+                    targetLength);
+            case ZSTD -> Codecs.ZSTD_CONTEXTS.compress(target, targetOffset, targetLength, source, 0,
+                    source.remaining());
+        };
+    }
+
+    private int decompress(ByteBuffer source, ByteBuffer target, int uncompressedLength) throws IOException {
+        return switch (this) {
+            case NONE -> throw new IllegalStateException("NONE does not decompress");
+            case SNAPPY -> Snappy.uncompress(source, target);
+            case LZ4 -> {
+                try {
+                    yield Codecs.LZ4_DECOMPRESSOR.decompress(source, 0, source.remaining(), target, 0,
+                            uncompressedLength);
+                } catch (LZ4Exception e) {
+                    throw new IOException("Malformed LZ4 payload", e);
+                }
+            }
+            case ZSTD -> Codecs.ZSTD_CONTEXTS.decompress(target, 0, uncompressedLength, source, 0,
+                    source.remaining());
+        };
+    }
+
+    private static final class Codecs {
+
+        private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+        private static final LZ4SafeDecompressor LZ4_DECOMPRESSOR =
+                LZ4Factory.fastestInstance().safeDecompressor();
+        private static final ZstdContextPool ZSTD_CONTEXTS = new ZstdContextPool(ZSTD_LEVEL);
+
+        private Codecs() {
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package miroshka.aether.common.codec;
+
+import miroshka.aether.common.protocol.SymbolContext;
+
+import java.util.Objects;
+
+public record FrameOptions(FrameCompression compression, ZstdDictionary dictionary, SymbolContext symbols) {
+
+    public FrameOptions {
+        Objects.requireNonNull(compression, "compression");
+    }
+
+    public static FrameOptions of(FrameCompression compression) {
+        return new FrameOptions(compression, null, null);
+    }
+
+    public FrameOptions withCompression(FrameCompression compression) {
+        return new FrameOptions(compression, dictionary, symbols);
+    }
+
+    public FrameOptions withDictionary(ZstdDictionary dictionary) {
+        return new FrameOptions(compression, dictionary, symbols);
+    }
+
+    public FrameOptions withSymbols(SymbolContext symbols) {
+        return new FrameOptions(compression, dictionary, symbols);
+    }
+}
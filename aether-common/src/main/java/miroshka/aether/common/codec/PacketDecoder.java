@@ -1,25 +1,52 @@
 package miroshka.aether.common.codec;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import miroshka.aether.common.protocol.Packet;
 import miroshka.aether.common.protocol.PacketRegistry;
 import miroshka.aether.common.protocol.ProtocolConstants;
 import miroshka.aether.common.protocol.ProtocolErrorPacket;
+import miroshka.aether.common.protocol.SymbolContext;
+import miroshka.aether.common.protocol.SymbolTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xerial.snappy.Snappy;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 public final class PacketDecoder extends ByteToMessageDecoder {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PacketDecoder.class);
 
+    private final CompressionDictionaries dictionaries;
+    private final SymbolTable symbols;
+    private final SymbolContext symbolContext;
+
+    public PacketDecoder() {
+        this(new CompressionDictionaries());
+    }
+
+    public PacketDecoder(CompressionDictionaries dictionaries) {
+        this(dictionaries, new SymbolTable());
+    }
+
+    public PacketDecoder(CompressionDictionaries dictionaries, SymbolTable symbols) {
+        this.dictionaries = Objects.requireNonNull(dictionaries, "dictionaries");
+        this.symbols = Objects.requireNonNull(symbols, "symbols");
+        this.symbolContext = SymbolContext.decoding(symbols);
+    }
+
+    public CompressionDictionaries dictionaries() {
+        return dictionaries;
+    }
+
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
         Objects.requireNonNull(ctx, "ctx");
@@ -33,7 +60,8 @@ public final class PacketDecoder extends ByteToMessageDecoder {
         in.markReaderIndex();
         int totalLength = in.readInt();
 
-        if (totalLength < 0 || totalLength > ProtocolConstants.MAX_FRAME_SIZE) {
+        if (totalLength < ProtocolConstants.FRAME_FLAGS_SIZE + ProtocolConstants.FRAME_PACKET_ID_SIZE
+                || totalLength > ProtocolConstants.MAX_FRAME_SIZE) {
             LOGGER.error("Invalid frame length: {}", totalLength);
             ctx.close();
             return;
@@ -48,16 +76,21 @@ public final class PacketDecoder extends ByteToMessageDecoder {
         int packetId = in.readInt();
         int payloadLength = totalLength - ProtocolConstants.FRAME_FLAGS_SIZE - ProtocolConstants.FRAME_PACKET_ID_SIZE;
 
-        byte[] rawPayload = new byte[payloadLength];
-        in.readBytes(rawPayload);
-
-        byte[] payload = isCompressed(flags) ? Snappy.uncompress(rawPayload) : rawPayload;
-        ByteBuf payloadBuffer = Unpooled.wrappedBuffer(payload);
+        ByteBuf payloadBuffer;
+        try {
+            payloadBuffer = readPayload(ctx.alloc(), in, flags, payloadLength, dictionaries);
+        } catch (IOException e) {
+            LOGGER.error("Failed to decompress packet 0x{}: {}", Integer.toHexString(packetId), e.getMessage());
+            out.add(ProtocolErrorPacket.malformedPacket(packetId, e.getMessage()));
+            return;
+        }
 
+        SymbolContext previous = SymbolContext.enter(
+                (flags & ProtocolConstants.FLAG_SYMBOLS) != 0 ? symbolContext : null);
         try {
-            Optional<Packet> packetOpt = PacketRegistry.instance().decode(packetId, payloadBuffer);
-            if (packetOpt.isPresent()) {
-                out.add(packetOpt.get());
+            Packet packet = PacketRegistry.instance().read(packetId, payloadBuffer);
+            if (packet != null) {
+                out.add(packet);
             } else {
                 LOGGER.warn("Unknown packet ID: 0x{}", Integer.toHexString(packetId));
                 out.add(ProtocolErrorPacket.unknownPacket(packetId));
@@ -66,11 +99,16 @@ public final class PacketDecoder extends ByteToMessageDecoder {
             LOGGER.error("Failed to decode packet 0x{}: {}", Integer.toHexString(packetId), e.getMessage());
             out.add(ProtocolErrorPacket.malformedPacket(packetId, e.getMessage()));
         } finally {
+            SymbolContext.restore(previous);
             payloadBuffer.release();
         }
     }
 
-    private boolean isCompressed(byte flags) {
-        return (flags & ProtocolConstants.FLAG_COMPRESSION_ENABLED) != 0;
+    static ByteBuf readPayload(ByteBufAllocator alloc, ByteBuf in, byte flags, int payloadLength,
+            CompressionDictionaries dictionaries) throws IOException {
+        if (FrameCompression.isDictionaryFrame(flags)) {
+            return dictionaries.decompress(alloc, in, payloadLength);
+        }
+        return FrameCompression.fromFrameFlags(flags).decompress(alloc, in, payloadLength);
     }
 }
@@ -1,56 +1,123 @@
 package miroshka.aether.common.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 import miroshka.aether.common.protocol.Packet;
 import miroshka.aether.common.protocol.ProtocolConstants;
-import org.xerial.snappy.Snappy;
+import miroshka.aether.common.protocol.SymbolContext;
 
+import java.io.IOException;
 import java.util.Objects;
 
 public final class PacketEncoder extends MessageToByteEncoder<Packet> {
 
+    private final CompressionPolicy policy;
+    private volatile FrameOptions options;
+
+    public PacketEncoder() {
+        this(CompressionPolicy.defaults());
+    }
+
+    public PacketEncoder(CompressionPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.options = FrameOptions.of(policy.initialCompression());
+    }
+
+    public CompressionPolicy policy() {
+        return policy;
+    }
+
+    public FrameOptions options() {
+        return options;
+    }
+
+    public FrameCompression compression() {
+        return options.compression();
+    }
+
+    public void useCompression(FrameCompression compression) {
+        this.options = options.withCompression(compression);
+    }
+
+    public ZstdDictionary dictionary() {
+        return options.dictionary();
+    }
+
+    public void useDictionary(ZstdDictionary dictionary) {
+        this.options = options.withDictionary(dictionary);
+    }
+
+    public SymbolContext symbols() {
+        return options.symbols();
+    }
+
+    public void useSymbols(SymbolContext symbols) {
+        this.options = options.withSymbols(symbols);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof EncodedFrame frame) {
+            ctx.write(frame.content(), promise);
+            return;
+        }
+        super.write(ctx, msg, promise);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, Packet packet, ByteBuf out) throws Exception {
         Objects.requireNonNull(ctx, "ctx");
         Objects.requireNonNull(packet, "packet");
         Objects.requireNonNull(out, "out");
 
-        ByteBuf payloadBuffer = ctx.alloc().buffer();
-        try {
-            packet.encode(payloadBuffer);
-            byte[] payload = new byte[payloadBuffer.readableBytes()];
-            payloadBuffer.readBytes(payload);
-
-            byte flags = buildFlags(packet, payload.length);
-            byte[] finalPayload = shouldCompress(flags) ? Snappy.compress(payload) : payload;
+        writeFrame(ctx.alloc(), packet, out, options, policy.thresholdFor(packet.packetId()));
+    }
 
-            int totalLength = ProtocolConstants.FRAME_FLAGS_SIZE
-                    + ProtocolConstants.FRAME_PACKET_ID_SIZE
-                    + finalPayload.length;
+    static void writeFrame(ByteBufAllocator alloc, Packet packet, ByteBuf out, FrameOptions options, int threshold)
+            throws IOException {
+        FrameCompression compression = options.compression();
+        ZstdDictionary dictionary = options.dictionary();
+        SymbolContext symbols = options.symbols();
+        int frameStart = out.writerIndex();
+        int payloadStart = frameStart + ProtocolConstants.FRAME_HEADER_SIZE;
 
-            out.writeInt(totalLength);
-            out.writeByte(flags);
-            out.writeInt(packet.packetId());
-            out.writeBytes(finalPayload);
+        out.writeZero(ProtocolConstants.FRAME_HEADER_SIZE);
+        SymbolContext previous = SymbolContext.enter(symbols);
+        try {
+            packet.encode(out);
         } finally {
-            payloadBuffer.release();
+            SymbolContext.restore(previous);
+        }
+
+        int payloadLength = out.writerIndex() - payloadStart;
+        byte flags = buildFlags(packet);
+        if (symbols != null) {
+            flags |= ProtocolConstants.FLAG_SYMBOLS;
+        }
+        if (payloadLength > threshold) {
+            if (compression.compressInPlace(alloc, out, payloadStart, payloadLength)) {
+                flags |= compression.frameFlags();
+            }
+        } else if (dictionary != null && payloadLength >= ProtocolConstants.DICTIONARY_MIN_PAYLOAD
+                && dictionary.compressInPlace(alloc, out, payloadStart, payloadLength)) {
+            flags |= ZstdDictionary.frameFlags();
         }
+
+        int totalLength = out.writerIndex() - frameStart - ProtocolConstants.FRAME_LENGTH_FIELD_SIZE;
+        out.setInt(frameStart, totalLength);
+        out.setByte(frameStart + ProtocolConstants.FRAME_LENGTH_FIELD_SIZE, flags);
+        out.setInt(frameStart + ProtocolConstants.FRAME_LENGTH_FIELD_SIZE + ProtocolConstants.FRAME_FLAGS_SIZE,
+                packet.packetId());
     }
 
-    private byte buildFlags(Packet packet, int payloadLength) {
+    private static byte buildFlags(Packet packet) {
         byte flags = 0;
-        if (payloadLength > ProtocolConstants.COMPRESSION_THRESHOLD) {
-            flags |= ProtocolConstants.FLAG_COMPRESSION_ENABLED;
-        }
         if (packet.priority() == Packet.Priority.CRITICAL) {
             flags |= ProtocolConstants.FLAG_PRIORITY_CRITICAL;
         }
         return flags;
     }
-
-    private boolean shouldCompress(byte flags) {
-        return (flags & ProtocolConstants.FLAG_COMPRESSION_ENABLED) != 0;
-    }
 }
@@ -0,0 +1,75 @@
+package miroshka.aether.common.codec;
+
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+final class ZstdContextPool {
+
+    private final int level;
+    private final ZstdDictCompress compressDictionary;
+    private final ZstdDictDecompress decompressDictionary;
+    private final Queue<ZstdCompressCtx> compressors = new ConcurrentLinkedQueue<>();
+    private final Queue<ZstdDecompressCtx> decompressors = new ConcurrentLinkedQueue<>();
+
+    ZstdContextPool(int level) {
+        this(level, null, null);
+    }
+
+    ZstdContextPool(int level, ZstdDictCompress compressDictionary, ZstdDictDecompress decompressDictionary) {
+        this.level = level;
+        this.compressDictionary = compressDictionary;
+        this.decompressDictionary = decompressDictionary;
+    }
+
+    int compress(ByteBuffer target, int targetOffset, int targetLength, ByteBuffer source, int sourceOffset,
+            int sourceLength) throws IOException {
+        ZstdCompressCtx ctx = compressors.poll();
+        if (ctx == null) {
+            ctx = newCompressor();
+        }
+        try {
+            int written = ctx.compressDirectByteBuffer(target, targetOffset, targetLength, source, sourceOffset,
+                    sourceLength);
+            compressors.offer(ctx);
+            return written;
+        } catch (ZstdException e) {
+            ctx.close();
+            throw new IOException("Zstd error: " + e.getMessage(), e);
+        }
+    }
+
+    int decompress(ByteBuffer target, int targetOffset, int targetLength, ByteBuffer source, int sourceOffset,
+            int sourceLength) throws IOException {
+        ZstdDecompressCtx ctx = decompressors.poll();
+        if (ctx == null) {
+            ctx = newDecompressor();
+        }
+        try {
+            int written = ctx.decompressDirectByteBuffer(target, targetOffset, targetLength, source, sourceOffset,
+                    sourceLength);
+            decompressors.offer(ctx);
+            return written;
+        } catch (ZstdException e) {
+            ctx.close();
+            throw new IOException("Zstd error: " + e.getMessage(), e);
+        }
+    }
+
+    private ZstdCompressCtx newCompressor() {
+        ZstdCompressCtx ctx = new ZstdCompressCtx().setLevel(level);
+        return compressDictionary != null ? ctx.loadDict(compressDictionary) : ctx;
+    }
+
+    private ZstdDecompressCtx newDecompressor() {
+        ZstdDecompressCtx ctx = new ZstdDecompressCtx();
+        return decompressDictionary != null ? ctx.loadDict(decompressDictionary) : ctx;
+    }
+}
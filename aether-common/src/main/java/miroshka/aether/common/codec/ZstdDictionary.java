@@ -0,0 +1,127 @@
+package miroshka.aether.common.codec;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import miroshka.aether.common.protocol.ProtocolConstants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public final class ZstdDictionary {
+
+    static final int HEADER_SIZE = 8;
+
+    private final int id;
+    private final byte[] content;
+    private final ZstdDictCompress compressor;
+    private final ZstdContextPool contexts;
+
+    private ZstdDictionary(int id, byte[] content) {
+        this.id = id;
+        this.content = content;
+        this.compressor = new ZstdDictCompress(content, FrameCompression.ZSTD_LEVEL);
+        this.contexts = new ZstdContextPool(FrameCompression.ZSTD_LEVEL, compressor,
+                new ZstdDictDecompress(content));
+    }
+
+    public static ZstdDictionary of(int id, byte[] content) {
+        Objects.requireNonNull(content, "content");
+        if (content.length == 0 || content.length > ProtocolConstants.MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Invalid dictionary size: " + content.length);
+        }
+        return new ZstdDictionary(id, content.clone());
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public int size() {
+        return content.length;
+    }
+
+    public byte[] content() {
+        return content.clone();
+    }
+
+    public static byte frameFlags() {
+        return (byte) (ProtocolConstants.FLAG_COMPRESSION_ENABLED
+                | (FrameCompression.DICTIONARY_CODEC_ID << ProtocolConstants.FLAG_CODEC_SHIFT));
+    }
+
+    public int compressedSize(byte[] sample) {
+        return Zstd.compress(sample, compressor).length;
+    }
+
+    boolean compressInPlace(ByteBufAllocator alloc, ByteBuf out, int payloadStart, int payloadLength)
+            throws IOException {
+        ByteBuf staging = null;
+        ByteBuffer source;
+        if (out.isDirect() && out.nioBufferCount() == 1) {
+            source = out.nioBuffer(payloadStart, payloadLength);
+        } else {
+            staging = alloc.directBuffer(payloadLength);
+            staging.writeBytes(out, payloadStart, payloadLength);
+            source = staging.nioBuffer(0, payloadLength);
+        }
+
+        int maxLength = HEADER_SIZE + (int) Zstd.compressBound(payloadLength);
+        ByteBuf compressed = alloc.directBuffer(maxLength);
+        try {
+            int compressedLength = HEADER_SIZE + contexts.compress(compressed.nioBuffer(0, maxLength), HEADER_SIZE,
+                    maxLength - HEADER_SIZE, source, 0, payloadLength);
+            if (compressedLength >= payloadLength) {
+                return false;
+            }
+            compressed.setInt(0, payloadLength);
+            compressed.setInt(4, id);
+            compressed.writerIndex(compressedLength);
+            out.writerIndex(payloadStart);
+            out.writeBytes(compressed);
+            return true;
+        } finally {
+            compressed.release();
+            if (staging != null) {
+                staging.release();
+            }
+        }
+    }
+
+    static int dictionaryId(ByteBuf in) {
+        return in.getInt(in.readerIndex() + 4);
+    }
+
+    ByteBuf decompress(ByteBufAllocator alloc, ByteBuf in, int payloadLength) throws IOException {
+        int uncompressedLength = in.getInt(in.readerIndex());
+        int bodyLength = payloadLength - HEADER_SIZE;
+        ByteBuf source = alloc.directBuffer(bodyLength);
+        source.writeBytes(in, in.readerIndex() + HEADER_SIZE, bodyLength);
+        in.skipBytes(payloadLength);
+
+        ByteBuf payload = null;
+        try {
+            if (uncompressedLength < 0 || uncompressedLength > ProtocolConstants.MAX_FRAME_SIZE) {
+                throw new IOException("Invalid uncompressed length: " + uncompressedLength);
+            }
+            payload = alloc.directBuffer(uncompressedLength);
+            int result = contexts.decompress(payload.nioBuffer(0, uncompressedLength), 0, uncompressedLength,
+                    source.nioBuffer(0, bodyLength), 0, bodyLength);
+            if (result != uncompressedLength) {
+                throw new IOException("Decompressed " + result + " bytes, expected " + uncompressedLength);
+            }
+            payload.writerIndex(uncompressedLength);
+            return payload;
+        } catch (IOException | RuntimeException e) {
+            if (payload != null) {
+                payload.release();
+            }
+            throw e;
+        } finally {
+            source.release();
+        }
+    }
+}
@@ -23,4 +23,8 @@ public final class ConnectionException extends AetherException {
     public static ConnectionException channelClosed() {
         return new ConnectionException("Channel is closed");
     }
+
+    public static ConnectionException writeShed() {
+        return new ConnectionException("Low priority write shed: channel is not writable");
+    }
 }
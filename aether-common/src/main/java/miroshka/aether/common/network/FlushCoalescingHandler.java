@@ -0,0 +1,133 @@
+package miroshka.aether.common.network;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.ScheduledFuture;
+import miroshka.aether.common.codec.EncodedFrame;
+import miroshka.aether.common.protocol.Packet;
+
+import java.util.concurrent.TimeUnit;
+
+public final class FlushCoalescingHandler extends ChannelDuplexHandler {
+
+    private final int maxPendingWrites;
+    private final long maxDelayMillis;
+
+    private int pendingWrites;
+    private boolean flushRequested;
+    private boolean readInProgress;
+    private ScheduledFuture<?> scheduledFlush;
+
+    public FlushCoalescingHandler(int maxPendingWrites, long maxDelayMillis) {
+        if (maxPendingWrites <= 0) {
+            throw new IllegalArgumentException("maxPendingWrites must be positive");
+        }
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("maxDelayMillis cannot be negative");
+        }
+        this.maxPendingWrites = maxPendingWrites;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public static FlushCoalescingHandler from(TransportSettings settings) {
+        return new FlushCoalescingHandler(settings.maxPendingWrites(), settings.maxFlushDelayMillis());
+    }
+
+    public static Packet.Priority priorityOf(Object msg) {
+        if (msg instanceof Packet packet) {
+            return packet.priority();
+        }
+        if (msg instanceof EncodedFrame frame) {
+            return frame.priority();
+        }
+        return Packet.Priority.NORMAL;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        boolean critical = priorityOf(msg) == Packet.Priority.CRITICAL;
+        ctx.write(msg, promise);
+        pendingWrites++;
+
+        if (critical || (flushRequested && pendingWrites >= maxPendingWrites)) {
+            flushNow(ctx);
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        if (pendingWrites == 0) {
+            ctx.flush();
+            return;
+        }
+
+        flushRequested = true;
+        if (pendingWrites >= maxPendingWrites || maxDelayMillis == 0) {
+            flushNow(ctx);
+        } else if (!readInProgress && scheduledFlush == null) {
+            scheduledFlush = ctx.executor().schedule(() -> {
+                scheduledFlush = null;
+                if (flushRequested) {
+                    flushNow(ctx);
+                }
+            }, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        readInProgress = true;
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        readInProgress = false;
+        if (flushRequested) {
+            flushNow(ctx);
+        }
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable() && pendingWrites > 0) {
+            flushNow(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushIfPending(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushIfPending(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        flushIfPending(ctx);
+    }
+
+    private void flushIfPending(ChannelHandlerContext ctx) {
+        if (pendingWrites > 0) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        pendingWrites = 0;
+        flushRequested = false;
+        ctx.flush();
+    }
+}
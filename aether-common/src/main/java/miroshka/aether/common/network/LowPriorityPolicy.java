@@ -0,0 +1,14 @@
+package miroshka.aether.common.network;
+
+import java.util.Locale;
+import java.util.Objects;
+
+public enum LowPriorityPolicy {
+    DEFER,
+    SHED;
+
+    public static LowPriorityPolicy fromName(String name) {
+        Objects.requireNonNull(name, "name");
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,133 @@
+package miroshka.aether.common.network;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.IoHandlerFactory;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollIoHandler;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.unix.UnixChannelOption;
+import io.netty.channel.uring.IoUring;
+import io.netty.channel.uring.IoUringChannelOption;
+import io.netty.channel.uring.IoUringIoHandler;
+import io.netty.channel.uring.IoUringServerSocketChannel;
+import io.netty.channel.uring.IoUringSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Objects;
+
+public enum NettyTransport {
+    NIO,
+    EPOLL,
+    IO_URING;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyTransport.class);
+
+    public static NettyTransport fromName(String name) {
+        Objects.requireNonNull(name, "name");
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        if (normalized.equals("IOURING")) {
+            return IO_URING;
+        }
+        return valueOf(normalized);
+    }
+
+    public boolean isAvailable() {
+        return switch (this) {
+            case NIO -> true;
+            case EPOLL -> Epoll.isAvailable();
+            case IO_URING -> IoUring.isAvailable();
+        };
+    }
+
+    public NettyTransport resolve() {
+        if (isAvailable()) {
+            return this;
+        }
+        NettyTransport fallback = this == IO_URING ? EPOLL : NIO;
+        LOGGER.warn("{} transport is not available ({}), falling back to {}",
+                this, unavailabilityReason(), fallback);
+        return fallback.resolve();
+    }
+
+    public boolean supportsReusePort() {
+        return this != NIO;
+    }
+
+    public EventLoopGroup newEventLoopGroup(int threads, String threadPrefix) {
+        return new MultiThreadIoEventLoopGroup(threads, new DefaultThreadFactory(threadPrefix, true), ioHandlerFactory());
+    }
+
+    public Class<? extends ServerSocketChannel> serverChannelClass() {
+        return switch (this) {
+            case NIO -> NioServerSocketChannel.class;
+            case EPOLL -> EpollServerSocketChannel.class;
+            case IO_URING -> IoUringServerSocketChannel.class;
+        };
+    }
+
+    public Class<? extends SocketChannel> channelClass() {
+        return switch (this) {
+            case NIO -> NioSocketChannel.class;
+            case EPOLL -> EpollSocketChannel.class;
+            case IO_URING -> IoUringSocketChannel.class;
+        };
+    }
+
+    public void applyOptions(ServerBootstrap bootstrap, TransportSettings settings) {
+        Objects.requireNonNull(bootstrap, "bootstrap");
+        Objects.requireNonNull(settings, "settings");
+        if (settings.reusePort() && supportsReusePort()) {
+            bootstrap.option(UnixChannelOption.SO_REUSEPORT, true);
+        }
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, settings.writeBufferWaterMark());
+        switch (this) {
+            case EPOLL -> bootstrap.childOption(EpollChannelOption.TCP_QUICKACK, settings.tcpQuickAck());
+            case IO_URING -> bootstrap.childOption(IoUringChannelOption.TCP_QUICKACK, settings.tcpQuickAck());
+            case NIO -> {
+            }
+        }
+    }
+
+    public void applyOptions(Bootstrap bootstrap, TransportSettings settings) {
+        Objects.requireNonNull(bootstrap, "bootstrap");
+        Objects.requireNonNull(settings, "settings");
+        bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, settings.writeBufferWaterMark());
+        switch (this) {
+            case EPOLL -> bootstrap.option(EpollChannelOption.TCP_QUICKACK, settings.tcpQuickAck());
+            case IO_URING -> bootstrap.option(IoUringChannelOption.TCP_QUICKACK, settings.tcpQuickAck());
+            case NIO -> {
+            }
+        }
+    }
+
+    private IoHandlerFactory ioHandlerFactory() {
+        return switch (this) {
+            case NIO -> NioIoHandler.newFactory();
+            case EPOLL -> EpollIoHandler.newFactory();
+            case IO_URING -> IoUringIoHandler.newFactory();
+        };
+    }
+
+    private String unavailabilityReason() {
+        Throwable cause = switch (this) {
+            case NIO -> null;
+            case EPOLL -> Epoll.unavailabilityCause();
+            case IO_URING -> IoUring.unavailabilityCause();
+        };
+        return cause != null ? cause.getMessage() : "unknown reason";
+    }
+}
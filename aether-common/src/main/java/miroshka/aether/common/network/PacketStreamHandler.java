@@ -0,0 +1,382 @@
+package miroshka.aether.common.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import miroshka.aether.common.exception.ConnectionException;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.PacketRegistry;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import miroshka.aether.common.protocol.ProtocolErrorPacket;
+import miroshka.aether.common.protocol.StreamCreditPacket;
+import miroshka.aether.common.protocol.StreamDataPacket;
+import miroshka.aether.common.protocol.StreamablePacket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class PacketStreamHandler extends ChannelDuplexHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PacketStreamHandler.class);
+    private static final int MAX_DEFERRED_WRITES = 1024;
+
+    private final int threshold;
+    private final int frameSize;
+    private final int window;
+    private final int maxStreamSize;
+    private final int maxInboundStreams;
+
+    private final Map<Integer, OutboundStream> outbound = new HashMap<>();
+    private final Map<Integer, InboundStream> inbound = new HashMap<>();
+    private final Map<Integer, ArrayDeque<PendingWrite>> deferred = new HashMap<>();
+
+    private volatile boolean enabled;
+    private int nextStreamId;
+    private int deferredWrites;
+
+    public PacketStreamHandler() {
+        this(ProtocolConstants.STREAM_THRESHOLD, ProtocolConstants.STREAM_FRAME_SIZE,
+                ProtocolConstants.STREAM_WINDOW, ProtocolConstants.MAX_STREAM_SIZE,
+                ProtocolConstants.MAX_INBOUND_STREAMS);
+    }
+
+    public PacketStreamHandler(int threshold, int frameSize, int window, int maxStreamSize, int maxInboundStreams) {
+        if (threshold <= 0 || frameSize <= 0 || window < frameSize) {
+            throw new IllegalArgumentException("Invalid stream sizing: threshold=" + threshold
+                    + ", frameSize=" + frameSize + ", window=" + window);
+        }
+        if (maxStreamSize <= 0 || maxInboundStreams <= 0) {
+            throw new IllegalArgumentException("Stream limits must be positive");
+        }
+        this.threshold = threshold;
+        this.frameSize = frameSize;
+        this.window = window;
+        this.maxStreamSize = maxStreamSize;
+        this.maxInboundStreams = maxInboundStreams;
+    }
+
+    public void enable() {
+        enabled = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (msg instanceof Packet packet && mustFollowStream(packet.packetId())) {
+            if (deferredWrites >= MAX_DEFERRED_WRITES) {
+                ReferenceCountUtil.release(msg);
+                promise.tryFailure(ConnectionException.writeShed());
+                return;
+            }
+            deferred.computeIfAbsent(packet.packetId(), id -> new ArrayDeque<>()).add(new PendingWrite(msg, promise));
+            deferredWrites++;
+            return;
+        }
+        writeNow(ctx, msg, promise);
+    }
+
+    private void writeNow(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (enabled && msg instanceof StreamablePacket streamable && msg instanceof Packet packet
+                && streamable.payloadSize() >= threshold) {
+            startStream(ctx, packet, promise.unvoid());
+            return;
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof StreamDataPacket data) {
+            try {
+                handleData(ctx, data);
+            } finally {
+                data.release();
+            }
+        } else if (msg instanceof StreamCreditPacket credit) {
+            handleCredit(ctx, credit);
+        } else {
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable() && !outbound.isEmpty()) {
+            for (OutboundStream stream : new ArrayList<>(outbound.values())) {
+                pump(ctx, stream);
+            }
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        releaseAll();
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        releaseAll();
+    }
+
+    private boolean mustFollowStream(int packetId) {
+        return deferred.containsKey(packetId) || isStreaming(packetId);
+    }
+
+    private boolean isStreaming(int packetId) {
+        for (OutboundStream stream : outbound.values()) {
+            if (stream.payloadPacketId == packetId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drainDeferred(ChannelHandlerContext ctx, int packetId) {
+        ArrayDeque<PendingWrite> queue = deferred.get(packetId);
+        if (queue == null) {
+            return;
+        }
+        PendingWrite pending;
+        while (!isStreaming(packetId) && (pending = queue.poll()) != null) {
+            deferredWrites--;
+            writeNow(ctx, pending.msg(), pending.promise());
+        }
+        if (queue.isEmpty()) {
+            deferred.remove(packetId);
+        }
+        ctx.flush();
+    }
+
+    private void startStream(ChannelHandlerContext ctx, Packet packet, ChannelPromise promise) {
+        ByteBuf body = ctx.alloc().directBuffer(((StreamablePacket) packet).payloadSize() + 256);
+        try {
+            packet.encode(body);
+        } catch (RuntimeException e) {
+            body.release();
+            promise.tryFailure(e);
+            return;
+        }
+        if (body.readableBytes() > maxStreamSize) {
+            body.release();
+            promise.tryFailure(new IllegalArgumentException("Packet 0x" + Integer.toHexString(packet.packetId())
+                    + " exceeds stream limit: " + body.readableBytes()));
+            return;
+        }
+
+        nextStreamId = nextStreamId == Integer.MAX_VALUE ? 1 : nextStreamId + 1;
+        OutboundStream stream = new OutboundStream(nextStreamId, packet.packetId(), body, promise, window);
+        outbound.put(stream.id, stream);
+        pump(ctx, stream);
+    }
+
+    private void pump(ChannelHandlerContext ctx, OutboundStream stream) {
+        boolean wrote = false;
+        int length = stream.body.readableBytes();
+        while (!stream.finished && stream.credit > 0 && ctx.channel().isWritable()) {
+            int chunk = Math.min(frameSize, Math.min(stream.credit, length - stream.offset));
+            boolean last = stream.offset + chunk == length;
+            StreamDataPacket frame = new StreamDataPacket(stream.id, stream.payloadPacketId, length, stream.offset,
+                    last, false, stream.body.retainedSlice(stream.body.readerIndex() + stream.offset, chunk));
+            stream.offset += chunk;
+            stream.credit -= chunk;
+
+            ChannelPromise framePromise = last ? stream.promise : ctx.newPromise();
+            framePromise.addListener((ChannelFutureListener) future -> {
+                if (!future.isSuccess()) {
+                    abortOutbound(ctx, stream, future.cause());
+                } else if (last) {
+                    outbound.remove(stream.id);
+                    drainDeferred(ctx, stream.payloadPacketId);
+                }
+            });
+            if (last) {
+                stream.finished = true;
+                stream.body.release();
+            }
+            ctx.write(frame, framePromise);
+            wrote = true;
+        }
+        if (wrote) {
+            ctx.flush();
+        }
+    }
+
+    private void handleCredit(ChannelHandlerContext ctx, StreamCreditPacket credit) {
+        OutboundStream stream = outbound.get(credit.streamId());
+        if (stream == null) {
+            return;
+        }
+        if (credit.cancelled()) {
+            LOGGER.warn("Peer cancelled stream {} of packet 0x{}", stream.id,
+                    Integer.toHexString(stream.payloadPacketId));
+            stream.aborted = true;
+            finishOutbound(stream, new ConnectionException("Stream cancelled by peer"));
+            drainDeferred(ctx, stream.payloadPacketId);
+            return;
+        }
+        stream.credit += credit.credit();
+        pump(ctx, stream);
+    }
+
+    private void abortOutbound(ChannelHandlerContext ctx, OutboundStream stream, Throwable cause) {
+        if (stream.aborted) {
+            return;
+        }
+        stream.aborted = true;
+        finishOutbound(stream, cause);
+        if (ctx.channel().isActive()) {
+            ctx.writeAndFlush(StreamDataPacket.abort(stream.id, stream.payloadPacketId));
+        }
+        drainDeferred(ctx, stream.payloadPacketId);
+    }
+
+    private void finishOutbound(OutboundStream stream, Throwable cause) {
+        outbound.remove(stream.id);
+        if (!stream.finished) {
+            stream.finished = true;
+            stream.body.release();
+        }
+        stream.promise.tryFailure(cause);
+    }
+
+    private void handleData(ChannelHandlerContext ctx, StreamDataPacket frame) {
+        int streamId = frame.streamId();
+        if (frame.aborted()) {
+            InboundStream stream = inbound.remove(streamId);
+            if (stream != null) {
+                stream.release();
+            }
+            return;
+        }
+
+        InboundStream stream = inbound.get(streamId);
+        if (stream == null) {
+            if (frame.offset() != 0) {
+                return;
+            }
+            if (frame.totalLength() > maxStreamSize || inbound.size() >= maxInboundStreams) {
+                LOGGER.warn("Rejecting stream {} of packet 0x{} ({} bytes)", streamId,
+                        Integer.toHexString(frame.payloadPacketId()), frame.totalLength());
+                ctx.writeAndFlush(StreamCreditPacket.cancel(streamId));
+                return;
+            }
+            stream = new InboundStream(frame.payloadPacketId(), frame.totalLength(),
+                    ctx.alloc().compositeDirectBuffer(Integer.MAX_VALUE));
+            inbound.put(streamId, stream);
+        }
+
+        ByteBuf data = frame.data();
+        if (frame.payloadPacketId() != stream.payloadPacketId || frame.totalLength() != stream.totalLength
+                || frame.offset() != stream.received || frame.last() != (stream.received
+                + data.readableBytes() == stream.totalLength)) {
+            LOGGER.warn("Out of order data on stream {} at offset {}", streamId, frame.offset());
+            inbound.remove(streamId).release();
+            ctx.writeAndFlush(StreamCreditPacket.cancel(streamId));
+            return;
+        }
+
+        stream.received += data.readableBytes();
+        stream.unacknowledged += data.readableBytes();
+        stream.payload.addComponent(true, data.retain());
+
+        if (frame.last()) {
+            inbound.remove(streamId);
+            complete(ctx, stream);
+        } else if (stream.unacknowledged >= window / 2) {
+            ctx.writeAndFlush(StreamCreditPacket.grant(streamId, stream.unacknowledged));
+            stream.unacknowledged = 0;
+        }
+    }
+
+    private static void complete(ChannelHandlerContext ctx, InboundStream stream) {
+        int packetId = stream.payloadPacketId;
+        Packet packet;
+        try {
+            packet = PacketRegistry.instance().read(packetId, stream.payload);
+        } catch (Exception e) {
+            LOGGER.error("Failed to decode streamed packet 0x{}: {}", Integer.toHexString(packetId), e.getMessage());
+            packet = ProtocolErrorPacket.malformedPacket(packetId, e.getMessage());
+        } finally {
+            stream.payload.release();
+        }
+        ctx.fireChannelRead(packet != null ? packet : ProtocolErrorPacket.unknownPacket(packetId));
+    }
+
+    private void releaseAll() {
+        ConnectionException closed = ConnectionException.channelClosed();
+        for (ArrayDeque<PendingWrite> queue : deferred.values()) {
+            PendingWrite pending;
+            while ((pending = queue.poll()) != null) {
+                ReferenceCountUtil.release(pending.msg());
+                pending.promise().tryFailure(closed);
+            }
+        }
+        deferred.clear();
+        deferredWrites = 0;
+        if (!outbound.isEmpty()) {
+            for (OutboundStream stream : new ArrayList<>(outbound.values())) {
+                stream.aborted = true;
+                finishOutbound(stream, closed);
+            }
+        }
+        for (InboundStream stream : inbound.values()) {
+            stream.release();
+        }
+        inbound.clear();
+    }
+
+    private static final class OutboundStream {
+
+        private final int id;
+        private final int payloadPacketId;
+        private final ByteBuf body;
+        private final ChannelPromise promise;
+        private int credit;
+        private int offset;
+        private boolean finished;
+        private boolean aborted;
+
+        private OutboundStream(int id, int payloadPacketId, ByteBuf body, ChannelPromise promise, int credit) {
+            this.id = id;
+            this.payloadPacketId = payloadPacketId;
+            this.body = body;
+            this.promise = promise;
+            this.credit = credit;
+        }
+    }
+
+    private static final class InboundStream {
+
+        private final int payloadPacketId;
+        private final int totalLength;
+        private final CompositeByteBuf payload;
+        private int received;
+        private int unacknowledged;
+
+        private InboundStream(int payloadPacketId, int totalLength, CompositeByteBuf payload) {
+            this.payloadPacketId = payloadPacketId;
+            this.totalLength = totalLength;
+            this.payload = payload;
+        }
+
+        private void release() {
+            payload.release();
+        }
+    }
+
+    private record PendingWrite(Object msg, ChannelPromise promise) {
+    }
+}
@@ -0,0 +1,186 @@
+package miroshka.aether.common.network;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import miroshka.aether.common.exception.ConnectionException;
+import miroshka.aether.common.protocol.Packet;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class PriorityOutboundHandler extends ChannelDuplexHandler {
+
+    private final int normalWeight;
+    private final int lowWeight;
+    private final LowPriorityPolicy lowPriorityPolicy;
+    private final int maxDeferredLowWrites;
+
+    private final ArrayDeque<PendingWrite> normalQueue = new ArrayDeque<>();
+    private final ArrayDeque<PendingWrite> lowQueue = new ArrayDeque<>();
+    private final AtomicLong shedWrites = new AtomicLong();
+
+    private volatile int normalDepth;
+    private volatile int lowDepth;
+
+    public PriorityOutboundHandler(int normalWeight, int lowWeight, LowPriorityPolicy lowPriorityPolicy,
+            int maxDeferredLowWrites) {
+        if (normalWeight <= 0 || lowWeight <= 0) {
+            throw new IllegalArgumentException("Drain weights must be positive");
+        }
+        if (maxDeferredLowWrites < 0) {
+            throw new IllegalArgumentException("maxDeferredLowWrites cannot be negative");
+        }
+        this.normalWeight = normalWeight;
+        this.lowWeight = lowWeight;
+        this.lowPriorityPolicy = Objects.requireNonNull(lowPriorityPolicy, "lowPriorityPolicy");
+        this.maxDeferredLowWrites = maxDeferredLowWrites;
+    }
+
+    public static PriorityOutboundHandler from(TransportSettings settings) {
+        return new PriorityOutboundHandler(settings.normalDrainWeight(), settings.lowDrainWeight(),
+                settings.lowPriorityPolicy(), settings.maxDeferredLowWrites());
+    }
+
+    public int queueDepth(Packet.Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> 0;
+            case NORMAL -> normalDepth;
+            case LOW -> lowDepth;
+        };
+    }
+
+    public long shedWrites() {
+        return shedWrites.get();
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        Packet.Priority priority = FlushCoalescingHandler.priorityOf(msg);
+        if (priority == Packet.Priority.CRITICAL) {
+            ctx.write(msg, promise);
+            return;
+        }
+
+        Channel channel = ctx.channel();
+        boolean writable = channel.isWritable();
+        if (writable && normalQueue.isEmpty() && lowQueue.isEmpty()) {
+            ctx.write(msg, promise);
+            return;
+        }
+
+        if (priority == Packet.Priority.LOW) {
+            if (!writable && lowPriorityPolicy == LowPriorityPolicy.SHED) {
+                shed(msg, promise);
+                return;
+            }
+            if (lowQueue.size() >= maxDeferredLowWrites) {
+                PendingWrite oldest = lowQueue.poll();
+                if (oldest == null) {
+                    shed(msg, promise);
+                    return;
+                }
+                shed(oldest.msg(), oldest.promise());
+            }
+            lowQueue.add(new PendingWrite(msg, promise));
+        } else {
+            normalQueue.add(new PendingWrite(msg, promise));
+        }
+        updateDepths();
+
+        if (writable) {
+            drain(ctx);
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        drain(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable() && hasQueuedWrites()) {
+            drain(ctx);
+            ctx.flush();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        failQueuedWrites();
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        failQueuedWrites();
+        ctx.close(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        failQueuedWrites();
+    }
+
+    private void drain(ChannelHandlerContext ctx) {
+        Channel channel = ctx.channel();
+        while (channel.isWritable() && hasQueuedWrites()) {
+            forward(ctx, normalQueue, normalWeight);
+            forward(ctx, lowQueue, lowWeight);
+        }
+        updateDepths();
+    }
+
+    private static void forward(ChannelHandlerContext ctx, ArrayDeque<PendingWrite> queue, int budget) {
+        Channel channel = ctx.channel();
+        for (int i = 0; i < budget && channel.isWritable(); i++) {
+            PendingWrite pending = queue.poll();
+            if (pending == null) {
+                return;
+            }
+            ctx.write(pending.msg(), pending.promise());
+        }
+    }
+
+    private boolean hasQueuedWrites() {
+        return !normalQueue.isEmpty() || !lowQueue.isEmpty();
+    }
+
+    private void shed(Object msg, ChannelPromise promise) {
+        shedWrites.incrementAndGet();
+        ReferenceCountUtil.release(msg);
+        promise.tryFailure(ConnectionException.writeShed());
+    }
+
+    private void failQueuedWrites() {
+        if (!hasQueuedWrites()) {
+            return;
+        }
+        ConnectionException cause = ConnectionException.channelClosed();
+        failAll(normalQueue, cause);
+        failAll(lowQueue, cause);
+        updateDepths();
+    }
+
+    private static void failAll(ArrayDeque<PendingWrite> queue, ConnectionException cause) {
+        PendingWrite pending;
+        while ((pending = queue.poll()) != null) {
+            ReferenceCountUtil.release(pending.msg());
+            pending.promise().tryFailure(cause);
+        }
+    }
+
+    private void updateDepths() {
+        normalDepth = normalQueue.size();
+        lowDepth = lowQueue.size();
+    }
+
+    private record PendingWrite(Object msg, ChannelPromise promise) {
+    }
+}
@@ -0,0 +1,60 @@
+package miroshka.aether.common.network;
+
+import io.netty.channel.WriteBufferWaterMark;
+
+import java.util.Objects;
+
+public record TransportSettings(
+        NettyTransport transport,
+        int ioThreads,
+        int acceptorThreads,
+        boolean tcpQuickAck,
+        boolean reusePort,
+        int maxPendingWrites,
+        int maxFlushDelayMillis,
+        LowPriorityPolicy lowPriorityPolicy,
+        int maxDeferredLowWrites,
+        int normalDrainWeight,
+        int lowDrainWeight,
+        int writeBufferLowWaterMark,
+        int writeBufferHighWaterMark) {
+
+    public TransportSettings {
+        Objects.requireNonNull(transport, "transport");
+        Objects.requireNonNull(lowPriorityPolicy, "lowPriorityPolicy");
+        if (ioThreads < 0) {
+            throw new IllegalArgumentException("ioThreads cannot be negative");
+        }
+        if (acceptorThreads <= 0) {
+            throw new IllegalArgumentException("acceptorThreads must be positive");
+        }
+        if (maxPendingWrites <= 0) {
+            throw new IllegalArgumentException("maxPendingWrites must be positive");
+        }
+        if (maxFlushDelayMillis < 0) {
+            throw new IllegalArgumentException("maxFlushDelayMillis cannot be negative");
+        }
+        if (maxDeferredLowWrites < 0) {
+            throw new IllegalArgumentException("maxDeferredLowWrites cannot be negative");
+        }
+        if (normalDrainWeight <= 0 || lowDrainWeight <= 0) {
+            throw new IllegalArgumentException("Drain weights must be positive");
+        }
+        if (writeBufferLowWaterMark <= 0 || writeBufferHighWaterMark < writeBufferLowWaterMark) {
+            throw new IllegalArgumentException("Write buffer water marks must satisfy 0 < low <= high");
+        }
+    }
+
+    public static TransportSettings defaults() {
+        return new TransportSettings(NettyTransport.EPOLL, 0, 1, false, false, 32, 1,
+                LowPriorityPolicy.DEFER, 256, 8, 1, 64 * 1024, 256 * 1024);
+    }
+
+    public WriteBufferWaterMark writeBufferWaterMark() {
+        return new WriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark);
+    }
+
+    public int effectiveAcceptorThreads(NettyTransport resolved) {
+        return reusePort && resolved.supportsReusePort() ? acceptorThreads : 1;
+    }
+}
@@ -2,17 +2,24 @@ package miroshka.aether.common.protocol;
 
 import io.netty.buffer.ByteBuf;
 
+import java.util.Map;
 import java.util.Objects;
 
 public record AuthHandshakePacket(
         int protocolVersion,
         String serverName,
         String secretKey,
-        long timestamp) implements Packet {
+        long timestamp,
+        Map<String, String> properties) implements Packet {
 
     public AuthHandshakePacket {
         Objects.requireNonNull(serverName, "serverName");
         Objects.requireNonNull(secretKey, "secretKey");
+        properties = properties != null ? Map.copyOf(properties) : Map.of();
+    }
+
+    public AuthHandshakePacket(int protocolVersion, String serverName, String secretKey, long timestamp) {
+        this(protocolVersion, serverName, secretKey, timestamp, Map.of());
     }
 
     @Override
@@ -26,6 +33,7 @@ public record AuthHandshakePacket(
         PacketHelper.writeString(buffer, serverName);
         PacketHelper.writeString(buffer, secretKey);
         PacketHelper.writeLong(buffer, timestamp);
+        PacketHelper.writePropertyMap(buffer, properties);
     }
 
     @Override
@@ -39,6 +47,7 @@ public record AuthHandshakePacket(
         String serverName = PacketHelper.readString(buffer);
         String secretKey = PacketHelper.readString(buffer);
         long timestamp = PacketHelper.readLong(buffer);
-        return new AuthHandshakePacket(protocolVersion, serverName, secretKey, timestamp);
+        Map<String, String> properties = buffer.isReadable() ? PacketHelper.readPropertyMap(buffer) : Map.of();
+        return new AuthHandshakePacket(protocolVersion, serverName, secretKey, timestamp, properties);
     }
 }
@@ -9,22 +9,25 @@ public record ChunkDataPacket(
         UUID requestId,
         String sourceServer,
         String targetServer,
+        String world,
         ChunkAction action,
         int chunkX,
         int chunkZ,
         byte[] chunkData,
-        long timestamp) implements Packet {
+        long timestamp) implements Packet, StreamablePacket {
 
     public ChunkDataPacket {
         Objects.requireNonNull(sourceServer, "sourceServer");
         Objects.requireNonNull(targetServer, "targetServer");
+        Objects.requireNonNull(world, "world");
         Objects.requireNonNull(action, "action");
         Objects.requireNonNull(chunkData, "chunkData");
     }
 
-    public ChunkDataPacket(UUID requestId, String sourceServer, String targetServer,
+    public ChunkDataPacket(UUID requestId, String sourceServer, String targetServer, String world,
             ChunkAction action, int chunkX, int chunkZ, byte[] chunkData) {
-        this(requestId, sourceServer, targetServer, action, chunkX, chunkZ, chunkData, System.currentTimeMillis());
+        this(requestId, sourceServer, targetServer, world, action, chunkX, chunkZ, chunkData,
+                System.currentTimeMillis());
     }
 
     @Override
@@ -40,8 +43,9 @@ public record ChunkDataPacket(
         } else {
             PacketHelper.writeBoolean(buffer, false);
         }
-        PacketHelper.writeString(buffer, sourceServer);
-        PacketHelper.writeString(buffer, targetServer);
+        PacketHelper.writeSymbol(buffer, sourceServer);
+        PacketHelper.writeSymbol(buffer, targetServer);
+        PacketHelper.writeSymbol(buffer, world);
         PacketHelper.writeVarInt(buffer, action.ordinal());
         PacketHelper.writeInt(buffer, chunkX);
         PacketHelper.writeInt(buffer, chunkZ);
@@ -50,6 +54,11 @@ public record ChunkDataPacket(
         buffer.writeBytes(chunkData);
     }
 
+    @Override
+    public int payloadSize() {
+        return chunkData.length;
+    }
+
     @Override
     public Priority priority() {
         return Priority.LOW;
@@ -61,8 +70,9 @@ public record ChunkDataPacket(
         if (PacketHelper.readBoolean(buffer)) {
             requestId = PacketHelper.readUUID(buffer);
         }
-        String sourceServer = PacketHelper.readString(buffer);
-        String targetServer = PacketHelper.readString(buffer);
+        String sourceServer = PacketHelper.readSymbol(buffer);
+        String targetServer = PacketHelper.readSymbol(buffer);
+        String world = PacketHelper.readSymbol(buffer);
         ChunkAction action = ChunkAction.values()[PacketHelper.readVarInt(buffer)];
         int chunkX = PacketHelper.readInt(buffer);
         int chunkZ = PacketHelper.readInt(buffer);
@@ -70,7 +80,8 @@ public record ChunkDataPacket(
         int length = PacketHelper.readInt(buffer);
         byte[] chunkData = new byte[length];
         buffer.readBytes(chunkData);
-        return new ChunkDataPacket(requestId, sourceServer, targetServer, action, chunkX, chunkZ, chunkData, timestamp);
+        return new ChunkDataPacket(requestId, sourceServer, targetServer, world, action, chunkX, chunkZ, chunkData,
+                timestamp);
     }
 
     public long chunkKey() {
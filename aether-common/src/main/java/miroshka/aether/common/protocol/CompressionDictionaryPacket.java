@@ -0,0 +1,46 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Objects;
+
+public record CompressionDictionaryPacket(
+        int dictionaryId,
+        byte[] dictionary) implements Packet {
+
+    public CompressionDictionaryPacket {
+        Objects.requireNonNull(dictionary, "dictionary");
+        if (dictionary.length > ProtocolConstants.MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Dictionary too large: " + dictionary.length);
+        }
+    }
+
+    @Override
+    public int packetId() {
+        return PacketIds.COMPRESSION_DICTIONARY;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeInt(buffer, dictionaryId);
+        PacketHelper.writeInt(buffer, dictionary.length);
+        buffer.writeBytes(dictionary);
+    }
+
+    @Override
+    public Priority priority() {
+        return Priority.CRITICAL;
+    }
+
+    public static CompressionDictionaryPacket decode(ByteBuf buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        int dictionaryId = PacketHelper.readInt(buffer);
+        int length = PacketHelper.readInt(buffer);
+        if (length < 0 || length > ProtocolConstants.MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Invalid dictionary length: " + length);
+        }
+        byte[] dictionary = new byte[length];
+        buffer.readBytes(dictionary);
+        return new CompressionDictionaryPacket(dictionaryId, dictionary);
+    }
+}
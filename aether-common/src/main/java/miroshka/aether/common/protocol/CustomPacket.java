@@ -0,0 +1,9 @@
+package miroshka.aether.common.protocol;
+
+public non-sealed interface CustomPacket extends Packet {
+
+    @Override
+    default Priority priority() {
+        return Priority.NORMAL;
+    }
+}
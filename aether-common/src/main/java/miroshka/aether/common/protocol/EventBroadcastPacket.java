@@ -38,8 +38,8 @@ public record EventBroadcastPacket(
 
     @Override
     public void encode(ByteBuf buffer) {
-        PacketHelper.writeString(buffer, eventType);
-        PacketHelper.writeString(buffer, sourceServer);
+        PacketHelper.writeSymbol(buffer, eventType);
+        PacketHelper.writeSymbol(buffer, sourceServer);
 
         boolean hasPlayer = playerUuid != null;
         buffer.writeBoolean(hasPlayer);
@@ -50,7 +50,7 @@ public record EventBroadcastPacket(
 
         PacketHelper.writeInt(buffer, playerGroups.size());
         for (String group : playerGroups) {
-            PacketHelper.writeString(buffer, group);
+            PacketHelper.writeSymbol(buffer, group);
         }
 
         PacketHelper.writePropertyMap(buffer, eventData);
@@ -64,8 +64,8 @@ public record EventBroadcastPacket(
 
     public static EventBroadcastPacket decode(ByteBuf buffer) {
         Objects.requireNonNull(buffer, "buffer");
-        String eventType = PacketHelper.readString(buffer);
-        String sourceServer = PacketHelper.readString(buffer);
+        String eventType = PacketHelper.readSymbol(buffer);
+        String sourceServer = PacketHelper.readSymbol(buffer);
 
         UUID playerUuid = null;
         String playerName = null;
@@ -77,7 +77,7 @@ public record EventBroadcastPacket(
         int groupCount = PacketHelper.readInt(buffer);
         List<String> playerGroups = new ArrayList<>(groupCount);
         for (int i = 0; i < groupCount; i++) {
-            playerGroups.add(PacketHelper.readString(buffer));
+            playerGroups.add(PacketHelper.readSymbol(buffer));
         }
 
         Map<String, String> eventData = PacketHelper.readPropertyMap(buffer);
@@ -0,0 +1,51 @@
+package miroshka.aether.common.protocol;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public final class HybridLogicalClock {
+
+    private static final int LOGICAL_BITS = 16;
+
+    private final LongSupplier wallClock;
+    private final AtomicLong last;
+    private final AtomicLong maxSkewMillis;
+
+    public HybridLogicalClock() {
+        this(System::currentTimeMillis);
+    }
+
+    public HybridLogicalClock(LongSupplier wallClock) {
+        this.wallClock = Objects.requireNonNull(wallClock, "wallClock");
+        this.last = new AtomicLong();
+        this.maxSkewMillis = new AtomicLong();
+    }
+
+    public long now() {
+        long physical = wallClock.getAsLong() << LOGICAL_BITS;
+        return last.updateAndGet(previous -> Math.max(previous + 1, physical));
+    }
+
+    public long update(long remote) {
+        long wall = wallClock.getAsLong();
+        long skew = physicalMillis(remote) - wall;
+        if (skew > 0) {
+            maxSkewMillis.accumulateAndGet(skew, Math::max);
+        }
+        long physical = wall << LOGICAL_BITS;
+        return last.updateAndGet(previous -> Math.max(Math.max(previous, remote) + 1, physical));
+    }
+
+    public long maxSkewMillis() {
+        return maxSkewMillis.get();
+    }
+
+    public static long physicalMillis(long clock) {
+        return clock >>> LOGICAL_BITS;
+    }
+
+    public static int logical(long clock) {
+        return (int) (clock & ((1L << LOGICAL_BITS) - 1));
+    }
+}
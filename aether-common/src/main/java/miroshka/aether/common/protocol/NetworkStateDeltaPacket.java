@@ -0,0 +1,225 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public record NetworkStateDeltaPacket(
+        long baseVersion,
+        long stateVersion,
+        int globalOnline,
+        int serverCount,
+        int ttlSeconds,
+        Map<String, String> changedGlobalProperties,
+        List<String> removedGlobalProperties,
+        Map<String, String> changedRoutingHints,
+        List<String> removedRoutingHints,
+        List<ServerInfo> updatedServers,
+        List<String> removedServers) implements Packet {
+
+    public NetworkStateDeltaPacket {
+        Objects.requireNonNull(changedGlobalProperties, "changedGlobalProperties");
+        Objects.requireNonNull(removedGlobalProperties, "removedGlobalProperties");
+        Objects.requireNonNull(changedRoutingHints, "changedRoutingHints");
+        Objects.requireNonNull(removedRoutingHints, "removedRoutingHints");
+        Objects.requireNonNull(updatedServers, "updatedServers");
+        Objects.requireNonNull(removedServers, "removedServers");
+    }
+
+    @Override
+    public int packetId() {
+        return PacketIds.NETWORK_STATE_DELTA;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeLong(buffer, baseVersion);
+        PacketHelper.writeLong(buffer, stateVersion);
+        PacketHelper.writeInt(buffer, globalOnline);
+        PacketHelper.writeInt(buffer, serverCount);
+        PacketHelper.writeInt(buffer, ttlSeconds);
+        PacketHelper.writePropertyMap(buffer, changedGlobalProperties);
+        writeSymbolList(buffer, removedGlobalProperties);
+        PacketHelper.writePropertyMap(buffer, changedRoutingHints);
+        writeSymbolList(buffer, removedRoutingHints);
+
+        PacketHelper.writeVarInt(buffer, updatedServers.size());
+        for (ServerInfo server : updatedServers) {
+            server.encode(buffer);
+        }
+        writeSymbolList(buffer, removedServers);
+    }
+
+    @Override
+    public Priority priority() {
+        return Priority.NORMAL;
+    }
+
+    public static NetworkStateDeltaPacket decode(ByteBuf buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        long baseVersion = PacketHelper.readLong(buffer);
+        long stateVersion = PacketHelper.readLong(buffer);
+        int globalOnline = PacketHelper.readInt(buffer);
+        int serverCount = PacketHelper.readInt(buffer);
+        int ttlSeconds = PacketHelper.readInt(buffer);
+        Map<String, String> changedGlobalProperties = PacketHelper.readPropertyMap(buffer);
+        List<String> removedGlobalProperties = readSymbolList(buffer);
+        Map<String, String> changedRoutingHints = PacketHelper.readPropertyMap(buffer);
+        List<String> removedRoutingHints = readSymbolList(buffer);
+
+        int updatedCount = PacketHelper.readVarInt(buffer);
+        if (updatedCount < 0 || updatedCount > ProtocolConstants.MAX_PROPERTY_MAP_ENTRIES) {
+            throw new IllegalStateException("Invalid updated server count: " + updatedCount);
+        }
+        List<ServerInfo> updatedServers = new ArrayList<>(updatedCount);
+        for (int i = 0; i < updatedCount; i++) {
+            updatedServers.add(ServerInfo.decode(buffer));
+        }
+        List<String> removedServers = readSymbolList(buffer);
+
+        return new NetworkStateDeltaPacket(baseVersion, stateVersion, globalOnline, serverCount, ttlSeconds,
+                changedGlobalProperties, removedGlobalProperties, changedRoutingHints, removedRoutingHints,
+                updatedServers, removedServers);
+    }
+
+    public static NetworkStateDeltaPacket between(
+            NetworkStatePacket base,
+            NetworkStatePacket target,
+            long timestampRefreshMillis,
+            double tpsEpsilon) {
+        Objects.requireNonNull(base, "base");
+        Objects.requireNonNull(target, "target");
+
+        Map<String, ServerInfo> baseServers = new HashMap<>();
+        for (ServerInfo server : base.servers()) {
+            baseServers.put(server.name(), server);
+        }
+
+        List<ServerInfo> updatedServers = new ArrayList<>();
+        for (ServerInfo server : target.servers()) {
+            ServerInfo previous = baseServers.remove(server.name());
+            if (previous == null || hasChanged(previous, server, timestampRefreshMillis, tpsEpsilon)) {
+                updatedServers.add(server);
+            }
+        }
+
+        return new NetworkStateDeltaPacket(
+                base.stateVersion(),
+                target.stateVersion(),
+                target.globalOnline(),
+                target.serverCount(),
+                target.ttlSeconds(),
+                changedEntries(base.globalProperties(), target.globalProperties()),
+                removedKeys(base.globalProperties(), target.globalProperties()),
+                changedEntries(base.routingHints(), target.routingHints()),
+                removedKeys(base.routingHints(), target.routingHints()),
+                updatedServers,
+                List.copyOf(baseServers.keySet()));
+    }
+
+    public boolean isEmpty(NetworkStatePacket base) {
+        Objects.requireNonNull(base, "base");
+        return globalOnline == base.globalOnline()
+                && serverCount == base.serverCount()
+                && changedGlobalProperties.isEmpty()
+                && removedGlobalProperties.isEmpty()
+                && changedRoutingHints.isEmpty()
+                && removedRoutingHints.isEmpty()
+                && updatedServers.isEmpty()
+                && removedServers.isEmpty();
+    }
+
+    public NetworkStatePacket applyTo(NetworkStatePacket base) {
+        Objects.requireNonNull(base, "base");
+        if (base.stateVersion() != baseVersion) {
+            throw new IllegalStateException("Delta base version " + baseVersion
+                    + " does not match state version " + base.stateVersion());
+        }
+
+        Map<String, ServerInfo> servers = new LinkedHashMap<>();
+        for (ServerInfo server : base.servers()) {
+            servers.put(server.name(), server);
+        }
+        for (String removed : removedServers) {
+            servers.remove(removed);
+        }
+        for (ServerInfo server : updatedServers) {
+            servers.put(server.name(), server);
+        }
+
+        return new NetworkStatePacket(
+                globalOnline,
+                serverCount,
+                stateVersion,
+                ttlSeconds,
+                applyEntries(base.globalProperties(), changedGlobalProperties, removedGlobalProperties),
+                applyEntries(base.routingHints(), changedRoutingHints, removedRoutingHints),
+                List.copyOf(servers.values()));
+    }
+
+    private static boolean hasChanged(ServerInfo previous, ServerInfo current,
+            long timestampRefreshMillis, double tpsEpsilon) {
+        return previous.onlinePlayers() != current.onlinePlayers()
+                || previous.maxPlayers() != current.maxPlayers()
+                || Math.abs(previous.tps() - current.tps()) >= tpsEpsilon
+                || current.lastUpdateTimestamp() - previous.lastUpdateTimestamp() >= timestampRefreshMillis
+                || !previous.extraData().equals(current.extraData());
+    }
+
+    private static Map<String, String> changedEntries(Map<String, String> base, Map<String, String> target) {
+        Map<String, String> changed = new HashMap<>();
+        target.forEach((key, value) -> {
+            if (!value.equals(base.get(key))) {
+                changed.put(key, value);
+            }
+        });
+        return changed;
+    }
+
+    private static List<String> removedKeys(Map<String, String> base, Map<String, String> target) {
+        List<String> removed = new ArrayList<>();
+        for (String key : base.keySet()) {
+            if (!target.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        return removed;
+    }
+
+    private static Map<String, String> applyEntries(Map<String, String> base, Map<String, String> changed,
+            List<String> removed) {
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return base;
+        }
+        Map<String, String> result = new HashMap<>(base);
+        for (String key : removed) {
+            result.remove(key);
+        }
+        result.putAll(changed);
+        return Map.copyOf(result);
+    }
+
+    private static void writeSymbolList(ByteBuf buffer, List<String> values) {
+        PacketHelper.writeVarInt(buffer, values.size());
+        for (String value : values) {
+            PacketHelper.writeSymbol(buffer, value);
+        }
+    }
+
+    private static List<String> readSymbolList(ByteBuf buffer) {
+        int count = PacketHelper.readVarInt(buffer);
+        if (count < 0 || count > ProtocolConstants.MAX_PROPERTY_MAP_ENTRIES) {
+            throw new IllegalStateException("Invalid list size: " + count);
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(PacketHelper.readSymbol(buffer));
+        }
+        return values;
+    }
+}
@@ -49,12 +49,7 @@ public record NetworkStatePacket(
 
         PacketHelper.writeInt(buffer, servers.size());
         for (ServerInfo server : servers) {
-            PacketHelper.writeString(buffer, server.name());
-            PacketHelper.writeInt(buffer, server.onlinePlayers());
-            PacketHelper.writeInt(buffer, server.maxPlayers());
-            PacketHelper.writeDouble(buffer, server.tps());
-            PacketHelper.writeLong(buffer, server.lastUpdateTimestamp());
-            PacketHelper.writePropertyMap(buffer, server.extraData());
+            server.encode(buffer);
         }
     }
 
@@ -76,13 +71,7 @@ public record NetworkStatePacket(
         if (buffer.isReadable()) {
             int serversCount = PacketHelper.readInt(buffer);
             for (int i = 0; i < serversCount; i++) {
-                String name = PacketHelper.readString(buffer);
-                int onlinePlayers = PacketHelper.readInt(buffer);
-                int maxPlayers = PacketHelper.readInt(buffer);
-                double tps = PacketHelper.readDouble(buffer);
-                long lastUpdateTimestamp = PacketHelper.readLong(buffer);
-                Map<String, String> extraData = PacketHelper.readPropertyMap(buffer);
-                servers.add(new ServerInfo(name, onlinePlayers, maxPlayers, tps, lastUpdateTimestamp, extraData));
+                servers.add(ServerInfo.decode(buffer));
             }
         }
 
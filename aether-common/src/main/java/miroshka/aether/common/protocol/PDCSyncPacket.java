@@ -12,30 +12,65 @@ public record PDCSyncPacket(
         String playerName,
         SyncOperation operation,
         Map<String, byte[]> data,
-        long version) implements Packet {
+        long version,
+        long requestId,
+        Map<String, PDCVersion> versions,
+        Map<String, PDCVersion> bases) implements Packet {
+
+    public static final long UNSOLICITED = 0;
 
     public PDCSyncPacket {
         Objects.requireNonNull(playerUuid, "playerUuid");
         Objects.requireNonNull(playerName, "playerName");
         Objects.requireNonNull(operation, "operation");
         Objects.requireNonNull(data, "data");
+        Objects.requireNonNull(versions, "versions");
+        Objects.requireNonNull(bases, "bases");
+    }
+
+    public static PDCSyncPacket fullSync(UUID playerUuid, String playerName, Map<String, byte[]> data,
+            Map<String, PDCVersion> versions, Map<String, PDCVersion> bases, long requestId) {
+        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.FULL_SYNC, data, latestClock(versions),
+                requestId, versions, bases);
+    }
+
+    public static PDCSyncPacket partialUpdate(UUID playerUuid, String playerName, Map<String, byte[]> data,
+            Map<String, PDCVersion> versions, Map<String, PDCVersion> bases) {
+        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.PARTIAL_UPDATE, data,
+                latestClock(versions), UNSOLICITED, versions, bases);
+    }
+
+    public static PDCSyncPacket delete(UUID playerUuid, String playerName, String key, PDCVersion version,
+            PDCVersion base) {
+        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.DELETE, Map.of(key, new byte[0]),
+                version.clock(), UNSOLICITED, Map.of(key, version), Map.of(key, base));
+    }
+
+    public static PDCSyncPacket request(UUID playerUuid, String playerName, long requestId) {
+        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.REQUEST, Map.of(),
+                System.currentTimeMillis(), requestId, Map.of(), Map.of());
+    }
+
+    public static PDCSyncPacket ack(UUID playerUuid, String playerName, long version, long requestId) {
+        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.ACK, Map.of(), version, requestId,
+                Map.of(), Map.of());
+    }
+
+    public boolean isResponse() {
+        return requestId != UNSOLICITED;
     }
 
-    public static PDCSyncPacket fullSync(UUID playerUuid, String playerName, Map<String, byte[]> data) {
-        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.FULL_SYNC, data,
-                System.currentTimeMillis());
+    public PDCSyncPacket withRequestId(long requestId) {
+        return new PDCSyncPacket(playerUuid, playerName, operation, data, version, requestId, versions, bases);
     }
 
-    public static PDCSyncPacket partialUpdate(UUID playerUuid, String playerName,
-            Map<String, byte[]> data, long version) {
-        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.PARTIAL_UPDATE, data, version);
+    public PDCVersion versionOf(String key) {
+        PDCVersion keyVersion = versions.get(key);
+        return keyVersion != null ? keyVersion : new PDCVersion(version, playerName);
     }
 
-    public static PDCSyncPacket delete(UUID playerUuid, String playerName, String key) {
-        Map<String, byte[]> deleteData = new HashMap<>();
-        deleteData.put(key, new byte[0]);
-        return new PDCSyncPacket(playerUuid, playerName, SyncOperation.DELETE, deleteData,
-                System.currentTimeMillis());
+    public PDCVersion baseOf(String key) {
+        return bases.getOrDefault(key, PDCVersion.NONE);
     }
 
     @Override
@@ -49,12 +84,15 @@ public record PDCSyncPacket(
         PacketHelper.writeString(buffer, playerName);
         PacketHelper.writeInt(buffer, operation.ordinal());
         PacketHelper.writeLong(buffer, version);
+        PacketHelper.writeLong(buffer, requestId);
 
         PacketHelper.writeInt(buffer, data.size());
         for (Map.Entry<String, byte[]> entry : data.entrySet()) {
-            PacketHelper.writeString(buffer, entry.getKey());
+            PacketHelper.writeSymbol(buffer, entry.getKey());
             PacketHelper.writeInt(buffer, entry.getValue().length);
             buffer.writeBytes(entry.getValue());
+            versionOf(entry.getKey()).encode(buffer);
+            baseOf(entry.getKey()).encode(buffer);
         }
     }
 
@@ -69,24 +107,41 @@ public record PDCSyncPacket(
         String playerName = PacketHelper.readString(buffer);
         SyncOperation operation = SyncOperation.values()[PacketHelper.readInt(buffer)];
         long version = PacketHelper.readLong(buffer);
+        long requestId = PacketHelper.readLong(buffer);
 
         int dataCount = PacketHelper.readInt(buffer);
         Map<String, byte[]> data = new HashMap<>(dataCount);
+        Map<String, PDCVersion> versions = new HashMap<>(dataCount);
+        Map<String, PDCVersion> bases = new HashMap<>(dataCount);
         for (int i = 0; i < dataCount; i++) {
-            String key = PacketHelper.readString(buffer);
+            String key = PacketHelper.readSymbol(buffer);
             int length = PacketHelper.readInt(buffer);
             byte[] value = new byte[length];
             buffer.readBytes(value);
             data.put(key, value);
+            versions.put(key, PDCVersion.decode(buffer));
+            PDCVersion base = PDCVersion.decode(buffer);
+            if (!base.isNone()) {
+                bases.put(key, base);
+            }
         }
 
-        return new PDCSyncPacket(playerUuid, playerName, operation, data, version);
+        return new PDCSyncPacket(playerUuid, playerName, operation, data, version, requestId, versions, bases);
+    }
+
+    private static long latestClock(Map<String, PDCVersion> versions) {
+        long latest = 0;
+        for (PDCVersion keyVersion : versions.values()) {
+            latest = Math.max(latest, keyVersion.clock());
+        }
+        return latest;
     }
 
     public enum SyncOperation {
         FULL_SYNC,
         PARTIAL_UPDATE,
         DELETE,
-        REQUEST
+        REQUEST,
+        ACK
     }
 }
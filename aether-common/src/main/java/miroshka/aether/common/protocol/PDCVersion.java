@@ -0,0 +1,39 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Objects;
+
+public record PDCVersion(long clock, String origin) implements Comparable<PDCVersion> {
+
+    public static final PDCVersion NONE = new PDCVersion(0, "");
+
+    public PDCVersion {
+        Objects.requireNonNull(origin, "origin");
+    }
+
+    public boolean isNone() {
+        return clock == 0 && origin.isEmpty();
+    }
+
+    public static PDCVersion max(PDCVersion a, PDCVersion b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    @Override
+    public int compareTo(PDCVersion other) {
+        int order = Long.compareUnsigned(clock, other.clock);
+        return order != 0 ? order : origin.compareTo(other.origin);
+    }
+
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeLong(buffer, clock);
+        PacketHelper.writeSymbol(buffer, origin);
+    }
+
+    public static PDCVersion decode(ByteBuf buffer) {
+        long clock = PacketHelper.readLong(buffer);
+        String origin = PacketHelper.readSymbol(buffer);
+        return clock == 0 && origin.isEmpty() ? NONE : new PDCVersion(clock, origin);
+    }
+}
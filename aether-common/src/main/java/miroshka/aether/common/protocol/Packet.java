@@ -9,6 +9,10 @@ public sealed interface Packet permits
         HeartbeatAckPacket,
         NodeSnapshotPacket,
         NetworkStatePacket,
+        NetworkStateDeltaPacket,
+        StateResyncRequestPacket,
+        CompressionDictionaryPacket,
+        SymbolTablePacket,
         MetricsReportPacket,
         CircuitBreakerTrippedPacket,
         ProtocolErrorPacket,
@@ -16,7 +20,10 @@ public sealed interface Packet permits
         PortalSyncPacket,
         EventBroadcastPacket,
         PDCSyncPacket,
-        ChunkDataPacket {
+        ChunkDataPacket,
+        StreamDataPacket,
+        StreamCreditPacket,
+        CustomPacket {
 
     int packetId();
 
@@ -1,10 +1,9 @@
 package miroshka.aether.common.protocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -14,7 +13,6 @@ public final class PacketHelper {
     }
 
     public static void writeVarInt(ByteBuf buffer, int value) {
-        Objects.requireNonNull(buffer, "buffer");
         while ((value & ~0x7F) != 0) {
             buffer.writeByte((value & 0x7F) | 0x80);
             value >>>= 7;
@@ -23,7 +21,6 @@ public final class PacketHelper {
     }
 
     public static int readVarInt(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         int result = 0;
         int shift = 0;
         byte currentByte;
@@ -48,104 +45,124 @@ public final class PacketHelper {
     }
 
     public static void writeString(ByteBuf buffer, String value) {
-        Objects.requireNonNull(buffer, "buffer");
         Objects.requireNonNull(value, "value");
-        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
-        writeVarInt(buffer, bytes.length);
-        buffer.writeBytes(bytes);
+        int length = ByteBufUtil.utf8Bytes(value);
+        writeVarInt(buffer, length);
+        ByteBufUtil.reserveAndWriteUtf8(buffer, value, length);
     }
 
     public static String readString(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         int length = readVarInt(buffer);
         if (length < 0 || length > ProtocolConstants.MAX_PROPERTY_VALUE_SIZE) {
             throw new IllegalStateException("String too long: " + length);
         }
-        byte[] bytes = new byte[length];
-        buffer.readBytes(bytes);
-        return new String(bytes, StandardCharsets.UTF_8);
+        if (length > buffer.readableBytes()) {
+            throw new IllegalStateException("String truncated: " + length + " > " + buffer.readableBytes());
+        }
+        if (length == 0) {
+            return "";
+        }
+        String value = buffer.toString(buffer.readerIndex(), length, StandardCharsets.UTF_8);
+        buffer.skipBytes(length);
+        return value;
+    }
+
+    public static void writeSymbol(ByteBuf buffer, String value) {
+        Objects.requireNonNull(value, "value");
+        SymbolContext symbols = SymbolContext.current();
+        if (symbols == null) {
+            writeString(buffer, value);
+            return;
+        }
+        int id = symbols.idOf(value);
+        if (id >= 0) {
+            writeVarInt(buffer, id + 1);
+            return;
+        }
+        writeVarInt(buffer, 0);
+        writeString(buffer, value);
+    }
+
+    public static String readSymbol(ByteBuf buffer) {
+        SymbolContext symbols = SymbolContext.current();
+        if (symbols == null) {
+            return readString(buffer);
+        }
+        int tag = readVarInt(buffer);
+        if (tag == 0) {
+            return readString(buffer);
+        }
+        return symbols.table().symbol(tag - 1);
     }
 
     public static void writePropertyMap(ByteBuf buffer, Map<String, String> properties) {
-        Objects.requireNonNull(buffer, "buffer");
         Objects.requireNonNull(properties, "properties");
         if (properties.size() > ProtocolConstants.MAX_PROPERTY_MAP_ENTRIES) {
             throw new IllegalArgumentException("Property map too large: " + properties.size());
         }
         writeVarInt(buffer, properties.size());
-        for (Map.Entry<String, String> entry : properties.entrySet()) {
-            writeString(buffer, entry.getKey());
-            writeString(buffer, entry.getValue());
-        }
+        properties.forEach((key, value) -> {
+            writeSymbol(buffer, key);
+            writeString(buffer, value);
+        });
     }
 
     public static Map<String, String> readPropertyMap(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         int size = readVarInt(buffer);
         if (size < 0 || size > ProtocolConstants.MAX_PROPERTY_MAP_ENTRIES) {
             throw new IllegalStateException("Property map too large: " + size);
         }
         if (size == 0) {
-            return Collections.emptyMap();
+            return Map.of();
         }
-        Map<String, String> result = HashMap.newHashMap(size);
+        PropertyMap.Builder result = PropertyMap.builder(size);
         for (int i = 0; i < size; i++) {
-            String key = readString(buffer);
+            String key = readSymbol(buffer);
             String value = readString(buffer);
             result.put(key, value);
         }
-        return Collections.unmodifiableMap(result);
+        return result.build();
     }
 
     public static void writeLong(ByteBuf buffer, long value) {
-        Objects.requireNonNull(buffer, "buffer");
         buffer.writeLong(value);
     }
 
     public static long readLong(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         return buffer.readLong();
     }
 
     public static void writeInt(ByteBuf buffer, int value) {
-        Objects.requireNonNull(buffer, "buffer");
         buffer.writeInt(value);
     }
 
     public static int readInt(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         return buffer.readInt();
     }
 
     public static void writeDouble(ByteBuf buffer, double value) {
-        Objects.requireNonNull(buffer, "buffer");
         buffer.writeDouble(value);
     }
 
     public static double readDouble(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         return buffer.readDouble();
     }
 
     public static void writeBoolean(ByteBuf buffer, boolean value) {
-        Objects.requireNonNull(buffer, "buffer");
         buffer.writeBoolean(value);
     }
 
     public static boolean readBoolean(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         return buffer.readBoolean();
     }
 
     public static void writeUUID(ByteBuf buffer, java.util.UUID uuid) {
-        Objects.requireNonNull(buffer, "buffer");
         Objects.requireNonNull(uuid, "uuid");
         buffer.writeLong(uuid.getMostSignificantBits());
         buffer.writeLong(uuid.getLeastSignificantBits());
     }
 
     public static java.util.UUID readUUID(ByteBuf buffer) {
-        Objects.requireNonNull(buffer, "buffer");
         long mostSig = buffer.readLong();
         long leastSig = buffer.readLong();
         return new java.util.UUID(mostSig, leastSig);
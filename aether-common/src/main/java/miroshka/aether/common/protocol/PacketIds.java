@@ -16,6 +16,14 @@ public final class PacketIds {
 
     public static final int METRICS_REPORT = 0x12;
 
+    public static final int NETWORK_STATE_DELTA = 0x13;
+
+    public static final int STATE_RESYNC_REQUEST = 0x14;
+
+    public static final int COMPRESSION_DICTIONARY = 0x15;
+
+    public static final int SYMBOL_TABLE = 0x16;
+
     public static final int CIRCUIT_BREAKER_TRIPPED = 0x20;
 
     public static final int PROTOCOL_ERROR = 0x21;
@@ -30,6 +38,14 @@ public final class PacketIds {
 
     public static final int CHUNK_DATA = 0x60;
 
+    public static final int STREAM_DATA = 0x61;
+
+    public static final int STREAM_CREDIT = 0x62;
+
+    public static final int CUSTOM_MIN = 0x80;
+
+    public static final int MAX_PACKET_ID = 0xFF;
+
     private PacketIds() {
     }
 }
@@ -2,22 +2,23 @@ package miroshka.aether.common.protocol;
 
 import io.netty.buffer.ByteBuf;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 public final class PacketRegistry {
 
     private static final PacketRegistry INSTANCE = new PacketRegistry();
 
-    private final Map<Integer, Function<ByteBuf, ? extends Packet>> decoders;
     private final Map<Class<? extends Packet>, Integer> packetIdMap;
+    private volatile Function<ByteBuf, ? extends Packet>[] decoders;
 
+    @SuppressWarnings("unchecked")
     private PacketRegistry() {
-        this.decoders = new HashMap<>();
-        this.packetIdMap = new HashMap<>();
+        this.packetIdMap = new ConcurrentHashMap<>();
+        this.decoders = new Function[PacketIds.MAX_PACKET_ID + 1];
         registerDefaults();
     }
 
@@ -26,35 +27,79 @@ public final class PacketRegistry {
     }
 
     private void registerDefaults() {
-        register(PacketIds.AUTH_HANDSHAKE, AuthHandshakePacket.class, AuthHandshakePacket::decode);
-        register(PacketIds.AUTH_RESULT, AuthResultPacket.class, AuthResultPacket::decode);
-        register(PacketIds.HEARTBEAT, HeartbeatPacket.class, HeartbeatPacket::decode);
-        register(PacketIds.HEARTBEAT_ACK, HeartbeatAckPacket.class, HeartbeatAckPacket::decode);
-        register(PacketIds.NODE_SNAPSHOT, NodeSnapshotPacket.class, NodeSnapshotPacket::decode);
-        register(PacketIds.NETWORK_STATE, NetworkStatePacket.class, NetworkStatePacket::decode);
-        register(PacketIds.METRICS_REPORT, MetricsReportPacket.class, MetricsReportPacket::decode);
-        register(PacketIds.CIRCUIT_BREAKER_TRIPPED, CircuitBreakerTrippedPacket.class,
+        registerBuiltin(PacketIds.AUTH_HANDSHAKE, AuthHandshakePacket.class, AuthHandshakePacket::decode);
+        registerBuiltin(PacketIds.AUTH_RESULT, AuthResultPacket.class, AuthResultPacket::decode);
+        registerBuiltin(PacketIds.HEARTBEAT, HeartbeatPacket.class, HeartbeatPacket::decode);
+        registerBuiltin(PacketIds.HEARTBEAT_ACK, HeartbeatAckPacket.class, HeartbeatAckPacket::decode);
+        registerBuiltin(PacketIds.NODE_SNAPSHOT, NodeSnapshotPacket.class, NodeSnapshotPacket::decode);
+        registerBuiltin(PacketIds.NETWORK_STATE, NetworkStatePacket.class, NetworkStatePacket::decode);
+        registerBuiltin(PacketIds.NETWORK_STATE_DELTA, NetworkStateDeltaPacket.class,
+                NetworkStateDeltaPacket::decode);
+        registerBuiltin(PacketIds.STATE_RESYNC_REQUEST, StateResyncRequestPacket.class,
+                StateResyncRequestPacket::decode);
+        registerBuiltin(PacketIds.COMPRESSION_DICTIONARY, CompressionDictionaryPacket.class,
+                CompressionDictionaryPacket::decode);
+        registerBuiltin(PacketIds.SYMBOL_TABLE, SymbolTablePacket.class, SymbolTablePacket::decode);
+        registerBuiltin(PacketIds.METRICS_REPORT, MetricsReportPacket.class, MetricsReportPacket::decode);
+        registerBuiltin(PacketIds.CIRCUIT_BREAKER_TRIPPED, CircuitBreakerTrippedPacket.class,
                 CircuitBreakerTrippedPacket::decode);
-        register(PacketIds.PROTOCOL_ERROR, ProtocolErrorPacket.class, ProtocolErrorPacket::decode);
-        register(PacketIds.TRANSFER_REQUEST, TransferRequestPacket.class, TransferRequestPacket::decode);
-        register(PacketIds.PORTAL_SYNC, PortalSyncPacket.class, PortalSyncPacket::decode);
-        register(PacketIds.EVENT_BROADCAST, EventBroadcastPacket.class, EventBroadcastPacket::decode);
-        register(PacketIds.PDC_SYNC, PDCSyncPacket.class, PDCSyncPacket::decode);
-        register(PacketIds.CHUNK_DATA, ChunkDataPacket.class, ChunkDataPacket::decode);
+        registerBuiltin(PacketIds.PROTOCOL_ERROR, ProtocolErrorPacket.class, ProtocolErrorPacket::decode);
+        registerBuiltin(PacketIds.TRANSFER_REQUEST, TransferRequestPacket.class, TransferRequestPacket::decode);
+        registerBuiltin(PacketIds.PORTAL_SYNC, PortalSyncPacket.class, PortalSyncPacket::decode);
+        registerBuiltin(PacketIds.EVENT_BROADCAST, EventBroadcastPacket.class, EventBroadcastPacket::decode);
+        registerBuiltin(PacketIds.PDC_SYNC, PDCSyncPacket.class, PDCSyncPacket::decode);
+        registerBuiltin(PacketIds.CHUNK_DATA, ChunkDataPacket.class, ChunkDataPacket::decode);
+        registerBuiltin(PacketIds.STREAM_DATA, StreamDataPacket.class, StreamDataPacket::decode);
+        registerBuiltin(PacketIds.STREAM_CREDIT, StreamCreditPacket.class, StreamCreditPacket::decode);
     }
 
-    private <T extends Packet> void register(int packetId, Class<T> packetClass, Function<ByteBuf, T> decoder) {
-        decoders.put(packetId, decoder);
+    private <T extends Packet> void registerBuiltin(int packetId, Class<T> packetClass,
+            Function<ByteBuf, T> decoder) {
+        decoders[packetId] = decoder;
         packetIdMap.put(packetClass, packetId);
     }
 
+    public synchronized <T extends CustomPacket> void register(int packetId, Class<T> packetClass,
+            Function<ByteBuf, T> decoder) {
+        Objects.requireNonNull(packetClass, "packetClass");
+        Objects.requireNonNull(decoder, "decoder");
+        requireCustomId(packetId);
+        if (decoders[packetId] != null) {
+            throw new IllegalStateException("Packet id 0x" + Integer.toHexString(packetId) + " already registered");
+        }
+        if (packetIdMap.containsKey(packetClass)) {
+            throw new IllegalStateException("Packet class already registered: " + packetClass.getName());
+        }
+        Function<ByteBuf, ? extends Packet>[] next = decoders.clone();
+        next[packetId] = decoder;
+        packetIdMap.put(packetClass, packetId);
+        decoders = next;
+    }
+
+    public synchronized boolean unregister(int packetId) {
+        requireCustomId(packetId);
+        if (decoders[packetId] == null) {
+            return false;
+        }
+        Function<ByteBuf, ? extends Packet>[] next = decoders.clone();
+        next[packetId] = null;
+        packetIdMap.values().remove(packetId);
+        decoders = next;
+        return true;
+    }
+
+    public Packet read(int packetId, ByteBuf buffer) {
+        Function<ByteBuf, ? extends Packet>[] current = decoders;
+        if (packetId < 0 || packetId >= current.length) {
+            return null;
+        }
+        Function<ByteBuf, ? extends Packet> decoder = current[packetId];
+        return decoder != null ? decoder.apply(buffer) : null;
+    }
+
     public Optional<Packet> decode(int packetId, ByteBuf buffer) {
         Objects.requireNonNull(buffer, "buffer");
-        Function<ByteBuf, ? extends Packet> decoder = decoders.get(packetId);
-        if (decoder == null) {
-            return Optional.empty();
-        }
-        return Optional.of(decoder.apply(buffer));
+        return Optional.ofNullable(read(packetId, buffer));
     }
 
     public Optional<Integer> getPacketId(Class<? extends Packet> packetClass) {
@@ -63,6 +108,15 @@ public final class PacketRegistry {
     }
 
     public boolean isRegistered(int packetId) {
-        return decoders.containsKey(packetId);
+        Function<ByteBuf, ? extends Packet>[] current = decoders;
+        return packetId >= 0 && packetId < current.length && current[packetId] != null;
+    }
+
+    private static void requireCustomId(int packetId) {
+        if (packetId < PacketIds.CUSTOM_MIN || packetId > PacketIds.MAX_PACKET_ID) {
+            throw new IllegalArgumentException("Custom packet id must be within 0x"
+                    + Integer.toHexString(PacketIds.CUSTOM_MIN) + "-0x"
+                    + Integer.toHexString(PacketIds.MAX_PACKET_ID) + ": 0x" + Integer.toHexString(packetId));
+        }
     }
 }
@@ -22,7 +22,7 @@ public record PortalSyncPacket(
 
     @Override
     public void encode(ByteBuf buffer) {
-        PacketHelper.writeString(buffer, serverName);
+        PacketHelper.writeSymbol(buffer, serverName);
         PacketHelper.writeInt(buffer, portals.size());
         for (PortalData portal : portals) {
             portal.encode(buffer);
@@ -36,7 +36,7 @@ public record PortalSyncPacket(
 
     public static PortalSyncPacket decode(ByteBuf buffer) {
         Objects.requireNonNull(buffer, "buffer");
-        String serverName = PacketHelper.readString(buffer);
+        String serverName = PacketHelper.readSymbol(buffer);
         int count = PacketHelper.readInt(buffer);
         List<PortalData> portals = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
@@ -61,7 +61,7 @@ public record PortalSyncPacket(
 
         public void encode(ByteBuf buffer) {
             PacketHelper.writeString(buffer, id);
-            PacketHelper.writeString(buffer, targetServer);
+            PacketHelper.writeSymbol(buffer, targetServer);
             PacketHelper.writeInt(buffer, type.ordinal());
             buffer.writeBoolean(seamless);
 
@@ -80,7 +80,7 @@ public record PortalSyncPacket(
 
         public static PortalData decode(ByteBuf buffer) {
             String id = PacketHelper.readString(buffer);
-            String targetServer = PacketHelper.readString(buffer);
+            String targetServer = PacketHelper.readSymbol(buffer);
             PortalType type = PortalType.values()[PacketHelper.readInt(buffer)];
             boolean seamless = buffer.readBoolean();
 
@@ -139,7 +139,7 @@ public record PortalSyncPacket(
         }
 
         public void encode(ByteBuf buffer) {
-            PacketHelper.writeString(buffer, world);
+            PacketHelper.writeSymbol(buffer, world);
             PacketHelper.writeInt(buffer, minX);
             PacketHelper.writeInt(buffer, minY);
             PacketHelper.writeInt(buffer, minZ);
@@ -150,7 +150,7 @@ public record PortalSyncPacket(
 
         public static BoxRegion decode(ByteBuf buffer) {
             return new BoxRegion(
-                    PacketHelper.readString(buffer),
+                    PacketHelper.readSymbol(buffer),
                     PacketHelper.readInt(buffer),
                     PacketHelper.readInt(buffer),
                     PacketHelper.readInt(buffer),
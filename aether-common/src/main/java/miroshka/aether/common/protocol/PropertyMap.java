@@ -0,0 +1,139 @@
+package miroshka.aether.common.protocol;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+final class PropertyMap extends AbstractMap<String, String> {
+
+    static final int MAX_COMPACT_SIZE = 16;
+
+    private final String[] entries;
+    private final int size;
+
+    private PropertyMap(String[] entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? entries[index + 1] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < size * 2; i += 2) {
+            action.accept(entries[i], entries[i + 1]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < size * 2;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(entries[index], entries[index + 1]);
+                        index += 2;
+                        return entry;
+                    }
+                };
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        for (int i = 0; i < size * 2; i += 2) {
+            if (key.equals(entries[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static final class Builder {
+
+        private final String[] entries;
+        private final Map<String, String> overflow;
+        private int size;
+
+        private Builder(int expectedSize) {
+            boolean compact = expectedSize <= MAX_COMPACT_SIZE;
+            this.entries = compact ? new String[expectedSize * 2] : null;
+            this.overflow = compact ? null : HashMap.newHashMap(expectedSize);
+        }
+
+        void put(String key, String value) {
+            if (overflow != null) {
+                overflow.put(key, value);
+                return;
+            }
+            for (int i = 0; i < size * 2; i += 2) {
+                if (entries[i].equals(key)) {
+                    entries[i + 1] = value;
+                    return;
+                }
+            }
+            if (size * 2 == entries.length) {
+                throw new IllegalStateException("Property map builder is full: " + size);
+            }
+            entries[size * 2] = key;
+            entries[size * 2 + 1] = value;
+            size++;
+        }
+
+        Map<String, String> build() {
+            if (overflow != null) {
+                return Collections.unmodifiableMap(overflow);
+            }
+            return new PropertyMap(entries, size);
+        }
+    }
+}
@@ -2,7 +2,7 @@ package miroshka.aether.common.protocol;
 
 public final class ProtocolConstants {
 
-    public static final int PROTOCOL_VERSION = 1;
+    public static final int PROTOCOL_VERSION = 4;
 
     public static final int DEFAULT_PORT = 3000;
 
@@ -28,6 +28,8 @@ public final class ProtocolConstants {
 
     public static final long CLOCK_SKEW_THRESHOLD_MILLIS = 5000;
 
+    public static final long PDC_REQUEST_TIMEOUT_MILLIS = 5000;
+
     public static final int HEARTBEAT_INTERVAL_MILLIS = 5000;
 
     public static final int HEARTBEAT_TIMEOUT_MILLIS = 15000;
@@ -38,6 +40,12 @@ public final class ProtocolConstants {
 
     public static final int SNAPSHOT_INTERVAL_MILLIS = 200;
 
+    public static final int FULL_STATE_INTERVAL_MILLIS = 30000;
+
+    public static final int STATE_DELTA_TIMESTAMP_REFRESH_MILLIS = 5000;
+
+    public static final double STATE_DELTA_TPS_EPSILON = 0.05;
+
     public static final int RECONNECTION_INITIAL_DELAY_MILLIS = 1000;
 
     public static final int RECONNECTION_MAX_DELAY_MILLIS = 30000;
@@ -68,6 +76,38 @@ public final class ProtocolConstants {
 
     public static final byte FLAG_PRIORITY_CRITICAL = 0x02;
 
+    public static final byte FLAG_CODEC_MASK = 0x0C;
+
+    public static final int FLAG_CODEC_SHIFT = 2;
+
+    public static final byte FLAG_SYMBOLS = 0x10;
+
+    public static final String COMPRESSION_PROPERTY = "compression";
+
+    public static final String COMPRESSION_DICTIONARY_PROPERTY = "compression-dictionary";
+
+    public static final int DICTIONARY_MIN_PAYLOAD = 64;
+
+    public static final int MAX_DICTIONARY_SIZE = 256 * 1024;
+
+    public static final String SYMBOL_TABLE_PROPERTY = "symbol-table";
+
+    public static final int MAX_SYMBOLS = 4096;
+
+    public static final int MAX_SYMBOL_LENGTH = 64;
+
+    public static final String STREAM_PROPERTY = "packet-streams";
+
+    public static final int STREAM_THRESHOLD = 64 * 1024;
+
+    public static final int STREAM_FRAME_SIZE = 32 * 1024;
+
+    public static final int STREAM_WINDOW = 256 * 1024;
+
+    public static final int MAX_STREAM_SIZE = 64 * 1024 * 1024;
+
+    public static final int MAX_INBOUND_STREAMS = 16;
+
     private ProtocolConstants() {
     }
 }
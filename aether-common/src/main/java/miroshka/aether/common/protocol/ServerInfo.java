@@ -1,5 +1,7 @@
 package miroshka.aether.common.protocol;
 
+import io.netty.buffer.ByteBuf;
+
 import java.util.Map;
 import java.util.Objects;
 
@@ -25,4 +27,24 @@ public record ServerInfo(
             return 0.0;
         return (double) onlinePlayers / maxPlayers * 100.0;
     }
+
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeSymbol(buffer, name);
+        PacketHelper.writeInt(buffer, onlinePlayers);
+        PacketHelper.writeInt(buffer, maxPlayers);
+        PacketHelper.writeDouble(buffer, tps);
+        PacketHelper.writeLong(buffer, lastUpdateTimestamp);
+        PacketHelper.writePropertyMap(buffer, extraData);
+    }
+
+    public static ServerInfo decode(ByteBuf buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        String name = PacketHelper.readSymbol(buffer);
+        int onlinePlayers = PacketHelper.readInt(buffer);
+        int maxPlayers = PacketHelper.readInt(buffer);
+        double tps = PacketHelper.readDouble(buffer);
+        long lastUpdateTimestamp = PacketHelper.readLong(buffer);
+        Map<String, String> extraData = PacketHelper.readPropertyMap(buffer);
+        return new ServerInfo(name, onlinePlayers, maxPlayers, tps, lastUpdateTimestamp, extraData);
+    }
 }
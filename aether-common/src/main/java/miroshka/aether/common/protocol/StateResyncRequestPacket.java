@@ -0,0 +1,33 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Objects;
+
+public record StateResyncRequestPacket(
+        long knownVersion,
+        long receivedBaseVersion) implements Packet {
+
+    @Override
+    public int packetId() {
+        return PacketIds.STATE_RESYNC_REQUEST;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeLong(buffer, knownVersion);
+        PacketHelper.writeLong(buffer, receivedBaseVersion);
+    }
+
+    @Override
+    public Priority priority() {
+        return Priority.CRITICAL;
+    }
+
+    public static StateResyncRequestPacket decode(ByteBuf buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        long knownVersion = PacketHelper.readLong(buffer);
+        long receivedBaseVersion = PacketHelper.readLong(buffer);
+        return new StateResyncRequestPacket(knownVersion, receivedBaseVersion);
+    }
+}
@@ -0,0 +1,50 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Objects;
+
+public record StreamCreditPacket(
+        int streamId,
+        int credit,
+        boolean cancelled) implements Packet {
+
+    public StreamCreditPacket {
+        if (credit < 0) {
+            throw new IllegalArgumentException("credit must not be negative");
+        }
+    }
+
+    public static StreamCreditPacket grant(int streamId, int credit) {
+        return new StreamCreditPacket(streamId, credit, false);
+    }
+
+    public static StreamCreditPacket cancel(int streamId) {
+        return new StreamCreditPacket(streamId, 0, true);
+    }
+
+    @Override
+    public int packetId() {
+        return PacketIds.STREAM_CREDIT;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeVarInt(buffer, streamId);
+        PacketHelper.writeVarInt(buffer, credit);
+        PacketHelper.writeBoolean(buffer, cancelled);
+    }
+
+    @Override
+    public Priority priority() {
+        return Priority.CRITICAL;
+    }
+
+    public static StreamCreditPacket decode(ByteBuf buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        int streamId = PacketHelper.readVarInt(buffer);
+        int credit = PacketHelper.readVarInt(buffer);
+        boolean cancelled = PacketHelper.readBoolean(buffer);
+        return new StreamCreditPacket(streamId, credit, cancelled);
+    }
+}
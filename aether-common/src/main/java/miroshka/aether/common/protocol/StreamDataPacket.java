@@ -0,0 +1,107 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCounted;
+
+import java.util.Objects;
+
+public record StreamDataPacket(
+        int streamId,
+        int payloadPacketId,
+        int totalLength,
+        int offset,
+        boolean last,
+        boolean aborted,
+        ByteBuf data) implements Packet, ReferenceCounted {
+
+    private static final byte FLAG_LAST = 0x01;
+    private static final byte FLAG_ABORTED = 0x02;
+
+    public StreamDataPacket {
+        Objects.requireNonNull(data, "data");
+        if (totalLength < 0 || offset < 0 || offset + data.readableBytes() > totalLength) {
+            throw new IllegalArgumentException("Invalid stream range: " + offset + "+" + data.readableBytes()
+                    + " of " + totalLength);
+        }
+    }
+
+    public static StreamDataPacket abort(int streamId, int payloadPacketId) {
+        return new StreamDataPacket(streamId, payloadPacketId, 0, 0, true, true, Unpooled.EMPTY_BUFFER);
+    }
+
+    @Override
+    public int packetId() {
+        return PacketIds.STREAM_DATA;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeVarInt(buffer, streamId);
+        PacketHelper.writeVarInt(buffer, payloadPacketId);
+        PacketHelper.writeVarInt(buffer, totalLength);
+        PacketHelper.writeVarInt(buffer, offset);
+        buffer.writeByte((last ? FLAG_LAST : 0) | (aborted ? FLAG_ABORTED : 0));
+        PacketHelper.writeVarInt(buffer, data.readableBytes());
+        buffer.writeBytes(data, data.readerIndex(), data.readableBytes());
+    }
+
+    @Override
+    public Priority priority() {
+        return aborted ? Priority.CRITICAL : Priority.LOW;
+    }
+
+    public static StreamDataPacket decode(ByteBuf buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        int streamId = PacketHelper.readVarInt(buffer);
+        int payloadPacketId = PacketHelper.readVarInt(buffer);
+        int totalLength = PacketHelper.readVarInt(buffer);
+        int offset = PacketHelper.readVarInt(buffer);
+        byte flags = buffer.readByte();
+        int length = PacketHelper.readVarInt(buffer);
+        if (length < 0 || length > buffer.readableBytes()) {
+            throw new IllegalStateException("Invalid stream chunk length: " + length);
+        }
+        return new StreamDataPacket(streamId, payloadPacketId, totalLength, offset, (flags & FLAG_LAST) != 0,
+                (flags & FLAG_ABORTED) != 0, buffer.readRetainedSlice(length));
+    }
+
+    @Override
+    public int refCnt() {
+        return data.refCnt();
+    }
+
+    @Override
+    public StreamDataPacket retain() {
+        data.retain();
+        return this;
+    }
+
+    @Override
+    public StreamDataPacket retain(int increment) {
+        data.retain(increment);
+        return this;
+    }
+
+    @Override
+    public StreamDataPacket touch() {
+        data.touch();
+        return this;
+    }
+
+    @Override
+    public StreamDataPacket touch(Object hint) {
+        data.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return data.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return data.release(decrement);
+    }
+}
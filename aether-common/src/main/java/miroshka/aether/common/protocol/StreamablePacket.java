@@ -0,0 +1,6 @@
+package miroshka.aether.common.protocol;
+
+public interface StreamablePacket {
+
+    int payloadSize();
+}
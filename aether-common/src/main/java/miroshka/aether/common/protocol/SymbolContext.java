@@ -0,0 +1,42 @@
+package miroshka.aether.common.protocol;
+
+import java.util.Objects;
+
+public record SymbolContext(SymbolTable table, int limit) {
+
+    private static final ThreadLocal<SymbolContext> CURRENT = new ThreadLocal<>();
+
+    public SymbolContext {
+        Objects.requireNonNull(table, "table");
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+    }
+
+    public static SymbolContext decoding(SymbolTable table) {
+        return new SymbolContext(table, Integer.MAX_VALUE);
+    }
+
+    public static SymbolContext current() {
+        return CURRENT.get();
+    }
+
+    public static SymbolContext enter(SymbolContext context) {
+        SymbolContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return previous;
+    }
+
+    public static void restore(SymbolContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public int idOf(String value) {
+        int id = table.idOf(value);
+        return id < limit ? id : -1;
+    }
+}
@@ -0,0 +1,90 @@
+package miroshka.aether.common.protocol;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class SymbolTable {
+
+    private final Map<String, Integer> ids;
+    private volatile String[] symbols;
+
+    public SymbolTable() {
+        this.ids = new ConcurrentHashMap<>();
+        this.symbols = new String[0];
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public int idOf(String value) {
+        Integer id = ids.get(value);
+        return id != null ? id : -1;
+    }
+
+    public String symbol(int id) {
+        String[] current = symbols;
+        if (id < 0 || id >= current.length) {
+            throw new IllegalStateException("Unknown symbol id: " + id);
+        }
+        return current[id];
+    }
+
+    public List<String> range(int fromId, int toId) {
+        String[] current = symbols;
+        Objects.checkFromToIndex(fromId, toId, current.length);
+        return List.of(Arrays.copyOfRange(current, fromId, toId));
+    }
+
+    public int intern(String value) {
+        Objects.requireNonNull(value, "value");
+        int id = idOf(value);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            id = idOf(value);
+            if (id >= 0 || !isInternable(value) || symbols.length >= ProtocolConstants.MAX_SYMBOLS) {
+                return id;
+            }
+            return add(value);
+        }
+    }
+
+    public void internAll(Collection<String> values) {
+        Objects.requireNonNull(values, "values");
+        for (String value : values) {
+            intern(value);
+        }
+    }
+
+    public synchronized void append(int baseId, List<String> values) {
+        Objects.requireNonNull(values, "values");
+        if (baseId < 0 || baseId > symbols.length) {
+            throw new IllegalStateException("Symbol range starts at " + baseId + ", table has " + symbols.length);
+        }
+        if (baseId + values.size() > ProtocolConstants.MAX_SYMBOLS) {
+            throw new IllegalStateException("Symbol table overflow: " + (baseId + values.size()));
+        }
+        for (int i = symbols.length - baseId; i < values.size(); i++) {
+            add(Objects.requireNonNull(values.get(i), "symbol"));
+        }
+    }
+
+    private int add(String value) {
+        String[] current = symbols;
+        String[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = value;
+        ids.putIfAbsent(value, current.length);
+        symbols = next;
+        return current.length;
+    }
+
+    private static boolean isInternable(String value) {
+        return !value.isEmpty() && value.length() <= ProtocolConstants.MAX_SYMBOL_LENGTH;
+    }
+}
@@ -0,0 +1,53 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public record SymbolTablePacket(
+        int baseId,
+        List<String> symbols) implements Packet {
+
+    public SymbolTablePacket {
+        Objects.requireNonNull(symbols, "symbols");
+        if (baseId < 0 || baseId + symbols.size() > ProtocolConstants.MAX_SYMBOLS) {
+            throw new IllegalArgumentException("Invalid symbol range: " + baseId + "+" + symbols.size());
+        }
+        symbols = List.copyOf(symbols);
+    }
+
+    @Override
+    public int packetId() {
+        return PacketIds.SYMBOL_TABLE;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer) {
+        PacketHelper.writeVarInt(buffer, baseId);
+        PacketHelper.writeVarInt(buffer, symbols.size());
+        for (String symbol : symbols) {
+            PacketHelper.writeString(buffer, symbol);
+        }
+    }
+
+    @Override
+    public Priority priority() {
+        return Priority.CRITICAL;
+    }
+
+    public static SymbolTablePacket decode(ByteBuf buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        int baseId = PacketHelper.readVarInt(buffer);
+        int count = PacketHelper.readVarInt(buffer);
+        if (count < 0 || count > ProtocolConstants.MAX_SYMBOLS) {
+            throw new IllegalArgumentException("Invalid symbol count: " + count);
+        }
+        List<String> symbols = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            symbols.add(PacketHelper.readString(buffer));
+        }
+        return new SymbolTablePacket(baseId, symbols);
+    }
+}
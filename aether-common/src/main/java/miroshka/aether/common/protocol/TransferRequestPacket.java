@@ -33,8 +33,8 @@ public record TransferRequestPacket(
     public void encode(ByteBuf buffer) {
         PacketHelper.writeUUID(buffer, playerUuid);
         PacketHelper.writeString(buffer, playerName);
-        PacketHelper.writeString(buffer, sourceServer);
-        PacketHelper.writeString(buffer, targetServer);
+        PacketHelper.writeSymbol(buffer, sourceServer);
+        PacketHelper.writeSymbol(buffer, targetServer);
         PacketHelper.writeString(buffer, portalId);
         PacketHelper.writeDouble(buffer, targetX);
         PacketHelper.writeDouble(buffer, targetY);
@@ -51,8 +51,8 @@ public record TransferRequestPacket(
         Objects.requireNonNull(buffer, "buffer");
         UUID playerUuid = PacketHelper.readUUID(buffer);
         String playerName = PacketHelper.readString(buffer);
-        String sourceServer = PacketHelper.readString(buffer);
-        String targetServer = PacketHelper.readString(buffer);
+        String sourceServer = PacketHelper.readSymbol(buffer);
+        String targetServer = PacketHelper.readSymbol(buffer);
         String portalId = PacketHelper.readString(buffer);
         double targetX = PacketHelper.readDouble(buffer);
         double targetY = PacketHelper.readDouble(buffer);
@@ -0,0 +1,64 @@
+package miroshka.aether.common.codec;
+
+import miroshka.aether.common.protocol.PacketIds;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionPolicyTest {
+
+    @Test
+    void testNegotiatePicksFirstPreferredOfferedCodec() {
+        CompressionPolicy policy = CompressionPolicy.defaults();
+
+        assertEquals(FrameCompression.ZSTD,
+                policy.negotiate(List.of(FrameCompression.SNAPPY, FrameCompression.LZ4, FrameCompression.ZSTD)));
+        assertEquals(FrameCompression.LZ4,
+                policy.negotiate(List.of(FrameCompression.SNAPPY, FrameCompression.LZ4)));
+        assertEquals(FrameCompression.SNAPPY, policy.negotiate(List.of(FrameCompression.SNAPPY)));
+    }
+
+    @Test
+    void testNegotiateFallsBack() {
+        CompressionPolicy policy = new CompressionPolicy(List.of(FrameCompression.LZ4),
+                ProtocolConstants.COMPRESSION_THRESHOLD, Map.of(), false);
+
+        assertEquals(FrameCompression.NONE, policy.negotiate(List.of(FrameCompression.ZSTD)));
+        assertEquals(FrameCompression.NONE, policy.negotiate(List.of()));
+        assertEquals(FrameCompression.SNAPPY, CompressionPolicy.defaults().negotiate(List.of()));
+        assertEquals(FrameCompression.NONE, CompressionPolicy.disabled().negotiate(List.of(FrameCompression.ZSTD)));
+    }
+
+    @Test
+    void testOfferRoundTripsThroughParseList() {
+        CompressionPolicy policy = CompressionPolicy.defaults();
+
+        assertEquals(policy.preferred(), FrameCompression.parseList(policy.offer()));
+        assertEquals("none", CompressionPolicy.disabled().offer());
+        assertEquals(List.of(FrameCompression.LZ4, FrameCompression.ZSTD),
+                FrameCompression.parseList(" lz4, bogus ,ZSTD,lz4"));
+    }
+
+    @Test
+    void testPreferredDropsNoneAndDuplicates() {
+        CompressionPolicy policy = new CompressionPolicy(
+                List.of(FrameCompression.NONE, FrameCompression.LZ4, FrameCompression.LZ4), 0, Map.of(), false);
+
+        assertEquals(List.of(FrameCompression.LZ4), policy.preferred());
+        assertEquals(FrameCompression.NONE, policy.initialCompression());
+    }
+
+    @Test
+    void testPerPacketThresholds() {
+        CompressionPolicy policy = CompressionPolicy.defaults();
+
+        assertEquals(256, policy.thresholdFor(PacketIds.CHUNK_DATA));
+        assertEquals(ProtocolConstants.COMPRESSION_THRESHOLD, policy.thresholdFor(PacketIds.HEARTBEAT));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompressionPolicy(List.of(), -1, Map.of(), false));
+    }
+}
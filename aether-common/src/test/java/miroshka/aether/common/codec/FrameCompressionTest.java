@@ -0,0 +1,188 @@
+package miroshka.aether.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import miroshka.aether.common.protocol.ChunkDataPacket;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameCompressionTest {
+
+    private static final ByteBufAllocator ALLOC = UnpooledByteBufAllocator.DEFAULT;
+
+    @ParameterizedTest
+    @EnumSource(value = FrameCompression.class, names = {"SNAPPY", "LZ4", "ZSTD"})
+    void testCompressibleRoundTrip(FrameCompression compression) throws IOException {
+        byte[] payload = compressible(8192);
+        ByteBuf out = ALLOC.heapBuffer();
+        out.writeBytes(payload);
+        try {
+            assertTrue(compression.compressInPlace(ALLOC, out, 0, payload.length));
+            assertTrue(out.readableBytes() < payload.length);
+
+            ByteBuf decoded = compression.decompress(ALLOC, out, out.readableBytes());
+            try {
+                assertEquals(0, out.readableBytes());
+                assertArrayEquals(payload, bytes(decoded));
+            } finally {
+                decoded.release();
+            }
+        } finally {
+            out.release();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = FrameCompression.class, names = {"SNAPPY", "LZ4", "ZSTD"})
+    void testIncompressiblePayloadIsLeftUntouched(FrameCompression compression) throws IOException {
+        byte[] payload = new byte[512];
+        new Random(7).nextBytes(payload);
+        ByteBuf out = ALLOC.directBuffer();
+        out.writeBytes(payload);
+        try {
+            assertFalse(compression.compressInPlace(ALLOC, out, 0, payload.length));
+            assertArrayEquals(payload, bytes(out));
+        } finally {
+            out.release();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FrameCompression.class)
+    void testFrameFlagsRoundTrip(FrameCompression compression) throws IOException {
+        assertEquals(compression, FrameCompression.fromFrameFlags(compression.frameFlags()));
+        assertFalse(FrameCompression.isDictionaryFrame(compression.frameFlags()));
+    }
+
+    @Test
+    void testDictionaryFlagsAreNotAFrameCodec() {
+        assertTrue(FrameCompression.isDictionaryFrame(ZstdDictionary.frameFlags()));
+        assertThrows(IOException.class, () -> FrameCompression.fromFrameFlags(ZstdDictionary.frameFlags()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = FrameCompression.class, names = {"LZ4", "ZSTD"})
+    void testPayloadShorterThanLengthPrefixIsRejected(FrameCompression compression) {
+        ByteBuf in = ALLOC.heapBuffer().writeBytes(new byte[] {1, 2, 3});
+        try {
+            assertThrows(IOException.class, () -> compression.decompress(ALLOC, in, 3));
+            assertEquals(0, in.readableBytes());
+        } finally {
+            in.release();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = FrameCompression.class, names = {"LZ4", "ZSTD"})
+    void testLengthPrefixOutOfBoundsIsRejected(FrameCompression compression) throws IOException {
+        assertRejectsPrefix(compression, -1);
+        assertRejectsPrefix(compression, ProtocolConstants.MAX_FRAME_SIZE + 1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = FrameCompression.class, names = {"LZ4", "ZSTD"})
+    void testLengthPrefixMismatchIsRejected(FrameCompression compression) throws IOException {
+        assertRejectsPrefix(compression, 8192 + 1);
+        assertRejectsPrefix(compression, 8192 - 1);
+    }
+
+    @Test
+    void testWriteFrameUsesDictionaryBelowThreshold() throws IOException {
+        ZstdDictionary dictionary = ZstdDictionary.of(1, compressible(2048));
+        CompressionDictionaries dictionaries = new CompressionDictionaries();
+        dictionaries.register(dictionary);
+        FrameOptions options = FrameOptions.of(FrameCompression.LZ4).withDictionary(dictionary);
+        ChunkDataPacket packet = new ChunkDataPacket(null, "lobby", "survival", "world",
+                ChunkDataPacket.ChunkAction.PUSH, 1, 2, compressible(200), 0L);
+
+        ByteBuf frame = ALLOC.heapBuffer();
+        try {
+            PacketEncoder.writeFrame(ALLOC, packet, frame, options, 4096);
+            int totalLength = frame.readInt();
+            byte flags = frame.readByte();
+            frame.readInt();
+            assertTrue(FrameCompression.isDictionaryFrame(flags));
+
+            int payloadLength = totalLength - ProtocolConstants.FRAME_FLAGS_SIZE - ProtocolConstants.FRAME_PACKET_ID_SIZE;
+            frame.markReaderIndex();
+            ByteBuf payload = PacketDecoder.readPayload(ALLOC, frame, flags, payloadLength, dictionaries);
+            try {
+                ChunkDataPacket decoded = ChunkDataPacket.decode(payload);
+                assertArrayEquals(packet.chunkData(), decoded.chunkData());
+            } finally {
+                payload.release();
+            }
+
+            frame.resetReaderIndex();
+            assertThrows(IOException.class, () -> PacketDecoder.readPayload(ALLOC, frame, flags, payloadLength,
+                    new CompressionDictionaries()));
+        } finally {
+            frame.release();
+        }
+    }
+
+    @Test
+    void testWriteFrameCompressesAboveThreshold() throws IOException {
+        ChunkDataPacket packet = new ChunkDataPacket(null, "lobby", "survival", "world",
+                ChunkDataPacket.ChunkAction.PUSH, 1, 2, compressible(4096), 0L);
+
+        ByteBuf frame = ALLOC.heapBuffer();
+        try {
+            PacketEncoder.writeFrame(ALLOC, packet, frame, FrameOptions.of(FrameCompression.ZSTD), 256);
+            int totalLength = frame.readInt();
+            byte flags = frame.readByte();
+            frame.readInt();
+            assertEquals(FrameCompression.ZSTD, FrameCompression.fromFrameFlags(flags));
+
+            int payloadLength = totalLength - ProtocolConstants.FRAME_FLAGS_SIZE - ProtocolConstants.FRAME_PACKET_ID_SIZE;
+            ByteBuf payload = PacketDecoder.readPayload(ALLOC, frame, flags, payloadLength,
+                    new CompressionDictionaries());
+            try {
+                assertArrayEquals(packet.chunkData(), ChunkDataPacket.decode(payload).chunkData());
+            } finally {
+                payload.release();
+            }
+        } finally {
+            frame.release();
+        }
+    }
+
+    private static void assertRejectsPrefix(FrameCompression compression, int prefix) throws IOException {
+        byte[] payload = compressible(8192);
+        ByteBuf buffer = ALLOC.heapBuffer();
+        buffer.writeBytes(payload);
+        try {
+            assertTrue(compression.compressInPlace(ALLOC, buffer, 0, payload.length));
+            buffer.setInt(0, prefix);
+            int length = buffer.readableBytes();
+            assertThrows(IOException.class, () -> compression.decompress(ALLOC, buffer, length));
+            assertEquals(0, buffer.readableBytes());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static byte[] compressible(int length) {
+        byte[] pattern = "aether-frame-compression-".getBytes(StandardCharsets.US_ASCII);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = pattern[i % pattern.length];
+        }
+        return data;
+    }
+
+    private static byte[] bytes(ByteBuf buffer) {
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), data);
+        return data;
+    }
+}
@@ -0,0 +1,228 @@
+package miroshka.aether.common.network;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import miroshka.aether.common.exception.ConnectionException;
+import miroshka.aether.common.protocol.ChunkDataPacket;
+import miroshka.aether.common.protocol.HeartbeatPacket;
+import miroshka.aether.common.protocol.PacketIds;
+import miroshka.aether.common.protocol.StreamCreditPacket;
+import miroshka.aether.common.protocol.StreamDataPacket;
+import miroshka.aether.common.protocol.TransferRequestPacket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketStreamHandlerTest {
+
+    private static final int FRAME_SIZE = 1024;
+    private static final int WINDOW = 2048;
+
+    private EmbeddedChannel sender;
+    private EmbeddedChannel receiver;
+
+    @BeforeEach
+    void setUp() {
+        sender = new EmbeddedChannel(newHandler());
+        receiver = new EmbeddedChannel(newHandler());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.finishAndReleaseAll();
+        receiver.finishAndReleaseAll();
+    }
+
+    @Test
+    void testLargePacketIsReassembled() {
+        ChunkDataPacket chunk = chunk(5000);
+
+        ChannelFuture future = sender.writeAndFlush(chunk);
+        relay();
+
+        assertTrue(future.isSuccess());
+        ChunkDataPacket received = receiver.readInbound();
+        assertArrayEquals(chunk.chunkData(), received.chunkData());
+        assertEquals(chunk.targetServer(), received.targetServer());
+        assertNull(receiver.readInbound());
+    }
+
+    @Test
+    void testSmallPacketIsNotStreamed() {
+        ChunkDataPacket chunk = chunk(100);
+
+        sender.writeAndFlush(chunk);
+
+        assertSame(chunk, sender.readOutbound());
+    }
+
+    @Test
+    void testSenderStopsAtCreditWindow() {
+        sender.writeAndFlush(chunk(5000));
+
+        List<StreamDataPacket> frames = drainFrames();
+        assertEquals(WINDOW / FRAME_SIZE, frames.size());
+        assertFalse(frames.get(frames.size() - 1).last());
+        int streamId = frames.get(0).streamId();
+        frames.forEach(StreamDataPacket::release);
+
+        sender.writeInbound(StreamCreditPacket.grant(streamId, FRAME_SIZE));
+        List<StreamDataPacket> granted = drainFrames();
+        assertEquals(1, granted.size());
+        assertEquals(WINDOW, granted.get(0).offset());
+        granted.forEach(StreamDataPacket::release);
+    }
+
+    @Test
+    void testPeerCancelFailsWrite() {
+        ChannelFuture future = sender.writeAndFlush(chunk(5000));
+        List<StreamDataPacket> frames = drainFrames();
+        int streamId = frames.get(0).streamId();
+        frames.forEach(StreamDataPacket::release);
+
+        sender.writeInbound(StreamCreditPacket.cancel(streamId));
+
+        assertTrue(future.isDone());
+        assertInstanceOf(ConnectionException.class, future.cause());
+        sender.writeInbound(StreamCreditPacket.grant(streamId, WINDOW));
+        assertNull(sender.readOutbound());
+    }
+
+    @Test
+    void testOtherPacketsInterleaveWithActiveStream() {
+        TransferRequestPacket transfer = new TransferRequestPacket(UUID.randomUUID(), "player", "lobby",
+                "survival", "", 0.0, 64.0, 0.0, true);
+        HeartbeatPacket heartbeat = new HeartbeatPacket(1L, 1);
+
+        ChannelFuture streamFuture = sender.writeAndFlush(chunk(5000));
+        ChannelFuture transferFuture = sender.writeAndFlush(transfer);
+        sender.writeAndFlush(heartbeat);
+
+        List<Object> written = new ArrayList<>();
+        Object msg;
+        while ((msg = sender.readOutbound()) != null) {
+            written.add(msg);
+        }
+        assertSame(heartbeat, written.get(written.size() - 1));
+        assertSame(transfer, written.get(written.size() - 2));
+        assertTrue(transferFuture.isSuccess());
+        assertFalse(streamFuture.isDone());
+        written.forEach(ReferenceCountUtil::release);
+    }
+
+    @Test
+    void testSamePacketTypeWaitsBehindActiveStream() {
+        ChunkDataPacket small = chunk(100);
+
+        sender.writeAndFlush(chunk(5000));
+        ChannelFuture smallFuture = sender.writeAndFlush(small);
+
+        List<Object> written = new ArrayList<>();
+        Object msg;
+        while ((msg = sender.readOutbound()) != null) {
+            written.add(msg);
+        }
+        assertFalse(written.contains(small));
+        assertFalse(smallFuture.isDone());
+        for (Object frame : written) {
+            receiver.writeInbound(frame);
+        }
+
+        List<Object> ordered = relay();
+        assertSame(small, ordered.get(ordered.size() - 1));
+        assertTrue(ordered.get(ordered.size() - 2) instanceof StreamDataPacket last && last.last());
+        assertTrue(smallFuture.isSuccess());
+    }
+
+    @Test
+    void testDeferredWritesAreBounded() {
+        sender.writeAndFlush(chunk(5000));
+        List<ChannelFuture> futures = new ArrayList<>();
+        for (int i = 0; i < 1025; i++) {
+            futures.add(sender.write(chunk(10)));
+        }
+
+        assertFalse(futures.get(1023).isDone());
+        assertInstanceOf(ConnectionException.class, futures.get(1024).cause());
+    }
+
+    @Test
+    void testOversizedInboundStreamIsCancelled() {
+        StreamDataPacket frame = new StreamDataPacket(7, PacketIds.CHUNK_DATA, 1 << 21, 0, false, false,
+                Unpooled.wrappedBuffer(new byte[16]));
+
+        receiver.writeInbound(frame);
+
+        StreamCreditPacket cancel = receiver.readOutbound();
+        assertEquals(7, cancel.streamId());
+        assertTrue(cancel.cancelled());
+        assertEquals(0, frame.refCnt());
+        assertNull(receiver.readInbound());
+    }
+
+    @Test
+    void testOutOfOrderFrameCancelsStream() {
+        receiver.writeInbound(new StreamDataPacket(3, PacketIds.CHUNK_DATA, 4096, 0, false, false,
+                Unpooled.wrappedBuffer(new byte[512])));
+        receiver.writeInbound(new StreamDataPacket(3, PacketIds.CHUNK_DATA, 4096, 1024, false, false,
+                Unpooled.wrappedBuffer(new byte[512])));
+
+        StreamCreditPacket cancel = receiver.readOutbound();
+        assertTrue(cancel.cancelled());
+        assertEquals(3, cancel.streamId());
+        assertNull(receiver.readInbound());
+    }
+
+    private List<Object> relay() {
+        List<Object> sent = new ArrayList<>();
+        boolean progressed = true;
+        while (progressed) {
+            progressed = false;
+            Object msg;
+            while ((msg = sender.readOutbound()) != null) {
+                sent.add(msg);
+                if (msg instanceof StreamDataPacket frame) {
+                    receiver.writeInbound(frame);
+                }
+                progressed = true;
+            }
+            while ((msg = receiver.readOutbound()) != null) {
+                sender.writeInbound(msg);
+                progressed = true;
+            }
+        }
+        return sent;
+    }
+
+    private List<StreamDataPacket> drainFrames() {
+        List<StreamDataPacket> frames = new ArrayList<>();
+        Object msg;
+        while ((msg = sender.readOutbound()) != null) {
+            frames.add((StreamDataPacket) msg);
+        }
+        return frames;
+    }
+
+    private static PacketStreamHandler newHandler() {
+        PacketStreamHandler handler = new PacketStreamHandler(1024, FRAME_SIZE, WINDOW, 1 << 20, 2);
+        handler.enable();
+        return handler;
+    }
+
+    private static ChunkDataPacket chunk(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return new ChunkDataPacket(UUID.randomUUID(), "lobby", "survival", "world", ChunkDataPacket.ChunkAction.PUSH,
+                4, -2, data, 0L);
+    }
+}
@@ -0,0 +1,80 @@
+package miroshka.aether.common.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HybridLogicalClockTest {
+
+    @Test
+    void testNowIsMonotonicWhenWallClockStalls() {
+        AtomicLong wall = new AtomicLong(1_000);
+        HybridLogicalClock clock = new HybridLogicalClock(wall::get);
+
+        long first = clock.now();
+        long second = clock.now();
+        wall.set(900);
+        long third = clock.now();
+
+        assertTrue(second > first);
+        assertTrue(third > second);
+        assertEquals(1_000, HybridLogicalClock.physicalMillis(third));
+        assertEquals(2, HybridLogicalClock.logical(third));
+    }
+
+    @Test
+    void testNowFollowsWallClock() {
+        AtomicLong wall = new AtomicLong(1_000);
+        HybridLogicalClock clock = new HybridLogicalClock(wall::get);
+
+        clock.now();
+        wall.set(2_000);
+        long later = clock.now();
+
+        assertEquals(2_000, HybridLogicalClock.physicalMillis(later));
+        assertEquals(0, HybridLogicalClock.logical(later));
+    }
+
+    @Test
+    void testUpdateOrdersAfterRemoteClock() {
+        AtomicLong wall = new AtomicLong(1_000);
+        HybridLogicalClock clock = new HybridLogicalClock(wall::get);
+        HybridLogicalClock remote = new HybridLogicalClock(() -> 1_500);
+
+        long remoteStamp = remote.now();
+        long merged = clock.update(remoteStamp);
+        long next = clock.now();
+
+        assertTrue(merged > remoteStamp);
+        assertTrue(next > merged);
+        assertEquals(1_500, HybridLogicalClock.physicalMillis(next));
+    }
+
+    @Test
+    void testUpdateTracksForwardSkewOnly() {
+        AtomicLong wall = new AtomicLong(10_000);
+        HybridLogicalClock clock = new HybridLogicalClock(wall::get);
+
+        clock.update(new HybridLogicalClock(() -> 9_000).now());
+        assertEquals(0, clock.maxSkewMillis());
+
+        clock.update(new HybridLogicalClock(() -> 10_250).now());
+        clock.update(new HybridLogicalClock(() -> 10_100).now());
+        assertEquals(250, clock.maxSkewMillis());
+    }
+
+    @Test
+    void testVersionsOrderByClockThenOrigin() {
+        PDCVersion earlier = new PDCVersion(5, "lobby-2");
+        PDCVersion later = new PDCVersion(6, "lobby-1");
+        PDCVersion tie = new PDCVersion(6, "lobby-2");
+
+        assertTrue(earlier.compareTo(later) < 0);
+        assertTrue(later.compareTo(tie) < 0);
+        assertEquals(tie, PDCVersion.max(later, tie));
+        assertTrue(PDCVersion.NONE.compareTo(earlier) < 0);
+        assertTrue(new PDCVersion(-1, "a").compareTo(later) > 0);
+    }
+}
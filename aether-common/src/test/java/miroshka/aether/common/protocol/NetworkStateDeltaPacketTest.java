@@ -0,0 +1,104 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkStateDeltaPacketTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void testDeltaReproducesTargetState() {
+        NetworkStatePacket base = new NetworkStatePacket(30, 3, 1, 10,
+                Map.of("motd", "hello", "event", "none"),
+                Map.of("lobby", "lobby-1"),
+                List.of(server("lobby-1", 10, 20.0, NOW), server("lobby-2", 5, 20.0, NOW),
+                        server("survival", 15, 19.5, NOW)));
+        NetworkStatePacket target = new NetworkStatePacket(42, 3, 2, 10,
+                Map.of("motd", "welcome"),
+                Map.of("lobby", "lobby-2", "pvp", "arena-1"),
+                List.of(server("lobby-1", 10, 20.0, NOW), server("survival", 27, 19.5, NOW),
+                        server("arena-1", 5, 20.0, NOW)));
+
+        NetworkStateDeltaPacket delta = NetworkStateDeltaPacket.between(base, target, 5000, 0.5);
+
+        assertEquals(1, delta.baseVersion());
+        assertEquals(2, delta.stateVersion());
+        assertEquals(List.of("lobby-2"), delta.removedServers());
+        assertEquals(List.of("event"), delta.removedGlobalProperties());
+        assertEquals(2, delta.updatedServers().size());
+        assertTrue(delta.updatedServers().stream().noneMatch(server -> server.name().equals("lobby-1")));
+
+        NetworkStatePacket applied = delta.applyTo(base);
+        assertEquals(target.stateVersion(), applied.stateVersion());
+        assertEquals(target.globalOnline(), applied.globalOnline());
+        assertEquals(target.globalProperties(), applied.globalProperties());
+        assertEquals(target.routingHints(), applied.routingHints());
+        assertEquals(byName(target.servers()), byName(applied.servers()));
+    }
+
+    @Test
+    void testUnchangedServersAreOmitted() {
+        NetworkStatePacket base = new NetworkStatePacket(10, 1, 7, 10, Map.of(), Map.of(),
+                List.of(server("lobby", 10, 20.0, NOW)));
+        NetworkStatePacket target = new NetworkStatePacket(10, 1, 8, 10, Map.of(), Map.of(),
+                List.of(server("lobby", 10, 19.8, NOW + 1000)));
+
+        NetworkStateDeltaPacket delta = NetworkStateDeltaPacket.between(base, target, 5000, 0.5);
+
+        assertTrue(delta.updatedServers().isEmpty());
+        assertTrue(delta.isEmpty(base));
+
+        NetworkStatePacket refreshed = new NetworkStatePacket(10, 1, 9, 10, Map.of(), Map.of(),
+                List.of(server("lobby", 10, 20.0, NOW + 5000)));
+        assertEquals(1, NetworkStateDeltaPacket.between(base, refreshed, 5000, 0.5).updatedServers().size());
+    }
+
+    @Test
+    void testDeltaEncodeDecode() {
+        NetworkStatePacket base = new NetworkStatePacket(10, 1, 3, 10, Map.of("a", "1"), Map.of(),
+                List.of(server("lobby", 10, 20.0, NOW)));
+        NetworkStatePacket target = new NetworkStatePacket(12, 2, 4, 10, Map.of("a", "2"), Map.of("b", "c"),
+                List.of(server("lobby", 11, 20.0, NOW), server("game", 1, 20.0, NOW)));
+        NetworkStateDeltaPacket delta = NetworkStateDeltaPacket.between(base, target, 5000, 0.5);
+
+        ByteBuf buffer = Unpooled.buffer();
+        delta.encode(buffer);
+        NetworkStateDeltaPacket decoded = NetworkStateDeltaPacket.decode(buffer);
+
+        assertEquals(0, buffer.readableBytes());
+        NetworkStatePacket applied = decoded.applyTo(base);
+        assertEquals(target.globalProperties(), applied.globalProperties());
+        assertEquals(target.routingHints(), applied.routingHints());
+        assertEquals(byName(target.servers()), byName(applied.servers()));
+        buffer.release();
+    }
+
+    @Test
+    void testApplyToWrongBaseVersionFails() {
+        NetworkStatePacket base = new NetworkStatePacket(0, 0, 5, 10, Map.of(), Map.of());
+        NetworkStatePacket target = new NetworkStatePacket(1, 0, 6, 10, Map.of(), Map.of());
+        NetworkStateDeltaPacket delta = NetworkStateDeltaPacket.between(base, target, 5000, 0.5);
+
+        NetworkStatePacket other = new NetworkStatePacket(0, 0, 4, 10, Map.of(), Map.of());
+        assertThrows(IllegalStateException.class, () -> delta.applyTo(other));
+    }
+
+    private static ServerInfo server(String name, int online, double tps, long timestamp) {
+        return new ServerInfo(name, online, 100, tps, timestamp, Map.of());
+    }
+
+    private static Map<String, ServerInfo> byName(List<ServerInfo> servers) {
+        Map<String, ServerInfo> result = new java.util.HashMap<>();
+        for (ServerInfo server : servers) {
+            result.put(server.name(), server);
+        }
+        return result;
+    }
+}
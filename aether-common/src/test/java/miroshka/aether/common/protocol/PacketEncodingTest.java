@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,7 +22,7 @@ class PacketEncodingTest {
 
         HeartbeatPacket decoded = HeartbeatPacket.decode(buffer);
 
-        assertEquals(original.sequenceId(), decoded.sequenceId());
+        assertEquals(original.sequenceNumber(), decoded.sequenceNumber());
         assertEquals(original.timestamp(), decoded.timestamp());
         buffer.release();
     }
@@ -57,10 +58,11 @@ class PacketEncodingTest {
                 "TestPlayer",
                 "lobby",
                 "survival",
-                true,
+                "spawn-portal",
                 100.5,
                 64.0,
-                -200.3);
+                -200.3,
+                true);
 
         ByteBuf buffer = Unpooled.buffer();
         original.encode(buffer);
@@ -71,10 +73,11 @@ class PacketEncodingTest {
         assertEquals(original.playerName(), decoded.playerName());
         assertEquals(original.sourceServer(), decoded.sourceServer());
         assertEquals(original.targetServer(), decoded.targetServer());
+        assertEquals(original.portalId(), decoded.portalId());
         assertEquals(original.seamless(), decoded.seamless());
-        assertEquals(original.x(), decoded.x(), 0.01);
-        assertEquals(original.y(), decoded.y(), 0.01);
-        assertEquals(original.z(), decoded.z(), 0.01);
+        assertEquals(original.targetX(), decoded.targetX(), 0.01);
+        assertEquals(original.targetY(), decoded.targetY(), 0.01);
+        assertEquals(original.targetZ(), decoded.targetZ(), 0.01);
         buffer.release();
     }
 
@@ -82,11 +85,11 @@ class PacketEncodingTest {
     void testPacketRegistry() {
         PacketRegistry registry = PacketRegistry.instance();
 
-        assertTrue(registry.isRegistered(HeartbeatPacket.class));
-        assertTrue(registry.isRegistered(EventBroadcastPacket.class));
-        assertTrue(registry.isRegistered(TransferRequestPacket.class));
+        assertTrue(registry.isRegistered(PacketIds.HEARTBEAT));
+        assertTrue(registry.isRegistered(PacketIds.EVENT_BROADCAST));
+        assertTrue(registry.isRegistered(PacketIds.TRANSFER_REQUEST));
 
-        assertEquals(PacketIds.HEARTBEAT, registry.getPacketId(HeartbeatPacket.class));
-        assertEquals(PacketIds.EVENT_BROADCAST, registry.getPacketId(EventBroadcastPacket.class));
+        assertEquals(Optional.of(PacketIds.HEARTBEAT), registry.getPacketId(HeartbeatPacket.class));
+        assertEquals(Optional.of(PacketIds.EVENT_BROADCAST), registry.getPacketId(EventBroadcastPacket.class));
     }
 }
@@ -46,8 +46,8 @@ class PacketHelperTest {
                 "key1", "value1",
                 "key2", "value2");
 
-        PacketHelper.writeMap(buffer, testMap);
-        Map<String, String> result = PacketHelper.readMap(buffer);
+        PacketHelper.writePropertyMap(buffer, testMap);
+        Map<String, String> result = PacketHelper.readPropertyMap(buffer);
 
         assertEquals(testMap.size(), result.size());
         assertEquals(testMap.get("key1"), result.get("key1"));
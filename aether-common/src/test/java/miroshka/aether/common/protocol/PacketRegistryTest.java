@@ -0,0 +1,119 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketRegistryTest {
+
+    private static final int PING_ID = 0xF0;
+    private static final int PONG_ID = 0xF1;
+
+    private final PacketRegistry registry = PacketRegistry.instance();
+
+    @AfterEach
+    void tearDown() {
+        registry.unregister(PING_ID);
+        registry.unregister(PONG_ID);
+    }
+
+    @Test
+    void testCustomPacketRoundTrip() {
+        registry.register(PING_ID, PingPacket.class, PingPacket::decode);
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            new PingPacket(42L).encode(buffer);
+
+            assertTrue(registry.isRegistered(PING_ID));
+            assertEquals(Optional.of(PING_ID), registry.getPacketId(PingPacket.class));
+            assertEquals(new PingPacket(42L), registry.read(PING_ID, buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void testDuplicateIdIsRejected() {
+        registry.register(PING_ID, PingPacket.class, PingPacket::decode);
+
+        assertThrows(IllegalStateException.class,
+                () -> registry.register(PING_ID, PongPacket.class, PongPacket::decode));
+        assertTrue(registry.getPacketId(PongPacket.class).isEmpty());
+    }
+
+    @Test
+    void testDuplicateClassIsRejected() {
+        registry.register(PING_ID, PingPacket.class, PingPacket::decode);
+
+        assertThrows(IllegalStateException.class,
+                () -> registry.register(PONG_ID, PingPacket.class, PingPacket::decode));
+        assertFalse(registry.isRegistered(PONG_ID));
+        assertEquals(Optional.of(PING_ID), registry.getPacketId(PingPacket.class));
+    }
+
+    @Test
+    void testIdsOutsideCustomRangeAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register(PacketIds.CUSTOM_MIN - 1, PingPacket.class, PingPacket::decode));
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register(PacketIds.MAX_PACKET_ID + 1, PingPacket.class, PingPacket::decode));
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register(PacketIds.HEARTBEAT, PingPacket.class, PingPacket::decode));
+        assertThrows(IllegalArgumentException.class, () -> registry.unregister(PacketIds.HEARTBEAT));
+        assertTrue(registry.isRegistered(PacketIds.HEARTBEAT));
+        assertTrue(registry.getPacketId(PingPacket.class).isEmpty());
+    }
+
+    @Test
+    void testUnregisterClearsIdAndClass() {
+        registry.register(PING_ID, PingPacket.class, PingPacket::decode);
+
+        assertTrue(registry.unregister(PING_ID));
+        assertFalse(registry.unregister(PING_ID));
+        assertFalse(registry.isRegistered(PING_ID));
+        assertTrue(registry.getPacketId(PingPacket.class).isEmpty());
+        assertNull(registry.read(PING_ID, Unpooled.EMPTY_BUFFER));
+
+        registry.register(PONG_ID, PingPacket.class, PingPacket::decode);
+        assertEquals(Optional.of(PONG_ID), registry.getPacketId(PingPacket.class));
+    }
+
+    record PingPacket(long nonce) implements CustomPacket {
+
+        static PingPacket decode(ByteBuf buffer) {
+            return new PingPacket(buffer.readLong());
+        }
+
+        @Override
+        public int packetId() {
+            return PING_ID;
+        }
+
+        @Override
+        public void encode(ByteBuf buffer) {
+            buffer.writeLong(nonce);
+        }
+    }
+
+    record PongPacket(long nonce) implements CustomPacket {
+
+        static PongPacket decode(ByteBuf buffer) {
+            return new PongPacket(buffer.readLong());
+        }
+
+        @Override
+        public int packetId() {
+            return PONG_ID;
+        }
+
+        @Override
+        public void encode(ByteBuf buffer) {
+            buffer.writeLong(nonce);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package miroshka.aether.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import miroshka.aether.common.codec.CompressionDictionaries;
+import miroshka.aether.common.codec.PacketDecoder;
+import miroshka.aether.common.codec.PacketEncoder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+
+    @Test
+    void testInternAssignsStableSequentialIds() {
+        SymbolTable table = new SymbolTable();
+
+        assertEquals(0, table.intern("tps"));
+        assertEquals(1, table.intern("motd"));
+        assertEquals(0, table.intern("tps"));
+        assertEquals(2, table.size());
+        assertEquals("motd", table.symbol(1));
+        assertEquals(List.of("tps", "motd"), table.range(0, 2));
+    }
+
+    @Test
+    void testInternSkipsValuesThatCannotBeSymbols() {
+        SymbolTable table = new SymbolTable();
+
+        assertEquals(-1, table.intern(""));
+        assertEquals(-1, table.intern("x".repeat(ProtocolConstants.MAX_SYMBOL_LENGTH + 1)));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void testInternStopsAtCapacity() {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < ProtocolConstants.MAX_SYMBOLS; i++) {
+            table.intern("key-" + i);
+        }
+
+        assertEquals(-1, table.intern("overflow"));
+        assertEquals(ProtocolConstants.MAX_SYMBOLS, table.size());
+    }
+
+    @Test
+    void testAppendAcceptsOverlappingRangesOnly() {
+        SymbolTable table = new SymbolTable();
+        table.append(0, List.of("a", "b"));
+        table.append(1, List.of("b", "c"));
+
+        assertEquals(List.of("a", "b", "c"), table.range(0, 3));
+        assertThrows(IllegalStateException.class, () -> table.append(5, List.of("d")));
+    }
+
+    @Test
+    void testSymbolRoundTripRespectsContextLimit() {
+        SymbolTable table = new SymbolTable();
+        table.internAll(List.of("region", "version"));
+
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            SymbolContext previous = SymbolContext.enter(new SymbolContext(table, 1));
+            try {
+                PacketHelper.writeSymbol(buffer, "region");
+                PacketHelper.writeSymbol(buffer, "version");
+                PacketHelper.writeSymbol(buffer, "unknown");
+            } finally {
+                SymbolContext.restore(previous);
+            }
+
+            assertEquals(1, buffer.getByte(0));
+            previous = SymbolContext.enter(SymbolContext.decoding(table));
+            try {
+                assertEquals("region", PacketHelper.readSymbol(buffer));
+                assertEquals("version", PacketHelper.readSymbol(buffer));
+                assertEquals("unknown", PacketHelper.readSymbol(buffer));
+            } finally {
+                SymbolContext.restore(previous);
+            }
+            assertEquals(0, buffer.readableBytes());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void testUnknownSymbolIdIsRejected() {
+        SymbolTable table = new SymbolTable();
+        table.intern("region");
+        ByteBuf buffer = Unpooled.buffer();
+        PacketHelper.writeVarInt(buffer, 2);
+
+        SymbolContext previous = SymbolContext.enter(SymbolContext.decoding(table));
+        try {
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> PacketHelper.readSymbol(buffer));
+            assertEquals("Unknown symbol id: 1", error.getMessage());
+        } finally {
+            SymbolContext.restore(previous);
+            buffer.release();
+        }
+    }
+
+    @Test
+    void testSymbolFramesDecodeThroughCodec() {
+        SymbolTable senderTable = new SymbolTable();
+        senderTable.internAll(List.of("motd", "event"));
+        PacketEncoder encoder = new PacketEncoder();
+        encoder.useSymbols(new SymbolContext(senderTable, senderTable.size()));
+        NetworkStatePacket packet = new NetworkStatePacket(1, 0, 1, 10,
+                Map.of("motd", "hello", "event", "none"), Map.of(), List.of());
+
+        EmbeddedChannel sender = new EmbeddedChannel(encoder);
+        assertTrue(sender.writeOutbound(packet));
+        ByteBuf frame = sender.readOutbound();
+
+        SymbolTable receiverTable = new SymbolTable();
+        receiverTable.append(0, senderTable.range(0, senderTable.size()));
+        EmbeddedChannel receiver = new EmbeddedChannel(new PacketDecoder(new CompressionDictionaries(), receiverTable));
+        assertTrue(receiver.writeInbound(frame.retainedDuplicate()));
+        NetworkStatePacket decoded = receiver.readInbound();
+        assertEquals(packet.globalProperties(), decoded.globalProperties());
+
+        EmbeddedChannel stale = new EmbeddedChannel(new PacketDecoder(new CompressionDictionaries(), new SymbolTable()));
+        assertTrue(stale.writeInbound(frame));
+        ProtocolErrorPacket error = stale.readInbound();
+        assertEquals(PacketIds.NETWORK_STATE, error.failedPacketId());
+        assertEquals("MALFORMED_PACKET", error.errorCode());
+
+        sender.finishAndReleaseAll();
+        receiver.finishAndReleaseAll();
+        stale.finishAndReleaseAll();
+    }
+}
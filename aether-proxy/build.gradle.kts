@@ -1,6 +1,7 @@
 plugins {
     id("com.gradleup.shadow") version "9.0.0-beta4"
     id("com.github.node-gradle.node") version "7.0.2"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 node {
@@ -25,7 +26,6 @@ dependencies {
     implementation(libs.bundles.metrics)
     
     implementation("com.github.NetherGamesMC:ProxyTransport:2.0.6")
-    implementation("com.github.luben:zstd-jni:1.5.5-4")
     implementation("io.netty.incubator:netty-incubator-codec-native-quic:0.0.62.Final:linux-x86_64")
     
     runtimeOnly("org.slf4j:slf4j-simple:2.0.16")
@@ -45,6 +45,11 @@ tasks.processResources {
     dependsOn(buildFrontend)
 }
 
+jmh {
+    includeTests.set(false)
+    profilers.add("gc")
+}
+
 tasks.shadowJar {
     archiveClassifier.set("")
     mergeServiceFiles()
@@ -0,0 +1,124 @@
+package miroshka.aether.proxy.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int BURST = 200;
+
+    @State(Scope.Thread)
+    public static class Uncontended {
+
+        @Param({"100", "100000000"})
+        public int ratePerSecond;
+
+        RateLimiter limiter;
+        LegacyRateLimiter legacy;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            limiter = new RateLimiter(BURST, ratePerSecond);
+            legacy = new LegacyRateLimiter(BURST, ratePerSecond);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Contended {
+
+        @Param({"100", "100000000"})
+        public int ratePerSecond;
+
+        RateLimiter limiter;
+        LegacyRateLimiter legacy;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            limiter = new RateLimiter(BURST, ratePerSecond);
+            legacy = new LegacyRateLimiter(BURST, ratePerSecond);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean gcraUncontended(Uncontended state) {
+        return state.limiter.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean legacyUncontended(Uncontended state) {
+        return state.legacy.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean gcraContended(Contended state) {
+        return state.limiter.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean legacyContended(Contended state) {
+        return state.legacy.tryAcquire();
+    }
+
+    static final class LegacyRateLimiter {
+
+        private final int maxTokens;
+        private final int refillRatePerSecond;
+        private final AtomicLong tokens;
+        private final AtomicLong lastRefillTimestamp;
+
+        LegacyRateLimiter(int maxTokens, int refillRatePerSecond) {
+            this.maxTokens = maxTokens;
+            this.refillRatePerSecond = refillRatePerSecond;
+            this.tokens = new AtomicLong(maxTokens);
+            this.lastRefillTimestamp = new AtomicLong(System.currentTimeMillis());
+        }
+
+        boolean tryAcquire() {
+            refill();
+            long currentTokens = tokens.get();
+            while (currentTokens > 0) {
+                if (tokens.compareAndSet(currentTokens, currentTokens - 1)) {
+                    return true;
+                }
+                currentTokens = tokens.get();
+            }
+            return false;
+        }
+
+        private void refill() {
+            long now = System.currentTimeMillis();
+            long lastRefill = lastRefillTimestamp.get();
+            long elapsedMillis = now - lastRefill;
+            if (elapsedMillis < 1000) {
+                return;
+            }
+            if (lastRefillTimestamp.compareAndSet(lastRefill, now)) {
+                long tokensToAdd = (elapsedMillis / 1000) * refillRatePerSecond;
+                tokens.set(Math.min(maxTokens, tokens.get() + tokensToAdd));
+            }
+        }
+    }
+}
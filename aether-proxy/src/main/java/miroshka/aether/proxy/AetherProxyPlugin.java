@@ -3,6 +3,8 @@ package miroshka.aether.proxy;
 import dev.waterdog.waterdogpe.event.defaults.PlayerDisconnectedEvent;
 import dev.waterdog.waterdogpe.event.defaults.PlayerLoginEvent;
 import dev.waterdog.waterdogpe.event.defaults.TransferCompleteEvent;
+import dev.waterdog.waterdogpe.network.serverinfo.ServerInfo;
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
 import dev.waterdog.waterdogpe.plugin.Plugin;
 import lombok.Getter;
 import miroshka.aether.proxy.balancer.ProxyLoadBalancer;
@@ -10,11 +12,15 @@ import miroshka.aether.proxy.config.ProxyConfig;
 import miroshka.aether.proxy.config.ProxyConfigLoader;
 import miroshka.aether.proxy.event.EventRouter;
 import miroshka.aether.proxy.network.MasterNetworkServer;
+import miroshka.aether.proxy.pdc.MasterPDCStore;
 import miroshka.aether.proxy.transfer.SeamlessTransferHandler;
 import miroshka.aether.proxy.transport.TransportManager;
 import miroshka.aether.proxy.web.ProxyWebContext;
 import miroshka.aether.web.WebServer;
 
+import java.io.IOException;
+import java.util.Optional;
+
 @Getter
 public final class AetherProxyPlugin extends Plugin {
 
@@ -26,6 +32,7 @@ public final class AetherProxyPlugin extends Plugin {
     private SeamlessTransferHandler transferHandler;
     private ProxyLoadBalancer loadBalancer;
     private TransportManager transportManager;
+    private MasterPDCStore pdcStore;
     private NodeRegistry nodeRegistry;
     private ProxyConfig proxyConfig;
     private ProxyWebContext webContext;
@@ -63,12 +70,31 @@ public final class AetherProxyPlugin extends Plugin {
 
     private void initializeServices() {
         loadBalancer = new ProxyLoadBalancer(getProxy(), nodeRegistry);
-        eventRouter = new EventRouter(nodeRegistry);
+        eventRouter = new EventRouter(nodeRegistry, proxyConfig.network().compression());
         transferHandler = new SeamlessTransferHandler(getProxy(), loadBalancer);
+        openPDCStore();
 
         logInfo("Services initialized: EventRouter, TransferHandler, LoadBalancer");
     }
 
+    private void openPDCStore() {
+        if (!proxyConfig.pdc().enabled()) {
+            logInfo("PDC store disabled");
+            return;
+        }
+
+        try {
+            pdcStore = MasterPDCStore.open(getDataFolder().toPath().resolve("pdc"), proxyConfig.pdc(),
+                    nodeRegistry, uuid -> Optional.ofNullable(getProxy().getPlayer(uuid))
+                            .map(ProxiedPlayer::getServerInfo)
+                            .map(ServerInfo::getServerName));
+            getProxy().getEventManager().subscribe(PlayerDisconnectedEvent.class,
+                    event -> pdcStore.release(event.getPlayer().getUniqueId()));
+        } catch (IOException e) {
+            getLogger().error(LOG_PREFIX + "Failed to open PDC store", e);
+        }
+    }
+
     private void startTransportListening() {
         if (proxyConfig.transport().enabled()) {
             transportManager.startListening(nodeRegistry);
@@ -77,7 +103,8 @@ public final class AetherProxyPlugin extends Plugin {
     }
 
     private void startNetworkServer() {
-        networkServer = new MasterNetworkServer(proxyConfig, nodeRegistry, eventRouter, transferHandler);
+        networkServer = new MasterNetworkServer(proxyConfig, nodeRegistry, eventRouter, transferHandler,
+                pdcStore);
 
         try {
             networkServer.start();
@@ -140,6 +167,10 @@ public final class AetherProxyPlugin extends Plugin {
             networkServer.shutdown();
         }
 
+        if (pdcStore != null) {
+            pdcStore.close();
+        }
+
         logInfo("Aether Proxy disabled");
     }
 
@@ -1,8 +1,21 @@
 package miroshka.aether.proxy;
 
+import io.netty.channel.ChannelOutboundBuffer;
 import lombok.Getter;
+import miroshka.aether.common.codec.EncodedFrame;
+import miroshka.aether.common.codec.FrameCompression;
+import miroshka.aether.common.codec.FrameOptions;
+import miroshka.aether.common.codec.PacketEncoder;
+import miroshka.aether.common.codec.ZstdDictionary;
+import miroshka.aether.common.network.PriorityOutboundHandler;
+import miroshka.aether.common.protocol.CompressionDictionaryPacket;
 import miroshka.aether.common.protocol.NodeSnapshotPacket;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.SymbolContext;
+import miroshka.aether.common.protocol.SymbolTable;
+import miroshka.aether.common.protocol.SymbolTablePacket;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -25,6 +38,92 @@ public record NodeSession(
         return channel.isActive();
     }
 
+    public boolean isWritable() {
+        return channel.isWritable();
+    }
+
+    public long pendingOutboundBytes() {
+        ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+        return outboundBuffer != null ? outboundBuffer.totalPendingWriteBytes() : 0;
+    }
+
+    public void send(Packet packet) {
+        Objects.requireNonNull(packet, "packet");
+        channel.writeAndFlush(packet);
+    }
+
+    public void sendFrame(EncodedFrame frame) {
+        Objects.requireNonNull(frame, "frame");
+        channel.writeAndFlush(frame);
+    }
+
+    public void sendBatch(Collection<? extends Packet> packets) {
+        Objects.requireNonNull(packets, "packets");
+        if (packets.isEmpty()) {
+            return;
+        }
+        for (Packet packet : packets) {
+            channel.write(packet);
+        }
+        channel.flush();
+    }
+
+    public FrameOptions frameOptions() {
+        PacketEncoder encoder = channel.pipeline().get(PacketEncoder.class);
+        return encoder != null ? encoder.options() : FrameOptions.of(FrameCompression.SNAPPY);
+    }
+
+    public void installDictionary(ZstdDictionary dictionary) {
+        Objects.requireNonNull(dictionary, "dictionary");
+        CompressionDictionaryPacket packet = new CompressionDictionaryPacket(dictionary.id(), dictionary.content());
+        channel.eventLoop().execute(() -> {
+            channel.writeAndFlush(packet);
+            PacketEncoder encoder = channel.pipeline().get(PacketEncoder.class);
+            if (encoder != null) {
+                encoder.useDictionary(dictionary);
+            }
+        });
+    }
+
+    public SymbolContext symbols() {
+        PacketEncoder encoder = channel.pipeline().get(PacketEncoder.class);
+        return encoder != null ? encoder.symbols() : null;
+    }
+
+    public void syncSymbols(SymbolTable table) {
+        Objects.requireNonNull(table, "table");
+        if (!state.isSymbolTableSupported() || symbolLimit(symbols()) >= table.size()) {
+            return;
+        }
+        channel.eventLoop().execute(() -> {
+            PacketEncoder encoder = channel.pipeline().get(PacketEncoder.class);
+            if (encoder == null) {
+                return;
+            }
+            int from = symbolLimit(encoder.symbols());
+            int to = table.size();
+            if (to <= from) {
+                return;
+            }
+            channel.writeAndFlush(new SymbolTablePacket(from, table.range(from, to)));
+            encoder.useSymbols(new SymbolContext(table, to));
+        });
+    }
+
+    private static int symbolLimit(SymbolContext symbols) {
+        return symbols != null ? symbols.limit() : 0;
+    }
+
+    public int outboundQueueDepth(Packet.Priority priority) {
+        PriorityOutboundHandler scheduler = channel.pipeline().get(PriorityOutboundHandler.class);
+        return scheduler != null ? scheduler.queueDepth(priority) : 0;
+    }
+
+    public long shedWrites() {
+        PriorityOutboundHandler scheduler = channel.pipeline().get(PriorityOutboundHandler.class);
+        return scheduler != null ? scheduler.shedWrites() : 0;
+    }
+
     public static NodeSession create(String nodeId, String remoteAddress, io.netty.channel.Channel channel) {
         return new NodeSession(
                 nodeId,
@@ -41,23 +140,34 @@ public record NodeSession(
         private volatile double tps;
         private volatile long lastUpdateTimestamp;
         private volatile boolean dirty;
+        private volatile boolean fullStateRequired;
+        private volatile long unwritableSinceMillis;
+        private volatile boolean dictionarySupported;
+        private volatile boolean symbolTableSupported;
         private final Map<String, String> extraData;
 
         public NodeState() {
             this.extraData = new ConcurrentHashMap<>();
             this.tps = 20.0;
             this.lastUpdateTimestamp = System.currentTimeMillis();
+            this.fullStateRequired = true;
         }
 
         public void updateFromSnapshot(NodeSnapshotPacket snapshot) {
             Objects.requireNonNull(snapshot, "snapshot");
+            boolean changed = onlinePlayers != snapshot.onlinePlayers()
+                    || maxPlayers != snapshot.maxPlayers()
+                    || tps != snapshot.tps()
+                    || !extraData.equals(snapshot.extraData());
             this.onlinePlayers = snapshot.onlinePlayers();
             this.maxPlayers = snapshot.maxPlayers();
             this.tps = snapshot.tps();
             this.lastUpdateTimestamp = snapshot.captureTimestamp();
-            this.extraData.clear();
-            this.extraData.putAll(snapshot.extraData());
-            this.dirty = true;
+            if (changed) {
+                this.extraData.clear();
+                this.extraData.putAll(snapshot.extraData());
+                this.dirty = true;
+            }
         }
 
         public void updateHeartbeat() {
@@ -68,6 +178,32 @@ public record NodeSession(
             this.dirty = false;
         }
 
+        public void requireFullState() {
+            this.fullStateRequired = true;
+        }
+
+        public void clearFullStateRequired() {
+            this.fullStateRequired = false;
+        }
+
+        public void markUnwritable(long now) {
+            if (unwritableSinceMillis == 0) {
+                this.unwritableSinceMillis = now;
+            }
+        }
+
+        public void markWritable() {
+            this.unwritableSinceMillis = 0;
+        }
+
+        public void enableDictionary() {
+            this.dictionarySupported = true;
+        }
+
+        public void enableSymbolTable() {
+            this.symbolTableSupported = true;
+        }
+
         public Map<String, String> getAllExtraData() {
             return Map.copyOf(extraData);
         }
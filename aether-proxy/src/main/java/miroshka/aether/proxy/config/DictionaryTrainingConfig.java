@@ -0,0 +1,35 @@
+package miroshka.aether.proxy.config;
+
+import miroshka.aether.common.protocol.ProtocolConstants;
+
+public record DictionaryTrainingConfig(
+        int dictionarySize,
+        int sampleEvery,
+        int minSamples,
+        int maxSamples,
+        int retrainIntervalSeconds) {
+
+    public DictionaryTrainingConfig {
+        if (dictionarySize <= 0 || dictionarySize > ProtocolConstants.MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("dictionarySize must be between 1 and "
+                    + ProtocolConstants.MAX_DICTIONARY_SIZE);
+        }
+        if (sampleEvery <= 0) {
+            throw new IllegalArgumentException("sampleEvery must be positive");
+        }
+        if (minSamples <= 0 || maxSamples < minSamples) {
+            throw new IllegalArgumentException("maxSamples must be at least minSamples");
+        }
+        if (retrainIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("retrainIntervalSeconds must be positive");
+        }
+    }
+
+    public static DictionaryTrainingConfig defaults() {
+        return new DictionaryTrainingConfig(16 * 1024, 8, 256, 4096, 1800);
+    }
+
+    public long retrainIntervalMillis() {
+        return retrainIntervalSeconds * 1000L;
+    }
+}
@@ -0,0 +1,34 @@
+package miroshka.aether.proxy.config;
+
+public record PDCStoreConfig(
+        boolean enabled,
+        int segmentSizeMb,
+        int flushIntervalMillis,
+        int compactionIntervalSeconds,
+        double compactionGarbageRatio) {
+
+    private static final int MAX_SEGMENT_SIZE_MB = 1024;
+
+    public PDCStoreConfig {
+        if (segmentSizeMb <= 0 || segmentSizeMb > MAX_SEGMENT_SIZE_MB) {
+            throw new IllegalArgumentException("segmentSizeMb must be between 1 and " + MAX_SEGMENT_SIZE_MB);
+        }
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("flushIntervalMillis must be positive");
+        }
+        if (compactionIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("compactionIntervalSeconds must be positive");
+        }
+        if (compactionGarbageRatio <= 0 || compactionGarbageRatio >= 1) {
+            throw new IllegalArgumentException("compactionGarbageRatio must be between 0 and 1");
+        }
+    }
+
+    public static PDCStoreConfig defaults() {
+        return new PDCStoreConfig(true, 16, 1000, 300, 0.5);
+    }
+
+    public int segmentSizeBytes() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+}
@@ -1,5 +1,8 @@
 package miroshka.aether.proxy.config;
 
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.network.TransportSettings;
+
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -15,7 +18,8 @@ public record ProxyConfig(
         int rateLimitPacketsPerSecond,
         int rateLimitBurstSize,
         boolean compressionEnabled,
-        TransportConfig transport) {
+        TransportConfig transport,
+        PDCStoreConfig pdc) {
 
     public ProxyConfig {
         Objects.requireNonNull(network, "network");
@@ -23,6 +27,7 @@ public record ProxyConfig(
         Objects.requireNonNull(webJwtSecret, "webJwtSecret");
         Objects.requireNonNull(allowedIpRanges, "allowedIpRanges");
         Objects.requireNonNull(transport, "transport");
+        Objects.requireNonNull(pdc, "pdc");
         if (secretKeys.isEmpty()) {
             throw new IllegalArgumentException("At least one secret key is required");
         }
@@ -30,7 +35,8 @@ public record ProxyConfig(
 
     public static ProxyConfig defaults() {
         return new ProxyConfig(
-                new NetworkConfig(3000, 9090, 8080),
+                new NetworkConfig(3000, 9090, 8080, TransportSettings.defaults(), SlowConsumerConfig.defaults(),
+                        CompressionPolicy.defaults(), DictionaryTrainingConfig.defaults()),
                 List.of("change-me-secret-key"),
                 "aether-web-jwt-secret-change-me",
                 Set.of(),
@@ -40,11 +46,18 @@ public record ProxyConfig(
                 100,
                 200,
                 true,
-                TransportConfig.defaults());
+                TransportConfig.defaults(),
+                PDCStoreConfig.defaults());
     }
 
-    public record NetworkConfig(int port, int metricsPort, int webPort) {
+    public record NetworkConfig(int port, int metricsPort, int webPort, TransportSettings socket,
+            SlowConsumerConfig slowConsumer, CompressionPolicy compression,
+            DictionaryTrainingConfig dictionaryTraining) {
         public NetworkConfig {
+            Objects.requireNonNull(socket, "socket");
+            Objects.requireNonNull(slowConsumer, "slowConsumer");
+            Objects.requireNonNull(compression, "compression");
+            Objects.requireNonNull(dictionaryTraining, "dictionaryTraining");
             if (port <= 0)
                 throw new IllegalArgumentException("port must be positive");
             if (webPort < 0)
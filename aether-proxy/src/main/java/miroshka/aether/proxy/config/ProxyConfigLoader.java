@@ -1,5 +1,10 @@
 package miroshka.aether.proxy.config;
 
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.codec.FrameCompression;
+import miroshka.aether.common.network.LowPriorityPolicy;
+import miroshka.aether.common.network.NettyTransport;
+import miroshka.aether.common.network.TransportSettings;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
@@ -7,6 +12,7 @@ import java.io.InputStream;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +45,7 @@ public final class ProxyConfigLoader {
             Map<String, Object> limits = (Map<String, Object>) data.getOrDefault("limits", Map.of());
             Map<String, Object> rateLimit = (Map<String, Object>) data.getOrDefault("rate-limit", Map.of());
             Map<String, Object> transport = (Map<String, Object>) data.getOrDefault("transport", Map.of());
+            Map<String, Object> pdc = (Map<String, Object>) data.getOrDefault("pdc", Map.of());
 
             List<String> secretKeys = (List<String>) security.getOrDefault("secret-keys",
                     List.of("change-me-secret-key"));
@@ -47,10 +54,17 @@ public final class ProxyConfigLoader {
             String webJwtSecret = (String) security.getOrDefault("web-jwt-secret",
                     "aether-web-jwt-secret-change-me");
 
+            Map<String, Object> compression = (Map<String, Object>) network.getOrDefault("compression", Map.of());
+
             ProxyConfig.NetworkConfig networkConfig = new ProxyConfig.NetworkConfig(
                     ((Number) network.getOrDefault("port", 3000)).intValue(),
                     ((Number) network.getOrDefault("metrics-port", 9090)).intValue(),
-                    ((Number) network.getOrDefault("web-port", 8080)).intValue());
+                    ((Number) network.getOrDefault("web-port", 8080)).intValue(),
+                    parseSocketSettings((Map<String, Object>) network.getOrDefault("socket", Map.of())),
+                    parseSlowConsumerConfig((Map<String, Object>) network.getOrDefault("slow-consumer", Map.of())),
+                    parseCompressionPolicy(compression, (Boolean) network.getOrDefault("compression-enabled", true)),
+                    parseDictionaryTrainingConfig(
+                            (Map<String, Object>) compression.getOrDefault("dictionary", Map.of())));
 
             TransportConfig transportConfig = parseTransportConfig(transport);
 
@@ -65,12 +79,85 @@ public final class ProxyConfigLoader {
                     ((Number) rateLimit.getOrDefault("packets-per-second", 100)).intValue(),
                     ((Number) rateLimit.getOrDefault("burst-size", 200)).intValue(),
                     (Boolean) network.getOrDefault("compression-enabled", true),
-                    transportConfig);
+                    transportConfig,
+                    parsePDCStoreConfig(pdc));
         } catch (IOException e) {
             throw new RuntimeException("Failed to load config from " + configPath, e);
         }
     }
 
+    private static TransportSettings parseSocketSettings(Map<String, Object> socket) {
+        TransportSettings defaults = TransportSettings.defaults();
+        return new TransportSettings(
+                NettyTransport.fromName((String) socket.getOrDefault("transport", defaults.transport().name())),
+                ((Number) socket.getOrDefault("io-threads", defaults.ioThreads())).intValue(),
+                ((Number) socket.getOrDefault("acceptor-threads", defaults.acceptorThreads())).intValue(),
+                (Boolean) socket.getOrDefault("tcp-quickack", defaults.tcpQuickAck()),
+                (Boolean) socket.getOrDefault("reuse-port", defaults.reusePort()),
+                ((Number) socket.getOrDefault("max-pending-writes", defaults.maxPendingWrites())).intValue(),
+                ((Number) socket.getOrDefault("max-flush-delay-ms", defaults.maxFlushDelayMillis())).intValue(),
+                LowPriorityPolicy.fromName((String) socket.getOrDefault("low-priority-policy",
+                        defaults.lowPriorityPolicy().name())),
+                ((Number) socket.getOrDefault("max-deferred-low-writes", defaults.maxDeferredLowWrites())).intValue(),
+                ((Number) socket.getOrDefault("normal-drain-weight", defaults.normalDrainWeight())).intValue(),
+                ((Number) socket.getOrDefault("low-drain-weight", defaults.lowDrainWeight())).intValue(),
+                ((Number) socket.getOrDefault("write-buffer-low-water-mark", defaults.writeBufferLowWaterMark())).intValue(),
+                ((Number) socket.getOrDefault("write-buffer-high-water-mark", defaults.writeBufferHighWaterMark()))
+                        .intValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompressionPolicy parseCompressionPolicy(Map<String, Object> compression, boolean enabled) {
+        if (!enabled) {
+            return CompressionPolicy.disabled();
+        }
+        CompressionPolicy defaults = CompressionPolicy.defaults();
+        List<FrameCompression> codecs = FrameCompression.parseList(
+                (String) compression.getOrDefault("codecs", FrameCompression.formatList(defaults.preferred())));
+        Map<Integer, Integer> packetThresholds = new HashMap<>(defaults.packetThresholds());
+        Map<Object, Object> overrides = (Map<Object, Object>) compression.getOrDefault("packet-thresholds", Map.of());
+        overrides.forEach((packetId, threshold) -> packetThresholds.put(
+                Integer.decode(String.valueOf(packetId)), ((Number) threshold).intValue()));
+        Map<String, Object> dictionary = (Map<String, Object>) compression.getOrDefault("dictionary", Map.of());
+        return new CompressionPolicy(
+                codecs,
+                ((Number) compression.getOrDefault("threshold", defaults.defaultThreshold())).intValue(),
+                packetThresholds,
+                (Boolean) dictionary.getOrDefault("enabled", defaults.dictionary()));
+    }
+
+    private static DictionaryTrainingConfig parseDictionaryTrainingConfig(Map<String, Object> dictionary) {
+        DictionaryTrainingConfig defaults = DictionaryTrainingConfig.defaults();
+        return new DictionaryTrainingConfig(
+                ((Number) dictionary.getOrDefault("dictionary-size", defaults.dictionarySize())).intValue(),
+                ((Number) dictionary.getOrDefault("sample-every", defaults.sampleEvery())).intValue(),
+                ((Number) dictionary.getOrDefault("min-samples", defaults.minSamples())).intValue(),
+                ((Number) dictionary.getOrDefault("max-samples", defaults.maxSamples())).intValue(),
+                ((Number) dictionary.getOrDefault("retrain-interval-seconds", defaults.retrainIntervalSeconds()))
+                        .intValue());
+    }
+
+    private static SlowConsumerConfig parseSlowConsumerConfig(Map<String, Object> slowConsumer) {
+        SlowConsumerConfig defaults = SlowConsumerConfig.defaults();
+        return new SlowConsumerConfig(
+                SlowConsumerConfig.Policy.fromName((String) slowConsumer.getOrDefault("policy",
+                        defaults.policy().name())),
+                ((Number) slowConsumer.getOrDefault("disconnect-after-seconds", defaults.disconnectAfterSeconds()))
+                        .intValue());
+    }
+
+    private static PDCStoreConfig parsePDCStoreConfig(Map<String, Object> pdc) {
+        PDCStoreConfig defaults = PDCStoreConfig.defaults();
+        return new PDCStoreConfig(
+                (Boolean) pdc.getOrDefault("enabled", defaults.enabled()),
+                ((Number) pdc.getOrDefault("segment-size-mb", defaults.segmentSizeMb())).intValue(),
+                ((Number) pdc.getOrDefault("flush-interval-ms", defaults.flushIntervalMillis())).intValue(),
+                ((Number) pdc.getOrDefault("compaction-interval-seconds", defaults.compactionIntervalSeconds()))
+                        .intValue(),
+                ((Number) pdc.getOrDefault("compaction-garbage-ratio", defaults.compactionGarbageRatio()))
+                        .doubleValue());
+    }
+
     @SuppressWarnings("unchecked")
     private static TransportConfig parseTransportConfig(Map<String, Object> transport) {
         boolean enabled = (Boolean) transport.getOrDefault("enabled", false);
@@ -145,13 +232,122 @@ public final class ProxyConfigLoader {
                   # Должно быть больше чем heartbeat-interval-ms ноды * 2
                   heartbeat-timeout-ms: 15000
 
-                  # Enable Snappy compression for network packets
+                  # Enable compression for network packets
                   # Recommended for production, reduces bandwidth usage
                   # ---
-                  # Включить Snappy сжатие для пакетов
+                  # Включить сжатие для пакетов
                   # Рекомендуется для продакшена, снижает потребление трафика
                   compression-enabled: true
 
+                  # Frame compression negotiated with each node during the handshake
+                  # codecs - preference order (ZSTD, LZ4, SNAPPY); the first codec the node also supports wins,
+                  #          nodes that do not negotiate keep using SNAPPY
+                  # threshold - payloads up to this size (bytes) are sent uncompressed
+                  # packet-thresholds - per packet id overrides of the threshold
+                  # dictionary - frames below the threshold are compressed with a Zstd dictionary trained
+                  #              on sampled live traffic and sent to every node that supports it
+                  # ---
+                  # Сжатие кадров, согласуемое с каждой нодой при рукопожатии
+                  # codecs - порядок предпочтения (ZSTD, LZ4, SNAPPY); выбирается первый кодек, который знает нода,
+                  #          ноды без согласования продолжают использовать SNAPPY
+                  # threshold - пакеты до этого размера (байт) отправляются без сжатия
+                  # packet-thresholds - пороги для отдельных id пакетов
+                  # dictionary - пакеты меньше порога сжимаются Zstd-словарём, обученным на выборке
+                  #              живого трафика и отправленным всем нодам, которые его поддерживают
+                  compression:
+                    codecs: zstd,lz4,snappy
+                    threshold: 1024
+                    packet-thresholds:
+                      "0x11": 512
+                      "0x13": 512
+                      "0x50": 256
+                      "0x60": 256
+                    dictionary:
+                      enabled: true
+                      dictionary-size: 16384
+                      sample-every: 8
+                      min-samples: 256
+                      max-samples: 4096
+                      retrain-interval-seconds: 1800
+
+                  # Socket layer used for node connections
+                  # Сокетный слой для подключений нод
+                  socket:
+                    # I/O transport: NIO, EPOLL or IO_URING
+                    # Falls back to EPOLL and then NIO when the native library cannot be loaded
+                    # ---
+                    # Транспорт ввода-вывода: NIO, EPOLL или IO_URING
+                    # При недоступности нативной библиотеки переключается на EPOLL, затем на NIO
+                    transport: EPOLL
+
+                    # Number of I/O threads (0 = Netty default: 2 x CPU cores)
+                    # Количество потоков ввода-вывода (0 = по умолчанию Netty: 2 x ядра CPU)
+                    io-threads: 0
+
+                    # Number of acceptor threads, each binding the port with SO_REUSEPORT
+                    # Only used with EPOLL/IO_URING when reuse-port is enabled
+                    # ---
+                    # Количество accept-потоков, каждый слушает порт через SO_REUSEPORT
+                    # Используется только с EPOLL/IO_URING при включённом reuse-port
+                    acceptor-threads: 1
+
+                    # Enable SO_REUSEPORT on the listening socket (EPOLL/IO_URING only)
+                    # Включить SO_REUSEPORT на слушающем сокете (только EPOLL/IO_URING)
+                    reuse-port: false
+
+                    # Enable TCP_QUICKACK on node connections (EPOLL/IO_URING only)
+                    # Включить TCP_QUICKACK для соединений нод (только EPOLL/IO_URING)
+                    tcp-quickack: false
+
+                    # Outbound writes are coalesced into fewer flushes (syscalls)
+                    # A flush happens after this many pending writes or after max-flush-delay-ms,
+                    # whichever comes first. CRITICAL packets are always flushed immediately.
+                    # ---
+                    # Исходящие пакеты объединяются в меньшее число flush (системных вызовов)
+                    # Flush выполняется после указанного числа записей или через max-flush-delay-ms,
+                    # что наступит раньше. CRITICAL пакеты отправляются немедленно.
+                    max-pending-writes: 32
+
+                    # Maximum time a coalesced write may wait before being flushed (0 = no delay)
+                    # Максимальное время ожидания записи перед flush (0 = без задержки)
+                    max-flush-delay-ms: 1
+
+                    # What to do with LOW priority packets (chunks, metrics) while the socket is congested
+                    # DEFER - queue them (up to max-deferred-low-writes, oldest dropped first), SHED - drop them
+                    # CRITICAL packets always bypass the queues
+                    # ---
+                    # Что делать с LOW пакетами (чанки, метрики), пока сокет перегружен
+                    # DEFER - ставить в очередь (до max-deferred-low-writes, старые удаляются), SHED - отбрасывать
+                    # CRITICAL пакеты всегда отправляются вне очереди
+                    low-priority-policy: DEFER
+                    max-deferred-low-writes: 256
+
+                    # Weighted draining of queued packets: NORMAL packets sent per LOW packet
+                    # Взвешенная отправка очередей: сколько NORMAL пакетов на каждый LOW пакет
+                    normal-drain-weight: 8
+                    low-drain-weight: 1
+
+                    # Outbound buffer water marks in bytes. A node becomes unwritable (slow consumer)
+                    # above the high mark and writable again below the low mark
+                    # ---
+                    # Пороги исходящего буфера в байтах. Нода считается медленной (unwritable)
+                    # выше верхнего порога и снова доступной ниже нижнего
+                    write-buffer-low-water-mark: 65536
+                    write-buffer-high-water-mark: 262144
+
+                  # What to do with a node whose outbound buffer stays above the high water mark
+                  # DROP_SUPERSEDED - skip state broadcasts while it is slow, send full state on the next tick
+                  # COALESCE_LATEST - skip state broadcasts, send only the latest state once it catches up
+                  # DISCONNECT      - skip state broadcasts and close the connection after disconnect-after-seconds
+                  # ---
+                  # Что делать с нодой, чей исходящий буфер долго выше верхнего порога
+                  # DROP_SUPERSEDED - пропускать рассылки состояния, полное состояние на следующем тике
+                  # COALESCE_LATEST - пропускать рассылки, отправить только последнее состояние после восстановления
+                  # DISCONNECT      - пропускать рассылки и разорвать соединение через disconnect-after-seconds
+                  slow-consumer:
+                    policy: COALESCE_LATEST
+                    disconnect-after-seconds: 30
+
                 # Security settings
                 # Настройки безопасности
                 security:
@@ -211,6 +407,28 @@ public final class ProxyConfigLoader {
                   # Burst size - разрешает временные всплески выше лимита
                   burst-size: 200
 
+                # Master-side player data (PDC) store
+                # Player data sent by nodes is kept in a memory-mapped append-only log in the pdc folder,
+                # so it survives proxy restarts. Data of players that are online is served from memory.
+                # segment-size-mb - size of each log segment file
+                # flush-interval-ms - how often written data is forced to disk
+                # compaction-interval-seconds - how often the log is checked for compaction
+                # compaction-garbage-ratio - share of overwritten or deleted bytes that triggers a compaction
+                # ---
+                # Хранилище данных игроков (PDC) на мастере
+                # Данные от нод записываются в отображённый в память журнал (только дозапись) в папке pdc
+                # и переживают перезапуск прокси. Данные игроков онлайн отдаются из памяти.
+                # segment-size-mb - размер одного файла сегмента журнала
+                # flush-interval-ms - как часто записанные данные сбрасываются на диск
+                # compaction-interval-seconds - как часто журнал проверяется на необходимость уплотнения
+                # compaction-garbage-ratio - доля перезаписанных или удалённых байт, запускающая уплотнение
+                pdc:
+                  enabled: true
+                  segment-size-mb: 16
+                  flush-interval-ms: 1000
+                  compaction-interval-seconds: 300
+                  compaction-garbage-ratio: 0.5
+
                 # ProxyTransport - optimized TCP/QUIC transport for downstream servers
                 # Replaces RakNet for internal proxy <-> server communication
                 # Reduces latency and CPU overhead in datacenter environments
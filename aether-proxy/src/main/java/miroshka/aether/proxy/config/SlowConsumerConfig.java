@@ -0,0 +1,33 @@
+package miroshka.aether.proxy.config;
+
+import java.util.Locale;
+import java.util.Objects;
+
+public record SlowConsumerConfig(Policy policy, int disconnectAfterSeconds) {
+
+    public SlowConsumerConfig {
+        Objects.requireNonNull(policy, "policy");
+        if (disconnectAfterSeconds <= 0) {
+            throw new IllegalArgumentException("disconnectAfterSeconds must be positive");
+        }
+    }
+
+    public static SlowConsumerConfig defaults() {
+        return new SlowConsumerConfig(Policy.COALESCE_LATEST, 30);
+    }
+
+    public long disconnectAfterMillis() {
+        return disconnectAfterSeconds * 1000L;
+    }
+
+    public enum Policy {
+        DROP_SUPERSEDED,
+        COALESCE_LATEST,
+        DISCONNECT;
+
+        public static Policy fromName(String name) {
+            Objects.requireNonNull(name, "name");
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package miroshka.aether.proxy.event;
 
+import io.netty.buffer.ByteBufAllocator;
 import lombok.RequiredArgsConstructor;
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.codec.FrameCache;
 import miroshka.aether.common.protocol.EventBroadcastPacket;
 import miroshka.aether.proxy.NodeRegistry;
 import miroshka.aether.proxy.NodeSession;
@@ -9,15 +12,18 @@ import miroshka.aether.proxy.NodeSession;
 public final class EventRouter {
 
     private final NodeRegistry nodeRegistry;
+    private final CompressionPolicy compressionPolicy;
 
     public void routeEvent(EventBroadcastPacket packet) {
         broadcastToAll(packet);
     }
 
     private void broadcastToAll(EventBroadcastPacket packet) {
-        for (NodeSession session : nodeRegistry.getAllSessions()) {
-            if (!session.nodeId().equals(packet.sourceServer()) && session.isActive()) {
-                session.channel().writeAndFlush(packet);
+        try (FrameCache frames = new FrameCache(ByteBufAllocator.DEFAULT, packet, compressionPolicy)) {
+            for (NodeSession session : nodeRegistry.getAllSessions()) {
+                if (!session.nodeId().equals(packet.sourceServer()) && session.isActive()) {
+                    session.sendFrame(frames.retainedFrame(session.frameOptions()));
+                }
             }
         }
     }
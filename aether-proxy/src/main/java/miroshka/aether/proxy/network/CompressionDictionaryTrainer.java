@@ -0,0 +1,187 @@
+package miroshka.aether.proxy.network;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import miroshka.aether.common.codec.CompressionDictionaries;
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.codec.ZstdDictionary;
+import miroshka.aether.common.protocol.Packet;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import miroshka.aether.proxy.NodeRegistry;
+import miroshka.aether.proxy.NodeSession;
+import miroshka.aether.proxy.config.DictionaryTrainingConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public final class CompressionDictionaryTrainer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompressionDictionaryTrainer.class);
+
+    private static final long CHECK_INTERVAL_SECONDS = 10;
+    private static final double MIN_IMPROVEMENT = 0.95;
+
+    private final NodeRegistry nodeRegistry;
+    private final CompressionPolicy policy;
+    private final DictionaryTrainingConfig config;
+    private final CompressionDictionaries dictionaries;
+    private final ScheduledExecutorService scheduler;
+    private final byte[][] reservoir;
+
+    private long seenSamples;
+    private int sampleCount;
+    private long lastTrainingMillis;
+    private volatile boolean running;
+
+    public CompressionDictionaryTrainer(NodeRegistry nodeRegistry, CompressionPolicy policy,
+            DictionaryTrainingConfig config) {
+        this.nodeRegistry = Objects.requireNonNull(nodeRegistry, "nodeRegistry");
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.config = Objects.requireNonNull(config, "config");
+        this.dictionaries = new CompressionDictionaries();
+        this.reservoir = new byte[config.maxSamples()][];
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Aether-DictionaryTrainer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public CompressionDictionaries dictionaries() {
+        return dictionaries;
+    }
+
+    public boolean isEnabled() {
+        return policy.dictionary();
+    }
+
+    public void start() {
+        if (running || !isEnabled()) {
+            return;
+        }
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::trainIfDue, CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+        LOGGER.info("Compression dictionary training enabled ({} byte dictionary, sampling 1 in {} packets)",
+                config.dictionarySize(), config.sampleEvery());
+    }
+
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    public void sample(Packet packet) {
+        if (!running || ThreadLocalRandom.current().nextInt(config.sampleEvery()) != 0) {
+            return;
+        }
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            packet.encode(buffer);
+            int length = buffer.readableBytes();
+            if (length < ProtocolConstants.DICTIONARY_MIN_PAYLOAD || length > policy.thresholdFor(packet.packetId())) {
+                return;
+            }
+            byte[] sample = new byte[length];
+            buffer.readBytes(sample);
+            addSample(sample);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    public void onNodeAuthenticated(NodeSession session) {
+        ZstdDictionary latest = dictionaries.latest();
+        if (latest != null && session.state().isDictionarySupported()) {
+            session.installDictionary(latest);
+        }
+    }
+
+    private synchronized void addSample(byte[] sample) {
+        seenSamples++;
+        if (sampleCount < reservoir.length) {
+            reservoir[sampleCount++] = sample;
+            return;
+        }
+        long slot = ThreadLocalRandom.current().nextLong(seenSamples);
+        if (slot < reservoir.length) {
+            reservoir[(int) slot] = sample;
+        }
+    }
+
+    private synchronized byte[][] drainSamples() {
+        byte[][] samples = Arrays.copyOf(reservoir, sampleCount);
+        Arrays.fill(reservoir, null);
+        sampleCount = 0;
+        seenSamples = 0;
+        return samples;
+    }
+
+    private synchronized boolean isTrainingDue(long now) {
+        if (sampleCount < config.minSamples()) {
+            return false;
+        }
+        return dictionaries.latest() == null || now - lastTrainingMillis >= config.retrainIntervalMillis();
+    }
+
+    private void trainIfDue() {
+        long now = System.currentTimeMillis();
+        if (!isTrainingDue(now)) {
+            return;
+        }
+        lastTrainingMillis = now;
+        try {
+            train(drainSamples());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to train compression dictionary: {}", e.getMessage());
+        }
+    }
+
+    private void train(byte[][] samples) {
+        long rawBytes = 0;
+        for (byte[] sample : samples) {
+            rawBytes += sample.length;
+        }
+
+        ZstdDictTrainer trainer = new ZstdDictTrainer((int) Math.min(Integer.MAX_VALUE, rawBytes),
+                config.dictionarySize());
+        for (byte[] sample : samples) {
+            trainer.addSample(sample);
+        }
+        ZstdDictionary candidate = ZstdDictionary.of(dictionaries.nextId(), trainer.trainSamples());
+
+        ZstdDictionary current = dictionaries.latest();
+        long candidateBytes = compressedBytes(candidate, samples);
+        long currentBytes = current != null ? compressedBytes(current, samples) : rawBytes;
+        if (current != null && candidateBytes >= currentBytes * MIN_IMPROVEMENT) {
+            LOGGER.debug("Keeping compression dictionary #{}: {} bytes vs {} bytes with a new dictionary",
+                    current.id(), currentBytes, candidateBytes);
+            return;
+        }
+
+        dictionaries.register(candidate);
+        LOGGER.info("Trained compression dictionary #{} ({} bytes) on {} samples: {} -> {} bytes",
+                candidate.id(), candidate.size(), samples.length, rawBytes, candidateBytes);
+
+        for (NodeSession session : nodeRegistry.getAllSessions()) {
+            if (session.isActive() && session.state().isDictionarySupported()) {
+                session.installDictionary(candidate);
+            }
+        }
+    }
+
+    private static long compressedBytes(ZstdDictionary dictionary, byte[][] samples) {
+        long total = 0;
+        for (byte[] sample : samples) {
+            total += Math.min(sample.length, dictionary.compressedSize(sample) + 8);
+        }
+        return total;
+    }
+}
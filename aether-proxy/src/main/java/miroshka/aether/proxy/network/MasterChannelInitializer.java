@@ -5,9 +5,13 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import miroshka.aether.common.codec.PacketDecoder;
 import miroshka.aether.common.codec.PacketEncoder;
+import miroshka.aether.common.network.FlushCoalescingHandler;
+import miroshka.aether.common.network.PacketStreamHandler;
+import miroshka.aether.common.network.PriorityOutboundHandler;
 import miroshka.aether.proxy.NodeRegistry;
 import miroshka.aether.proxy.config.ProxyConfig;
 import miroshka.aether.proxy.event.EventRouter;
+import miroshka.aether.proxy.pdc.MasterPDCStore;
 import miroshka.aether.proxy.security.SecretKeyValidator;
 import miroshka.aether.proxy.transfer.SeamlessTransferHandler;
 
@@ -19,36 +23,52 @@ public final class MasterChannelInitializer extends ChannelInitializer<SocketCha
     private final ProxyConfig config;
     private final SecretKeyValidator secretKeyValidator;
     private final StateBroadcaster stateBroadcaster;
+    private final CompressionDictionaryTrainer dictionaryTrainer;
     private final EventRouter eventRouter;
     private final SeamlessTransferHandler transferHandler;
+    private final MasterPDCStore pdcStore;
+    private final PacketDispatcher dispatcher;
 
     public MasterChannelInitializer(
             NodeRegistry nodeRegistry,
             ProxyConfig config,
             SecretKeyValidator secretKeyValidator,
             StateBroadcaster stateBroadcaster,
+            CompressionDictionaryTrainer dictionaryTrainer,
             EventRouter eventRouter,
-            SeamlessTransferHandler transferHandler) {
+            SeamlessTransferHandler transferHandler,
+            MasterPDCStore pdcStore,
+            PacketDispatcher dispatcher) {
         this.nodeRegistry = Objects.requireNonNull(nodeRegistry, "nodeRegistry");
         this.config = Objects.requireNonNull(config, "config");
         this.secretKeyValidator = Objects.requireNonNull(secretKeyValidator, "secretKeyValidator");
         this.stateBroadcaster = Objects.requireNonNull(stateBroadcaster, "stateBroadcaster");
+        this.dictionaryTrainer = Objects.requireNonNull(dictionaryTrainer, "dictionaryTrainer");
         this.eventRouter = eventRouter;
         this.transferHandler = transferHandler;
+        this.pdcStore = pdcStore;
+        this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher");
     }
 
     @Override
     protected void initChannel(SocketChannel ch) {
         ChannelPipeline pipeline = ch.pipeline();
 
-        pipeline.addLast("decoder", new PacketDecoder());
-        pipeline.addLast("encoder", new PacketEncoder());
+        pipeline.addLast("decoder", new PacketDecoder(dictionaryTrainer.dictionaries(),
+                stateBroadcaster.symbols()));
+        pipeline.addLast("encoder", new PacketEncoder(config.network().compression()));
+        pipeline.addLast("coalescer", FlushCoalescingHandler.from(config.network().socket()));
+        pipeline.addLast("priority", PriorityOutboundHandler.from(config.network().socket()));
+        pipeline.addLast("streams", new PacketStreamHandler());
         pipeline.addLast("handler", new MasterPacketHandler(
                 nodeRegistry,
                 config,
                 secretKeyValidator,
                 stateBroadcaster,
+                dictionaryTrainer,
                 eventRouter,
-                transferHandler));
+                transferHandler,
+                pdcStore,
+                dispatcher));
     }
 }
@@ -1,21 +1,25 @@
 package miroshka.aether.proxy.network;
 
+import io.micrometer.core.instrument.Metrics;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
-import io.netty.channel.ChannelFuture;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import lombok.Getter;
+import miroshka.aether.common.network.NettyTransport;
+import miroshka.aether.common.network.TransportSettings;
 import miroshka.aether.proxy.NodeRegistry;
 import miroshka.aether.proxy.config.ProxyConfig;
 import miroshka.aether.proxy.event.EventRouter;
+import miroshka.aether.proxy.pdc.MasterPDCStore;
 import miroshka.aether.proxy.security.SecretKeyValidator;
 import miroshka.aether.proxy.transfer.SeamlessTransferHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 @Getter
@@ -27,34 +31,50 @@ public final class MasterNetworkServer {
     private final NodeRegistry nodeRegistry;
     private final SecretKeyValidator secretKeyValidator;
     private final StateBroadcaster stateBroadcaster;
+    private final CompressionDictionaryTrainer dictionaryTrainer;
     private final EventRouter eventRouter;
     private final SeamlessTransferHandler transferHandler;
+    private final MasterPDCStore pdcStore;
+    private final PacketDispatcher dispatcher;
 
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
-    private ChannelFuture serverChannel;
+    private final List<Channel> serverChannels;
+
+    private NettyTransport transport;
 
     public MasterNetworkServer(
             ProxyConfig config,
             NodeRegistry nodeRegistry,
             EventRouter eventRouter,
-            SeamlessTransferHandler transferHandler) {
+            SeamlessTransferHandler transferHandler,
+            MasterPDCStore pdcStore) {
         this.config = Objects.requireNonNull(config, "config");
         this.nodeRegistry = Objects.requireNonNull(nodeRegistry, "nodeRegistry");
         this.secretKeyValidator = new SecretKeyValidator(config.secretKeys());
-        this.stateBroadcaster = new StateBroadcaster(nodeRegistry, config.broadcastIntervalMillis());
+        this.dictionaryTrainer = new CompressionDictionaryTrainer(nodeRegistry, config.network().compression(),
+                config.network().dictionaryTraining());
+        this.stateBroadcaster = new StateBroadcaster(nodeRegistry, config.broadcastIntervalMillis(),
+                config.network().slowConsumer(), config.network().compression(), dictionaryTrainer);
         this.eventRouter = eventRouter;
         this.transferHandler = transferHandler;
+        this.pdcStore = pdcStore;
+        this.dispatcher = new PacketDispatcher(Metrics.globalRegistry);
+        this.serverChannels = new ArrayList<>();
     }
 
     public void start() throws InterruptedException {
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+        TransportSettings socket = config.network().socket();
+        transport = socket.transport().resolve();
+        int acceptorThreads = socket.effectiveAcceptorThreads(transport);
+
+        bossGroup = transport.newEventLoopGroup(acceptorThreads, "Aether-Master-Boss");
+        workerGroup = transport.newEventLoopGroup(socket.ioThreads(), "Aether-Master-Worker");
 
         try {
             ServerBootstrap bootstrap = new ServerBootstrap()
                     .group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
+                    .channel(transport.serverChannelClass())
                     .option(ChannelOption.SO_BACKLOG, 128)
                     .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                     .childOption(ChannelOption.SO_KEEPALIVE, true)
@@ -65,13 +85,22 @@ public final class MasterNetworkServer {
                             config,
                             secretKeyValidator,
                             stateBroadcaster,
+                            dictionaryTrainer,
                             eventRouter,
-                            transferHandler));
+                            transferHandler,
+                            pdcStore,
+                            dispatcher));
 
-            serverChannel = bootstrap.bind(config.network().port()).sync();
+            transport.applyOptions(bootstrap, socket);
+
+            for (int i = 0; i < acceptorThreads; i++) {
+                serverChannels.add(bootstrap.bind(config.network().port()).sync().channel());
+            }
             stateBroadcaster.start();
+            dictionaryTrainer.start();
 
-            LOGGER.info("Aether Master started on port {}", config.network().port());
+            LOGGER.info("Aether Master started on port {} using {} transport with {} acceptor(s)",
+                    config.network().port(), transport, acceptorThreads);
         } catch (Exception e) {
             LOGGER.error("Failed to start Aether Master", e);
             shutdown();
@@ -83,10 +112,12 @@ public final class MasterNetworkServer {
         LOGGER.info("Shutting down Aether Master...");
 
         stateBroadcaster.stop();
+        dictionaryTrainer.stop();
 
-        if (serverChannel != null) {
-            serverChannel.channel().close();
+        for (Channel channel : serverChannels) {
+            channel.close();
         }
+        serverChannels.clear();
 
         if (workerGroup != null) {
             workerGroup.shutdownGracefully();
@@ -96,6 +127,8 @@ public final class MasterNetworkServer {
             bossGroup.shutdownGracefully();
         }
 
+        dispatcher.shutdown();
+
         LOGGER.info("Aether Master shutdown complete");
     }
 }
@@ -2,14 +2,21 @@ package miroshka.aether.proxy.network;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.codec.FrameCompression;
+import miroshka.aether.common.codec.PacketEncoder;
 import miroshka.aether.common.event.AetherEventBus;
 import miroshka.aether.common.event.AuthenticationCompletedEvent;
 import miroshka.aether.common.event.ConnectionLostEvent;
+import miroshka.aether.common.event.PacketReceivedEvent;
+import miroshka.aether.common.network.PacketStreamHandler;
 import miroshka.aether.common.protocol.*;
 import miroshka.aether.proxy.NodeRegistry;
 import miroshka.aether.proxy.NodeSession;
 import miroshka.aether.proxy.config.ProxyConfig;
 import miroshka.aether.proxy.event.EventRouter;
+import miroshka.aether.proxy.pdc.MasterPDCStore;
+import miroshka.aether.proxy.security.PacketCosts;
 import miroshka.aether.proxy.security.RateLimiter;
 import miroshka.aether.proxy.security.SecretKeyValidator;
 import miroshka.aether.proxy.transfer.SeamlessTransferHandler;
@@ -17,18 +24,30 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public final class MasterPacketHandler extends ChannelInboundHandlerAdapter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MasterPacketHandler.class);
+    private static final String DICTIONARY_FORMAT = "zstd";
+    private static final String SYMBOL_TABLE_VERSION = "1";
+    private static final String STREAM_VERSION = "1";
 
     private final NodeRegistry nodeRegistry;
     private final SecretKeyValidator secretKeyValidator;
     private final StateBroadcaster stateBroadcaster;
+    private final CompressionDictionaryTrainer dictionaryTrainer;
     private final RateLimiter rateLimiter;
+    private final PacketCosts packetCosts;
+    private final CompressionPolicy compressionPolicy;
     private final EventRouter eventRouter;
     private final SeamlessTransferHandler transferHandler;
+    private final MasterPDCStore pdcStore;
+    private final PacketDispatcher dispatcher;
+    private PacketDispatcher.NodeExecutor nodeExecutor;
 
     private volatile boolean authenticated;
     private volatile String nodeId;
@@ -38,38 +57,69 @@ public final class MasterPacketHandler extends ChannelInboundHandlerAdapter {
             ProxyConfig config,
             SecretKeyValidator secretKeyValidator,
             StateBroadcaster stateBroadcaster,
+            CompressionDictionaryTrainer dictionaryTrainer,
             EventRouter eventRouter,
-            SeamlessTransferHandler transferHandler) {
+            SeamlessTransferHandler transferHandler,
+            MasterPDCStore pdcStore,
+            PacketDispatcher dispatcher) {
         this.nodeRegistry = Objects.requireNonNull(nodeRegistry, "nodeRegistry");
         this.secretKeyValidator = Objects.requireNonNull(secretKeyValidator, "secretKeyValidator");
         this.stateBroadcaster = Objects.requireNonNull(stateBroadcaster, "stateBroadcaster");
+        this.dictionaryTrainer = Objects.requireNonNull(dictionaryTrainer, "dictionaryTrainer");
         this.rateLimiter = new RateLimiter(config.rateLimitBurstSize(), config.rateLimitPacketsPerSecond());
+        this.packetCosts = PacketCosts.defaults();
+        this.compressionPolicy = config.network().compression();
         this.eventRouter = eventRouter;
         this.transferHandler = transferHandler;
+        this.pdcStore = pdcStore;
+        this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher");
         this.authenticated = false;
     }
 
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        nodeExecutor = dispatcher.newNodeExecutor(ctx.channel());
+    }
+
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
         if (!(msg instanceof Packet packet)) {
             return;
         }
 
-        if (!rateLimiter.tryAcquire()) {
+        if (!rateLimiter.tryAcquire(packetCosts.costOf(packet))) {
             LOGGER.warn("Rate limit exceeded for {}", ctx.channel().remoteAddress());
             return;
         }
 
-        switch (packet) {
-            case AuthHandshakePacket handshake -> handleAuthHandshake(ctx, handshake);
-            case HeartbeatPacket heartbeat -> handleHeartbeat(ctx, heartbeat);
-            case NodeSnapshotPacket snapshot -> handleNodeSnapshot(snapshot);
-            case MetricsReportPacket metrics -> handleMetricsReport(metrics);
-            case ProtocolErrorPacket error -> handleProtocolError(ctx, error);
-            case TransferRequestPacket transfer -> handleTransferRequest(transfer);
-            case PortalSyncPacket portalSync -> handlePortalSync(portalSync);
-            case EventBroadcastPacket event -> handleEventBroadcast(event);
-            default -> LOGGER.warn("Unexpected packet type: {}", packet.getClass().getSimpleName());
+        if (packet instanceof HeartbeatPacket heartbeat) {
+            dispatcher.handleTimed(heartbeat, () -> handleHeartbeat(ctx, heartbeat));
+            return;
+        }
+        dispatcher.dispatch(nodeExecutor, packet, () -> handlePacket(ctx, packet));
+    }
+
+    private void handlePacket(ChannelHandlerContext ctx, Packet packet) {
+        try {
+            if (authenticated) {
+                dictionaryTrainer.sample(packet);
+            }
+            switch (packet) {
+                case AuthHandshakePacket handshake -> handleAuthHandshake(ctx, handshake);
+                case NodeSnapshotPacket snapshot -> handleNodeSnapshot(snapshot);
+                case MetricsReportPacket metrics -> handleMetricsReport(metrics);
+                case ProtocolErrorPacket error -> handleProtocolError(ctx, error);
+                case TransferRequestPacket transfer -> handleTransferRequest(transfer);
+                case PortalSyncPacket portalSync -> handlePortalSync(portalSync);
+                case ChunkDataPacket chunk -> handleChunkData(chunk);
+                case PDCSyncPacket pdc -> handlePDCSync(pdc);
+                case EventBroadcastPacket event -> handleEventBroadcast(event);
+                case StateResyncRequestPacket resync -> handleStateResync(resync);
+                case CustomPacket custom -> handleCustomPacket(custom);
+                default -> LOGGER.warn("Unexpected packet type: {}", packet.getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            exceptionCaught(ctx, e);
         }
     }
 
@@ -113,10 +163,31 @@ public final class MasterPacketHandler extends ChannelInboundHandlerAdapter {
         NodeSession session = NodeSession.create(nodeId, remoteAddress, ctx.channel());
         nodeRegistry.register(session);
 
-        ctx.writeAndFlush(AuthResultPacket.success(ProtocolConstants.PROTOCOL_VERSION, java.util.Map.of()));
+        FrameCompression compression = negotiateCompression(ctx, handshake);
+        Map<String, String> serverConfig = new HashMap<>();
+        serverConfig.put(ProtocolConstants.COMPRESSION_PROPERTY, compression.id());
+        if (dictionaryTrainer.isEnabled() && DICTIONARY_FORMAT.equals(
+                handshake.properties().get(ProtocolConstants.COMPRESSION_DICTIONARY_PROPERTY))) {
+            session.state().enableDictionary();
+            serverConfig.put(ProtocolConstants.COMPRESSION_DICTIONARY_PROPERTY, DICTIONARY_FORMAT);
+        }
+        if (SYMBOL_TABLE_VERSION.equals(handshake.properties().get(ProtocolConstants.SYMBOL_TABLE_PROPERTY))) {
+            session.state().enableSymbolTable();
+            serverConfig.put(ProtocolConstants.SYMBOL_TABLE_PROPERTY, SYMBOL_TABLE_VERSION);
+        }
+        PacketStreamHandler streams = ctx.pipeline().get(PacketStreamHandler.class);
+        if (streams != null
+                && STREAM_VERSION.equals(handshake.properties().get(ProtocolConstants.STREAM_PROPERTY))) {
+            streams.enable();
+            serverConfig.put(ProtocolConstants.STREAM_PROPERTY, STREAM_VERSION);
+        }
+        ctx.writeAndFlush(AuthResultPacket.success(ProtocolConstants.PROTOCOL_VERSION, serverConfig));
+        stateBroadcaster.symbols().intern(nodeId);
+        session.syncSymbols(stateBroadcaster.symbols());
+        dictionaryTrainer.onNodeAuthenticated(session);
         AetherEventBus.instance().publish(AuthenticationCompletedEvent.success(nodeId));
 
-        LOGGER.info("Node authenticated: {} from {}", nodeId, remoteAddress);
+        LOGGER.info("Node authenticated: {} from {} (compression: {})", nodeId, remoteAddress, compression.id());
     }
 
     private void handleHeartbeat(ChannelHandlerContext ctx, HeartbeatPacket heartbeat) {
@@ -131,6 +202,17 @@ public final class MasterPacketHandler extends ChannelInboundHandlerAdapter {
         ctx.writeAndFlush(HeartbeatAckPacket.fromHeartbeat(heartbeat, processingDelay));
     }
 
+    private FrameCompression negotiateCompression(ChannelHandlerContext ctx, AuthHandshakePacket handshake) {
+        List<FrameCompression> offered = FrameCompression.parseList(
+                handshake.properties().get(ProtocolConstants.COMPRESSION_PROPERTY));
+        FrameCompression compression = compressionPolicy.negotiate(offered);
+        PacketEncoder encoder = ctx.pipeline().get(PacketEncoder.class);
+        if (encoder != null) {
+            encoder.useCompression(compression);
+        }
+        return compression;
+    }
+
     private void handleNodeSnapshot(NodeSnapshotPacket snapshot) {
         if (!authenticated) {
             return;
@@ -169,16 +251,61 @@ public final class MasterPacketHandler extends ChannelInboundHandlerAdapter {
         LOGGER.debug("Portal sync received from {}: {} portals", nodeId, portalSync.portals().size());
     }
 
+    private void handleChunkData(ChunkDataPacket chunk) {
+        if (!authenticated) {
+            return;
+        }
+        if (!nodeId.equals(chunk.sourceServer())) {
+            LOGGER.warn("Dropping chunk data from {} claiming source {}", nodeId, chunk.sourceServer());
+            return;
+        }
+        nodeRegistry.getByNodeId(chunk.targetServer()).ifPresentOrElse(
+                session -> session.send(chunk),
+                () -> LOGGER.debug("Chunk data from {} for unknown node {}", nodeId, chunk.targetServer()));
+    }
+
+    private void handlePDCSync(PDCSyncPacket pdc) {
+        if (!authenticated) {
+            return;
+        }
+        if (pdcStore != null) {
+            pdcStore.handle(pdc, nodeId);
+            LOGGER.debug("PDC {} from {} for player {}", pdc.operation(), nodeId, pdc.playerUuid());
+        }
+    }
+
     private void handleEventBroadcast(EventBroadcastPacket event) {
         if (!authenticated) {
             return;
         }
         if (eventRouter != null) {
+            SymbolTable symbols = stateBroadcaster.symbols();
+            symbols.intern(event.eventType());
+            symbols.internAll(event.eventData().keySet());
             eventRouter.routeEvent(event);
             LOGGER.debug("Event broadcast from {}: type={}", nodeId, event.eventType());
         }
     }
 
+    private void handleCustomPacket(CustomPacket packet) {
+        if (!authenticated) {
+            return;
+        }
+        AetherEventBus.instance().publish(PacketReceivedEvent.create(packet, nodeId));
+    }
+
+    private void handleStateResync(StateResyncRequestPacket resync) {
+        if (!authenticated) {
+            return;
+        }
+        nodeRegistry.getByNodeId(nodeId).ifPresent(session -> {
+            session.state().requireFullState();
+            stateBroadcaster.triggerEmergencyBroadcast();
+            LOGGER.debug("State resync requested by {}: known v{}, received delta base v{}",
+                    nodeId, resync.knownVersion(), resync.receivedBaseVersion());
+        });
+    }
+
     private void handleProtocolError(ChannelHandlerContext ctx, ProtocolErrorPacket error) {
         LOGGER.error("Protocol error from {}: {} - {} (packet 0x{})",
                 nodeId != null ? nodeId : ctx.channel().remoteAddress(),
@@ -186,13 +313,25 @@ public final class MasterPacketHandler extends ChannelInboundHandlerAdapter {
     }
 
     @Override
-    public void channelInactive(ChannelHandlerContext ctx) {
-        if (authenticated && nodeId != null) {
-            nodeRegistry.unregister(nodeId);
-            AetherEventBus.instance().publish(ConnectionLostEvent.create(nodeId, "Channel closed"));
-            stateBroadcaster.triggerEmergencyBroadcast();
-            LOGGER.info("Node disconnected: {}", nodeId);
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (authenticated) {
+            boolean writable = ctx.channel().isWritable();
+            nodeRegistry.getByNodeId(nodeId).ifPresent(session ->
+                    stateBroadcaster.onWritabilityChanged(session, writable));
         }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        nodeExecutor.terminate(() -> {
+            if (authenticated && nodeId != null) {
+                nodeRegistry.unregister(nodeId);
+                AetherEventBus.instance().publish(ConnectionLostEvent.create(nodeId, "Channel closed"));
+                stateBroadcaster.triggerEmergencyBroadcast();
+                LOGGER.info("Node disconnected: {}", nodeId);
+            }
+        });
         ctx.fireChannelInactive();
     }
 
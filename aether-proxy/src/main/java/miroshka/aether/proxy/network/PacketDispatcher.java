@@ -0,0 +1,191 @@
+package miroshka.aether.proxy.network;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.Channel;
+import miroshka.aether.common.protocol.Packet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class PacketDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PacketDispatcher.class);
+
+    private static final int DEFAULT_HIGH_WATERMARK = 1024;
+    private static final int DEFAULT_LOW_WATERMARK = 256;
+    private static final int DEFAULT_MAX_QUEUE_DEPTH = 8192;
+
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<? extends Packet>, Timer> handlerTimers;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final int maxQueueDepth;
+
+    public PacketDispatcher(MeterRegistry meterRegistry) {
+        this(meterRegistry, DEFAULT_HIGH_WATERMARK, DEFAULT_LOW_WATERMARK, DEFAULT_MAX_QUEUE_DEPTH);
+    }
+
+    public PacketDispatcher(MeterRegistry meterRegistry, int highWatermark, int lowWatermark, int maxQueueDepth) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry");
+        if (lowWatermark < 0 || lowWatermark >= highWatermark || highWatermark > maxQueueDepth) {
+            throw new IllegalArgumentException("Expected 0 <= lowWatermark < highWatermark <= maxQueueDepth");
+        }
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("Aether-Dispatch-", 0).factory());
+        this.handlerTimers = new ConcurrentHashMap<>();
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public NodeExecutor newNodeExecutor(Channel channel) {
+        Objects.requireNonNull(channel, "channel");
+        return new SerialExecutor(executor, channel, highWatermark, lowWatermark, maxQueueDepth);
+    }
+
+    public void dispatch(Executor nodeExecutor, Packet packet, Runnable handler) {
+        Objects.requireNonNull(nodeExecutor, "nodeExecutor");
+        Objects.requireNonNull(packet, "packet");
+        Objects.requireNonNull(handler, "handler");
+        nodeExecutor.execute(() -> handleTimed(packet, handler));
+    }
+
+    public void handleTimed(Packet packet, Runnable handler) {
+        Timer timer = handlerTimers.computeIfAbsent(packet.getClass(), this::createTimer);
+        long start = System.nanoTime();
+        try {
+            handler.run();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Timer createTimer(Class<? extends Packet> packetType) {
+        return Timer.builder("aether.packet.handler")
+                .description("Time spent handling packets received from nodes")
+                .tag("packet", packetType.getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public interface NodeExecutor extends Executor {
+
+        void terminate(Runnable teardown);
+    }
+
+    private static final class SerialExecutor implements NodeExecutor {
+
+        private final Executor delegate;
+        private final Channel channel;
+        private final int highWatermark;
+        private final int lowWatermark;
+        private final int maxQueueDepth;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean paused = new AtomicBoolean();
+
+        private SerialExecutor(Executor delegate, Channel channel, int highWatermark, int lowWatermark,
+                int maxQueueDepth) {
+            this.delegate = delegate;
+            this.channel = channel;
+            this.highWatermark = highWatermark;
+            this.lowWatermark = lowWatermark;
+            this.maxQueueDepth = maxQueueDepth;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            int queued = depth.incrementAndGet();
+            if (queued > maxQueueDepth) {
+                depth.decrementAndGet();
+                LOGGER.error("Dispatch queue for {} exceeded {} packets, closing connection",
+                        channel.remoteAddress(), maxQueueDepth);
+                channel.close();
+                throw new RejectedExecutionException("Dispatch queue exceeded " + maxQueueDepth + " packets");
+            }
+            tasks.add(task);
+            if (queued >= highWatermark && paused.compareAndSet(false, true)) {
+                LOGGER.debug("Pausing reads from {} with {} packets queued", channel.remoteAddress(), queued);
+                updateAutoRead();
+            }
+            schedule();
+        }
+
+        @Override
+        public void terminate(Runnable teardown) {
+            Objects.requireNonNull(teardown, "teardown");
+            depth.incrementAndGet();
+            tasks.add(teardown);
+            schedule();
+        }
+
+        private void completed() {
+            if (depth.decrementAndGet() <= lowWatermark && paused.compareAndSet(true, false)) {
+                updateAutoRead();
+            }
+        }
+
+        private void updateAutoRead() {
+            channel.eventLoop().execute(() -> channel.config().setAutoRead(!paused.get()));
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                delegate.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Dispatcher is shut down, running {} node tasks inline", depth.get());
+                drain();
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        LOGGER.error("Unhandled exception in node task", t);
+                    } finally {
+                        completed();
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!tasks.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package miroshka.aether.proxy.network;
 
+import io.netty.buffer.ByteBufAllocator;
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.codec.FrameCache;
+import miroshka.aether.common.protocol.NetworkStateDeltaPacket;
 import miroshka.aether.common.protocol.NetworkStatePacket;
 import miroshka.aether.common.protocol.ProtocolConstants;
 import miroshka.aether.common.protocol.ServerInfo;
+import miroshka.aether.common.protocol.SymbolTable;
 import miroshka.aether.proxy.NodeRegistry;
 import miroshka.aether.proxy.NodeSession;
+import miroshka.aether.proxy.config.SlowConsumerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,18 +32,29 @@ public final class StateBroadcaster {
     private final ScheduledExecutorService scheduler;
     private final AtomicLong stateVersion;
     private final int broadcastIntervalMillis;
+    private final SlowConsumerConfig slowConsumer;
+    private final CompressionPolicy compressionPolicy;
+    private final CompressionDictionaryTrainer dictionaryTrainer;
+    private final SymbolTable symbols;
 
     private volatile boolean running;
+    private NetworkStatePacket lastBroadcast;
+    private long lastFullBroadcastMillis;
 
-    public StateBroadcaster(NodeRegistry nodeRegistry, int broadcastIntervalMillis) {
+    public StateBroadcaster(NodeRegistry nodeRegistry, int broadcastIntervalMillis, SlowConsumerConfig slowConsumer,
+            CompressionPolicy compressionPolicy, CompressionDictionaryTrainer dictionaryTrainer) {
         this.nodeRegistry = Objects.requireNonNull(nodeRegistry, "nodeRegistry");
         this.broadcastIntervalMillis = broadcastIntervalMillis;
+        this.slowConsumer = Objects.requireNonNull(slowConsumer, "slowConsumer");
+        this.compressionPolicy = Objects.requireNonNull(compressionPolicy, "compressionPolicy");
+        this.dictionaryTrainer = Objects.requireNonNull(dictionaryTrainer, "dictionaryTrainer");
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "Aether-StateBroadcaster");
             t.setDaemon(true);
             return t;
         });
         this.stateVersion = new AtomicLong(0);
+        this.symbols = new SymbolTable();
         this.running = false;
     }
 
@@ -68,12 +85,30 @@ public final class StateBroadcaster {
         LOGGER.info("StateBroadcaster stopped");
     }
 
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
     public void triggerEmergencyBroadcast() {
         if (running) {
             scheduler.execute(this::broadcast);
         }
     }
 
+    public void onWritabilityChanged(NodeSession session, boolean writable) {
+        Objects.requireNonNull(session, "session");
+        if (!writable) {
+            session.state().markUnwritable(System.currentTimeMillis());
+            return;
+        }
+
+        session.state().markWritable();
+        if (running && slowConsumer.policy() == SlowConsumerConfig.Policy.COALESCE_LATEST
+                && session.state().isFullStateRequired()) {
+            scheduler.execute(() -> sendLatestState(session));
+        }
+    }
+
     private void broadcastIfNeeded() {
         if (nodeRegistry.hasAnyDirtyState() || nodeRegistry.getNodeCount() > 0) {
             broadcast();
@@ -82,27 +117,116 @@ public final class StateBroadcaster {
 
     private void broadcast() {
         try {
-            NetworkStatePacket state = buildNetworkState();
-            var sessions = nodeRegistry.getAllSessions();
+            long now = System.currentTimeMillis();
+            NetworkStatePacket previous = lastBroadcast;
+            NetworkStatePacket current = buildNetworkState(stateVersion.get() + 1);
+            boolean fullStateDue = previous == null
+                    || now - lastFullBroadcastMillis >= ProtocolConstants.FULL_STATE_INTERVAL_MILLIS;
+
+            NetworkStateDeltaPacket delta = null;
+            if (fullStateDue) {
+                lastBroadcast = current;
+                lastFullBroadcastMillis = now;
+                stateVersion.incrementAndGet();
+            } else {
+                delta = NetworkStateDeltaPacket.between(previous, current,
+                        ProtocolConstants.STATE_DELTA_TIMESTAMP_REFRESH_MILLIS,
+                        ProtocolConstants.STATE_DELTA_TPS_EPSILON);
+                if (delta.isEmpty(previous)) {
+                    delta = null;
+                } else {
+                    lastBroadcast = delta.applyTo(previous);
+                    stateVersion.incrementAndGet();
+                }
+            }
+
+            internSymbols(current);
+            if (delta != null) {
+                dictionaryTrainer.sample(delta);
+            } else if (fullStateDue) {
+                dictionaryTrainer.sample(lastBroadcast);
+            }
 
-            for (NodeSession session : sessions) {
-                if (session.isActive()) {
-                    session.channel().writeAndFlush(state);
+            int fullCount = 0;
+            int deltaCount = 0;
+            int slowCount = 0;
+            FrameCache fullFrames = new FrameCache(ByteBufAllocator.DEFAULT, lastBroadcast, compressionPolicy);
+            FrameCache deltaFrames = delta != null
+                    ? new FrameCache(ByteBufAllocator.DEFAULT, delta, compressionPolicy)
+                    : null;
+            try {
+                for (NodeSession session : nodeRegistry.getAllSessions()) {
+                    if (!session.isActive()) {
+                        continue;
+                    }
+                    if (!session.isWritable()) {
+                        deferSlowConsumer(session, now);
+                        slowCount++;
+                        continue;
+                    }
+                    session.syncSymbols(symbols);
+                    if (fullStateDue || session.state().isFullStateRequired()) {
+                        session.state().clearFullStateRequired();
+                        session.sendFrame(fullFrames.retainedFrame(session.frameOptions()));
+                        fullCount++;
+                    } else if (deltaFrames != null) {
+                        session.sendFrame(deltaFrames.retainedFrame(session.frameOptions()));
+                        deltaCount++;
+                    }
+                }
+            } finally {
+                fullFrames.close();
+                if (deltaFrames != null) {
+                    deltaFrames.close();
                 }
             }
 
             nodeRegistry.clearAllDirtyFlags();
-            LOGGER.debug("Broadcast state v{} to {} nodes: {} global players",
-                    state.stateVersion(), sessions.size(), state.globalOnline());
+            if (fullCount > 0 || deltaCount > 0 || slowCount > 0) {
+                LOGGER.debug("Broadcast state v{} (full to {}, delta to {}, skipped {} slow nodes): {} global players",
+                        lastBroadcast.stateVersion(), fullCount, deltaCount, slowCount, lastBroadcast.globalOnline());
+            }
         } catch (Exception e) {
             LOGGER.error("Failed to broadcast state", e);
         }
     }
 
-    private NetworkStatePacket buildNetworkState() {
+    private void internSymbols(NetworkStatePacket state) {
+        symbols.internAll(state.globalProperties().keySet());
+        symbols.internAll(state.routingHints().keySet());
+        for (ServerInfo server : state.servers()) {
+            symbols.intern(server.name());
+            symbols.internAll(server.extraData().keySet());
+        }
+    }
+
+    private void deferSlowConsumer(NodeSession session, long now) {
+        NodeSession.NodeState state = session.state();
+        state.markUnwritable(now);
+        state.requireFullState();
+
+        long unwritableMillis = now - state.getUnwritableSinceMillis();
+        if (slowConsumer.policy() == SlowConsumerConfig.Policy.DISCONNECT
+                && unwritableMillis >= slowConsumer.disconnectAfterMillis()) {
+            LOGGER.warn("Disconnecting slow node {}: unwritable for {}ms with {} bytes pending",
+                    session.nodeId(), unwritableMillis, session.pendingOutboundBytes());
+            session.channel().close();
+        }
+    }
+
+    private void sendLatestState(NodeSession session) {
+        NetworkStatePacket latest = lastBroadcast;
+        if (latest == null || !session.isActive() || !session.isWritable()
+                || !session.state().isFullStateRequired()) {
+            return;
+        }
+        session.state().clearFullStateRequired();
+        session.send(latest);
+    }
+
+    private NetworkStatePacket buildNetworkState(long version) {
         int globalOnline = nodeRegistry.getTotalOnlinePlayers();
         int serverCount = nodeRegistry.getNodeCount();
-        long version = stateVersion.incrementAndGet();
 
         Map<String, String> globalProperties = new HashMap<>();
         Map<String, String> routingHints = buildRoutingHints();
@@ -0,0 +1,374 @@
+package miroshka.aether.proxy.pdc;
+
+import miroshka.aether.common.protocol.PDCSyncPacket;
+import miroshka.aether.common.protocol.PDCVersion;
+import miroshka.aether.proxy.NodeRegistry;
+import miroshka.aether.proxy.config.PDCStoreConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+public final class MasterPDCStore implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MasterPDCStore.class);
+
+    public static final String SOURCE_NAME = "aether-master";
+
+    private final NodeRegistry nodeRegistry;
+    private final PDCStoreConfig config;
+    private final Function<UUID, Optional<String>> playerLocator;
+    private final Map<UUID, PlayerRecord> index;
+    private final Map<UUID, String> owners;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock lock;
+
+    private PDCSegmentLog log;
+    private long liveBytes;
+
+    private MasterPDCStore(NodeRegistry nodeRegistry, PDCStoreConfig config,
+            Function<UUID, Optional<String>> playerLocator) {
+        this.nodeRegistry = nodeRegistry;
+        this.config = config;
+        this.playerLocator = playerLocator;
+        this.index = new HashMap<>();
+        this.owners = new ConcurrentHashMap<>();
+        this.lock = new ReentrantLock();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Aether-PDCStore");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static MasterPDCStore open(Path directory, PDCStoreConfig config, NodeRegistry nodeRegistry,
+            Function<UUID, Optional<String>> playerLocator) throws IOException {
+        Objects.requireNonNull(directory, "directory");
+        Objects.requireNonNull(config, "config");
+        Objects.requireNonNull(nodeRegistry, "nodeRegistry");
+        Objects.requireNonNull(playerLocator, "playerLocator");
+
+        MasterPDCStore store = new MasterPDCStore(nodeRegistry, config, playerLocator);
+        store.lock.lock();
+        try {
+            store.log = PDCSegmentLog.open(directory, config.segmentSizeBytes(), store::recover);
+        } finally {
+            store.lock.unlock();
+        }
+        store.scheduler.scheduleWithFixedDelay(store::flush, config.flushIntervalMillis(),
+                config.flushIntervalMillis(), TimeUnit.MILLISECONDS);
+        store.scheduler.scheduleWithFixedDelay(store::compactIfNeeded, config.compactionIntervalSeconds(),
+                config.compactionIntervalSeconds(), TimeUnit.SECONDS);
+        LOGGER.info("PDC store opened: {} players, {} KiB live in {} segment(s)",
+                store.playerCount(), store.liveBytes() / 1024, store.log.segmentCount());
+        return store;
+    }
+
+    public void handle(PDCSyncPacket packet, String sourceNode) {
+        Objects.requireNonNull(packet, "packet");
+        Objects.requireNonNull(sourceNode, "sourceNode");
+        try {
+            switch (packet.operation()) {
+                case REQUEST -> answerRequest(packet.playerUuid(), sourceNode, packet.requestId());
+                case FULL_SYNC, PARTIAL_UPDATE -> store(packet, sourceNode, false);
+                case DELETE -> store(packet, sourceNode, true);
+                case ACK -> LOGGER.debug("Ignoring PDC acknowledgement from {}", sourceNode);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to store PDC {} for {} from {}", packet.operation(), packet.playerUuid(),
+                    sourceNode, e);
+        }
+    }
+
+    public void release(UUID playerUuid) {
+        Objects.requireNonNull(playerUuid, "playerUuid");
+        owners.remove(playerUuid);
+        lock.lock();
+        try {
+            PlayerRecord record = index.get(playerUuid);
+            if (record != null) {
+                record.hot = null;
+                if (record.entries.isEmpty()) {
+                    index.remove(playerUuid);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, byte[]> get(UUID playerUuid) {
+        Objects.requireNonNull(playerUuid, "playerUuid");
+        lock.lock();
+        try {
+            PlayerRecord record = index.get(playerUuid);
+            if (record == null) {
+                return Map.of();
+            }
+            return new HashMap<>(record.hot != null ? record.hot : readAll(record));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int playerCount() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long liveBytes() {
+        lock.lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long usedBytes() {
+        return log.usedBytes();
+    }
+
+    private void answerRequest(UUID playerUuid, String sourceNode, long requestId) {
+        owners.put(playerUuid, sourceNode);
+        PDCSyncPacket response = snapshot(playerUuid, requestId);
+        nodeRegistry.getByNodeId(sourceNode).ifPresent(session -> session.send(response));
+        LOGGER.debug("Answered PDC request for {} from {} with {} keys", playerUuid, sourceNode,
+                response.data().size());
+    }
+
+    private void store(PDCSyncPacket packet, String sourceNode, boolean delete) throws IOException {
+        PDCSyncPacket accepted = write(packet, delete);
+        acknowledge(packet, sourceNode, accepted.version());
+        if (accepted.data().isEmpty()) {
+            return;
+        }
+        if (accepted.data().size() < packet.data().size()) {
+            LOGGER.debug("Dropped {} stale PDC keys for {} from {}", packet.data().size() - accepted.data().size(),
+                    packet.playerUuid(), sourceNode);
+        }
+        forwardToOwner(accepted, sourceNode);
+    }
+
+    private void acknowledge(PDCSyncPacket packet, String sourceNode, long version) {
+        if (!packet.isResponse()) {
+            return;
+        }
+        nodeRegistry.getByNodeId(sourceNode).ifPresent(session -> session.send(
+                PDCSyncPacket.ack(packet.playerUuid(), SOURCE_NAME, version, packet.requestId())));
+    }
+
+    private PDCSyncPacket snapshot(UUID playerUuid, long requestId) {
+        lock.lock();
+        try {
+            PlayerRecord record = index.computeIfAbsent(playerUuid, k -> new PlayerRecord());
+            if (record.hot == null) {
+                record.hot = readAll(record);
+            }
+            Map<String, PDCVersion> versions = new HashMap<>(record.hot.size());
+            for (String key : record.hot.keySet()) {
+                versions.put(key, record.entries.get(key).version());
+            }
+            return PDCSyncPacket.fullSync(playerUuid, SOURCE_NAME, new HashMap<>(record.hot), versions, versions,
+                    requestId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PDCSyncPacket write(PDCSyncPacket packet, boolean delete) throws IOException {
+        lock.lock();
+        try {
+            return writeLocked(packet, delete);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PDCSyncPacket writeLocked(PDCSyncPacket packet, boolean delete) throws IOException {
+        UUID playerUuid = packet.playerUuid();
+        PlayerRecord record = index.computeIfAbsent(playerUuid, k -> new PlayerRecord());
+        Map<String, byte[]> data = new HashMap<>(packet.data().size());
+        Map<String, PDCVersion> versions = new HashMap<>(packet.data().size());
+        Map<String, PDCVersion> bases = new HashMap<>(packet.data().size());
+        for (Map.Entry<String, byte[]> entry : packet.data().entrySet()) {
+            String key = entry.getKey();
+            PDCVersion version = packet.versionOf(key);
+            Entry existing = record.entries.get(key);
+            if (existing != null && existing.version().compareTo(version) >= 0) {
+                continue;
+            }
+            byte type = delete ? PDCSegmentLog.DELETE : PDCSegmentLog.PUT;
+            byte[] value = delete ? new byte[0] : entry.getValue();
+            PDCSegmentLog.Location location = log.append(type, playerUuid, version, key, value);
+            record.entries.put(key, new Entry(location, version, delete));
+            liveBytes += location.recordLength();
+            if (existing != null) {
+                liveBytes -= existing.location().recordLength();
+            }
+            if (record.hot != null) {
+                if (delete) {
+                    record.hot.remove(key);
+                } else {
+                    record.hot.put(key, value);
+                }
+            }
+            data.put(key, entry.getValue());
+            versions.put(key, version);
+            bases.put(key, packet.baseOf(key));
+            record.version = Math.max(record.version, version.clock());
+        }
+        long version = record.version;
+        if (record.entries.isEmpty() && record.hot == null) {
+            index.remove(playerUuid);
+        }
+        return new PDCSyncPacket(playerUuid, packet.playerName(), packet.operation(), data, version,
+                packet.requestId(), versions, bases);
+    }
+
+    private void forwardToOwner(PDCSyncPacket packet, String sourceNode) {
+        String owner = playerLocator.apply(packet.playerUuid()).orElseGet(() -> owners.get(packet.playerUuid()));
+        if (owner == null || owner.equals(sourceNode)) {
+            return;
+        }
+        PDCSyncPacket forwarded = packet.isResponse() ? packet.withRequestId(PDCSyncPacket.UNSOLICITED) : packet;
+        nodeRegistry.getByNodeId(owner).ifPresent(session -> {
+            session.send(forwarded);
+            LOGGER.debug("Forwarded PDC {} for {} from {} to {}", packet.operation(), packet.playerUuid(),
+                    sourceNode, session.nodeId());
+        });
+    }
+
+    private Map<String, byte[]> readAll(PlayerRecord record) {
+        Map<String, byte[]> values = new HashMap<>(record.entries.size());
+        for (Map.Entry<String, Entry> entry : record.entries.entrySet()) {
+            if (!entry.getValue().tombstone()) {
+                values.put(entry.getKey(), log.read(entry.getValue().location()));
+            }
+        }
+        return values;
+    }
+
+    private void recover(byte type, UUID playerUuid, PDCVersion version, String key,
+            PDCSegmentLog.Location location) {
+        PlayerRecord record = index.computeIfAbsent(playerUuid, k -> new PlayerRecord());
+        Entry previous = record.entries.get(key);
+        if (previous != null && previous.version().compareTo(version) > 0) {
+            return;
+        }
+        record.entries.put(key, new Entry(location, version, type == PDCSegmentLog.DELETE));
+        liveBytes += location.recordLength();
+        if (previous != null) {
+            liveBytes -= previous.location().recordLength();
+        }
+        record.version = Math.max(record.version, version.clock());
+    }
+
+    private void flush() {
+        try {
+            log.force();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to flush PDC store: {}", e.getMessage());
+        }
+    }
+
+    void compactIfNeeded() {
+        List<Rewrite> rewrites = new ArrayList<>();
+        long used;
+        int firstSegment;
+        lock.lock();
+        try {
+            used = log.usedBytes();
+            long garbage = used - liveBytes;
+            if (used < log.segmentSize() || garbage < used * config.compactionGarbageRatio()) {
+                return;
+            }
+            firstSegment = log.rollover();
+            for (Map.Entry<UUID, PlayerRecord> player : index.entrySet()) {
+                for (Map.Entry<String, Entry> entry : player.getValue().entries.entrySet()) {
+                    rewrites.add(new Rewrite(player.getKey(), entry.getKey(), entry.getValue()));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("PDC store compaction failed", e);
+            return;
+        } finally {
+            lock.unlock();
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            List<PDCSegmentLog.Location> locations = new ArrayList<>(rewrites.size());
+            for (Rewrite rewrite : rewrites) {
+                Entry current = rewrite.entry();
+                byte[] value = current.tombstone() ? new byte[0] : log.read(current.location());
+                locations.add(log.append(current.tombstone() ? PDCSegmentLog.DELETE : PDCSegmentLog.PUT,
+                        rewrite.playerUuid(), current.version(), rewrite.key(), value));
+            }
+            long compacted;
+            lock.lock();
+            try {
+                for (int i = 0; i < rewrites.size(); i++) {
+                    Rewrite rewrite = rewrites.get(i);
+                    PlayerRecord record = index.get(rewrite.playerUuid());
+                    if (record == null || !rewrite.entry().equals(record.entries.get(rewrite.key()))) {
+                        continue;
+                    }
+                    PDCSegmentLog.Location location = locations.get(i);
+                    record.entries.put(rewrite.key(), new Entry(location, rewrite.entry().version(),
+                            rewrite.entry().tombstone()));
+                    liveBytes += location.recordLength() - rewrite.entry().location().recordLength();
+                }
+                log.deleteSegmentsBefore(firstSegment);
+                compacted = liveBytes;
+            } finally {
+                lock.unlock();
+            }
+            LOGGER.info("Compacted PDC store from {} KiB to {} KiB in {} ms", used / 1024, compacted / 1024,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("PDC store compaction failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        lock.lock();
+        try {
+            log.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(PDCSegmentLog.Location location, PDCVersion version, boolean tombstone) {
+    }
+
+    private record Rewrite(UUID playerUuid, String key, Entry entry) {
+    }
+
+    private static final class PlayerRecord {
+        private final Map<String, Entry> entries = new HashMap<>();
+        private Map<String, byte[]> hot;
+        private long version;
+    }
+}
@@ -0,0 +1,301 @@
+package miroshka.aether.proxy.pdc;
+
+import io.netty.util.internal.PlatformDependent;
+import miroshka.aether.common.protocol.PDCVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+final class PDCSegmentLog implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PDCSegmentLog.class);
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+    private static final int FIXED_BODY_SIZE = 1 + 8 + 8 + 8 + 2 + 2 + 4;
+    private static final int TERMINATOR_SIZE = 4;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final TreeMap<Integer, Segment> segments;
+    private final CRC32C crc;
+
+    private Segment active;
+
+    private PDCSegmentLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segments = new TreeMap<>();
+        this.crc = new CRC32C();
+    }
+
+    static PDCSegmentLog open(Path directory, int segmentSize, RecordVisitor visitor) throws IOException {
+        Objects.requireNonNull(directory, "directory");
+        Objects.requireNonNull(visitor, "visitor");
+        Files.createDirectories(directory);
+        PDCSegmentLog log = new PDCSegmentLog(directory, segmentSize);
+        try {
+            for (int id : log.existingSegmentIds()) {
+                Segment segment = log.map(id);
+                log.segments.put(id, segment);
+                log.replay(segment, visitor);
+            }
+            if (log.segments.isEmpty()) {
+                log.roll();
+            } else {
+                log.active = log.segments.lastEntry().getValue();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return log;
+    }
+
+    synchronized Location append(byte type, UUID uuid, PDCVersion version, String key, byte[] value)
+            throws IOException {
+        byte[] originBytes = version.origin().getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF || originBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Key or origin too long: " + key);
+        }
+        int bodyLength = FIXED_BODY_SIZE + originBytes.length + keyBytes.length + value.length;
+        int recordLength = HEADER_SIZE + bodyLength;
+        if (recordLength + TERMINATOR_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Record of " + recordLength + " bytes exceeds segment size "
+                    + segmentSize);
+        }
+        if (active.size + recordLength + TERMINATOR_SIZE > segmentSize) {
+            roll();
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int start = active.size;
+        int position = start + HEADER_SIZE;
+        buffer.putInt(start + recordLength, 0);
+        buffer.put(position, type);
+        buffer.putLong(position + 1, uuid.getMostSignificantBits());
+        buffer.putLong(position + 9, uuid.getLeastSignificantBits());
+        buffer.putLong(position + 17, version.clock());
+        buffer.putShort(position + 25, (short) originBytes.length);
+        buffer.put(position + 27, originBytes);
+        int keyOffset = position + 27 + originBytes.length;
+        buffer.putShort(keyOffset, (short) keyBytes.length);
+        buffer.put(keyOffset + 2, keyBytes);
+        int valueLengthOffset = keyOffset + 2 + keyBytes.length;
+        buffer.putInt(valueLengthOffset, value.length);
+        buffer.put(valueLengthOffset + 4, value);
+
+        crc.reset();
+        crc.update(buffer.slice(position, bodyLength));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, bodyLength);
+
+        active.size = start + recordLength;
+        return new Location(active.id, valueLengthOffset + 4, value.length, recordLength);
+    }
+
+    synchronized byte[] read(Location location) {
+        Segment segment = segments.get(location.segmentId());
+        if (segment == null) {
+            throw new IllegalStateException("Segment " + location.segmentId() + " is no longer mapped");
+        }
+        byte[] value = new byte[location.valueLength()];
+        segment.buffer.get(location.valueOffset(), value);
+        return value;
+    }
+
+    synchronized int rollover() throws IOException {
+        roll();
+        return active.id;
+    }
+
+    synchronized void deleteSegmentsBefore(int segmentId) throws IOException {
+        Iterator<Map.Entry<Integer, Segment>> iterator = segments.headMap(segmentId, false).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next().getValue();
+            iterator.remove();
+            segment.channel.close();
+            unmap(segment);
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    synchronized long usedBytes() {
+        long used = 0;
+        for (Segment segment : segments.values()) {
+            used += segment.size;
+        }
+        return used;
+    }
+
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    int segmentSize() {
+        return segmentSize;
+    }
+
+    synchronized void force() {
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            try {
+                segment.buffer.force();
+                segment.channel.close();
+                unmap(segment);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Failed to close PDC segment {}: {}", segment.path, e.getMessage());
+            }
+        }
+        segments.clear();
+        active = null;
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.buffer.force();
+        }
+        int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        Segment segment = map(id);
+        segment.buffer.putInt(0, 0);
+        segments.put(id, segment);
+        active = segment;
+    }
+
+    private static void unmap(Segment segment) {
+        try {
+            PlatformDependent.freeDirectBuffer(segment.buffer);
+        } catch (RuntimeException e) {
+            LOGGER.debug("PDC segment {} left to the garbage collector: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private Segment map(int id) throws IOException {
+        Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long size = Math.max(channel.size(), segmentSize);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(id, path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void replay(Segment segment, RecordVisitor visitor) {
+        MappedByteBuffer buffer = segment.buffer;
+        int limit = buffer.capacity();
+        int position = 0;
+        while (position + HEADER_SIZE <= limit) {
+            int bodyLength = buffer.getInt(position);
+            if (bodyLength < FIXED_BODY_SIZE || position + HEADER_SIZE + bodyLength > limit) {
+                break;
+            }
+            int body = position + HEADER_SIZE;
+            crc.reset();
+            crc.update(buffer.slice(body, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                LOGGER.warn("Corrupted PDC record in {} at offset {}, ignoring the rest of the segment",
+                        segment.path, position);
+                break;
+            }
+            byte type = buffer.get(body);
+            if (type != PUT && type != DELETE) {
+                LOGGER.warn("Unknown PDC record type {} in {} at offset {}, ignoring the rest of the segment",
+                        type, segment.path, position);
+                break;
+            }
+            UUID uuid = new UUID(buffer.getLong(body + 1), buffer.getLong(body + 9));
+            long clock = buffer.getLong(body + 17);
+            int originLength = Short.toUnsignedInt(buffer.getShort(body + 25));
+            byte[] originBytes = new byte[originLength];
+            buffer.get(body + 27, originBytes);
+            int keyOffset = body + 27 + originLength;
+            int keyLength = Short.toUnsignedInt(buffer.getShort(keyOffset));
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(keyOffset + 2, keyBytes);
+            int valueLengthOffset = keyOffset + 2 + keyLength;
+            int valueLength = buffer.getInt(valueLengthOffset);
+            int recordLength = HEADER_SIZE + bodyLength;
+            PDCVersion version = new PDCVersion(clock, new String(originBytes, StandardCharsets.UTF_8));
+            visitor.accept(type, uuid, version, new String(keyBytes, StandardCharsets.UTF_8),
+                    new Location(segment.id, valueLengthOffset + 4, valueLength, recordLength));
+            position += recordLength;
+        }
+        segment.size = position;
+        if (position + TERMINATOR_SIZE <= limit) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    private List<Integer> existingSegmentIds() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        ids.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                                name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        LOGGER.warn("Ignoring unexpected file in PDC store: {}", file);
+                    }
+                }
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    record Location(int segmentId, int valueOffset, int valueLength, int recordLength) {
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void accept(byte type, UUID uuid, PDCVersion version, String key, Location location);
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int size;
+
+        private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
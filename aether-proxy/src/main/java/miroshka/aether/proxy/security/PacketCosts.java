@@ -0,0 +1,35 @@
+package miroshka.aether.proxy.security;
+
+import miroshka.aether.common.protocol.ChunkDataPacket;
+import miroshka.aether.common.protocol.HeartbeatAckPacket;
+import miroshka.aether.common.protocol.HeartbeatPacket;
+import miroshka.aether.common.protocol.Packet;
+
+import java.util.Map;
+import java.util.Objects;
+
+public record PacketCosts(Map<Integer, Integer> weightsByPacketId, int chunkBytesPerToken) {
+
+    public static final int DEFAULT_CHUNK_BYTES_PER_TOKEN = 4096;
+
+    public PacketCosts {
+        Objects.requireNonNull(weightsByPacketId, "weightsByPacketId");
+        if (chunkBytesPerToken <= 0) {
+            throw new IllegalArgumentException("chunkBytesPerToken must be positive");
+        }
+        weightsByPacketId = Map.copyOf(weightsByPacketId);
+    }
+
+    public static PacketCosts defaults() {
+        return new PacketCosts(Map.of(), DEFAULT_CHUNK_BYTES_PER_TOKEN);
+    }
+
+    public int costOf(Packet packet) {
+        return switch (packet) {
+            case HeartbeatPacket ignored -> 0;
+            case HeartbeatAckPacket ignored -> 0;
+            case ChunkDataPacket chunk -> 1 + chunk.chunkData().length / chunkBytesPerToken;
+            default -> weightsByPacketId.getOrDefault(packet.packetId(), 1);
+        };
+    }
+}
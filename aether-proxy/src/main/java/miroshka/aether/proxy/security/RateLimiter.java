@@ -1,13 +1,14 @@
 package miroshka.aether.proxy.security;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 public final class RateLimiter {
 
     private final int maxTokens;
-    private final int refillRatePerSecond;
-    private final AtomicLong tokens;
-    private final AtomicLong lastRefillTimestamp;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
 
     public RateLimiter(int maxTokens, int refillRatePerSecond) {
         if (maxTokens <= 0) {
@@ -17,37 +18,32 @@ public final class RateLimiter {
             throw new IllegalArgumentException("refillRatePerSecond must be positive");
         }
         this.maxTokens = maxTokens;
-        this.refillRatePerSecond = refillRatePerSecond;
-        this.tokens = new AtomicLong(maxTokens);
-        this.lastRefillTimestamp = new AtomicLong(System.currentTimeMillis());
+        this.emissionIntervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / refillRatePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * maxTokens;
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
     }
 
     public boolean tryAcquire() {
-        refill();
-        long currentTokens = tokens.get();
-        while (currentTokens > 0) {
-            if (tokens.compareAndSet(currentTokens, currentTokens - 1)) {
-                return true;
-            }
-            currentTokens = tokens.get();
-        }
-        return false;
+        return tryAcquire(1);
     }
 
-    private void refill() {
-        long now = System.currentTimeMillis();
-        long lastRefill = lastRefillTimestamp.get();
-        long elapsedMillis = now - lastRefill;
-
-        if (elapsedMillis < 1000) {
-            return;
+    public boolean tryAcquire(int cost) {
+        if (cost <= 0) {
+            return true;
         }
-
-        if (lastRefillTimestamp.compareAndSet(lastRefill, now)) {
-            long tokensToAdd = (elapsedMillis / 1000) * refillRatePerSecond;
-            long currentTokens = tokens.get();
-            long newTokens = Math.min(maxTokens, currentTokens + tokensToAdd);
-            tokens.set(newTokens);
+        long increment = emissionIntervalNanos * cost;
+        boolean exceedsBurst = cost > maxTokens;
+        long now = System.nanoTime();
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            boolean idle = tat - now <= 0;
+            long newTat = (idle ? now : tat) + increment;
+            if (exceedsBurst ? !idle : newTat - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return true;
+            }
         }
     }
 }
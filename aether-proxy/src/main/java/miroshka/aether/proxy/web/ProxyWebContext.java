@@ -2,6 +2,7 @@ package miroshka.aether.proxy.web;
 
 import dev.waterdog.waterdogpe.ProxyServer;
 import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+import miroshka.aether.common.protocol.Packet;
 import miroshka.aether.proxy.NodeRegistry;
 import miroshka.aether.proxy.NodeSession;
 import miroshka.aether.web.WebServer.AetherWebContext;
@@ -12,6 +13,7 @@ import miroshka.aether.web.WebServer.PortalDto;
 import miroshka.aether.web.WebServer.ServerDto;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -137,12 +139,32 @@ public final class ProxyWebContext implements AetherWebContext {
                 .mapToLong(EventCounter::getCount)
                 .sum();
 
+        int normalQueued = 0;
+        int lowQueued = 0;
+        long shedWrites = 0;
+        int slowConsumers = 0;
+        Map<String, Long> pendingBytesByNode = new HashMap<>();
+        for (NodeSession session : nodeRegistry.getAllSessions()) {
+            normalQueued += session.outboundQueueDepth(Packet.Priority.NORMAL);
+            lowQueued += session.outboundQueueDepth(Packet.Priority.LOW);
+            shedWrites += session.shedWrites();
+            pendingBytesByNode.put(session.nodeId(), session.pendingOutboundBytes());
+            if (!session.isWritable()) {
+                slowConsumers++;
+            }
+        }
+
         return Map.of(
                 "totalServers", getServerCount(),
                 "totalPlayers", getGlobalOnline(),
                 "averageTps", calculateAverageTps(),
                 "totalEvents", totalEvents,
-                "portalsCount", portals.size());
+                "portalsCount", portals.size(),
+                "outboundQueueNormal", normalQueued,
+                "outboundQueueLow", lowQueued,
+                "outboundShedWrites", shedWrites,
+                "slowConsumers", slowConsumers,
+                "pendingBytesByNode", pendingBytesByNode);
     }
 
     @Override
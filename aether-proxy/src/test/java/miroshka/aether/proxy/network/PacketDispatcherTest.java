@@ -0,0 +1,163 @@
+package miroshka.aether.proxy.network;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import miroshka.aether.proxy.NodeRegistry;
+import miroshka.aether.proxy.NodeSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketDispatcherTest {
+
+    private PacketDispatcher dispatcher;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new PacketDispatcher(new SimpleMeterRegistry(), 4, 1, 8);
+        channel = new EmbeddedChannel();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Reads pause at the high watermark and resume at the low watermark")
+    void autoReadFollowsWatermarks() throws InterruptedException {
+        Executor executor = dispatcher.newNodeExecutor(channel);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> await(release, done));
+        }
+        channel.runPendingTasks();
+        assertTrue(channel.config().isAutoRead());
+
+        executor.execute(() -> await(release, done));
+        channel.runPendingTasks();
+        assertFalse(channel.config().isAutoRead());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!channel.config().isAutoRead() && System.nanoTime() < deadline) {
+            channel.runPendingTasks();
+            Thread.onSpinWait();
+        }
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    @DisplayName("Tasks run in submission order")
+    void tasksRunSerially() throws InterruptedException {
+        Executor executor = dispatcher.newNodeExecutor(channel);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(3);
+
+        for (int i = 0; i < 3; i++) {
+            int expected = i;
+            executor.execute(() -> {
+                if (next.getAndIncrement() != expected) {
+                    outOfOrder.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, outOfOrder.get());
+    }
+
+    @Test
+    @DisplayName("Connection is closed once the queue exceeds its maximum depth")
+    void closesWhenQueueOverflows() {
+        Executor executor = dispatcher.newNodeExecutor(channel);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> await(release, done));
+        }
+        assertTrue(channel.isOpen());
+
+        assertThrows(RejectedExecutionException.class,
+                () -> executor.execute(() -> fail("Overflowing task must not run")));
+        assertFalse(channel.isOpen());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Teardown runs after in-flight tasks even when the queue overflowed")
+    void teardownBypassesQueueCap() throws InterruptedException {
+        NodeRegistry registry = new NodeRegistry();
+        registry.register(NodeSession.create("lobby", "127.0.0.1", channel));
+        PacketDispatcher.NodeExecutor executor = dispatcher.newNodeExecutor(channel);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(8);
+        AtomicInteger completedBeforeTeardown = new AtomicInteger(-1);
+        CountDownLatch tornDown = new CountDownLatch(1);
+
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> await(release, done));
+        }
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        executor.terminate(() -> {
+            completedBeforeTeardown.set(8 - (int) done.getCount());
+            registry.unregister("lobby");
+            tornDown.countDown();
+        });
+        assertTrue(registry.isRegistered("lobby"));
+
+        release.countDown();
+        assertTrue(tornDown.await(5, TimeUnit.SECONDS));
+        assertEquals(8, completedBeforeTeardown.get());
+        assertFalse(registry.isRegistered("lobby"));
+    }
+
+    @Test
+    @DisplayName("Queued tasks and teardown still run after the dispatcher shut down")
+    void runsTasksInlineAfterShutdown() {
+        PacketDispatcher.NodeExecutor executor = dispatcher.newNodeExecutor(channel);
+        dispatcher.shutdown();
+        AtomicInteger ran = new AtomicInteger();
+
+        executor.execute(ran::incrementAndGet);
+        executor.terminate(ran::incrementAndGet);
+
+        assertEquals(2, ran.get());
+    }
+
+    @Test
+    @DisplayName("Watermarks are validated")
+    void rejectsInvalidWatermarks() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        assertThrows(IllegalArgumentException.class, () -> new PacketDispatcher(registry, 4, 4, 8));
+        assertThrows(IllegalArgumentException.class, () -> new PacketDispatcher(registry, 16, 1, 8));
+    }
+
+    private static void await(CountDownLatch release, CountDownLatch done) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            done.countDown();
+        }
+    }
+}
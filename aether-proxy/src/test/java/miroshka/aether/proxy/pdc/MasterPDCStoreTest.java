@@ -0,0 +1,156 @@
+package miroshka.aether.proxy.pdc;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import miroshka.aether.common.protocol.PDCSyncPacket;
+import miroshka.aether.common.protocol.PDCVersion;
+import miroshka.aether.proxy.NodeRegistry;
+import miroshka.aether.proxy.NodeSession;
+import miroshka.aether.proxy.config.PDCStoreConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MasterPDCStoreTest {
+
+    private static final PDCStoreConfig CONFIG = new PDCStoreConfig(true, 1, 60_000, 3600, 0.5);
+    private static final UUID PLAYER = UUID.randomUUID();
+    private static final String NODE = "node-a";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Compaction drops superseded records and keeps the latest values")
+    void compactsGarbage() throws IOException {
+        byte[] last = null;
+        try (MasterPDCStore store = open()) {
+            for (int i = 1; i <= 40; i++) {
+                last = value(i);
+                store.handle(put("inventory", last, i), NODE);
+            }
+            store.handle(put("level", value(99), 1), NODE);
+            long usedBefore = store.usedBytes();
+            assertTrue(usedBefore > CONFIG.segmentSizeBytes());
+
+            store.compactIfNeeded();
+
+            assertTrue(store.usedBytes() < usedBefore / 4);
+            assertEquals(store.liveBytes(), store.usedBytes());
+            Map<String, byte[]> data = store.get(PLAYER);
+            assertArrayEquals(last, data.get("inventory"));
+            assertArrayEquals(value(99), data.get("level"));
+        }
+
+        try (MasterPDCStore store = open()) {
+            assertArrayEquals(last, store.get(PLAYER).get("inventory"));
+            assertEquals(1, store.playerCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Compaction below the garbage ratio is a no-op")
+    void skipsCompactionWithoutGarbage() throws IOException {
+        try (MasterPDCStore store = open()) {
+            store.handle(put("inventory", value(1), 1), NODE);
+            long used = store.usedBytes();
+
+            store.compactIfNeeded();
+
+            assertEquals(used, store.usedBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Delete of an unknown key is logged so stale writes stay rejected after restart")
+    void logsTombstoneForUnknownKey() throws IOException {
+        try (MasterPDCStore store = open()) {
+            store.handle(PDCSyncPacket.delete(PLAYER, "player", "inventory", version(5), PDCVersion.NONE), NODE);
+        }
+
+        try (MasterPDCStore store = open()) {
+            store.handle(put("inventory", value(1), 3), NODE);
+            assertFalse(store.get(PLAYER).containsKey("inventory"));
+
+            store.handle(put("inventory", value(2), 7), NODE);
+            assertArrayEquals(value(2), store.get(PLAYER).get("inventory"));
+        }
+    }
+
+    @Test
+    @DisplayName("Tombstones survive compaction")
+    void keepsTombstonesThroughCompaction() throws IOException {
+        try (MasterPDCStore store = open()) {
+            for (int i = 1; i <= 40; i++) {
+                store.handle(put("inventory", value(i), i), NODE);
+            }
+            store.handle(PDCSyncPacket.delete(PLAYER, "player", "inventory", version(50), PDCVersion.NONE), NODE);
+
+            store.compactIfNeeded();
+        }
+
+        try (MasterPDCStore store = open()) {
+            store.handle(put("inventory", value(1), 45), NODE);
+            assertTrue(store.get(PLAYER).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Updates are forwarded to the server the player is on, not the last requester")
+    void forwardsToLocatedServer() throws IOException {
+        EmbeddedChannel previous = new EmbeddedChannel();
+        EmbeddedChannel current = new EmbeddedChannel();
+        NodeRegistry registry = new NodeRegistry();
+        registry.register(NodeSession.create("lobby", "127.0.0.1", previous));
+        registry.register(NodeSession.create("survival", "127.0.0.2", current));
+        AtomicReference<String> location = new AtomicReference<>("lobby");
+
+        try (MasterPDCStore store = MasterPDCStore.open(directory, CONFIG, registry,
+                uuid -> Optional.ofNullable(location.get()))) {
+            store.handle(PDCSyncPacket.request(PLAYER, "player", 1L), "lobby");
+            assertInstanceOf(PDCSyncPacket.class, previous.readOutbound());
+
+            location.set("survival");
+            store.handle(put("level", value(1), 1), NODE);
+            assertNull(previous.readOutbound());
+            assertEquals(PDCSyncPacket.SyncOperation.PARTIAL_UPDATE,
+                    ((PDCSyncPacket) current.readOutbound()).operation());
+
+            location.set(null);
+            store.handle(put("level", value(2), 2), NODE);
+            assertEquals(PDCSyncPacket.SyncOperation.PARTIAL_UPDATE,
+                    ((PDCSyncPacket) previous.readOutbound()).operation());
+        } finally {
+            previous.finishAndReleaseAll();
+            current.finishAndReleaseAll();
+        }
+    }
+
+    private MasterPDCStore open() throws IOException {
+        return MasterPDCStore.open(directory, CONFIG, new NodeRegistry(), uuid -> Optional.empty());
+    }
+
+    private static PDCSyncPacket put(String key, byte[] value, long clock) {
+        return PDCSyncPacket.partialUpdate(PLAYER, "player", Map.of(key, value), Map.of(key, version(clock)),
+                Map.of(key, PDCVersion.NONE));
+    }
+
+    private static PDCVersion version(long clock) {
+        return new PDCVersion(clock, NODE);
+    }
+
+    private static byte[] value(int seed) {
+        byte[] value = new byte[64 * 1024];
+        Arrays.fill(value, (byte) seed);
+        return value;
+    }
+}
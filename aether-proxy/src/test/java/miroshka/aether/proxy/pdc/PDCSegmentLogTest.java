@@ -0,0 +1,133 @@
+package miroshka.aether.proxy.pdc;
+
+import miroshka.aether.common.protocol.PDCVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PDCSegmentLogTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Replay restores appended records and their values")
+    void replaysRecords() throws IOException {
+        try (PDCSegmentLog log = PDCSegmentLog.open(directory, SEGMENT_SIZE, (type, uuid, version, key, location) -> {
+        })) {
+            log.append(PDCSegmentLog.PUT, PLAYER, version(1), "a", bytes("alpha"));
+            log.append(PDCSegmentLog.DELETE, PLAYER, version(2), "b", new byte[0]);
+            log.force();
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (PDCSegmentLog log = PDCSegmentLog.open(directory, SEGMENT_SIZE, (type, uuid, version, key, location) ->
+                replayed.add(type + ":" + key + ":" + version.clock()))) {
+            assertEquals(1, log.segmentCount());
+        }
+        assertEquals(List.of(PDCSegmentLog.PUT + ":a:1", PDCSegmentLog.DELETE + ":b:2"), replayed);
+    }
+
+    @Test
+    @DisplayName("Torn record at the tail is dropped and overwritten by the next append")
+    void dropsTornTail() throws IOException {
+        PDCSegmentLog.Location torn;
+        try (PDCSegmentLog log = PDCSegmentLog.open(directory, SEGMENT_SIZE, (type, uuid, version, key, location) -> {
+        })) {
+            log.append(PDCSegmentLog.PUT, PLAYER, version(1), "a", bytes("alpha"));
+            log.append(PDCSegmentLog.PUT, PLAYER, version(2), "b", bytes("beta"));
+            torn = log.append(PDCSegmentLog.PUT, PLAYER, version(3), "c", bytes("gamma"));
+            log.force();
+        }
+        try (FileChannel channel = FileChannel.open(singleSegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[torn.valueLength()]), torn.valueOffset());
+        }
+
+        List<String> replayed = new ArrayList<>();
+        List<PDCSegmentLog.Location> locations = new ArrayList<>();
+        try (PDCSegmentLog log = PDCSegmentLog.open(directory, SEGMENT_SIZE, (type, uuid, version, key, location) -> {
+            replayed.add(key);
+            locations.add(location);
+        })) {
+            assertEquals(List.of("a", "b"), replayed);
+            assertArrayEquals(bytes("beta"), log.read(locations.get(1)));
+            long usedBeforeAppend = log.usedBytes();
+            log.append(PDCSegmentLog.PUT, PLAYER, version(4), "d", bytes("delta"));
+            assertTrue(log.usedBytes() > usedBeforeAppend);
+        }
+
+        replayed.clear();
+        try (PDCSegmentLog log = PDCSegmentLog.open(directory, SEGMENT_SIZE, (type, uuid, version, key, location) ->
+                replayed.add(key))) {
+            assertEquals(List.of("a", "b", "d"), replayed);
+        }
+    }
+
+    @Test
+    @DisplayName("Deleted segments are removed from disk and no longer readable")
+    void deletesSegments() throws IOException {
+        try (PDCSegmentLog log = PDCSegmentLog.open(directory, SEGMENT_SIZE, (type, uuid, version, key, location) -> {
+        })) {
+            PDCSegmentLog.Location old = log.append(PDCSegmentLog.PUT, PLAYER, version(1), "a", bytes("alpha"));
+            int next = log.rollover();
+            PDCSegmentLog.Location fresh = log.append(PDCSegmentLog.PUT, PLAYER, version(2), "a", bytes("beta"));
+
+            log.deleteSegmentsBefore(next);
+
+            assertEquals(1, log.segmentCount());
+            assertThrows(IllegalStateException.class, () -> log.read(old));
+            assertArrayEquals(bytes("beta"), log.read(fresh));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Appends roll over into a new segment when the active one is full")
+    void rollsOverWhenFull() throws IOException {
+        try (PDCSegmentLog log = PDCSegmentLog.open(directory, SEGMENT_SIZE, (type, uuid, version, key, location) -> {
+        })) {
+            byte[] value = new byte[SEGMENT_SIZE / 3];
+            for (int i = 1; i <= 4; i++) {
+                log.append(PDCSegmentLog.PUT, PLAYER, version(i), "k", value);
+            }
+            assertEquals(2, log.segmentCount());
+            assertThrows(IllegalArgumentException.class,
+                    () -> log.append(PDCSegmentLog.PUT, PLAYER, version(5), "k", new byte[SEGMENT_SIZE]));
+        }
+    }
+
+    private Path singleSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static PDCVersion version(long clock) {
+        return new PDCVersion(clock, "node");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
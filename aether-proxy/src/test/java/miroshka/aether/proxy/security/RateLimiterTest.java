@@ -0,0 +1,60 @@
+package miroshka.aether.proxy.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    @DisplayName("Burst is granted up to maxTokens")
+    void grantsBurst() {
+        RateLimiter limiter = new RateLimiter(5, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Weighted cost is charged in full")
+    void chargesWeightedCost() {
+        RateLimiter limiter = new RateLimiter(10, 1);
+
+        assertTrue(limiter.tryAcquire(7));
+        assertFalse(limiter.tryAcquire(4));
+        assertTrue(limiter.tryAcquire(3));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Cost above the burst is only granted from a full bucket and leaves debt")
+    void oversizedCostLeavesDebt() {
+        RateLimiter limiter = new RateLimiter(4, 1);
+
+        assertTrue(limiter.tryAcquire(10));
+        assertFalse(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(10));
+    }
+
+    @Test
+    @DisplayName("Cost above the burst is rejected from a partially drained bucket")
+    void oversizedCostNeedsFullBucket() {
+        RateLimiter limiter = new RateLimiter(4, 1);
+
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(10));
+        assertTrue(limiter.tryAcquire(3));
+    }
+
+    @Test
+    @DisplayName("Non-positive cost is always granted")
+    void freePacketsPass() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire(0));
+    }
+}
@@ -2,6 +2,7 @@ plugins {
     id("java-library")
     id("org.allaymc.gradle.plugin") version "0.2.1"
     id("com.gradleup.shadow") version "9.0.0-beta4"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 repositories {
@@ -33,6 +34,11 @@ dependencies {
     compileOnly("net.luckperms:api:5.4")
 }
 
+jmh {
+    includeTests.set(false)
+    profilers.add("gc")
+}
+
 tasks.shadowJar {
     archiveClassifier.set("")
     mergeServiceFiles()
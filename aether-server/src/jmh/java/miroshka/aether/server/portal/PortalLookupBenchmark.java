@@ -0,0 +1,154 @@
+package miroshka.aether.server.portal;
+
+import miroshka.aether.api.portal.PortalManager.Portal;
+import miroshka.aether.api.portal.PortalManager.PortalType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortalLookupBenchmark {
+
+    private static final String SERVER = "lobby";
+    private static final String[] WORLDS = {"world", "nether", "end"};
+    private static final int WORLD_SIZE = 4000;
+    private static final double BLOCKS_PER_MOVE = 0.2;
+
+    @Param({"500"})
+    public int portalCount;
+
+    @Param({"300"})
+    public int playerCount;
+
+    private final Map<String, Portal> portals = new ConcurrentHashMap<>();
+    private PortalIndex index;
+    private String[] worlds;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private double[] dx;
+    private double[] dz;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < portalCount; i++) {
+            String world = WORLDS[i % WORLDS.length];
+            Portal portal;
+            if (i % 50 == 0) {
+                portal = Portal.boundary("edge-" + i, SERVER, "survival", world,
+                        WORLD_SIZE + i, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+            } else {
+                int minX = random.nextInt(WORLD_SIZE) - WORLD_SIZE / 2;
+                int minZ = random.nextInt(WORLD_SIZE) - WORLD_SIZE / 2;
+                portal = Portal.region("portal-" + i, SERVER, "target-" + i % 20, world,
+                        minX, 60, minZ, minX + 2 + random.nextInt(6), 70, minZ + 1 + random.nextInt(6),
+                        0, 64, 0, true);
+            }
+            portals.put(portal.id(), portal);
+        }
+        index = PortalIndex.build(portals.values(), SERVER);
+
+        worlds = new String[playerCount];
+        x = new double[playerCount];
+        y = new double[playerCount];
+        z = new double[playerCount];
+        dx = new double[playerCount];
+        dz = new double[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            worlds[i] = WORLDS[i % WORLDS.length];
+            x[i] = random.nextDouble() * WORLD_SIZE - WORLD_SIZE / 2.0;
+            y[i] = 64;
+            z[i] = random.nextDouble() * WORLD_SIZE - WORLD_SIZE / 2.0;
+            double angle = random.nextDouble() * Math.PI * 2;
+            dx[i] = Math.cos(angle) * BLOCKS_PER_MOVE;
+            dz[i] = Math.sin(angle) * BLOCKS_PER_MOVE;
+        }
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (int i = 0; i < playerCount; i++) {
+            move(i);
+            blackhole.consume(legacyFind(worlds[i], x[i], y[i], z[i]));
+        }
+    }
+
+    @Benchmark
+    public void spatialIndex(Blackhole blackhole) {
+        for (int i = 0; i < playerCount; i++) {
+            move(i);
+            blackhole.consume(index.find(worlds[i], PortalIndex.blockCoord(x[i]), PortalIndex.blockCoord(y[i]),
+                    PortalIndex.blockCoord(z[i])));
+        }
+    }
+
+    @Benchmark
+    public void spatialIndexSkippingSameBlock(Blackhole blackhole) {
+        for (int i = 0; i < playerCount; i++) {
+            double fromX = x[i];
+            double fromZ = z[i];
+            move(i);
+            if (PortalIndex.blockCoord(fromX) != PortalIndex.blockCoord(x[i])
+                    || PortalIndex.blockCoord(fromZ) != PortalIndex.blockCoord(z[i])) {
+                blackhole.consume(index.find(worlds[i], PortalIndex.blockCoord(x[i]), PortalIndex.blockCoord(y[i]),
+                        PortalIndex.blockCoord(z[i])));
+            }
+        }
+    }
+
+    private void move(int player) {
+        x[player] += dx[player];
+        z[player] += dz[player];
+        if (Math.abs(x[player]) > WORLD_SIZE / 2.0) {
+            dx[player] = -dx[player];
+        }
+        if (Math.abs(z[player]) > WORLD_SIZE / 2.0) {
+            dz[player] = -dz[player];
+        }
+    }
+
+    private Portal legacyFind(String world, double px, double py, double pz) {
+        int ix = (int) Math.floor(px);
+        int iy = (int) Math.floor(py);
+        int iz = (int) Math.floor(pz);
+        for (Portal portal : portals.values()) {
+            if (!SERVER.equals(portal.sourceServer())) {
+                continue;
+            }
+            if (!portal.world().equals(world)) {
+                continue;
+            }
+            if (portal.type() == PortalType.BOUNDARY && portal.boundary() != null) {
+                if (portal.boundary().contains(ix, iz)) {
+                    return portal;
+                }
+            } else if (portal.type() == PortalType.REGION && portal.region() != null) {
+                if (portal.region().contains(world, ix, iy, iz)) {
+                    return portal;
+                }
+            }
+        }
+        return null;
+    }
+}
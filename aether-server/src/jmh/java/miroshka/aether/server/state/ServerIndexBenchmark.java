@@ -0,0 +1,86 @@
+package miroshka.aether.server.state;
+
+import miroshka.aether.common.protocol.NetworkStatePacket;
+import miroshka.aether.common.protocol.ServerInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerIndexBenchmark {
+
+    private static final int EVALUATIONS_PER_TICK = 1000;
+
+    @Param({"200"})
+    public int serverCount;
+
+    private NetworkStateCache cache;
+    private List<ServerInfo> servers;
+    private String[] lookups;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        servers = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            servers.add(new ServerInfo("lobby-" + i, random.nextInt(100), 100, 19.5 + random.nextDouble() / 2,
+                    now, Map.of("game_type", "lobby")));
+        }
+        cache = new NetworkStateCache(15000);
+        cache.update(new NetworkStatePacket(0, serverCount, 1, 10, Map.of(), Map.of(), servers));
+
+        lookups = new String[EVALUATIONS_PER_TICK];
+        for (int i = 0; i < lookups.length; i++) {
+            String name = "lobby-" + random.nextInt(serverCount);
+            lookups[i] = i % 2 == 0 ? name : name.toUpperCase(Locale.ROOT);
+        }
+    }
+
+    @Benchmark
+    public void indexedTick(Blackhole blackhole) {
+        for (String name : lookups) {
+            blackhole.consume(cache.getServerOnline(name));
+            blackhole.consume(cache.getServerTps(name));
+            blackhole.consume(cache.isServerOnline(name));
+        }
+    }
+
+    @Benchmark
+    public void linearScanTick(Blackhole blackhole) {
+        for (String name : lookups) {
+            blackhole.consume(linearFind(name).map(ServerInfo::onlinePlayers).orElse(0));
+            blackhole.consume(linearFind(name).map(ServerInfo::tps).orElse(0.0));
+            blackhole.consume(linearFind(name).map(ServerInfo::isOnline).orElse(false));
+        }
+    }
+
+    private Optional<ServerInfo> linearFind(String name) {
+        return servers.stream()
+                .filter(s -> s.name().equalsIgnoreCase(name))
+                .findFirst();
+    }
+}
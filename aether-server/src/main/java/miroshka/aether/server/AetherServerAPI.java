@@ -7,7 +7,6 @@ import miroshka.aether.api.event.AetherEventBridge;
 import miroshka.aether.api.pdc.DistributedPDC;
 import miroshka.aether.api.portal.PortalManager;
 import miroshka.aether.common.protocol.NetworkStatePacket;
-import miroshka.aether.common.protocol.ServerInfo;
 import miroshka.aether.server.network.NodeNetworkClient;
 import miroshka.aether.server.state.NetworkStateCache;
 import miroshka.aether.server.state.SnapshotCollector;
@@ -30,6 +29,7 @@ public final class AetherServerAPI implements AetherAPI {
     private volatile AetherEventBridge eventBridge;
     private volatile DistributedPDC distributedPDC;
     private volatile LoadBalancer loadBalancer;
+    private volatile ChunkStreaming chunkStreaming;
 
     public AetherServerAPI(
             NodeNetworkClient networkClient,
@@ -48,9 +48,7 @@ public final class AetherServerAPI implements AetherAPI {
 
     @Override
     public int getGlobalMaxPlayers() {
-        return stateCache.getServers().stream()
-                .mapToInt(ServerInfo::maxPlayers)
-                .sum();
+        return stateCache.getServerIndex().totalMaxPlayers();
     }
 
     @Override
@@ -117,9 +115,7 @@ public final class AetherServerAPI implements AetherAPI {
 
     @Override
     public List<String> getServerNames() {
-        return stateCache.getServers().stream()
-                .map(ServerInfo::name)
-                .toList();
+        return stateCache.getServerIndex().serverNames();
     }
 
     @Override
@@ -139,9 +135,7 @@ public final class AetherServerAPI implements AetherAPI {
 
     @Override
     public boolean isServerOnline(String serverName) {
-        return stateCache.getServer(serverName)
-                .map(ServerInfo::isOnline)
-                .orElse(false);
+        return stateCache.isServerOnline(serverName);
     }
 
     @Override
@@ -166,7 +160,7 @@ public final class AetherServerAPI implements AetherAPI {
 
     @Override
     public Optional<ChunkStreaming> getChunkStreaming() {
-        return Optional.empty();
+        return Optional.ofNullable(chunkStreaming);
     }
 
     public void setPortalManager(PortalManager portalManager) {
@@ -185,6 +179,10 @@ public final class AetherServerAPI implements AetherAPI {
         this.loadBalancer = loadBalancer;
     }
 
+    public void setChunkStreaming(ChunkStreaming chunkStreaming) {
+        this.chunkStreaming = chunkStreaming;
+    }
+
     public void notifyStateChanged(NetworkStatePacket state) {
         NetworkStateChangedEvent event = new NetworkStateChangedEvent(
                 state.globalOnline(),
@@ -1,12 +1,16 @@
 package miroshka.aether.server;
 
+import io.micrometer.core.instrument.Metrics;
 import lombok.Getter;
 import miroshka.aether.api.AetherAPIProvider;
 import miroshka.aether.common.event.AetherEventBus;
+import miroshka.aether.common.event.ChunkDataReceivedEvent;
 import miroshka.aether.common.event.EventBroadcastReceivedEvent;
 import miroshka.aether.common.event.PDCSyncReceivedEvent;
 import miroshka.aether.common.protocol.ProtocolConstants;
 import miroshka.aether.server.balancer.LoadBalancerService;
+import miroshka.aether.server.chunk.AllayChunkSource;
+import miroshka.aether.server.chunk.ChunkStreamingService;
 import miroshka.aether.server.config.NodeConfig;
 import miroshka.aether.server.config.NodeConfigLoader;
 import miroshka.aether.server.event.EventBridgeService;
@@ -34,10 +38,12 @@ public final class AetherServerPlugin extends Plugin {
     private EventBridgeService eventBridge;
     private DistributedPDCService distributedPDC;
     private LoadBalancerService loadBalancer;
+    private ChunkStreamingService chunkStreaming;
     private AetherPlaceholders placeholders;
 
     private Consumer<PDCSyncReceivedEvent> pdcEventHandler;
     private Consumer<EventBroadcastReceivedEvent> eventBroadcastHandler;
+    private Consumer<ChunkDataReceivedEvent> chunkDataHandler;
 
     @Override
     public void onEnable() {
@@ -74,15 +80,24 @@ public final class AetherServerPlugin extends Plugin {
     }
 
     private void initializeServices(NodeConfig config) {
+        chunkStreaming = new ChunkStreamingService(networkClient, config.serverName(), config.chunkStreaming());
+        chunkStreaming.setChunkSource(new AllayChunkSource());
+
+        loadBalancer = new LoadBalancerService(stateCache);
+
         portalManager = new PortalManagerService(this, networkClient, config.serverName());
+        portalManager.setChunkStreaming(chunkStreaming);
+        portalManager.setLoadBalancer(loadBalancer);
+        portalManager.bindMetrics(Metrics.globalRegistry);
         portalManager.loadFromConfig(getPluginContainer().dataFolder());
         portalManager.registerEvents();
 
         eventBridge = new EventBridgeService(networkClient, config.serverName());
 
-        distributedPDC = new DistributedPDCService(networkClient, config.serverName());
-
-        loadBalancer = new LoadBalancerService(stateCache);
+        distributedPDC = new DistributedPDCService(networkClient, config.serverName(), config.pdc());
+        distributedPDC.bindMetrics(Metrics.globalRegistry);
+        distributedPDC.registerEvents();
+        portalManager.setDistributedPDC(distributedPDC);
     }
 
     private void subscribeToEvents() {
@@ -91,6 +106,9 @@ public final class AetherServerPlugin extends Plugin {
 
         eventBroadcastHandler = event -> eventBridge.handleIncomingEvent(event.packet());
         AetherEventBus.instance().subscribe(EventBroadcastReceivedEvent.class, eventBroadcastHandler);
+
+        chunkDataHandler = event -> chunkStreaming.handleIncomingChunk(event.packet());
+        AetherEventBus.instance().subscribe(ChunkDataReceivedEvent.class, chunkDataHandler);
     }
 
     private void unsubscribeFromEvents() {
@@ -100,6 +118,9 @@ public final class AetherServerPlugin extends Plugin {
         if (eventBroadcastHandler != null) {
             AetherEventBus.instance().unsubscribe(EventBroadcastReceivedEvent.class, eventBroadcastHandler);
         }
+        if (chunkDataHandler != null) {
+            AetherEventBus.instance().unsubscribe(ChunkDataReceivedEvent.class, chunkDataHandler);
+        }
     }
 
     private void registerServicesInAPI() {
@@ -107,6 +128,7 @@ public final class AetherServerPlugin extends Plugin {
         api.setEventBridge(eventBridge);
         api.setDistributedPDC(distributedPDC);
         api.setLoadBalancer(loadBalancer);
+        api.setChunkStreaming(chunkStreaming);
     }
 
     private void logStartupInfo() {
@@ -123,10 +145,19 @@ public final class AetherServerPlugin extends Plugin {
 
         unsubscribeFromEvents();
 
+        if (distributedPDC != null) {
+            distributedPDC.unregisterEvents();
+            distributedPDC.close();
+        }
+
         if (networkClient != null) {
             networkClient.stop();
         }
 
+        if (chunkStreaming != null) {
+            chunkStreaming.close();
+        }
+
         AetherAPIProvider.unregister();
 
         getPluginLogger().info("Aether Server disabled");
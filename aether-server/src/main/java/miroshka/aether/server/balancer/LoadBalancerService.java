@@ -1,8 +1,8 @@
 package miroshka.aether.server.balancer;
 
 import miroshka.aether.api.balancer.LoadBalancer;
-import miroshka.aether.common.protocol.ServerInfo;
 import miroshka.aether.server.state.NetworkStateCache;
+import miroshka.aether.server.state.ServerIndex;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -166,22 +166,22 @@ public final class LoadBalancerService implements LoadBalancer {
 
     @Override
     public ServerMetrics getServerMetrics(String serverName) {
-        Optional<ServerInfo> info = stateCache.getServer(serverName);
-        if (info.isEmpty()) {
+        ServerIndex index = stateCache.getServerIndex();
+        int i = index.indexOf(serverName);
+        if (i < 0) {
             return new ServerMetrics(serverName, 0, 0, 0, 1, 0, false);
         }
 
-        ServerInfo server = info.get();
         int reservedCount = getReservedSlotCount(serverName);
 
         return new ServerMetrics(
-                server.name(),
-                server.onlinePlayers() + reservedCount,
-                server.maxPlayers(),
-                server.tps(),
+                index.name(i),
+                index.onlinePlayers(i) + reservedCount,
+                index.maxPlayers(i),
+                index.tps(i),
                 1,
-                server.lastUpdateTimestamp(),
-                server.isOnline());
+                index.lastUpdateTimestamp(i),
+                index.isOnline(i, System.currentTimeMillis()));
     }
 
     @Override
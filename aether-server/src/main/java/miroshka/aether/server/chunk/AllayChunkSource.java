@@ -0,0 +1,22 @@
+package miroshka.aether.server.chunk;
+
+import org.allaymc.api.server.Server;
+import org.allaymc.api.world.World;
+
+import java.util.concurrent.CompletableFuture;
+
+public final class AllayChunkSource implements ChunkSource {
+
+    private static final byte[] LOADED = new byte[0];
+
+    @Override
+    public CompletableFuture<byte[]> load(String world, int chunkX, int chunkZ) {
+        var worldPool = Server.getInstance().getWorldPool();
+        World target = world.isEmpty() ? worldPool.getDefaultWorld() : worldPool.getWorld(world);
+        if (target == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return target.getOverWorld().getChunkManager().getOrLoadChunk(chunkX, chunkZ)
+                .thenApply(chunk -> LOADED);
+    }
+}
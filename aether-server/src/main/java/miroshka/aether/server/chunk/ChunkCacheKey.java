@@ -0,0 +1,19 @@
+package miroshka.aether.server.chunk;
+
+import java.util.Objects;
+
+record ChunkCacheKey(String server, String world, long chunk) {
+
+    ChunkCacheKey {
+        Objects.requireNonNull(server, "server");
+        Objects.requireNonNull(world, "world");
+    }
+
+    int chunkX() {
+        return ChunkStreamingService.chunkX(chunk);
+    }
+
+    int chunkZ() {
+        return ChunkStreamingService.chunkZ(chunk);
+    }
+}
@@ -0,0 +1,11 @@
+package miroshka.aether.server.chunk;
+
+import java.util.concurrent.CompletableFuture;
+
+@FunctionalInterface
+public interface ChunkSource {
+
+    ChunkSource NONE = (world, chunkX, chunkZ) -> CompletableFuture.completedFuture(null);
+
+    CompletableFuture<byte[]> load(String world, int chunkX, int chunkZ);
+}
@@ -0,0 +1,238 @@
+package miroshka.aether.server.chunk;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import miroshka.aether.api.chunk.ChunkStreaming;
+import miroshka.aether.common.protocol.ChunkDataPacket;
+import miroshka.aether.server.config.ChunkStreamingSettings;
+import miroshka.aether.server.network.NodeNetworkClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public final class ChunkStreamingService implements ChunkStreaming, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkStreamingService.class);
+    private static final byte[] EMPTY = new byte[0];
+    private static final String DEFAULT_WORLD = "";
+
+    private final NodeNetworkClient networkClient;
+    private final String serverName;
+    private final OffHeapChunkCache cache;
+    private final Map<ChunkCacheKey, CompletableFuture<Void>> inFlight;
+
+    private volatile ChunkSource chunkSource;
+    private volatile boolean enabled;
+    private volatile int preloadRadius;
+    private volatile long timeoutMs;
+
+    public ChunkStreamingService(NodeNetworkClient networkClient, String serverName,
+            ChunkStreamingSettings settings) {
+        this.networkClient = Objects.requireNonNull(networkClient, "networkClient");
+        this.serverName = Objects.requireNonNull(serverName, "serverName");
+        Objects.requireNonNull(settings, "settings");
+        this.cache = new OffHeapChunkCache(PooledByteBufAllocator.DEFAULT, settings.cacheSizeBytes());
+        this.inFlight = new ConcurrentHashMap<>();
+        this.chunkSource = ChunkSource.NONE;
+        this.enabled = settings.enabled();
+        this.preloadRadius = settings.preloadRadius();
+        this.timeoutMs = settings.timeoutMillis();
+    }
+
+    public void setChunkSource(ChunkSource chunkSource) {
+        this.chunkSource = Objects.requireNonNull(chunkSource, "chunkSource");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public int getPreloadRadius() {
+        return preloadRadius;
+    }
+
+    @Override
+    public void setPreloadRadius(int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("radius cannot be negative");
+        }
+        this.preloadRadius = radius;
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public void setTimeoutMs(long timeoutMs) {
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("timeoutMs must be positive");
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public CompletableFuture<Void> preloadChunksForPlayer(UUID playerUuid, String targetServer, int spawnX,
+            int spawnZ) {
+        Objects.requireNonNull(playerUuid, "playerUuid");
+        Objects.requireNonNull(targetServer, "targetServer");
+        if (!enabled || !networkClient.isConnected()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int centerX = spawnX >> 4;
+        int centerZ = spawnZ >> 4;
+        int radius = preloadRadius;
+        long timeout = timeoutMs;
+
+        List<ChunkDataPacket> requests = new ArrayList<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (long chunk : chunksAround(centerX, centerZ, radius)) {
+            ChunkCacheKey key = new ChunkCacheKey(targetServer, DEFAULT_WORLD, chunk);
+            if (cache.contains(key)) {
+                continue;
+            }
+            CompletableFuture<Void> request = inFlight.get(key);
+            if (request == null) {
+                CompletableFuture<Void> created = new CompletableFuture<>();
+                request = inFlight.putIfAbsent(key, created);
+                if (request == null) {
+                    request = created;
+                    created.orTimeout(timeout, TimeUnit.MILLISECONDS)
+                            .whenComplete((ignored, error) -> inFlight.remove(key, created));
+                    requests.add(new ChunkDataPacket(UUID.randomUUID(), serverName, targetServer, DEFAULT_WORLD,
+                            ChunkDataPacket.ChunkAction.REQUEST, chunkX(chunk), chunkZ(chunk), EMPTY));
+                }
+            }
+            pending.add(request.exceptionally(error -> null));
+        }
+
+        if (!requests.isEmpty()) {
+            networkClient.sendPackets(requests);
+            LOGGER.debug("Requested {} chunks from {} around ({}, {}) for {}",
+                    requests.size(), targetServer, centerX, centerZ, playerUuid);
+        }
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new));
+    }
+
+    @Override
+    public byte[] getCachedChunk(int chunkX, int chunkZ) {
+        long chunk = chunkKey(chunkX, chunkZ);
+        return cache.find(key -> key.chunk() == chunk);
+    }
+
+    @Override
+    public byte[] getCachedChunk(String serverName, String world, int chunkX, int chunkZ) {
+        return cache.get(new ChunkCacheKey(serverName, world, chunkKey(chunkX, chunkZ)));
+    }
+
+    @Override
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @Override
+    public void clearCacheForRadius(int centerX, int centerZ, int radius) {
+        cache.removeIf(key -> Math.abs(key.chunkX() - centerX) <= radius
+                && Math.abs(key.chunkZ() - centerZ) <= radius);
+    }
+
+    @Override
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public long getCacheBytes() {
+        return cache.usedBytes();
+    }
+
+    public void handleIncomingChunk(ChunkDataPacket packet) {
+        Objects.requireNonNull(packet, "packet");
+        if (!enabled) {
+            return;
+        }
+        switch (packet.action()) {
+            case RESPONSE, PUSH -> {
+                ChunkCacheKey key = new ChunkCacheKey(packet.sourceServer(), packet.world(), packet.chunkKey());
+                if (packet.chunkData().length > 0) {
+                    cache.put(key, packet.chunkData());
+                }
+                CompletableFuture<Void> request = inFlight.remove(key);
+                if (request != null) {
+                    request.complete(null);
+                }
+            }
+            case REQUEST -> serveRequest(packet);
+        }
+    }
+
+    private void serveRequest(ChunkDataPacket request) {
+        CompletableFuture<byte[]> load;
+        try {
+            load = chunkSource.load(request.world(), request.chunkX(), request.chunkZ());
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((data, error) -> {
+            if (error != null) {
+                LOGGER.debug("Failed to load chunk ({}, {}) for {}: {}", request.chunkX(), request.chunkZ(),
+                        request.sourceServer(), error.getMessage());
+            }
+            networkClient.sendPacket(new ChunkDataPacket(request.requestId(), serverName, request.sourceServer(),
+                    request.world(), ChunkDataPacket.ChunkAction.RESPONSE, request.chunkX(), request.chunkZ(),
+                    data != null ? data : EMPTY));
+        });
+    }
+
+    @Override
+    public void close() {
+        for (CompletableFuture<Void> request : inFlight.values()) {
+            request.cancel(false);
+        }
+        inFlight.clear();
+        cache.close();
+    }
+
+    private static List<Long> chunksAround(int centerX, int centerZ, int radius) {
+        List<Long> keys = new ArrayList<>((2 * radius + 1) * (2 * radius + 1));
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                keys.add(chunkKey(centerX + dx, centerZ + dz));
+            }
+        }
+        keys.sort(Comparator.comparingInt(key -> {
+            int dx = chunkX(key) - centerX;
+            int dz = chunkZ(key) - centerZ;
+            return dx * dx + dz * dz;
+        }));
+        return keys;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int chunkZ(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,120 @@
+package miroshka.aether.server.chunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+final class OffHeapChunkCache implements AutoCloseable {
+
+    private final ByteBufAllocator allocator;
+    private final LinkedHashMap<ChunkCacheKey, ByteBuf> entries;
+    private final long maxBytes;
+    private long usedBytes;
+
+    OffHeapChunkCache(ByteBufAllocator allocator, long maxBytes) {
+        this.allocator = Objects.requireNonNull(allocator, "allocator");
+        this.entries = new LinkedHashMap<>(64, 0.75f, true);
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized boolean put(ChunkCacheKey key, byte[] data) {
+        Objects.requireNonNull(data, "data");
+        if (data.length > maxBytes) {
+            remove(key);
+            return false;
+        }
+        ByteBuf buffer = allocator.directBuffer(data.length, data.length);
+        buffer.writeBytes(data);
+        ByteBuf previous = entries.put(key, buffer);
+        if (previous != null) {
+            usedBytes -= previous.readableBytes();
+            previous.release();
+        }
+        usedBytes += data.length;
+        evict();
+        return true;
+    }
+
+    synchronized byte[] get(ChunkCacheKey key) {
+        ByteBuf buffer = entries.get(key);
+        if (buffer == null) {
+            return null;
+        }
+        return copy(buffer);
+    }
+
+    synchronized byte[] find(Predicate<ChunkCacheKey> predicate) {
+        for (Map.Entry<ChunkCacheKey, ByteBuf> entry : entries.entrySet()) {
+            if (predicate.test(entry.getKey())) {
+                return copy(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    synchronized boolean contains(ChunkCacheKey key) {
+        return entries.containsKey(key);
+    }
+
+    synchronized void remove(ChunkCacheKey key) {
+        ByteBuf buffer = entries.remove(key);
+        if (buffer != null) {
+            usedBytes -= buffer.readableBytes();
+            buffer.release();
+        }
+    }
+
+    synchronized void removeIf(Predicate<ChunkCacheKey> predicate) {
+        Iterator<Map.Entry<ChunkCacheKey, ByteBuf>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ChunkCacheKey, ByteBuf> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                usedBytes -= entry.getValue().readableBytes();
+                entry.getValue().release();
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    synchronized void clear() {
+        for (ByteBuf buffer : entries.values()) {
+            buffer.release();
+        }
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private static byte[] copy(ByteBuf buffer) {
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), data);
+        return data;
+    }
+
+    private void evict() {
+        Iterator<ByteBuf> iterator = entries.values().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            ByteBuf eldest = iterator.next();
+            usedBytes -= eldest.readableBytes();
+            eldest.release();
+            iterator.remove();
+        }
+    }
+}
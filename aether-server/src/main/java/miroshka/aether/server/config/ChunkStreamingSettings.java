@@ -0,0 +1,24 @@
+package miroshka.aether.server.config;
+
+public record ChunkStreamingSettings(
+        boolean enabled,
+        int preloadRadius,
+        long timeoutMillis,
+        long cacheSizeBytes) {
+
+    public ChunkStreamingSettings {
+        if (preloadRadius < 0) {
+            throw new IllegalArgumentException("preloadRadius cannot be negative");
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis must be positive");
+        }
+        if (cacheSizeBytes < 0) {
+            throw new IllegalArgumentException("cacheSizeBytes cannot be negative");
+        }
+    }
+
+    public static ChunkStreamingSettings defaults() {
+        return new ChunkStreamingSettings(true, 2, 3000, 64L * 1024 * 1024);
+    }
+}
@@ -1,5 +1,8 @@
 package miroshka.aether.server.config;
 
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.network.TransportSettings;
+
 import java.util.Objects;
 
 public record NodeConfig(
@@ -11,12 +14,20 @@ public record NodeConfig(
         int heartbeatIntervalMillis,
         int snapshotIntervalMillis,
         int reconnectionInitialDelayMillis,
-        int reconnectionMaxDelayMillis) {
+        int reconnectionMaxDelayMillis,
+        TransportSettings socket,
+        CompressionPolicy compression,
+        ChunkStreamingSettings chunkStreaming,
+        PDCSettings pdc) {
 
     public NodeConfig {
         Objects.requireNonNull(masterHost, "masterHost");
         Objects.requireNonNull(serverName, "serverName");
         Objects.requireNonNull(secretKey, "secretKey");
+        Objects.requireNonNull(socket, "socket");
+        Objects.requireNonNull(compression, "compression");
+        Objects.requireNonNull(chunkStreaming, "chunkStreaming");
+        Objects.requireNonNull(pdc, "pdc");
         if (bedrockPort <= 0) {
             throw new IllegalArgumentException("bedrockPort must be positive");
         }
@@ -32,7 +43,11 @@ public record NodeConfig(
                 5000,
                 200,
                 1000,
-                30000);
+                30000,
+                TransportSettings.defaults(),
+                CompressionPolicy.defaults(),
+                ChunkStreamingSettings.defaults(),
+                PDCSettings.defaults());
     }
 
     public String masterAddress() {
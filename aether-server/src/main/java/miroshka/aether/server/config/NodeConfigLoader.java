@@ -1,5 +1,10 @@
 package miroshka.aether.server.config;
 
+import miroshka.aether.common.codec.CompressionPolicy;
+import miroshka.aether.common.codec.FrameCompression;
+import miroshka.aether.common.network.LowPriorityPolicy;
+import miroshka.aether.common.network.NettyTransport;
+import miroshka.aether.common.network.TransportSettings;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
@@ -7,6 +12,8 @@ import java.io.InputStream;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public final class NodeConfigLoader {
@@ -34,6 +41,8 @@ public final class NodeConfigLoader {
             Map<String, Object> master = (Map<String, Object>) data.getOrDefault("master", Map.of());
             Map<String, Object> server = (Map<String, Object>) data.getOrDefault("server", Map.of());
             Map<String, Object> network = (Map<String, Object>) data.getOrDefault("network", Map.of());
+            Map<String, Object> chunks = (Map<String, Object>) data.getOrDefault("chunk-streaming", Map.of());
+            Map<String, Object> pdc = (Map<String, Object>) data.getOrDefault("pdc", Map.of());
 
             return new NodeConfig(
                     (String) master.getOrDefault("host", "localhost"),
@@ -44,12 +53,74 @@ public final class NodeConfigLoader {
                     ((Number) network.getOrDefault("heartbeat-interval-ms", 5000)).intValue(),
                     ((Number) network.getOrDefault("snapshot-interval-ms", 200)).intValue(),
                     ((Number) network.getOrDefault("reconnect-initial-delay-ms", 1000)).intValue(),
-                    ((Number) network.getOrDefault("reconnect-max-delay-ms", 30000)).intValue());
+                    ((Number) network.getOrDefault("reconnect-max-delay-ms", 30000)).intValue(),
+                    parseSocketSettings((Map<String, Object>) network.getOrDefault("socket", Map.of())),
+                    parseCompressionPolicy((Map<String, Object>) network.getOrDefault("compression", Map.of())),
+                    parseChunkStreaming(chunks),
+                    parsePDC(pdc));
         } catch (IOException e) {
             throw new RuntimeException("Failed to load config from " + configPath, e);
         }
     }
 
+    private static TransportSettings parseSocketSettings(Map<String, Object> socket) {
+        TransportSettings defaults = TransportSettings.defaults();
+        return new TransportSettings(
+                NettyTransport.fromName((String) socket.getOrDefault("transport", defaults.transport().name())),
+                ((Number) socket.getOrDefault("io-threads", defaults.ioThreads())).intValue(),
+                defaults.acceptorThreads(),
+                (Boolean) socket.getOrDefault("tcp-quickack", defaults.tcpQuickAck()),
+                false,
+                ((Number) socket.getOrDefault("max-pending-writes", defaults.maxPendingWrites())).intValue(),
+                ((Number) socket.getOrDefault("max-flush-delay-ms", defaults.maxFlushDelayMillis())).intValue(),
+                LowPriorityPolicy.fromName((String) socket.getOrDefault("low-priority-policy",
+                        defaults.lowPriorityPolicy().name())),
+                ((Number) socket.getOrDefault("max-deferred-low-writes", defaults.maxDeferredLowWrites())).intValue(),
+                ((Number) socket.getOrDefault("normal-drain-weight", defaults.normalDrainWeight())).intValue(),
+                ((Number) socket.getOrDefault("low-drain-weight", defaults.lowDrainWeight())).intValue(),
+                ((Number) socket.getOrDefault("write-buffer-low-water-mark", defaults.writeBufferLowWaterMark())).intValue(),
+                ((Number) socket.getOrDefault("write-buffer-high-water-mark", defaults.writeBufferHighWaterMark()))
+                        .intValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompressionPolicy parseCompressionPolicy(Map<String, Object> compression) {
+        CompressionPolicy defaults = CompressionPolicy.defaults();
+        if (!(Boolean) compression.getOrDefault("enabled", true)) {
+            return CompressionPolicy.disabled();
+        }
+        List<FrameCompression> codecs = FrameCompression.parseList(
+                (String) compression.getOrDefault("codecs", FrameCompression.formatList(defaults.preferred())));
+        Map<Integer, Integer> packetThresholds = new HashMap<>(defaults.packetThresholds());
+        Map<Object, Object> overrides = (Map<Object, Object>) compression.getOrDefault("packet-thresholds", Map.of());
+        overrides.forEach((packetId, threshold) -> packetThresholds.put(
+                Integer.decode(String.valueOf(packetId)), ((Number) threshold).intValue()));
+        return new CompressionPolicy(
+                codecs,
+                ((Number) compression.getOrDefault("threshold", defaults.defaultThreshold())).intValue(),
+                packetThresholds,
+                (Boolean) compression.getOrDefault("dictionary", defaults.dictionary()));
+    }
+
+    private static PDCSettings parsePDC(Map<String, Object> pdc) {
+        PDCSettings defaults = PDCSettings.defaults();
+        return new PDCSettings(
+                ((Number) pdc.getOrDefault("write-behind-ms", defaults.writeBehindMillis())).longValue(),
+                ((Number) pdc.getOrDefault("cache-size-mb", defaults.cacheSizeBytes() / (1024 * 1024)))
+                        .longValue() * 1024 * 1024,
+                (Boolean) pdc.getOrDefault("off-heap", defaults.offHeap()));
+    }
+
+    private static ChunkStreamingSettings parseChunkStreaming(Map<String, Object> chunks) {
+        ChunkStreamingSettings defaults = ChunkStreamingSettings.defaults();
+        return new ChunkStreamingSettings(
+                (Boolean) chunks.getOrDefault("enabled", defaults.enabled()),
+                ((Number) chunks.getOrDefault("preload-radius", defaults.preloadRadius())).intValue(),
+                ((Number) chunks.getOrDefault("timeout-ms", defaults.timeoutMillis())).longValue(),
+                ((Number) chunks.getOrDefault("cache-size-mb", defaults.cacheSizeBytes() / (1024 * 1024)))
+                        .longValue() * 1024 * 1024);
+    }
+
     private static void createDefaultConfig(Path configPath) {
         try {
             Files.createDirectories(configPath.getParent());
@@ -119,6 +190,86 @@ public final class NodeConfigLoader {
                   # Maximum delay between reconnection attempts (milliseconds)
                   # Backoff stops increasing after reaching this value
                   reconnect-max-delay-ms: 30000
+
+                  # Socket layer used for the Master connection
+                  socket:
+                    # I/O transport: NIO, EPOLL or IO_URING
+                    # Falls back to EPOLL and then NIO when the native library cannot be loaded
+                    transport: EPOLL
+
+                    # Number of I/O threads (0 = Netty default: 2 x CPU cores)
+                    io-threads: 0
+
+                    # Enable TCP_QUICKACK on the Master connection (EPOLL/IO_URING only)
+                    tcp-quickack: false
+
+                    # Outbound writes are coalesced into fewer flushes (syscalls)
+                    # A flush happens after this many pending writes or after max-flush-delay-ms,
+                    # whichever comes first. CRITICAL packets are always flushed immediately.
+                    max-pending-writes: 32
+
+                    # Maximum time a coalesced write may wait before being flushed (0 = no delay)
+                    max-flush-delay-ms: 1
+
+                    # What to do with LOW priority packets (chunks, metrics) while the socket is congested
+                    # DEFER - queue them (up to max-deferred-low-writes, oldest dropped first), SHED - drop them
+                    # CRITICAL packets always bypass the queues
+                    low-priority-policy: DEFER
+                    max-deferred-low-writes: 256
+
+                    # Weighted draining of queued packets: NORMAL packets sent per LOW packet
+                    normal-drain-weight: 8
+                    low-drain-weight: 1
+
+                    # Outbound buffer water marks in bytes. The channel becomes unwritable
+                    # above the high mark and writable again below the low mark
+                    write-buffer-low-water-mark: 65536
+                    write-buffer-high-water-mark: 262144
+
+                  # Frame compression offered to the Master during the handshake
+                  # codecs - preference order (ZSTD, LZ4, SNAPPY); the Master picks the codec it prefers
+                  # threshold - payloads up to this size (bytes) are sent uncompressed
+                  # packet-thresholds - per packet id overrides of the threshold
+                  # dictionary - accept a Zstd dictionary trained by the Master for frames below the threshold
+                  compression:
+                    enabled: true
+                    codecs: zstd,lz4,snappy
+                    threshold: 1024
+                    packet-thresholds:
+                      "0x11": 512
+                      "0x13": 512
+                      "0x50": 256
+                      "0x60": 256
+                    dictionary: true
+
+                # Chunk streaming between nodes for seamless portal transfers
+                chunk-streaming:
+                  # Ask the destination node to load chunks around the portal target before transfers,
+                  # and cache chunks pushed by other nodes
+                  enabled: true
+
+                  # Radius (in chunks) requested around the portal target spawn
+                  preload-radius: 2
+
+                  # How long a preload request waits for the destination node to answer (milliseconds)
+                  timeout-ms: 3000
+
+                  # Off-heap memory used by the chunk cache (megabytes)
+                  # Least recently used chunks are evicted once the limit is reached
+                  cache-size-mb: 64
+
+                # Distributed player data (PDC) synchronised through the master
+                pdc:
+                  # Writes to the same player are buffered for this long (milliseconds) and sent
+                  # as one update carrying the latest value of each key. 0 sends every write immediately
+                  write-behind-ms: 50
+
+                  # Memory used by cached player data (megabytes), counted per entry
+                  # Players who are no longer online are evicted, least recently used first
+                  cache-size-mb: 32
+
+                  # Keep cached values in pooled direct memory instead of the Java heap
+                  off-heap: false
                 """;
 
         try (Writer writer = Files.newBufferedWriter(configPath)) {
@@ -0,0 +1,20 @@
+package miroshka.aether.server.config;
+
+public record PDCSettings(
+        long writeBehindMillis,
+        long cacheSizeBytes,
+        boolean offHeap) {
+
+    public PDCSettings {
+        if (writeBehindMillis < 0) {
+            throw new IllegalArgumentException("writeBehindMillis cannot be negative");
+        }
+        if (cacheSizeBytes <= 0) {
+            throw new IllegalArgumentException("cacheSizeBytes must be positive");
+        }
+    }
+
+    public static PDCSettings defaults() {
+        return new PDCSettings(50, 32L * 1024 * 1024, false);
+    }
+}
@@ -5,6 +5,9 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import miroshka.aether.common.codec.PacketDecoder;
 import miroshka.aether.common.codec.PacketEncoder;
+import miroshka.aether.common.network.FlushCoalescingHandler;
+import miroshka.aether.common.network.PacketStreamHandler;
+import miroshka.aether.common.network.PriorityOutboundHandler;
 import miroshka.aether.server.config.NodeConfig;
 import miroshka.aether.server.state.NetworkStateCache;
 
@@ -33,7 +36,10 @@ public final class NodeChannelInitializer extends ChannelInitializer<SocketChann
         NodePacketHandler handler = new NodePacketHandler(config, stateCache);
 
         pipeline.addLast("decoder", new PacketDecoder());
-        pipeline.addLast("encoder", new PacketEncoder());
+        pipeline.addLast("encoder", new PacketEncoder(config.compression()));
+        pipeline.addLast("coalescer", FlushCoalescingHandler.from(config.socket()));
+        pipeline.addLast("priority", PriorityOutboundHandler.from(config.socket()));
+        pipeline.addLast("streams", new PacketStreamHandler());
         pipeline.addLast("handler", handler);
 
         handlerConsumer.accept(handler);
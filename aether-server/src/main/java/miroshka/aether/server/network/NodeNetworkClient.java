@@ -6,11 +6,12 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import miroshka.aether.api.ConnectionStatus;
+import miroshka.aether.common.network.NettyTransport;
+import miroshka.aether.common.network.PriorityOutboundHandler;
 import miroshka.aether.common.protocol.HeartbeatPacket;
 import miroshka.aether.common.protocol.NodeSnapshotPacket;
+import miroshka.aether.common.protocol.Packet;
 import miroshka.aether.common.protocol.ProtocolConstants;
 import miroshka.aether.server.config.NodeConfig;
 import miroshka.aether.server.state.NetworkStateCache;
@@ -18,7 +19,9 @@ import miroshka.aether.server.state.SnapshotCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -40,6 +43,7 @@ public final class NodeNetworkClient {
     private final AtomicInteger reconnectDelay;
 
     private EventLoopGroup workerGroup;
+    private NettyTransport transport;
     private volatile boolean running;
 
     public NodeNetworkClient(NodeConfig config, NetworkStateCache stateCache, SnapshotCollector snapshotCollector) {
@@ -63,9 +67,9 @@ public final class NodeNetworkClient {
             return;
         }
         running = true;
-        @SuppressWarnings("deprecation")
-        EventLoopGroup group = new NioEventLoopGroup();
-        workerGroup = group;
+        transport = config.socket().transport().resolve();
+        workerGroup = transport.newEventLoopGroup(config.socket().ioThreads(), "Aether-Node-IO");
+        LOGGER.info("Using {} transport for Master connection", transport);
 
         connect();
 
@@ -118,12 +122,13 @@ public final class NodeNetworkClient {
 
         Bootstrap bootstrap = new Bootstrap()
                 .group(workerGroup)
-                .channel(NioSocketChannel.class)
+                .channel(transport.channelClass())
                 .option(ChannelOption.SO_KEEPALIVE, true)
                 .option(ChannelOption.TCP_NODELAY, true)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ProtocolConstants.CONNECTION_TIMEOUT_MILLIS)
                 .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                 .handler(new NodeChannelInitializer(config, stateCache, handler::set));
+        transport.applyOptions(bootstrap, config.socket());
 
         ChannelFuture future = bootstrap.connect(config.masterHost(), config.masterPort());
         future.addListener(f -> {
@@ -144,6 +149,11 @@ public final class NodeNetworkClient {
         });
     }
 
+    void attach(Channel connected, NodePacketHandler packetHandler) {
+        handler.set(Objects.requireNonNull(packetHandler, "packetHandler"));
+        channel.set(Objects.requireNonNull(connected, "connected"));
+    }
+
     private void scheduleReconnect() {
         if (!running) {
             return;
@@ -217,17 +227,69 @@ public final class NodeNetworkClient {
         return h != null ? h.getLatencyMillis() : 0;
     }
 
-    public void sendPacket(miroshka.aether.common.protocol.Packet packet) {
+    public int getOutboundQueueDepth(Packet.Priority priority) {
+        PriorityOutboundHandler scheduler = outboundScheduler();
+        return scheduler != null ? scheduler.queueDepth(priority) : 0;
+    }
+
+    public long getShedWrites() {
+        PriorityOutboundHandler scheduler = outboundScheduler();
+        return scheduler != null ? scheduler.shedWrites() : 0;
+    }
+
+    private PriorityOutboundHandler outboundScheduler() {
+        Channel ch = channel.get();
+        return ch != null ? ch.pipeline().get(PriorityOutboundHandler.class) : null;
+    }
+
+    public void sendPacket(Packet packet) {
+        Channel ch = authenticatedChannel();
+        if (ch == null) {
+            return;
+        }
+
+        ch.writeAndFlush(packet);
+    }
+
+    public CompletableFuture<Void> sendPacketAsync(Packet packet) {
+        Channel ch = authenticatedChannel();
+        if (ch == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Not connected to the master"));
+        }
+
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        ch.writeAndFlush(packet).addListener(f -> {
+            if (f.isSuccess()) {
+                written.complete(null);
+            } else {
+                written.completeExceptionally(f.cause());
+            }
+        });
+        return written;
+    }
+
+    public void sendPackets(Collection<? extends Packet> packets) {
+        Channel ch = authenticatedChannel();
+        if (ch == null || packets.isEmpty()) {
+            return;
+        }
+
+        for (Packet packet : packets) {
+            ch.write(packet);
+        }
+        ch.flush();
+    }
+
+    private Channel authenticatedChannel() {
         NodePacketHandler h = handler.get();
         if (h == null || !h.isAuthenticated()) {
-            return;
+            return null;
         }
 
         Channel ch = channel.get();
         if (ch == null || !ch.isActive()) {
-            return;
+            return null;
         }
-
-        ch.writeAndFlush(packet);
+        return ch;
     }
 }
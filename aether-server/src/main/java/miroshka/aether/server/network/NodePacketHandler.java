@@ -6,11 +6,17 @@ import lombok.Getter;
 import miroshka.aether.api.AetherAPIProvider;
 import miroshka.aether.api.CircuitBreakerEvent;
 import miroshka.aether.api.ConnectionStatus;
+import miroshka.aether.common.codec.FrameCompression;
+import miroshka.aether.common.codec.PacketDecoder;
+import miroshka.aether.common.codec.PacketEncoder;
+import miroshka.aether.common.codec.ZstdDictionary;
 import miroshka.aether.common.event.AetherEventBus;
 import miroshka.aether.common.event.ChunkDataReceivedEvent;
 import miroshka.aether.common.event.EventBroadcastReceivedEvent;
 import miroshka.aether.common.event.NetworkStateUpdatedEvent;
+import miroshka.aether.common.event.PacketReceivedEvent;
 import miroshka.aether.common.event.PDCSyncReceivedEvent;
+import miroshka.aether.common.network.PacketStreamHandler;
 import miroshka.aether.common.protocol.*;
 import miroshka.aether.server.AetherServerAPI;
 import miroshka.aether.server.config.NodeConfig;
@@ -18,8 +24,11 @@ import miroshka.aether.server.state.NetworkStateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -27,6 +36,10 @@ import java.util.concurrent.atomic.AtomicReference;
 public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NodePacketHandler.class);
+    private static final String DICTIONARY_FORMAT = "zstd";
+    private static final String SYMBOL_TABLE_VERSION = "1";
+    private static final String STREAM_VERSION = "1";
+    private static final String MASTER_SOURCE_ID = "master";
 
     private final NodeConfig config;
     private final NetworkStateCache stateCache;
@@ -35,6 +48,7 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
     private final AtomicReference<ConnectionStatus.ConnectionState> connectionState;
     private final AtomicInteger latencyMillis;
     private final AtomicLong circuitBreakerEndTime;
+    private final AtomicBoolean resyncRequested;
 
     private volatile ChannelHandlerContext ctx;
 
@@ -45,6 +59,7 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
         this.connectionState = new AtomicReference<>(ConnectionStatus.ConnectionState.CONNECTING);
         this.latencyMillis = new AtomicInteger(0);
         this.circuitBreakerEndTime = new AtomicLong(0);
+        this.resyncRequested = new AtomicBoolean(false);
     }
 
     @Override
@@ -56,7 +71,8 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
                 ProtocolConstants.PROTOCOL_VERSION,
                 config.serverName(),
                 config.secretKey(),
-                System.currentTimeMillis());
+                System.currentTimeMillis(),
+                handshakeProperties());
         ctx.writeAndFlush(handshake);
         LOGGER.info("Sent authentication handshake to Master");
     }
@@ -69,13 +85,17 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
 
         switch (packet) {
             case AuthResultPacket result -> handleAuthResult(result);
+            case CompressionDictionaryPacket dictionary -> handleCompressionDictionary(dictionary);
+            case SymbolTablePacket symbols -> handleSymbolTable(symbols);
             case HeartbeatAckPacket ack -> handleHeartbeatAck(ack);
             case NetworkStatePacket state -> handleNetworkState(state);
+            case NetworkStateDeltaPacket delta -> handleNetworkStateDelta(delta);
             case CircuitBreakerTrippedPacket cb -> handleCircuitBreaker(cb);
             case ProtocolErrorPacket error -> handleProtocolError(error);
             case ChunkDataPacket chunk -> handleChunkData(chunk);
             case PDCSyncPacket pdc -> handlePDCSync(pdc);
             case EventBroadcastPacket event -> handleEventBroadcast(event);
+            case CustomPacket custom -> handleCustomPacket(custom);
             default -> LOGGER.warn("Unexpected packet from Master: {}", packet.getClass().getSimpleName());
         }
     }
@@ -83,8 +103,11 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
     private void handleAuthResult(AuthResultPacket result) {
         if (result.success()) {
             connectionState.set(ConnectionStatus.ConnectionState.CONNECTED);
+            FrameCompression compression = applyCompression(result);
+            applyStreams(result);
             authFuture.complete(true);
-            LOGGER.info("Authentication successful, protocol version: {}", result.negotiatedVersion());
+            LOGGER.info("Authentication successful, protocol version: {}, compression: {}",
+                    result.negotiatedVersion(), compression.id());
         } else {
             connectionState.set(ConnectionStatus.ConnectionState.DISCONNECTED);
             authFuture.complete(false);
@@ -93,6 +116,66 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    private Map<String, String> handshakeProperties() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(ProtocolConstants.COMPRESSION_PROPERTY, config.compression().offer());
+        if (config.compression().dictionary()) {
+            properties.put(ProtocolConstants.COMPRESSION_DICTIONARY_PROPERTY, DICTIONARY_FORMAT);
+        }
+        properties.put(ProtocolConstants.SYMBOL_TABLE_PROPERTY, SYMBOL_TABLE_VERSION);
+        properties.put(ProtocolConstants.STREAM_PROPERTY, STREAM_VERSION);
+        return properties;
+    }
+
+    private void handleCompressionDictionary(CompressionDictionaryPacket packet) {
+        if (!config.compression().dictionary()) {
+            LOGGER.warn("Ignoring compression dictionary #{}: dictionaries are disabled", packet.dictionaryId());
+            return;
+        }
+        ZstdDictionary dictionary = ZstdDictionary.of(packet.dictionaryId(), packet.dictionary());
+        PacketDecoder decoder = ctx.pipeline().get(PacketDecoder.class);
+        if (decoder != null) {
+            decoder.dictionaries().register(dictionary);
+        }
+        PacketEncoder encoder = ctx.pipeline().get(PacketEncoder.class);
+        if (encoder != null) {
+            encoder.useDictionary(dictionary);
+        }
+        LOGGER.info("Installed compression dictionary #{} ({} bytes)", dictionary.id(), dictionary.size());
+    }
+
+    private void handleSymbolTable(SymbolTablePacket packet) {
+        PacketDecoder decoder = ctx.pipeline().get(PacketDecoder.class);
+        if (decoder == null) {
+            return;
+        }
+        SymbolTable symbols = decoder.symbols();
+        symbols.append(packet.baseId(), packet.symbols());
+        PacketEncoder encoder = ctx.pipeline().get(PacketEncoder.class);
+        if (encoder != null) {
+            encoder.useSymbols(new SymbolContext(symbols, symbols.size()));
+        }
+        LOGGER.debug("Symbol table updated: {} symbols", symbols.size());
+    }
+
+    private void applyStreams(AuthResultPacket result) {
+        PacketStreamHandler streams = ctx.pipeline().get(PacketStreamHandler.class);
+        if (streams != null && STREAM_VERSION.equals(result.serverConfig().get(ProtocolConstants.STREAM_PROPERTY))) {
+            streams.enable();
+        }
+    }
+
+    private FrameCompression applyCompression(AuthResultPacket result) {
+        FrameCompression compression = FrameCompression
+                .fromName(result.serverConfig().get(ProtocolConstants.COMPRESSION_PROPERTY))
+                .orElse(FrameCompression.SNAPPY);
+        PacketEncoder encoder = ctx.pipeline().get(PacketEncoder.class);
+        if (encoder != null) {
+            encoder.useCompression(compression);
+        }
+        return compression;
+    }
+
     private void handleHeartbeatAck(HeartbeatAckPacket ack) {
         int rtt = (int) (System.currentTimeMillis() - ack.originalTimestamp());
         latencyMillis.set(rtt);
@@ -101,6 +184,24 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
 
     private void handleNetworkState(NetworkStatePacket state) {
         stateCache.update(state);
+        resyncRequested.set(false);
+        publishNetworkState(state);
+    }
+
+    private void handleNetworkStateDelta(NetworkStateDeltaPacket delta) {
+        var updated = stateCache.applyDelta(delta);
+        if (updated.isEmpty()) {
+            if (resyncRequested.compareAndSet(false, true)) {
+                ctx.writeAndFlush(new StateResyncRequestPacket(stateCache.getStateVersion(), delta.baseVersion()));
+                LOGGER.debug("State version gap: have v{}, delta base v{}; requested full resync",
+                        stateCache.getStateVersion(), delta.baseVersion());
+            }
+            return;
+        }
+        publishNetworkState(updated.get());
+    }
+
+    private void publishNetworkState(NetworkStatePacket state) {
         AetherEventBus.instance().publish(NetworkStateUpdatedEvent.create(state));
 
         AetherAPIProvider.getInstance().ifPresent(api -> {
@@ -148,6 +249,11 @@ public final class NodePacketHandler extends ChannelInboundHandlerAdapter {
                 event.eventType(), event.sourceServer());
     }
 
+    private void handleCustomPacket(CustomPacket packet) {
+        AetherEventBus.instance().publish(PacketReceivedEvent.create(packet, MASTER_SOURCE_ID));
+        LOGGER.debug("Received custom packet 0x{}", Integer.toHexString(packet.packetId()));
+    }
+
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
         connectionState.set(ConnectionStatus.ConnectionState.DISCONNECTED);
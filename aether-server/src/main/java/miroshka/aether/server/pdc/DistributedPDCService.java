@@ -1,29 +1,107 @@
 package miroshka.aether.server.pdc;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import miroshka.aether.api.pdc.DistributedPDC;
+import miroshka.aether.common.protocol.HybridLogicalClock;
 import miroshka.aether.common.protocol.PDCSyncPacket;
+import miroshka.aether.common.protocol.PDCVersion;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import miroshka.aether.server.config.PDCSettings;
 import miroshka.aether.server.network.NodeNetworkClient;
-
+import org.allaymc.api.eventbus.EventHandler;
+import org.allaymc.api.eventbus.event.player.PlayerJoinEvent;
+import org.allaymc.api.eventbus.event.player.PlayerQuitEvent;
+import org.allaymc.api.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class DistributedPDCService implements DistributedPDC, AutoCloseable {
 
-public final class DistributedPDCService implements DistributedPDC {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DistributedPDCService.class);
+    private static final byte[] EMPTY = new byte[0];
+    private static final long RETRY_DELAY_MILLIS = 1000;
 
     private final NodeNetworkClient networkClient;
     private final String serverName;
     private final Map<UUID, PlayerDataCache> cache;
+    private final Map<Long, CompletableFuture<Void>> pendingRequests;
+    private final Map<UUID, CompletableFuture<Void>> loading;
+    private final AtomicLong requestIds;
+    private final Map<UUID, Set<String>> pendingWrites;
+    private final ScheduledExecutorService flushScheduler;
+    private final long writeBehindMillis;
+    private final long requestTimeoutMillis;
+    private final LongAdder bufferedWrites;
+    private final LongAdder sentUpdates;
+    private final LongAdder conflicts;
+    private final HybridLogicalClock clock;
+    private final ByteBufAllocator offHeapAllocator;
+    private final long cacheSizeBytes;
+    private final AtomicLong cacheBytes;
+    private final AtomicBoolean evictionScheduled;
+    private final LongAdder evictions;
     private volatile ConflictResolver conflictResolver;
+    private final Set<UUID> onlinePlayers;
 
-    public DistributedPDCService(NodeNetworkClient networkClient, String serverName) {
+    public DistributedPDCService(NodeNetworkClient networkClient, String serverName, PDCSettings settings) {
+        this(networkClient, serverName, settings, ProtocolConstants.PDC_REQUEST_TIMEOUT_MILLIS);
+    }
+
+    DistributedPDCService(NodeNetworkClient networkClient, String serverName, PDCSettings settings,
+            long requestTimeoutMillis) {
+        if (requestTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("requestTimeoutMillis must be positive");
+        }
         this.networkClient = Objects.requireNonNull(networkClient, "networkClient");
         this.serverName = Objects.requireNonNull(serverName, "serverName");
+        Objects.requireNonNull(settings, "settings");
+        this.writeBehindMillis = settings.writeBehindMillis();
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Aether-PDCWriteBehind");
+            t.setDaemon(true);
+            return t;
+        });
+        this.bufferedWrites = new LongAdder();
+        this.sentUpdates = new LongAdder();
+        this.conflicts = new LongAdder();
+        this.clock = new HybridLogicalClock();
+        this.offHeapAllocator = settings.offHeap() ? PooledByteBufAllocator.DEFAULT : null;
+        this.cacheSizeBytes = settings.cacheSizeBytes();
+        this.cacheBytes = new AtomicLong();
+        this.evictionScheduled = new AtomicBoolean();
+        this.evictions = new LongAdder();
+        this.onlinePlayers = ConcurrentHashMap.newKeySet();
         this.cache = new ConcurrentHashMap<>();
+        this.pendingRequests = new ConcurrentHashMap<>();
+        this.loading = new ConcurrentHashMap<>();
+        this.requestIds = new AtomicLong();
         this.conflictResolver = ConflictResolver.lastWriteWins();
     }
 
@@ -35,14 +113,252 @@ public final class DistributedPDCService implements DistributedPDC {
         Objects.requireNonNull(serializer, "serializer");
 
         byte[] data = serializer.serialize(value);
-        PlayerDataCache playerCache = cache.computeIfAbsent(playerUuid, k -> new PlayerDataCache());
-        playerCache.set(key, data);
+        write(playerUuid, key, data);
+        bufferedWrites.increment();
+        bufferWrite(playerUuid, key);
+    }
+
+    private void bufferWrite(UUID playerUuid, String key) {
+        if (writeBehindMillis == 0) {
+            sendUpdate(playerUuid, Set.of(key));
+            return;
+        }
+        enqueue(playerUuid, Set.of(key), writeBehindMillis);
+    }
+
+    private void enqueue(UUID playerUuid, Collection<String> keys, long delayMillis) {
+        pendingWrites.compute(playerUuid, (uuid, pending) -> {
+            if (pending == null) {
+                pending = new LinkedHashSet<>();
+                flushScheduler.schedule(() -> flush(uuid), delayMillis, TimeUnit.MILLISECONDS);
+            }
+            pending.addAll(keys);
+            return pending;
+        });
+    }
+
+    @Override
+    public void flush(UUID playerUuid) {
+        flushAsync(playerUuid);
+    }
+
+    public CompletableFuture<Void> flushAsync(UUID playerUuid) {
+        Objects.requireNonNull(playerUuid, "playerUuid");
+        Set<String> keys = pendingWrites.remove(playerUuid);
+        if (keys == null || keys.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return sendUpdate(playerUuid, keys);
+    }
+
+    public void flushAll() {
+        for (UUID playerUuid : List.copyOf(pendingWrites.keySet())) {
+            flush(playerUuid);
+        }
+    }
+
+    public void registerEvents() {
+        Server.getInstance().getPlayerManager().getPlayers().keySet().forEach(this::markOnline);
+        Server.getInstance().getEventBus().registerListener(this);
+    }
+
+    public void unregisterEvents() {
+        Server.getInstance().getEventBus().unregisterListener(this);
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        markOnline(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        markOffline(event.getPlayer().getUniqueId());
+    }
+
+    public void markOnline(UUID playerUuid) {
+        onlinePlayers.add(Objects.requireNonNull(playerUuid, "playerUuid"));
+    }
+
+    public void markOffline(UUID playerUuid) {
+        onlinePlayers.remove(Objects.requireNonNull(playerUuid, "playerUuid"));
+    }
+
+    public long cacheBytes() {
+        return cacheBytes.get();
+    }
+
+    public int cachedPlayers() {
+        return cache.size();
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        Objects.requireNonNull(registry, "registry");
+        FunctionCounter.builder("aether.pdc.writes", bufferedWrites, LongAdder::sum)
+                .description("PDC writes accepted by this node")
+                .register(registry);
+        FunctionCounter.builder("aether.pdc.updates.sent", sentUpdates, LongAdder::sum)
+                .description("PDC update packets sent to the master")
+                .register(registry);
+        Gauge.builder("aether.pdc.coalescing.ratio", this, DistributedPDCService::coalescingRatio)
+                .description("PDC writes per update packet sent")
+                .register(registry);
+        FunctionCounter.builder("aether.pdc.conflicts", conflicts, LongAdder::sum)
+                .description("Concurrent PDC writes resolved by the conflict resolver")
+                .register(registry);
+        Gauge.builder("aether.pdc.clock.skew", clock, HybridLogicalClock::maxSkewMillis)
+                .description("Largest clock skew observed from remote PDC versions")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("aether.pdc.cache.size", cacheBytes, AtomicLong::get)
+                .description("Bytes held by the PDC cache")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("aether.pdc.cache.players", cache, Map::size)
+                .description("Players with PDC entries in the cache")
+                .register(registry);
+        FunctionCounter.builder("aether.pdc.cache.evictions", evictions, LongAdder::sum)
+                .description("Offline players evicted from the PDC cache")
+                .register(registry);
+    }
+
+    public double coalescingRatio() {
+        long sent = sentUpdates.sum();
+        return sent == 0 ? 1.0 : (double) bufferedWrites.sum() / sent;
+    }
+
+    private CompletableFuture<Void> sendUpdate(UUID playerUuid, Collection<String> keys) {
+        PlayerDataCache playerCache = cache.get(playerUuid);
+        if (playerCache == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>(1);
+        Map<String, PlayerDataCache.VersionedValue> sent = new HashMap<>(keys.size());
+        Map<String, byte[]> values = new HashMap<>(keys.size());
+        Map<String, PDCVersion> versions = new HashMap<>(keys.size());
+        Map<String, PDCVersion> bases = new HashMap<>(keys.size());
+        for (String key : keys) {
+            PlayerDataCache.VersionedValue entry = playerCache.entry(key);
+            if (entry == null || !entry.dirty()) {
+                continue;
+            }
+            if (entry.isTombstone()) {
+                writes.add(send(playerUuid, playerCache, PDCSyncPacket.delete(playerUuid, serverName, key,
+                        entry.version(), entry.base()), Map.of(key, entry)));
+                continue;
+            }
+            sent.put(key, entry);
+            values.put(key, entry.value());
+            versions.put(key, entry.version());
+            bases.put(key, entry.base());
+        }
+        if (!values.isEmpty()) {
+            writes.add(send(playerUuid, playerCache,
+                    PDCSyncPacket.partialUpdate(playerUuid, serverName, values, versions, bases), sent));
+            sentUpdates.increment();
+        }
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> send(UUID playerUuid, PlayerDataCache playerCache, PDCSyncPacket packet,
+            Map<String, PlayerDataCache.VersionedValue> sent) {
+        CompletableFuture<Void> written;
+        try {
+            written = networkClient.sendPacketAsync(packet);
+        } catch (RuntimeException e) {
+            written = CompletableFuture.failedFuture(e);
+        }
+        return written.whenComplete((ignored, error) -> {
+            if (error == null) {
+                sent.forEach(playerCache::markClean);
+                scheduleEvictionIfNeeded();
+                return;
+            }
+            if (networkClient.isConnected()) {
+                LOGGER.warn("Failed to send PDC {} for {}, retrying: {}", packet.operation(), playerUuid,
+                        error.getMessage());
+            } else {
+                LOGGER.debug("PDC {} for {} deferred until the master is reachable", packet.operation(), playerUuid);
+            }
+            retry(playerUuid, sent.keySet());
+        });
+    }
+
+    private void retry(UUID playerUuid, Collection<String> keys) {
+        if (flushScheduler.isShutdown() || !cache.containsKey(playerUuid)) {
+            return;
+        }
+        enqueue(playerUuid, keys, Math.max(writeBehindMillis, RETRY_DELAY_MILLIS));
+    }
+
+    private PlayerDataCache cacheFor(UUID playerUuid) {
+        PlayerDataCache playerCache = cache.get(playerUuid);
+        if (playerCache != null && !playerCache.isEvicted()) {
+            return playerCache;
+        }
+        return cache.compute(playerUuid, (uuid, existing) -> existing == null || existing.isEvicted()
+                ? new PlayerDataCache(offHeapAllocator, cacheBytes)
+                : existing);
+    }
+
+    private PlayerDataCache.VersionedValue write(UUID playerUuid, String key, byte[] value) {
+        PlayerDataCache.VersionedValue written;
+        do {
+            written = cacheFor(playerUuid).write(key, value, nextVersion());
+        } while (written == null);
+        scheduleEvictionIfNeeded();
+        return written;
+    }
 
-        Map<String, byte[]> updateData = new HashMap<>();
-        updateData.put(key, data);
-        PDCSyncPacket packet = PDCSyncPacket.partialUpdate(playerUuid, serverName, updateData,
-                playerCache.getVersion());
-        networkClient.sendPacket(packet);
+    private void scheduleEvictionIfNeeded() {
+        if (cacheBytes.get() > cacheSizeBytes && evictionScheduled.compareAndSet(false, true)) {
+            try {
+                flushScheduler.execute(this::evictOfflinePlayers);
+            } catch (RuntimeException e) {
+                evictionScheduled.set(false);
+            }
+        }
+    }
+
+    private void evictOfflinePlayers() {
+        evictionScheduled.set(false);
+        long target = cacheSizeBytes - cacheSizeBytes / 10;
+        if (cacheBytes.get() <= target) {
+            return;
+        }
+
+        List<Map.Entry<UUID, PlayerDataCache>> candidates = new ArrayList<>();
+        for (Map.Entry<UUID, PlayerDataCache> entry : cache.entrySet()) {
+            UUID playerUuid = entry.getKey();
+            if (!onlinePlayers.contains(playerUuid) && !loading.containsKey(playerUuid)
+                    && !pendingWrites.containsKey(playerUuid)) {
+                candidates.add(Map.entry(playerUuid, entry.getValue()));
+            }
+        }
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess()));
+
+        int evicted = 0;
+        for (Map.Entry<UUID, PlayerDataCache> candidate : candidates) {
+            if (cacheBytes.get() <= target) {
+                break;
+            }
+            if (candidate.getValue().evict()) {
+                cache.remove(candidate.getKey(), candidate.getValue());
+                evicted++;
+            }
+        }
+        evictions.add(evicted);
+        if (cacheBytes.get() > cacheSizeBytes) {
+            LOGGER.warn("PDC cache holds {} KiB over its {} KiB limit after evicting {} offline players",
+                    (cacheBytes.get() - cacheSizeBytes) / 1024, cacheSizeBytes / 1024, evicted);
+        } else {
+            LOGGER.debug("Evicted {} offline players from the PDC cache", evicted);
+        }
+    }
+
+    private PDCVersion nextVersion() {
+        return new PDCVersion(clock.now(), serverName);
     }
 
     @Override
@@ -56,12 +372,7 @@ public final class DistributedPDCService implements DistributedPDC {
             return Optional.empty();
         }
 
-        byte[] data = playerCache.get(key);
-        if (data == null || data.length == 0) {
-            return Optional.empty();
-        }
-
-        return Optional.of(serializer.deserialize(data));
+        return Optional.ofNullable(playerCache.decode(key, serializer));
     }
 
     @Override
@@ -83,13 +394,12 @@ public final class DistributedPDCService implements DistributedPDC {
         Objects.requireNonNull(playerUuid, "playerUuid");
         Objects.requireNonNull(key, "key");
 
-        PlayerDataCache playerCache = cache.get(playerUuid);
-        if (playerCache != null) {
-            playerCache.remove(key);
-        }
-
-        PDCSyncPacket packet = PDCSyncPacket.delete(playerUuid, serverName, key);
-        networkClient.sendPacket(packet);
+        write(playerUuid, key, null);
+        pendingWrites.computeIfPresent(playerUuid, (uuid, keys) -> {
+            keys.remove(key);
+            return keys;
+        });
+        sendUpdate(playerUuid, Set.of(key));
     }
 
     @Override
@@ -113,27 +423,86 @@ public final class DistributedPDCService implements DistributedPDC {
             return CompletableFuture.completedFuture(null);
         }
 
-        PDCSyncPacket packet = PDCSyncPacket.fullSync(playerUuid, serverName, playerCache.getAll());
-        networkClient.sendPacket(packet);
+        if (!networkClient.isConnected()) {
+            return notConnected();
+        }
+        pendingWrites.remove(playerUuid);
+
+        Map<String, PlayerDataCache.VersionedValue> snapshot = playerCache.snapshot();
+        Map<String, PlayerDataCache.VersionedValue> sent = new HashMap<>(snapshot.size());
+        Map<String, byte[]> values = new HashMap<>(snapshot.size());
+        Map<String, PDCVersion> versions = new HashMap<>(snapshot.size());
+        Map<String, PDCVersion> bases = new HashMap<>(snapshot.size());
+        List<String> deleted = new ArrayList<>();
+        snapshot.forEach((key, entry) -> {
+            if (entry.isTombstone()) {
+                if (entry.dirty()) {
+                    deleted.add(key);
+                }
+                return;
+            }
+            sent.put(key, entry);
+            values.put(key, entry.value());
+            versions.put(key, entry.version());
+            bases.put(key, entry.base());
+        });
+
+        long requestId = requestIds.incrementAndGet();
+        CompletableFuture<Void> future = track(requestId, new CompletableFuture<>());
+        send(playerUuid, playerCache, PDCSyncPacket.fullSync(playerUuid, serverName, values, versions, bases,
+                requestId), sent).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    }
+                });
+        if (!deleted.isEmpty()) {
+            sendUpdate(playerUuid, deleted);
+        }
 
-        return CompletableFuture.completedFuture(null);
+        return future;
     }
 
     @Override
     public CompletableFuture<Void> load(UUID playerUuid) {
         Objects.requireNonNull(playerUuid, "playerUuid");
+        if (!networkClient.isConnected()) {
+            return notConnected();
+        }
 
-        Map<String, byte[]> requestData = new HashMap<>();
-        PDCSyncPacket packet = new PDCSyncPacket(playerUuid, serverName, PDCSyncPacket.SyncOperation.REQUEST,
-                requestData, System.currentTimeMillis());
-        networkClient.sendPacket(packet);
+        List<PDCSyncPacket> requests = new ArrayList<>(1);
+        CompletableFuture<Void> future = requestLoad(playerUuid, requests);
+        networkClient.sendPackets(requests);
 
-        return CompletableFuture.completedFuture(null);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> loadAll(Collection<UUID> playerUuids) {
+        Objects.requireNonNull(playerUuids, "playerUuids");
+        if (playerUuids.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!networkClient.isConnected()) {
+            return notConnected();
+        }
+
+        List<PDCSyncPacket> requests = new ArrayList<>(playerUuids.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(playerUuids.size());
+        for (UUID playerUuid : playerUuids) {
+            futures.add(requestLoad(Objects.requireNonNull(playerUuid, "playerUuid"), requests));
+        }
+        networkClient.sendPackets(requests);
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
     }
 
     @Override
     public void invalidateCache(UUID playerUuid) {
-        cache.remove(playerUuid);
+        flush(playerUuid);
+        PlayerDataCache playerCache = cache.remove(playerUuid);
+        if (playerCache != null) {
+            playerCache.release();
+        }
     }
 
     @Override
@@ -142,80 +511,112 @@ public final class DistributedPDCService implements DistributedPDC {
     }
 
     public void handleIncomingSync(PDCSyncPacket packet) {
+        if (packet.operation() == PDCSyncPacket.SyncOperation.ACK) {
+            completeRequest(packet.requestId());
+            return;
+        }
+
         UUID playerUuid = packet.playerUuid();
-        PlayerDataCache playerCache = cache.computeIfAbsent(playerUuid, k -> new PlayerDataCache());
-
-        switch (packet.operation()) {
-            case FULL_SYNC -> {
-                for (Map.Entry<String, byte[]> entry : packet.data().entrySet()) {
-                    byte[] localData = playerCache.get(entry.getKey());
-                    if (localData != null) {
-                        byte[] resolved = conflictResolver.resolve(
-                                entry.getKey(), localData, entry.getValue(),
-                                playerCache.getVersion(), packet.version());
-                        playerCache.set(entry.getKey(), resolved);
-                    } else {
-                        playerCache.set(entry.getKey(), entry.getValue());
-                    }
+        boolean deletion = packet.operation() == PDCSyncPacket.SyncOperation.DELETE;
+
+        if (packet.operation() != PDCSyncPacket.SyncOperation.REQUEST) {
+            for (Map.Entry<String, byte[]> entry : packet.data().entrySet()) {
+                String key = entry.getKey();
+                PDCVersion remote = packet.versionOf(key);
+                clock.update(remote.clock());
+                if (merge(playerUuid, key, deletion ? null : entry.getValue(), remote, packet.baseOf(key))) {
+                    bufferWrite(playerUuid, key);
                 }
-                playerCache.updateVersionIfNewer(packet.version());
             }
-            case PARTIAL_UPDATE -> {
-                for (Map.Entry<String, byte[]> entry : packet.data().entrySet()) {
-                    byte[] localData = playerCache.get(entry.getKey());
-                    if (localData != null && packet.version() <= playerCache.getVersion()) {
-                        byte[] resolved = conflictResolver.resolve(
-                                entry.getKey(), localData, entry.getValue(),
-                                playerCache.getVersion(), packet.version());
-                        playerCache.set(entry.getKey(), resolved);
-                    } else {
-                        playerCache.set(entry.getKey(), entry.getValue());
-                    }
-                }
-                playerCache.updateVersionIfNewer(packet.version());
-            }
-            case DELETE -> {
-                for (String key : packet.data().keySet()) {
-                    playerCache.remove(key);
+            scheduleEvictionIfNeeded();
+        }
+
+        if (packet.isResponse()) {
+            completeRequest(packet.requestId());
+        }
+    }
+
+    private boolean merge(UUID playerUuid, String key, byte[] remoteValue, PDCVersion remote, PDCVersion base) {
+        while (true) {
+            PlayerDataCache playerCache = cacheFor(playerUuid);
+            synchronized (playerCache) {
+                if (!playerCache.isEvicted()) {
+                    return merge(playerCache, key, remoteValue, remote, base);
                 }
             }
-            case REQUEST -> {
-            }
         }
     }
 
-    private static final class PlayerDataCache {
-        private final Map<String, byte[]> data = new ConcurrentHashMap<>();
-        private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
-
-        void set(String key, byte[] value) {
-            data.put(key, value);
-            version.set(System.currentTimeMillis());
+    private boolean merge(PlayerDataCache playerCache, String key, byte[] remoteValue, PDCVersion remote,
+            PDCVersion base) {
+        PlayerDataCache.VersionedValue local = playerCache.entry(key);
+        PlayerDataCache.VersionedValue incoming = new PlayerDataCache.VersionedValue(remoteValue, remote, base,
+                false);
+        if (local == null || (!local.dirty() && local.version().compareTo(base) <= 0)) {
+            playerCache.put(key, incoming);
+            return false;
         }
 
-        byte[] get(String key) {
-            return data.get(key);
+        int order = remote.compareTo(local.version());
+        if (order == 0 || (order < 0 && local.base().compareTo(remote) >= 0)) {
+            return false;
         }
 
-        boolean has(String key) {
-            return data.containsKey(key);
+        conflicts.increment();
+        byte[] localValue = local.isTombstone() ? EMPTY : local.value();
+        byte[] remoteBytes = remoteValue == null ? EMPTY : remoteValue;
+        byte[] resolved = conflictResolver.resolve(key, localValue, remoteBytes, local.version().clock(),
+                remote.clock());
+        if (order > 0 && Arrays.equals(resolved, remoteBytes)) {
+            playerCache.put(key, incoming);
+            return false;
         }
-
-        void remove(String key) {
-            data.remove(key);
-            version.set(System.currentTimeMillis());
+        if (order < 0 && Arrays.equals(resolved, localValue)) {
+            return false;
         }
+        playerCache.put(key, new PlayerDataCache.VersionedValue(resolved.length == 0 ? null : resolved,
+                nextVersion(), PDCVersion.max(local.version(), remote), true));
+        return true;
+    }
 
-        Map<String, byte[]> getAll() {
-            return new HashMap<>(data);
+    private CompletableFuture<Void> requestLoad(UUID playerUuid, List<PDCSyncPacket> requests) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> existing = loading.putIfAbsent(playerUuid, created);
+        if (existing != null) {
+            return existing;
         }
 
-        long getVersion() {
-            return version.get();
+        long requestId = requestIds.incrementAndGet();
+        track(requestId, created).whenComplete((ignored, error) -> loading.remove(playerUuid, created));
+        requests.add(PDCSyncPacket.request(playerUuid, serverName, requestId));
+        return created;
+    }
+
+    private CompletableFuture<Void> track(long requestId, CompletableFuture<Void> future) {
+        pendingRequests.put(requestId, future);
+        future.orTimeout(requestTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> pendingRequests.remove(requestId, future));
+        return future;
+    }
+
+    private void completeRequest(long requestId) {
+        CompletableFuture<Void> future = pendingRequests.remove(requestId);
+        if (future != null) {
+            future.complete(null);
         }
+    }
+
+    private static CompletableFuture<Void> notConnected() {
+        return CompletableFuture.failedFuture(new IllegalStateException("Not connected to the master"));
+    }
 
-        void updateVersionIfNewer(long newVersion) {
-            version.updateAndGet(current -> Math.max(current, newVersion));
+    @Override
+    public void close() {
+        flushScheduler.shutdownNow();
+        flushAll();
+        for (PlayerDataCache playerCache : cache.values()) {
+            playerCache.release();
         }
+        cache.clear();
     }
 }
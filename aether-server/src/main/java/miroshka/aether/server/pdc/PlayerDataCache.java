@@ -0,0 +1,207 @@
+package miroshka.aether.server.pdc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import miroshka.aether.api.pdc.DistributedPDC;
+import miroshka.aether.common.protocol.PDCVersion;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class PlayerDataCache {
+
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Map<String, Slot> entries = new HashMap<>();
+    private final ByteBufAllocator offHeapAllocator;
+    private final AtomicLong usage;
+    private long bytes;
+    private boolean evicted;
+    private volatile long lastAccess;
+
+    PlayerDataCache(ByteBufAllocator offHeapAllocator, AtomicLong usage) {
+        this.offHeapAllocator = offHeapAllocator;
+        this.usage = Objects.requireNonNull(usage, "usage");
+        this.lastAccess = System.nanoTime();
+    }
+
+    synchronized VersionedValue entry(String key) {
+        touch();
+        Slot slot = entries.get(key);
+        return slot != null ? slot.view() : null;
+    }
+
+    synchronized <T> T decode(String key, DistributedPDC.PDCSerializer<T> serializer) {
+        touch();
+        Slot slot = entries.get(key);
+        return slot != null ? slot.decode(serializer) : null;
+    }
+
+    synchronized boolean has(String key) {
+        touch();
+        Slot slot = entries.get(key);
+        return slot != null && !slot.isTombstone();
+    }
+
+    synchronized VersionedValue write(String key, byte[] value, PDCVersion version) {
+        if (evicted) {
+            return null;
+        }
+        Slot current = entries.get(key);
+        PDCVersion base = current == null ? PDCVersion.NONE : current.dirty ? current.base : current.version;
+        VersionedValue written = new VersionedValue(value, version, base, true);
+        store(key, written);
+        return written;
+    }
+
+    synchronized void put(String key, VersionedValue value) {
+        if (!evicted) {
+            store(key, value);
+        }
+    }
+
+    synchronized void markClean(String key, VersionedValue sent) {
+        Slot slot = entries.get(key);
+        if (slot != null && slot.dirty && slot.version.equals(sent.version())) {
+            slot.dirty = false;
+        }
+    }
+
+    synchronized Map<String, byte[]> getAll() {
+        touch();
+        Map<String, byte[]> values = new HashMap<>(entries.size());
+        for (Map.Entry<String, Slot> entry : entries.entrySet()) {
+            if (!entry.getValue().isTombstone()) {
+                values.put(entry.getKey(), entry.getValue().read());
+            }
+        }
+        return values;
+    }
+
+    synchronized Map<String, VersionedValue> snapshot() {
+        Map<String, VersionedValue> values = new HashMap<>(entries.size());
+        entries.forEach((key, slot) -> values.put(key, slot.view()));
+        return values;
+    }
+
+    synchronized boolean evict() {
+        if (evicted) {
+            return true;
+        }
+        for (Slot slot : entries.values()) {
+            if (slot.dirty) {
+                return false;
+            }
+        }
+        release();
+        return true;
+    }
+
+    synchronized void release() {
+        for (Slot slot : entries.values()) {
+            slot.free();
+        }
+        entries.clear();
+        usage.addAndGet(-bytes);
+        bytes = 0;
+        evicted = true;
+    }
+
+    synchronized boolean isEvicted() {
+        return evicted;
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    private void store(String key, VersionedValue value) {
+        touch();
+        Slot slot = new Slot(key, value, offHeapAllocator);
+        Slot previous = entries.put(key, slot);
+        long delta = slot.bytes;
+        if (previous != null) {
+            delta -= previous.bytes;
+            previous.free();
+        }
+        bytes += delta;
+        usage.addAndGet(delta);
+    }
+
+    private void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    private static final class Slot {
+        private final byte[] heap;
+        private final ByteBuf direct;
+        private final PDCVersion version;
+        private final PDCVersion base;
+        private final long bytes;
+        private boolean dirty;
+
+        private Slot(String key, VersionedValue value, ByteBufAllocator offHeapAllocator) {
+            byte[] data = value.value();
+            if (data != null && data.length > 0 && offHeapAllocator != null) {
+                this.direct = offHeapAllocator.directBuffer(data.length, data.length).writeBytes(data);
+                this.heap = null;
+                this.bytes = ENTRY_OVERHEAD + 2L * key.length() + direct.capacity();
+            } else {
+                this.direct = null;
+                this.heap = data;
+                this.bytes = ENTRY_OVERHEAD + 2L * key.length() + (data != null ? data.length : 0);
+            }
+            this.version = value.version();
+            this.base = value.base();
+            this.dirty = value.dirty();
+        }
+
+        private boolean isTombstone() {
+            return heap == null && direct == null;
+        }
+
+        private byte[] read() {
+            if (direct == null) {
+                return heap;
+            }
+            byte[] data = new byte[direct.readableBytes()];
+            direct.getBytes(direct.readerIndex(), data);
+            return data;
+        }
+
+        private <T> T decode(DistributedPDC.PDCSerializer<T> serializer) {
+            if (isTombstone() || length() == 0) {
+                return null;
+            }
+            return serializer.deserialize(read());
+        }
+
+        private int length() {
+            return direct != null ? direct.readableBytes() : heap.length;
+        }
+
+        private VersionedValue view() {
+            return new VersionedValue(read(), version, base, dirty);
+        }
+
+        private void free() {
+            if (direct != null) {
+                direct.release();
+            }
+        }
+    }
+
+    record VersionedValue(byte[] value, PDCVersion version, PDCVersion base, boolean dirty) {
+
+        VersionedValue {
+            Objects.requireNonNull(version, "version");
+            Objects.requireNonNull(base, "base");
+        }
+
+        boolean isTombstone() {
+            return value == null;
+        }
+    }
+}
@@ -5,14 +5,31 @@ import java.util.Objects;
 
 public record PortalConfig(
         boolean enabled,
+        Prediction prediction,
         List<PortalDefinition> portals) {
 
     public PortalConfig {
+        Objects.requireNonNull(prediction, "prediction");
         Objects.requireNonNull(portals, "portals");
     }
 
     public static PortalConfig defaults() {
-        return new PortalConfig(true, List.of());
+        return new PortalConfig(true, Prediction.defaults(), List.of());
+    }
+
+    public record Prediction(boolean enabled, double horizonSeconds, long reservationMillis) {
+        public Prediction {
+            if (horizonSeconds <= 0) {
+                throw new IllegalArgumentException("horizonSeconds must be positive");
+            }
+            if (reservationMillis < 0) {
+                throw new IllegalArgumentException("reservationMillis cannot be negative");
+            }
+        }
+
+        public static Prediction defaults() {
+            return new Prediction(true, 3.0, 10_000);
+        }
     }
 
     public sealed interface PortalDefinition permits RegionPortalDefinition, BoundaryPortalDefinition {
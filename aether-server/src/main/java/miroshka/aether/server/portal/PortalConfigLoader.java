@@ -37,12 +37,14 @@ public final class PortalConfigLoader {
             }
 
             boolean enabled = true;
+            PortalConfig.Prediction prediction = PortalConfig.Prediction.defaults();
             List<PortalConfig.PortalDefinition> portals = new ArrayList<>();
 
             Object portalsObj = data.get("portals");
             if (portalsObj instanceof Map) {
                 Map<String, Object> portalsMap = (Map<String, Object>) portalsObj;
                 enabled = (Boolean) portalsMap.getOrDefault("enabled", true);
+                prediction = parsePrediction((Map<String, Object>) portalsMap.getOrDefault("prediction", Map.of()));
 
                 Object listObj = portalsMap.get("list");
                 if (listObj instanceof Map) {
@@ -60,12 +62,20 @@ public final class PortalConfigLoader {
                 }
             }
 
-            return new PortalConfig(enabled, portals);
+            return new PortalConfig(enabled, prediction, portals);
         } catch (IOException | ClassCastException e) {
             throw new RuntimeException("Failed to load portal config from " + configPath, e);
         }
     }
 
+    private static PortalConfig.Prediction parsePrediction(Map<String, Object> data) {
+        PortalConfig.Prediction defaults = PortalConfig.Prediction.defaults();
+        return new PortalConfig.Prediction(
+                (Boolean) data.getOrDefault("enabled", defaults.enabled()),
+                ((Number) data.getOrDefault("horizon-seconds", defaults.horizonSeconds())).doubleValue(),
+                ((Number) data.getOrDefault("reserve-slot-ms", defaults.reservationMillis())).longValue());
+    }
+
     @SuppressWarnings("unchecked")
     private static PortalConfig.PortalDefinition parsePortal(String id, Map<String, Object> data) {
         try {
@@ -112,6 +122,10 @@ public final class PortalConfigLoader {
         String configContent = """
                 portals:
                   enabled: true
+                  prediction:
+                    enabled: true
+                    horizon-seconds: 3
+                    reserve-slot-ms: 10000
                   list:
                     example-boundary:
                       type: BOUNDARY
@@ -0,0 +1,166 @@
+package miroshka.aether.server.portal;
+
+import miroshka.aether.api.portal.PortalManager.Portal;
+import miroshka.aether.api.portal.PortalManager.PortalType;
+import miroshka.aether.api.portal.PortalManager.RegionConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+final class PortalIndex {
+
+    static final PortalIndex EMPTY = new PortalIndex(Map.of(), List.of());
+
+    private static final int CELL_SHIFT = 4;
+    private static final long MAX_CELLS_PER_REGION = 1024;
+    private static final Portal[] NO_PORTALS = new Portal[0];
+
+    private final Map<String, WorldIndex> worlds;
+    private final List<Portal> portals;
+
+    private PortalIndex(Map<String, WorldIndex> worlds, List<Portal> portals) {
+        this.worlds = worlds;
+        this.portals = portals;
+    }
+
+    static PortalIndex build(Collection<Portal> candidates, String serverName) {
+        Objects.requireNonNull(candidates, "candidates");
+        Objects.requireNonNull(serverName, "serverName");
+        Map<String, WorldIndex.Builder> builders = new HashMap<>();
+        List<Portal> local = new ArrayList<>();
+        for (Portal portal : candidates) {
+            if (!serverName.equals(portal.sourceServer())) {
+                continue;
+            }
+            WorldIndex.Builder builder = builders.computeIfAbsent(portal.world(), k -> new WorldIndex.Builder());
+            if (portal.type() == PortalType.BOUNDARY && portal.boundary() != null) {
+                builder.boundaries.add(portal);
+            } else if (portal.type() == PortalType.REGION && portal.region() != null) {
+                builder.addRegion(portal);
+            } else {
+                continue;
+            }
+            local.add(portal);
+        }
+        if (local.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, WorldIndex> worlds = new HashMap<>();
+        builders.forEach((world, builder) -> worlds.put(world, builder.build()));
+        return new PortalIndex(worlds, List.copyOf(local));
+    }
+
+    List<Portal> portals() {
+        return portals;
+    }
+
+    Portal find(String world, int x, int y, int z) {
+        WorldIndex index = worlds.get(world);
+        return index != null ? index.find(world, x, y, z) : null;
+    }
+
+    static int blockCoord(double value) {
+        int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
+    }
+
+    private static final class WorldIndex {
+
+        private final Portal[] boundaries;
+        private final Portal[] largeRegions;
+        private final long[] cellKeys;
+        private final Portal[][] cellPortals;
+        private final int mask;
+
+        private WorldIndex(Portal[] boundaries, Portal[] largeRegions, Map<Long, List<Portal>> cells) {
+            this.boundaries = boundaries;
+            this.largeRegions = largeRegions;
+            int capacity = Integer.highestOneBit(Math.max(4, cells.size() * 2) - 1) << 1;
+            this.cellKeys = new long[capacity];
+            this.cellPortals = new Portal[capacity][];
+            this.mask = capacity - 1;
+            cells.forEach((key, list) -> {
+                int slot = slot(key);
+                while (cellPortals[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                cellKeys[slot] = key;
+                cellPortals[slot] = list.toArray(NO_PORTALS);
+            });
+        }
+
+        private Portal find(String world, int x, int y, int z) {
+            Portal[] cell = cell(cellKey(x >> CELL_SHIFT, z >> CELL_SHIFT));
+            for (Portal portal : cell) {
+                if (portal.region().contains(world, x, y, z)) {
+                    return portal;
+                }
+            }
+            for (Portal portal : largeRegions) {
+                if (portal.region().contains(world, x, y, z)) {
+                    return portal;
+                }
+            }
+            for (Portal portal : boundaries) {
+                if (portal.boundary().contains(x, z)) {
+                    return portal;
+                }
+            }
+            return null;
+        }
+
+        private Portal[] cell(long key) {
+            int slot = slot(key);
+            Portal[] portals;
+            while ((portals = cellPortals[slot]) != null) {
+                if (cellKeys[slot] == key) {
+                    return portals;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NO_PORTALS;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private static final class Builder {
+
+            private final List<Portal> boundaries = new ArrayList<>();
+            private final List<Portal> largeRegions = new ArrayList<>();
+            private final Map<Long, List<Portal>> cells = new HashMap<>();
+
+            private void addRegion(Portal portal) {
+                RegionConfig region = portal.region();
+                int minCellX = region.minX() >> CELL_SHIFT;
+                int maxCellX = region.maxX() >> CELL_SHIFT;
+                int minCellZ = region.minZ() >> CELL_SHIFT;
+                int maxCellZ = region.maxZ() >> CELL_SHIFT;
+                long cellCount = ((long) maxCellX - minCellX + 1) * ((long) maxCellZ - minCellZ + 1);
+                if (cellCount > MAX_CELLS_PER_REGION) {
+                    largeRegions.add(portal);
+                    return;
+                }
+                for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                    for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                        cells.computeIfAbsent(cellKey(cellX, cellZ), k -> new ArrayList<>(1)).add(portal);
+                    }
+                }
+            }
+
+            private WorldIndex build() {
+                return new WorldIndex(boundaries.toArray(NO_PORTALS), largeRegions.toArray(NO_PORTALS), cells);
+            }
+        }
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
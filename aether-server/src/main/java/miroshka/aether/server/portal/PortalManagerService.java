@@ -1,11 +1,18 @@
 package miroshka.aether.server.portal;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import miroshka.aether.api.balancer.LoadBalancer;
 import miroshka.aether.api.portal.PortalManager;
 import miroshka.aether.common.protocol.TransferRequestPacket;
+import miroshka.aether.server.chunk.ChunkStreamingService;
 import miroshka.aether.server.network.NodeNetworkClient;
+import miroshka.aether.server.pdc.DistributedPDCService;
 import org.allaymc.api.entity.interfaces.EntityPlayer;
 import org.allaymc.api.eventbus.EventHandler;
 import org.allaymc.api.eventbus.event.player.PlayerMoveEvent;
+import org.allaymc.api.eventbus.event.player.PlayerQuitEvent;
 import org.allaymc.api.plugin.Plugin;
 import org.allaymc.api.server.Server;
 import org.slf4j.Logger;
@@ -21,6 +28,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
 
 public final class PortalManagerService implements PortalManager {
 
@@ -30,7 +38,12 @@ public final class PortalManagerService implements PortalManager {
     private final String serverName;
     private final Map<String, Portal> portals;
     private final Map<UUID, Long> lastTransferAttempt;
+    private volatile PortalIndex index;
     private PortalConfig portalConfig;
+    private volatile ChunkStreamingService chunkStreaming;
+    private volatile DistributedPDCService distributedPDC;
+    private volatile LoadBalancer loadBalancer;
+    private volatile PortalPredictor predictor;
 
     public PortalManagerService(Plugin plugin, NodeNetworkClient networkClient, String serverName) {
         Objects.requireNonNull(plugin, "plugin"); 
@@ -38,6 +51,35 @@ public final class PortalManagerService implements PortalManager {
         this.serverName = Objects.requireNonNull(serverName, "serverName");
         this.portals = new ConcurrentHashMap<>();
         this.lastTransferAttempt = new ConcurrentHashMap<>();
+        this.index = PortalIndex.EMPTY;
+    }
+
+    public void setChunkStreaming(ChunkStreamingService chunkStreaming) {
+        this.chunkStreaming = chunkStreaming;
+    }
+
+    public void setDistributedPDC(DistributedPDCService distributedPDC) {
+        this.distributedPDC = distributedPDC;
+    }
+
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        Objects.requireNonNull(registry, "registry");
+        FunctionCounter.builder("aether.portal.prediction.hits", this,
+                        service -> service.predictorValue(PortalPredictor::hits))
+                .description("Predicted portal crossings that the player completed")
+                .register(registry);
+        FunctionCounter.builder("aether.portal.prediction.misses", this,
+                        service -> service.predictorValue(PortalPredictor::misses))
+                .description("Predicted portal crossings that expired without a transfer")
+                .register(registry);
+        Gauge.builder("aether.portal.prediction.hit.rate", this,
+                        service -> service.predictorValue(PortalPredictor::hitRate))
+                .description("Share of predicted portal crossings that the player completed")
+                .register(registry);
     }
 
     public void loadFromConfig(Path dataFolder) {
@@ -48,6 +90,12 @@ public final class PortalManagerService implements PortalManager {
             return;
         }
 
+        PortalConfig.Prediction prediction = portalConfig.prediction();
+        predictor = prediction.enabled()
+                ? new PortalPredictor(prediction.horizonSeconds(), this::onCrossingPredicted,
+                        this::onPredictionExpired)
+                : null;
+
         portals.clear();
         for (PortalConfig.PortalDefinition def : portalConfig.portals()) {
             if (!def.enabled()) {
@@ -64,6 +112,7 @@ public final class PortalManagerService implements PortalManager {
             }
         }
 
+        rebuildIndex();
         syncPortals();
         LOGGER.info("Loaded {} portals from config", portals.size());
     }
@@ -137,6 +186,12 @@ public final class PortalManagerService implements PortalManager {
         var to = event.getTo();
         String worldName = event.getFrom().dimension().getWorld().getWorldData().getDisplayName();
 
+        PortalPredictor activePredictor = predictor;
+        if (activePredictor != null) {
+            activePredictor.observe(playerUuid, worldName, to.x(), to.y(), to.z(), System.nanoTime(),
+                    index.portals());
+        }
+
         findPortalAtLocation(worldName, to.x(), to.y(), to.z()).ifPresent(portal -> {
             long now = System.currentTimeMillis();
             long lastAttempt = lastTransferAttempt.getOrDefault(playerUuid, 0L);
@@ -144,6 +199,9 @@ public final class PortalManagerService implements PortalManager {
                 return;
             }
             lastTransferAttempt.put(playerUuid, now);
+            if (activePredictor != null) {
+                activePredictor.crossed(playerUuid, portal);
+            }
 
             LOGGER.info("Player {} entered portal '{}', transferring to {}",
                     player.getDisplayName(), portal.id(), portal.targetServer());
@@ -152,16 +210,71 @@ public final class PortalManagerService implements PortalManager {
         });
     }
 
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerUuid = event.getPlayer().getUniqueId();
+        lastTransferAttempt.remove(playerUuid);
+        flushPlayerData(playerUuid);
+    }
+
+    private void rebuildIndex() {
+        index = PortalIndex.build(portals.values(), serverName);
+    }
+
+    private void onCrossingPredicted(UUID playerUuid, Portal portal) {
+        ChunkStreamingService streaming = chunkStreaming;
+        if (streaming != null) {
+            streaming.preloadChunksForPlayer(playerUuid, portal.targetServer(),
+                    (int) portal.targetX(), (int) portal.targetZ());
+        }
+        LoadBalancer balancer = loadBalancer;
+        long reservation = portalConfig.prediction().reservationMillis();
+        if (balancer != null && reservation > 0) {
+            balancer.reserveSlot(portal.targetServer(), playerUuid, reservation);
+        }
+        LOGGER.debug("Predicted {} crossing portal '{}' to {}", playerUuid, portal.id(), portal.targetServer());
+    }
+
+    private void onPredictionExpired(UUID playerUuid, Portal portal) {
+        LoadBalancer balancer = loadBalancer;
+        if (balancer != null) {
+            balancer.releaseSlot(portal.targetServer(), playerUuid);
+        }
+    }
+
+    private CompletableFuture<Void> flushPlayerData(UUID playerUuid) {
+        DistributedPDCService pdc = distributedPDC;
+        return pdc != null ? pdc.flushAsync(playerUuid) : CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<TransferResult> sendTransfer(TransferRequestPacket packet, long startTime) {
+        return flushPlayerData(packet.playerUuid()).handle((ignored, error) -> {
+            if (error != null) {
+                LOGGER.warn("Transferring {} without a confirmed PDC flush: {}", packet.playerUuid(),
+                        error.getMessage());
+            }
+            networkClient.sendPacket(packet);
+            return TransferResult.success(System.currentTimeMillis() - startTime);
+        });
+    }
+
+    private double predictorValue(ToDoubleFunction<PortalPredictor> metric) {
+        PortalPredictor activePredictor = predictor;
+        return activePredictor != null ? metric.applyAsDouble(activePredictor) : 0.0;
+    }
+
     @Override
     public void registerPortal(Portal portal) {
         Objects.requireNonNull(portal, "portal");
         portals.put(portal.id(), portal);
+        rebuildIndex();
         syncPortals();
     }
 
     @Override
     public void unregisterPortal(String portalId) {
         if (portals.remove(portalId) != null) {
+            rebuildIndex();
             syncPortals();
         }
     }
@@ -193,10 +306,7 @@ public final class PortalManagerService implements PortalManager {
 
         TransferRequestPacket packet = new TransferRequestPacket(
                 playerUuid, "", serverName, targetServer, "direct", 0, 64, 0, seamless);
-        networkClient.sendPacket(packet);
-
-        long transferTime = System.currentTimeMillis() - startTime;
-        return CompletableFuture.completedFuture(TransferResult.success(transferTime));
+        return sendTransfer(packet, startTime);
     }
 
     @Override
@@ -209,10 +319,13 @@ public final class PortalManagerService implements PortalManager {
         TransferRequestPacket packet = new TransferRequestPacket(
                 playerUuid, "", serverName, portal.targetServer(), portal.id(),
                 (int) portal.targetX(), (int) portal.targetY(), (int) portal.targetZ(), portal.seamless());
-        networkClient.sendPacket(packet);
 
-        long transferTime = System.currentTimeMillis() - startTime;
-        return CompletableFuture.completedFuture(TransferResult.success(transferTime));
+        ChunkStreamingService streaming = chunkStreaming;
+        if (portal.seamless() && streaming != null) {
+            streaming.preloadChunksForPlayer(playerUuid, portal.targetServer(),
+                    (int) portal.targetX(), (int) portal.targetZ());
+        }
+        return sendTransfer(packet, startTime);
     }
 
     @Override
@@ -222,31 +335,8 @@ public final class PortalManagerService implements PortalManager {
 
     @Override
     public Optional<Portal> findPortalAtLocation(String world, double x, double y, double z) {
-        int ix = (int) Math.floor(x);
-        int iy = (int) Math.floor(y);
-        int iz = (int) Math.floor(z);
-
-        for (Portal portal : portals.values()) {
-            if (!serverName.equals(portal.sourceServer())) {
-                continue;
-            }
-            
-            if (!portal.world().equals(world)) {
-                continue;
-            }
-
-            if (portal.type() == PortalType.BOUNDARY && portal.boundary() != null) {
-                if (portal.boundary().contains(ix, iz)) {
-                    return Optional.of(portal);
-                }
-            } else if (portal.type() == PortalType.REGION && portal.region() != null) {
-                if (portal.region().contains(world, ix, iy, iz)) {
-                    return Optional.of(portal);
-                }
-            }
-        }
-
-        return Optional.empty();
+        return Optional.ofNullable(index.find(world, PortalIndex.blockCoord(x), PortalIndex.blockCoord(y),
+                PortalIndex.blockCoord(z)));
     }
 
     public void syncPortals() {
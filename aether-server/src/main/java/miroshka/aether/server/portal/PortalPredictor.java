@@ -0,0 +1,197 @@
+package miroshka.aether.server.portal;
+
+import miroshka.aether.api.portal.PortalManager.Portal;
+import miroshka.aether.api.portal.PortalManager.PortalType;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+final class PortalPredictor {
+
+    private static final double VELOCITY_SMOOTHING = 0.5;
+    private static final double MIN_SPEED = 0.1;
+    private static final long MAX_SAMPLE_GAP_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final double horizonSeconds;
+    private final BiConsumer<UUID, Portal> onPredicted;
+    private final BiConsumer<UUID, Portal> onExpired;
+    private final Map<UUID, Motion> motions;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private volatile long lastSweep;
+
+    PortalPredictor(double horizonSeconds, BiConsumer<UUID, Portal> onPredicted,
+            BiConsumer<UUID, Portal> onExpired) {
+        if (horizonSeconds <= 0) {
+            throw new IllegalArgumentException("horizonSeconds must be positive");
+        }
+        this.horizonSeconds = horizonSeconds;
+        this.onPredicted = Objects.requireNonNull(onPredicted, "onPredicted");
+        this.onExpired = Objects.requireNonNull(onExpired, "onExpired");
+        this.motions = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    void observe(UUID playerUuid, String world, double x, double y, double z, long nowNanos,
+            Collection<Portal> candidates) {
+        Motion motion = motions.computeIfAbsent(playerUuid, k -> new Motion());
+        motion.update(x, y, z, nowNanos);
+        sweep(nowNanos);
+
+        if (motion.predicted != null) {
+            if (nowNanos - motion.expiresAt < 0) {
+                return;
+            }
+            Portal expired = motion.predicted;
+            motion.predicted = null;
+            misses.increment();
+            onExpired.accept(playerUuid, expired);
+        }
+
+        if (!motion.hasVelocity()) {
+            return;
+        }
+
+        Portal nearest = null;
+        double nearestEta = horizonSeconds;
+        for (Portal portal : candidates) {
+            if (!portal.seamless() || !portal.world().equals(world)) {
+                continue;
+            }
+            double eta = timeToEnter(portal, x, y, z, motion.vx, motion.vy, motion.vz);
+            if (eta > 0.0 && eta <= nearestEta) {
+                nearest = portal;
+                nearestEta = eta;
+            }
+        }
+        if (nearest != null) {
+            motion.predicted = nearest;
+            motion.expiresAt = nowNanos + (long) (horizonSeconds * 2 * TimeUnit.SECONDS.toNanos(1));
+            onPredicted.accept(playerUuid, nearest);
+        }
+    }
+
+    boolean crossed(UUID playerUuid, Portal portal) {
+        Motion motion = motions.get(playerUuid);
+        Portal predicted = motion != null ? motion.predicted : null;
+        if (motion != null) {
+            motion.predicted = null;
+        }
+        if (predicted != null && predicted.id().equals(portal.id())) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        if (predicted != null) {
+            onExpired.accept(playerUuid, predicted);
+        }
+        return false;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    static double timeToEnter(Portal portal, double x, double y, double z, double vx, double vy, double vz) {
+        double[] window = {0.0, Double.POSITIVE_INFINITY};
+        if (portal.type() == PortalType.BOUNDARY && portal.boundary() != null) {
+            var boundary = portal.boundary();
+            if (!slab(window, x, vx, boundary.minX(), boundary.maxX())
+                    || !slab(window, z, vz, boundary.minZ(), boundary.maxZ())) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return window[0];
+        }
+        if (portal.type() == PortalType.REGION && portal.region() != null) {
+            var region = portal.region();
+            if (!slab(window, x, vx, region.minX(), region.maxX())
+                    || !slab(window, y, vy, region.minY(), region.maxY())
+                    || !slab(window, z, vz, region.minZ(), region.maxZ())) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return window[0];
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static boolean slab(double[] window, double position, double velocity, int min, int max) {
+        double low = min;
+        double high = (double) max + 1.0;
+        if (velocity == 0.0) {
+            return position >= low && position < high;
+        }
+        double t1 = (low - position) / velocity;
+        double t2 = (high - position) / velocity;
+        window[0] = Math.max(window[0], Math.min(t1, t2));
+        window[1] = Math.min(window[1], Math.max(t1, t2));
+        return window[0] <= window[1];
+    }
+
+    private void sweep(long nowNanos) {
+        if (nowNanos - lastSweep < SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        lastSweep = nowNanos;
+        motions.values().removeIf(motion -> nowNanos - motion.lastSample > IDLE_NANOS && motion.predicted == null);
+    }
+
+    private static final class Motion {
+
+        private double x;
+        private double y;
+        private double z;
+        private double vx;
+        private double vy;
+        private double vz;
+        private long lastSample;
+        private boolean sampled;
+        private Portal predicted;
+        private long expiresAt;
+
+        private void update(double newX, double newY, double newZ, long nowNanos) {
+            long elapsed = nowNanos - lastSample;
+            if (sampled && elapsed > 0 && elapsed <= MAX_SAMPLE_GAP_NANOS) {
+                double seconds = elapsed / 1_000_000_000.0;
+                vx = smooth(vx, (newX - x) / seconds);
+                vy = smooth(vy, (newY - y) / seconds);
+                vz = smooth(vz, (newZ - z) / seconds);
+            } else if (elapsed > MAX_SAMPLE_GAP_NANOS || !sampled) {
+                vx = 0.0;
+                vy = 0.0;
+                vz = 0.0;
+            }
+            x = newX;
+            y = newY;
+            z = newZ;
+            lastSample = nowNanos;
+            sampled = true;
+        }
+
+        private boolean hasVelocity() {
+            return vx * vx + vy * vy + vz * vz >= MIN_SPEED * MIN_SPEED;
+        }
+
+        private static double smooth(double current, double sample) {
+            return current + VELOCITY_SMOOTHING * (sample - current);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package miroshka.aether.server.state;
 
+import miroshka.aether.common.protocol.NetworkStateDeltaPacket;
 import miroshka.aether.common.protocol.NetworkStatePacket;
 import miroshka.aether.common.protocol.ServerInfo;
 
@@ -14,19 +15,33 @@ public final class NetworkStateCache {
     private final AtomicReference<NetworkStatePacket> cachedState;
     private final AtomicLong lastUpdateTimestamp;
     private final long staleThresholdMillis;
+    private volatile ServerIndex serverIndex;
 
     public NetworkStateCache(long staleThresholdMillis) {
         this.cachedState = new AtomicReference<>();
         this.lastUpdateTimestamp = new AtomicLong(0);
         this.staleThresholdMillis = staleThresholdMillis;
+        this.serverIndex = ServerIndex.EMPTY;
     }
 
     public void update(NetworkStatePacket state) {
         Objects.requireNonNull(state, "state");
+        serverIndex = ServerIndex.of(state.servers());
         cachedState.set(state);
         lastUpdateTimestamp.set(System.currentTimeMillis());
     }
 
+    public Optional<NetworkStatePacket> applyDelta(NetworkStateDeltaPacket delta) {
+        Objects.requireNonNull(delta, "delta");
+        NetworkStatePacket current = cachedState.get();
+        if (current == null || current.stateVersion() != delta.baseVersion()) {
+            return Optional.empty();
+        }
+        NetworkStatePacket updated = delta.applyTo(current);
+        update(updated);
+        return Optional.of(updated);
+    }
+
     public int getGlobalOnline() {
         NetworkStatePacket state = cachedState.get();
         return state != null ? state.globalOnline() : 0;
@@ -73,21 +88,35 @@ public final class NetworkStateCache {
         return state != null ? state.servers() : List.of();
     }
 
+    public ServerIndex getServerIndex() {
+        return serverIndex;
+    }
+
     public Optional<ServerInfo> getServer(String name) {
-        return getServers().stream()
-                .filter(s -> s.name().equalsIgnoreCase(name))
-                .findFirst();
+        return serverIndex.find(name);
     }
 
     public int getServerOnline(String name) {
-        return getServer(name).map(ServerInfo::onlinePlayers).orElse(0);
+        ServerIndex index = serverIndex;
+        int i = index.indexOf(name);
+        return i >= 0 ? index.onlinePlayers(i) : 0;
     }
 
     public int getServerMaxPlayers(String name) {
-        return getServer(name).map(ServerInfo::maxPlayers).orElse(0);
+        ServerIndex index = serverIndex;
+        int i = index.indexOf(name);
+        return i >= 0 ? index.maxPlayers(i) : 0;
     }
 
     public double getServerTps(String name) {
-        return getServer(name).map(ServerInfo::tps).orElse(0.0);
+        ServerIndex index = serverIndex;
+        int i = index.indexOf(name);
+        return i >= 0 ? index.tps(i) : 0.0;
+    }
+
+    public boolean isServerOnline(String name) {
+        ServerIndex index = serverIndex;
+        int i = index.indexOf(name);
+        return i >= 0 && index.isOnline(i, System.currentTimeMillis());
     }
 }
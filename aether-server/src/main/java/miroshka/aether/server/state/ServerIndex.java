@@ -0,0 +1,139 @@
+package miroshka.aether.server.state;
+
+import miroshka.aether.common.protocol.ProtocolConstants;
+import miroshka.aether.common.protocol.ServerInfo;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+public final class ServerIndex {
+
+    public static final ServerIndex EMPTY = new ServerIndex(List.of());
+
+    private final ServerInfo[] servers;
+    private final String[] names;
+    private final int[] onlinePlayers;
+    private final int[] maxPlayers;
+    private final double[] tps;
+    private final long[] lastUpdateTimestamps;
+    private final int[] slots;
+    private final int mask;
+    private final int totalMaxPlayers;
+    private final List<String> serverNames;
+
+    private ServerIndex(List<ServerInfo> source) {
+        int size = source.size();
+        this.servers = source.toArray(new ServerInfo[0]);
+        this.names = new String[size];
+        this.onlinePlayers = new int[size];
+        this.maxPlayers = new int[size];
+        this.tps = new double[size];
+        this.lastUpdateTimestamps = new long[size];
+
+        int capacity = Integer.highestOneBit(Math.max(4, size * 2 - 1)) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+
+        int maxTotal = 0;
+        for (int i = 0; i < size; i++) {
+            ServerInfo server = servers[i];
+            names[i] = server.name();
+            onlinePlayers[i] = server.onlinePlayers();
+            maxPlayers[i] = server.maxPlayers();
+            tps[i] = server.tps();
+            lastUpdateTimestamps[i] = server.lastUpdateTimestamp();
+            maxTotal += server.maxPlayers();
+            insert(i);
+        }
+        this.totalMaxPlayers = maxTotal;
+        this.serverNames = List.of(names);
+    }
+
+    public static ServerIndex of(List<ServerInfo> servers) {
+        Objects.requireNonNull(servers, "servers");
+        return servers.isEmpty() ? EMPTY : new ServerIndex(servers);
+    }
+
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int slot = foldedHash(name) & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (names[index].equalsIgnoreCase(name)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public Optional<ServerInfo> find(String name) {
+        int index = indexOf(name);
+        return index >= 0 ? Optional.of(servers[index]) : Optional.empty();
+    }
+
+    public int size() {
+        return servers.length;
+    }
+
+    public ServerInfo server(int index) {
+        return servers[index];
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public int onlinePlayers(int index) {
+        return onlinePlayers[index];
+    }
+
+    public int maxPlayers(int index) {
+        return maxPlayers[index];
+    }
+
+    public double tps(int index) {
+        return tps[index];
+    }
+
+    public long lastUpdateTimestamp(int index) {
+        return lastUpdateTimestamps[index];
+    }
+
+    public boolean isOnline(int index, long nowMillis) {
+        return nowMillis - lastUpdateTimestamps[index] < ProtocolConstants.HEARTBEAT_TIMEOUT_MILLIS;
+    }
+
+    public int totalMaxPlayers() {
+        return totalMaxPlayers;
+    }
+
+    public List<String> serverNames() {
+        return serverNames;
+    }
+
+    private void insert(int index) {
+        int slot = foldedHash(names[index]) & mask;
+        while (slots[slot] != 0) {
+            if (names[slots[slot] - 1].equalsIgnoreCase(names[index])) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    private static int foldedHash(String name) {
+        int hash = 0;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
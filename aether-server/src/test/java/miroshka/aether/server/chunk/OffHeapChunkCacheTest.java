@@ -0,0 +1,64 @@
+package miroshka.aether.server.chunk;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapChunkCacheTest {
+
+    private final OffHeapChunkCache cache = new OffHeapChunkCache(UnpooledByteBufAllocator.DEFAULT, 64);
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void testSameChunkFromDifferentServersAndWorldsIsKeptApart() {
+        long chunk = ChunkStreamingService.chunkKey(3, -4);
+        ChunkCacheKey lobby = new ChunkCacheKey("lobby", "world", chunk);
+        ChunkCacheKey survival = new ChunkCacheKey("survival", "world", chunk);
+        ChunkCacheKey nether = new ChunkCacheKey("survival", "nether", chunk);
+
+        cache.put(lobby, new byte[] {1});
+        cache.put(survival, new byte[] {2});
+        cache.put(nether, new byte[] {3});
+
+        assertArrayEquals(new byte[] {1}, cache.get(lobby));
+        assertArrayEquals(new byte[] {2}, cache.get(survival));
+        assertArrayEquals(new byte[] {3}, cache.get(nether));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedChunkIsEvictedOverBudget() {
+        ChunkCacheKey first = new ChunkCacheKey("lobby", "world", ChunkStreamingService.chunkKey(0, 0));
+        ChunkCacheKey second = new ChunkCacheKey("lobby", "world", ChunkStreamingService.chunkKey(0, 1));
+        ChunkCacheKey third = new ChunkCacheKey("lobby", "world", ChunkStreamingService.chunkKey(0, 2));
+
+        cache.put(first, new byte[24]);
+        cache.put(second, new byte[24]);
+        cache.get(first);
+        cache.put(third, new byte[24]);
+
+        assertTrue(cache.contains(first));
+        assertFalse(cache.contains(second));
+        assertTrue(cache.contains(third));
+        assertEquals(48, cache.usedBytes());
+    }
+
+    @Test
+    void testRemoveIfMatchesAcrossServers() {
+        cache.put(new ChunkCacheKey("lobby", "world", ChunkStreamingService.chunkKey(1, 1)), new byte[4]);
+        cache.put(new ChunkCacheKey("survival", "world", ChunkStreamingService.chunkKey(1, 1)), new byte[4]);
+        cache.put(new ChunkCacheKey("survival", "world", ChunkStreamingService.chunkKey(9, 9)), new byte[4]);
+
+        cache.removeIf(key -> key.chunkX() == 1 && key.chunkZ() == 1);
+
+        assertEquals(1, cache.size());
+        assertEquals(4, cache.usedBytes());
+        assertNotNull(cache.find(key -> key.chunkX() == 9));
+    }
+}
@@ -0,0 +1,27 @@
+package miroshka.aether.server.network;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import miroshka.aether.common.protocol.AuthHandshakePacket;
+import miroshka.aether.common.protocol.AuthResultPacket;
+import miroshka.aether.common.protocol.ProtocolConstants;
+import miroshka.aether.server.config.NodeConfig;
+import miroshka.aether.server.state.NetworkStateCache;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class NodeConnections {
+
+    private NodeConnections() {
+    }
+
+    public static EmbeddedChannel connect(NodeNetworkClient client, NetworkStateCache stateCache) {
+        NodePacketHandler handler = new NodePacketHandler(NodeConfig.defaults(), stateCache);
+        EmbeddedChannel connected = new EmbeddedChannel(handler);
+        assertInstanceOf(AuthHandshakePacket.class, connected.readOutbound());
+        connected.writeInbound(AuthResultPacket.success(ProtocolConstants.PROTOCOL_VERSION, Map.of()));
+        client.attach(connected, handler);
+        return connected;
+    }
+}
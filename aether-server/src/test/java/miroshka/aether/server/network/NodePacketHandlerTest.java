@@ -0,0 +1,49 @@
+package miroshka.aether.server.network;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import miroshka.aether.common.protocol.AuthHandshakePacket;
+import miroshka.aether.common.protocol.NetworkStateDeltaPacket;
+import miroshka.aether.common.protocol.NetworkStatePacket;
+import miroshka.aether.common.protocol.StateResyncRequestPacket;
+import miroshka.aether.server.config.NodeConfig;
+import miroshka.aether.server.state.NetworkStateCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodePacketHandlerTest {
+
+    @Test
+    void testVersionGapRequestsSingleResync() {
+        NetworkStateCache cache = new NetworkStateCache(10_000);
+        EmbeddedChannel channel = new EmbeddedChannel(new NodePacketHandler(NodeConfig.defaults(), cache));
+        assertInstanceOf(AuthHandshakePacket.class, channel.readOutbound());
+
+        channel.writeInbound(state(1, 10));
+        channel.writeInbound(NetworkStateDeltaPacket.between(state(1, 10), state(2, 11), 5000, 0.5));
+        assertEquals(2, cache.getStateVersion());
+        assertNull(channel.readOutbound());
+
+        channel.writeInbound(NetworkStateDeltaPacket.between(state(4, 12), state(5, 13), 5000, 0.5));
+        channel.writeInbound(NetworkStateDeltaPacket.between(state(5, 13), state(6, 14), 5000, 0.5));
+
+        StateResyncRequestPacket request = assertInstanceOf(StateResyncRequestPacket.class, channel.readOutbound());
+        assertEquals(2, request.knownVersion());
+        assertEquals(4, request.receivedBaseVersion());
+        assertNull(channel.readOutbound());
+        assertEquals(2, cache.getStateVersion());
+
+        channel.writeInbound(state(6, 14));
+        assertEquals(6, cache.getStateVersion());
+        channel.writeInbound(NetworkStateDeltaPacket.between(state(8, 15), state(9, 16), 5000, 0.5));
+        assertInstanceOf(StateResyncRequestPacket.class, channel.readOutbound());
+
+        channel.finishAndReleaseAll();
+    }
+
+    private static NetworkStatePacket state(long version, int online) {
+        return new NetworkStatePacket(online, 0, version, 10, Map.of("online", String.valueOf(online)), Map.of());
+    }
+}
@@ -0,0 +1,245 @@
+package miroshka.aether.server.pdc;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import miroshka.aether.api.pdc.DistributedPDC;
+import miroshka.aether.common.protocol.PDCSyncPacket;
+import miroshka.aether.common.protocol.PDCVersion;
+import miroshka.aether.server.config.NodeConfig;
+import miroshka.aether.server.config.PDCSettings;
+import miroshka.aether.server.network.NodeConnections;
+import miroshka.aether.server.network.NodeNetworkClient;
+import miroshka.aether.server.state.NetworkStateCache;
+import miroshka.aether.server.state.SnapshotCollector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistributedPDCServiceTest {
+
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    private NetworkStateCache stateCache;
+    private NodeNetworkClient client;
+    private EmbeddedChannel channel;
+    private DistributedPDCService service;
+
+    @BeforeEach
+    void setUp() {
+        stateCache = new NetworkStateCache(10_000);
+        client = new NodeNetworkClient(NodeConfig.defaults(), stateCache,
+                new SnapshotCollector(() -> 0, () -> 20, () -> 20.0));
+        channel = NodeConnections.connect(client, stateCache);
+        service = new DistributedPDCService(client, "lobby", new PDCSettings(0, 1024 * 1024, false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testLoadCompletesOnMatchingResponse() {
+        CompletableFuture<Void> future = service.load(PLAYER);
+        PDCSyncPacket request = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        assertEquals(PDCSyncPacket.SyncOperation.REQUEST, request.operation());
+        assertTrue(request.isResponse());
+
+        assertSame(future, service.load(PLAYER));
+        assertNull(channel.readOutbound());
+
+        service.handleIncomingSync(response(request.requestId() + 1));
+        assertFalse(future.isDone());
+
+        service.handleIncomingSync(response(request.requestId()));
+        assertTrue(future.isDone());
+        assertFalse(future.isCompletedExceptionally());
+        assertArrayEquals(new byte[]{7}, service.getAll(PLAYER).get("level"));
+    }
+
+    @Test
+    void testSyncCompletesOnAck() {
+        service.set(PLAYER, "level", 3, DistributedPDC.Serializers.INTEGER);
+        assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+
+        CompletableFuture<Void> future = service.sync(PLAYER);
+        PDCSyncPacket fullSync = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        assertEquals(PDCSyncPacket.SyncOperation.FULL_SYNC, fullSync.operation());
+        assertFalse(future.isDone());
+
+        service.handleIncomingSync(PDCSyncPacket.ack(PLAYER, "aether-master", fullSync.version(),
+                fullSync.requestId()));
+        assertTrue(future.isDone());
+        assertFalse(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void testRequestIdsAreUnique() {
+        service.loadAll(List.of(PLAYER, UUID.randomUUID()));
+        PDCSyncPacket first = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        PDCSyncPacket second = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        assertNotEquals(first.requestId(), second.requestId());
+    }
+
+    @Test
+    void testLoadTimesOutAndCanBeRetried() {
+        DistributedPDCService impatient = new DistributedPDCService(client, "lobby",
+                new PDCSettings(0, 1024 * 1024, false), 50);
+        try {
+            CompletableFuture<Void> future = impatient.load(PLAYER);
+            PDCSyncPacket request = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> future.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, error.getCause());
+
+            impatient.handleIncomingSync(response(request.requestId()));
+
+            assertNotSame(future, impatient.load(PLAYER));
+            PDCSyncPacket retried = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+            assertNotEquals(request.requestId(), retried.requestId());
+        } finally {
+            impatient.close();
+        }
+    }
+
+    @Test
+    void testLoadFailsWhenDisconnected() {
+        channel.close();
+
+        CompletableFuture<Void> future = service.load(PLAYER);
+        ExecutionException error = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void testFailedUpdateStaysDirtyAndIsRetried() {
+        channel.close();
+        service.set(PLAYER, "level", 3, DistributedPDC.Serializers.INTEGER);
+        service.remove(PLAYER, "rank");
+
+        channel.finishAndReleaseAll();
+        channel = NodeConnections.connect(client, stateCache);
+        service.flush(PLAYER);
+
+        PDCSyncPacket first = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        PDCSyncPacket second = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        assertNull(channel.readOutbound());
+        PDCSyncPacket update = first.operation() == PDCSyncPacket.SyncOperation.PARTIAL_UPDATE ? first : second;
+        PDCSyncPacket delete = update == first ? second : first;
+        assertEquals(PDCSyncPacket.SyncOperation.PARTIAL_UPDATE, update.operation());
+        assertEquals(Set.of("level"), update.data().keySet());
+        assertEquals(PDCSyncPacket.SyncOperation.DELETE, delete.operation());
+        assertEquals(Set.of("rank"), delete.data().keySet());
+
+        service.flush(PLAYER);
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    void testFlushAsyncFailsWhileDisconnected() {
+        DistributedPDCService buffered = new DistributedPDCService(client, "lobby",
+                new PDCSettings(60_000, 1024 * 1024, false));
+        try {
+            buffered.set(PLAYER, "level", 3, DistributedPDC.Serializers.INTEGER);
+            channel.close();
+
+            CompletableFuture<Void> flushed = buffered.flushAsync(PLAYER);
+            assertTrue(flushed.isCompletedExceptionally());
+        } finally {
+            buffered.close();
+        }
+    }
+
+    @Test
+    void testRemoteUpdateReplacesCleanLocalValue() {
+        service.set(PLAYER, "level", 3, DistributedPDC.Serializers.INTEGER);
+        PDCSyncPacket sent = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        PDCVersion local = sent.versionOf("level");
+
+        service.handleIncomingSync(update("level", new byte[]{9}, new PDCVersion(local.clock() + 1, "survival"), local));
+
+        assertArrayEquals(new byte[]{9}, service.getAll(PLAYER).get("level"));
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    void testStaleRemoteUpdateIsIgnored() {
+        service.set(PLAYER, "level", 3, DistributedPDC.Serializers.INTEGER);
+        PDCSyncPacket sent = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        PDCVersion local = sent.versionOf("level");
+
+        service.handleIncomingSync(update("level", new byte[]{9}, new PDCVersion(local.clock() - 1, "survival"),
+                PDCVersion.NONE));
+
+        assertArrayEquals(sent.data().get("level"), service.getAll(PLAYER).get("level"));
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    void testConcurrentUpdateIsMergedByResolver() {
+        service.setConflictResolver((key, local, remote, localVersion, remoteVersion) -> {
+            byte[] merged = new byte[local.length + remote.length];
+            System.arraycopy(local, 0, merged, 0, local.length);
+            System.arraycopy(remote, 0, merged, local.length, remote.length);
+            return merged;
+        });
+        service.set(PLAYER, "tags", "a", DistributedPDC.Serializers.STRING);
+        PDCSyncPacket sent = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        PDCVersion remote = new PDCVersion(sent.versionOf("tags").clock() + (1L << 20), "survival");
+
+        service.handleIncomingSync(update("tags", "b".getBytes(StandardCharsets.UTF_8), remote, PDCVersion.NONE));
+
+        PDCSyncPacket merged = assertInstanceOf(PDCSyncPacket.class, channel.readOutbound());
+        assertEquals("ab", new String(merged.data().get("tags"), StandardCharsets.UTF_8));
+        assertTrue(merged.versionOf("tags").compareTo(remote) > 0);
+        assertEquals(remote, merged.baseOf("tags"));
+        assertEquals("ab", new String(service.getAll(PLAYER).get("tags"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testEvictionSkipsOnlinePlayers() throws InterruptedException {
+        DistributedPDCService small = new DistributedPDCService(client, "lobby", new PDCSettings(0, 1024, false));
+        try {
+            UUID offline = UUID.randomUUID();
+            small.markOnline(PLAYER);
+            small.set(PLAYER, "blob", new byte[600], DistributedPDC.Serializers.BYTES);
+            small.set(offline, "blob", new byte[600], DistributedPDC.Serializers.BYTES);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (small.cachedPlayers() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, small.cachedPlayers());
+            assertTrue(small.has(PLAYER, "blob"));
+            assertFalse(small.has(offline, "blob"));
+            assertTrue(small.cacheBytes() <= 1024);
+        } finally {
+            small.close();
+        }
+    }
+
+    private static PDCSyncPacket update(String key, byte[] value, PDCVersion version, PDCVersion base) {
+        return PDCSyncPacket.partialUpdate(PLAYER, "survival", Map.of(key, value), Map.of(key, version),
+                Map.of(key, base));
+    }
+
+    private static PDCSyncPacket response(long requestId) {
+        PDCVersion version = new PDCVersion(1, "aether-master");
+        return PDCSyncPacket.fullSync(PLAYER, "aether-master", Map.of("level", new byte[]{7}),
+                Map.of("level", version), Map.of("level", version), requestId);
+    }
+}
@@ -0,0 +1,132 @@
+package miroshka.aether.server.pdc;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import miroshka.aether.api.pdc.DistributedPDC;
+import miroshka.aether.common.protocol.PDCVersion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerDataCacheTest {
+
+    private static final long OVERHEAD = 96;
+
+    @Test
+    void testUsageTracksWritesOverwritesAndRelease() {
+        AtomicLong usage = new AtomicLong();
+        PlayerDataCache first = new PlayerDataCache(null, usage);
+        PlayerDataCache second = new PlayerDataCache(null, usage);
+
+        first.write("a", new byte[10], version(1));
+        assertEquals(OVERHEAD + 2 + 10, usage.get());
+
+        first.write("a", new byte[20], version(2));
+        second.write("bb", new byte[5], version(3));
+        assertEquals(OVERHEAD + 2 + 20 + OVERHEAD + 4 + 5, usage.get());
+
+        first.write("a", null, version(4));
+        assertEquals(OVERHEAD + 2 + OVERHEAD + 4 + 5, usage.get());
+
+        first.release();
+        assertEquals(OVERHEAD + 4 + 5, usage.get());
+        second.release();
+        assertEquals(0, usage.get());
+    }
+
+    @Test
+    void testOffHeapValuesAreAccountedAndReadable() {
+        AtomicLong usage = new AtomicLong();
+        PlayerDataCache cache = new PlayerDataCache(UnpooledByteBufAllocator.DEFAULT, usage);
+
+        cache.write("name", bytes("Steve"), version(1));
+
+        assertEquals(OVERHEAD + 8 + 5, usage.get());
+        assertEquals("Steve", cache.decode("name", DistributedPDC.Serializers.STRING));
+        assertArrayEquals(bytes("Steve"), cache.getAll().get("name"));
+        cache.release();
+        assertEquals(0, usage.get());
+    }
+
+    @Test
+    void testEvictRefusesDirtyEntries() {
+        AtomicLong usage = new AtomicLong();
+        PlayerDataCache cache = new PlayerDataCache(null, usage);
+        PlayerDataCache.VersionedValue written = cache.write("a", bytes("x"), version(1));
+
+        assertFalse(cache.evict());
+        assertFalse(cache.isEvicted());
+
+        cache.markClean("a", written);
+        assertTrue(cache.evict());
+        assertTrue(cache.isEvicted());
+        assertEquals(0, usage.get());
+        assertNull(cache.write("a", bytes("y"), version(2)));
+        cache.put("a", new PlayerDataCache.VersionedValue(bytes("z"), version(3), PDCVersion.NONE, false));
+        assertNull(cache.entry("a"));
+        assertEquals(0, usage.get());
+    }
+
+    @Test
+    void testMarkCleanIgnoresSupersededWrite() {
+        PlayerDataCache cache = new PlayerDataCache(null, new AtomicLong());
+        PlayerDataCache.VersionedValue first = cache.write("a", bytes("x"), version(1));
+        cache.write("a", bytes("y"), version(2));
+
+        cache.markClean("a", first);
+
+        PlayerDataCache.VersionedValue entry = cache.entry("a");
+        assertTrue(entry.dirty());
+        assertEquals(PDCVersion.NONE, entry.base());
+        assertFalse(cache.evict());
+    }
+
+    @Test
+    void testDecodeDeserializesOnEveryRead() {
+        PlayerDataCache cache = new PlayerDataCache(UnpooledByteBufAllocator.DEFAULT, new AtomicLong());
+        AtomicInteger decodes = new AtomicInteger();
+        DistributedPDC.PDCSerializer<String> counting = new DistributedPDC.PDCSerializer<>() {
+            @Override
+            public byte[] serialize(String value) {
+                return bytes(value);
+            }
+
+            @Override
+            public String deserialize(byte[] data) {
+                decodes.incrementAndGet();
+                return new String(data, StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public Class<String> getType() {
+                return String.class;
+            }
+        };
+
+        cache.write("rank", bytes("vip"), version(1));
+        assertEquals("vip", cache.decode("rank", counting));
+        assertEquals("vip", cache.decode("rank", counting));
+        assertEquals(2, decodes.get());
+
+        cache.write("rank", bytes("mvp"), version(2));
+        assertEquals("mvp", cache.decode("rank", counting));
+        assertEquals(3, decodes.get());
+
+        byte[] raw = cache.decode("rank", DistributedPDC.Serializers.BYTES);
+        assertNotSame(raw, cache.decode("rank", DistributedPDC.Serializers.BYTES));
+        cache.write("rank", null, version(3));
+        assertNull(cache.decode("rank", counting));
+        cache.release();
+    }
+
+    private static PDCVersion version(long clock) {
+        return new PDCVersion(clock, "lobby");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
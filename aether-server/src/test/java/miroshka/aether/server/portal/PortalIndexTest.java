@@ -0,0 +1,100 @@
+package miroshka.aether.server.portal;
+
+import miroshka.aether.api.portal.PortalManager.Portal;
+import miroshka.aether.api.portal.PortalManager.PortalType;
+import miroshka.aether.api.portal.PortalManager.RegionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortalIndexTest {
+
+    @Test
+    void testRegionsAreFoundThroughTheCellGrid() {
+        Portal gate = region("gate", "world", 10, 60, 10, 40, 70, 20);
+        PortalIndex index = PortalIndex.build(List.of(gate), "lobby");
+
+        assertSame(gate, index.find("world", 10, 60, 10));
+        assertSame(gate, index.find("world", 40, 70, 20));
+        assertSame(gate, index.find("world", 33, 65, 17));
+        assertNull(index.find("world", 41, 65, 15));
+        assertNull(index.find("world", 20, 71, 15));
+        assertNull(index.find("world", 20, 65, 9));
+    }
+
+    @Test
+    void testNegativeCoordinatesUseFlooredCells() {
+        Portal gate = region("gate", "world", -17, 0, -1, -16, 10, -1);
+        PortalIndex index = PortalIndex.build(List.of(gate), "lobby");
+
+        assertEquals(-17, PortalIndex.blockCoord(-16.5));
+        assertEquals(-1, PortalIndex.blockCoord(-0.25));
+        assertEquals(0, PortalIndex.blockCoord(0.75));
+        assertEquals(-16, PortalIndex.blockCoord(-16.0));
+
+        assertSame(gate, index.find("world", PortalIndex.blockCoord(-16.5), 5, PortalIndex.blockCoord(-0.25)));
+        assertSame(gate, index.find("world", -16, 5, -1));
+        assertNull(index.find("world", -15, 5, -1));
+        assertNull(index.find("world", -16, 5, 0));
+    }
+
+    @Test
+    void testLargeRegionsAndBoundariesFallBack() {
+        Portal large = region("large", "world", -10_000, 0, -10_000, 10_000, 255, 10_000);
+        Portal border = Portal.boundary("border", "lobby", "survival", "world",
+                Integer.MIN_VALUE, Integer.MAX_VALUE, 20_000, Integer.MAX_VALUE, true);
+        PortalIndex index = PortalIndex.build(List.of(large, border), "lobby");
+
+        assertSame(large, index.find("world", 9_999, 100, -9_999));
+        assertSame(border, index.find("world", Integer.MIN_VALUE, 100, 25_000));
+        assertNull(index.find("world", 15_000, 100, 0));
+    }
+
+    @Test
+    void testCellRegionsWinOverLargeRegionsAndBoundaries() {
+        Portal border = Portal.boundary("border", "lobby", "survival", "world", -100, 100, -100, 100, true);
+        Portal large = region("large", "world", -10_000, 0, -10_000, 10_000, 255, 10_000);
+        Portal small = region("small", "world", 0, 0, 0, 5, 10, 5);
+        PortalIndex index = PortalIndex.build(List.of(border, large, small), "lobby");
+
+        assertSame(small, index.find("world", 3, 5, 3));
+        assertSame(large, index.find("world", 50, 5, 50));
+        assertSame(border, index.find("world", 50, 300, 50));
+    }
+
+    @Test
+    void testWorldsAreSeparated() {
+        Portal overworld = region("overworld", "world", 0, 0, 0, 5, 10, 5);
+        Portal nether = region("nether", "world_nether", 0, 0, 0, 5, 10, 5);
+        PortalIndex index = PortalIndex.build(List.of(overworld, nether), "lobby");
+
+        assertSame(overworld, index.find("world", 1, 1, 1));
+        assertSame(nether, index.find("world_nether", 1, 1, 1));
+        assertNull(index.find("world_the_end", 1, 1, 1));
+    }
+
+    @Test
+    void testRegionWorldMustMatch() {
+        Portal mismatched = new Portal("mismatched", "lobby", "survival", "world", PortalType.REGION, null,
+                new RegionConfig("world_nether", 0, 0, 0, 5, 10, 5), true, 0, 0, 0);
+        PortalIndex index = PortalIndex.build(List.of(mismatched), "lobby");
+
+        assertEquals(List.of(mismatched), index.portals());
+        assertNull(index.find("world", 1, 1, 1));
+    }
+
+    @Test
+    void testOnlyLocalPortalsAreIndexed() {
+        Portal remote = Portal.region("remote", "survival", "lobby", "world", 0, 0, 0, 5, 10, 5, 0, 0, 0, true);
+
+        assertSame(PortalIndex.EMPTY, PortalIndex.build(List.of(remote), "lobby"));
+        assertNull(PortalIndex.EMPTY.find("world", 1, 1, 1));
+    }
+
+    private static Portal region(String id, String world, int minX, int minY, int minZ, int maxX, int maxY,
+            int maxZ) {
+        return Portal.region(id, "lobby", "survival", world, minX, minY, minZ, maxX, maxY, maxZ, 0, 64, 0, true);
+    }
+}
@@ -0,0 +1,125 @@
+package miroshka.aether.server.portal;
+
+import miroshka.aether.api.portal.PortalManager.Portal;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortalPredictorTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Portal GATE = Portal.region("gate", "lobby", "survival", "world",
+            10, 60, 0, 12, 70, 2, 0, 64, 0, true);
+    private static final Portal DOOR = Portal.region("door", "lobby", "creative", "world",
+            -12, 60, 0, -10, 70, 2, 0, 64, 0, true);
+
+    private final List<Portal> predicted = new ArrayList<>();
+    private final List<Portal> expired = new ArrayList<>();
+    private final PortalPredictor predictor = new PortalPredictor(2.0, (uuid, portal) -> predicted.add(portal),
+            (uuid, portal) -> expired.add(portal));
+
+    @Test
+    void testTimeToEnterRegion() {
+        assertEquals(2.0, PortalPredictor.timeToEnter(GATE, 0, 64, 1, 5, 0, 0), 1e-9);
+        assertEquals(0.0, PortalPredictor.timeToEnter(GATE, 11, 64, 1, 5, 0, 0), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, PortalPredictor.timeToEnter(GATE, 0, 64, 1, -5, 0, 0));
+        assertEquals(Double.POSITIVE_INFINITY, PortalPredictor.timeToEnter(GATE, 0, 80, 1, 5, 0, 0));
+        assertEquals(Double.POSITIVE_INFINITY, PortalPredictor.timeToEnter(GATE, 0, 64, 10, 5, 0, 0));
+    }
+
+    @Test
+    void testTimeToEnterBoundaryAtIntegerLimits() {
+        Portal strip = Portal.boundary("strip", "lobby", "survival", "world",
+                Integer.MIN_VALUE, Integer.MAX_VALUE, 100, 110, true);
+        Portal edge = Portal.boundary("edge", "lobby", "survival", "world",
+                Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+
+        assertEquals(2.0, PortalPredictor.timeToEnter(strip, 0, 64, 90, 0, 0, 5), 1e-9);
+        assertEquals(2.0, PortalPredictor.timeToEnter(strip, Integer.MAX_VALUE + 0.5, 64, 90, 0, 0, 5), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, PortalPredictor.timeToEnter(strip, 0, 64, 90, 5, 0, 0));
+        assertEquals(1.0, PortalPredictor.timeToEnter(edge, Integer.MAX_VALUE - 11.0, 64, 0, 10, 0, 0), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY,
+                PortalPredictor.timeToEnter(edge, Integer.MAX_VALUE - 11.0, 64, 0, -10, 0, 0));
+    }
+
+    @Test
+    void testVelocityIsSmoothedAcrossSamples() {
+        UUID player = UUID.randomUUID();
+
+        predictor.observe(player, "world", 0, 64, 1, 0, List.of(GATE));
+        predictor.observe(player, "world", 2.5, 64, 1, 500 * MILLIS, List.of(GATE));
+        assertTrue(predicted.isEmpty());
+
+        predictor.observe(player, "world", 5.0, 64, 1, 1000 * MILLIS, List.of(GATE));
+        assertEquals(List.of(GATE), predicted);
+    }
+
+    @Test
+    void testSampleGapResetsVelocity() {
+        UUID player = UUID.randomUUID();
+
+        predictor.observe(player, "world", 0, 64, 1, 0, List.of(GATE));
+        predictor.observe(player, "world", 2.5, 64, 1, 500 * MILLIS, List.of(GATE));
+        predictor.observe(player, "world", 8.0, 64, 1, 2000 * MILLIS, List.of(GATE));
+        assertTrue(predicted.isEmpty());
+
+        predictor.observe(player, "world", 9.0, 64, 1, 2500 * MILLIS, List.of(GATE));
+        assertEquals(List.of(GATE), predicted);
+    }
+
+    @Test
+    void testIgnoresOtherWorldsAndSeamlessOff() {
+        UUID player = UUID.randomUUID();
+        Portal manual = Portal.region("manual", "lobby", "survival", "world",
+                10, 60, 0, 12, 70, 2, 0, 64, 0, false);
+
+        predictor.observe(player, "nether", 0, 64, 1, 0, List.of(GATE, manual));
+        predictor.observe(player, "nether", 5, 64, 1, 500 * MILLIS, List.of(GATE, manual));
+        predictor.observe(player, "nether", 10, 64, 1, 1000 * MILLIS, List.of(GATE, manual));
+
+        assertTrue(predicted.isEmpty());
+    }
+
+    @Test
+    void testHitMissAndExpiryAccounting() {
+        UUID player = UUID.randomUUID();
+        moveTowardsGate(player, 0);
+        assertTrue(predictor.crossed(player, GATE));
+
+        moveTowardsGate(player, 5000 * MILLIS);
+        assertFalse(predictor.crossed(player, DOOR));
+        assertEquals(List.of(GATE), expired);
+
+        assertFalse(predictor.crossed(player, GATE));
+        assertEquals(1, expired.size());
+
+        long start = 10_000 * MILLIS;
+        moveTowardsGate(player, start);
+        predictor.observe(player, "world", 5.0, 64, 1, start + 3000 * MILLIS, List.of());
+        assertEquals(1, expired.size());
+        predictor.observe(player, "world", 5.0, 64, 1, start + 5000 * MILLIS, List.of());
+        assertEquals(List.of(GATE, GATE), expired);
+
+        assertEquals(1, predictor.hits());
+        assertEquals(3, predictor.misses());
+        assertEquals(0.25, predictor.hitRate(), 1e-9);
+    }
+
+    @Test
+    void testHitRateWithoutSamplesIsZero() {
+        assertEquals(0.0, predictor.hitRate());
+    }
+
+    private void moveTowardsGate(UUID player, long startNanos) {
+        int before = predicted.size();
+        predictor.observe(player, "world", 0, 64, 1, startNanos, List.of(GATE));
+        predictor.observe(player, "world", 2.5, 64, 1, startNanos + 500 * MILLIS, List.of(GATE));
+        predictor.observe(player, "world", 5.0, 64, 1, startNanos + 1000 * MILLIS, List.of(GATE));
+        assertEquals(before + 1, predicted.size());
+    }
+}
@@ -0,0 +1,71 @@
+package miroshka.aether.server.state;
+
+import miroshka.aether.common.protocol.NetworkStateDeltaPacket;
+import miroshka.aether.common.protocol.NetworkStatePacket;
+import miroshka.aether.common.protocol.ServerInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkStateCacheTest {
+
+    @Test
+    void testApplyDeltaOnMatchingVersion() {
+        NetworkStateCache cache = new NetworkStateCache(10_000);
+        NetworkStatePacket base = state(1, server("lobby", 10));
+        NetworkStatePacket target = state(2, server("lobby", 12), server("game", 3));
+        cache.update(base);
+
+        Optional<NetworkStatePacket> applied = cache.applyDelta(NetworkStateDeltaPacket.between(base, target,
+                5000, 0.5));
+
+        assertTrue(applied.isPresent());
+        assertEquals(2, cache.getStateVersion());
+        assertEquals(12, cache.getServerOnline("lobby"));
+        assertEquals(3, cache.getServerOnline("game"));
+        assertEquals(2, cache.getServers().size());
+    }
+
+    @Test
+    void testVersionGapLeavesStateUntouched() {
+        NetworkStateCache cache = new NetworkStateCache(10_000);
+        NetworkStatePacket base = state(1, server("lobby", 10));
+        cache.update(base);
+
+        NetworkStatePacket missed = state(2, server("lobby", 11));
+        NetworkStatePacket target = state(3, server("lobby", 20));
+        Optional<NetworkStatePacket> applied = cache.applyDelta(NetworkStateDeltaPacket.between(missed, target,
+                5000, 0.5));
+
+        assertTrue(applied.isEmpty());
+        assertEquals(1, cache.getStateVersion());
+        assertEquals(10, cache.getServerOnline("lobby"));
+    }
+
+    @Test
+    void testDeltaBeforeFullStateIsRejected() {
+        NetworkStateCache cache = new NetworkStateCache(10_000);
+        NetworkStateDeltaPacket delta = NetworkStateDeltaPacket.between(state(1), state(2, server("lobby", 1)),
+                5000, 0.5);
+
+        assertTrue(cache.applyDelta(delta).isEmpty());
+        assertEquals(0, cache.getStateVersion());
+        assertTrue(cache.isStale());
+    }
+
+    private static NetworkStatePacket state(long version, ServerInfo... servers) {
+        int online = 0;
+        for (ServerInfo server : servers) {
+            online += server.onlinePlayers();
+        }
+        return new NetworkStatePacket(online, servers.length, version, 10, Map.of(), Map.of(), List.of(servers));
+    }
+
+    private static ServerInfo server(String name, int online) {
+        return new ServerInfo(name, online, 100, 20.0, System.currentTimeMillis(), Map.of());
+    }
+}
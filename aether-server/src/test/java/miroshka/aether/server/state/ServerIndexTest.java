@@ -0,0 +1,90 @@
+package miroshka.aether.server.state;
+
+import miroshka.aether.common.protocol.ServerInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerIndexTest {
+
+    private static final int CAPACITY_FOR_THREE = 8;
+
+    @Test
+    void testLookupIgnoresCase() {
+        ServerIndex index = ServerIndex.of(List.of(server("Lobby", 10), server("survival", 20)));
+
+        assertEquals(0, index.indexOf("lobby"));
+        assertEquals(0, index.indexOf("LOBBY"));
+        assertEquals(1, index.indexOf("SurVival"));
+        assertEquals("Lobby", index.find("lObBy").orElseThrow().name());
+        assertEquals(10, index.onlinePlayers(index.indexOf("lobby")));
+        assertEquals(50, index.totalMaxPlayers());
+    }
+
+    @Test
+    void testMissesReturnNoIndex() {
+        ServerIndex index = ServerIndex.of(List.of(server("lobby", 10)));
+
+        assertEquals(-1, index.indexOf("creative"));
+        assertEquals(-1, index.indexOf(null));
+        assertTrue(index.find("creative").isEmpty());
+        assertEquals(-1, ServerIndex.EMPTY.indexOf("lobby"));
+        assertSame(ServerIndex.EMPTY, ServerIndex.of(List.of()));
+    }
+
+    @Test
+    void testCollidingNamesProbeAcrossTheTableEnd() {
+        List<String> colliding = namesInSlot(CAPACITY_FOR_THREE - 1, 4);
+        List<ServerInfo> servers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            servers.add(server(colliding.get(i), i));
+        }
+        ServerIndex index = ServerIndex.of(servers);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, index.indexOf(colliding.get(i)));
+            assertEquals(i, index.indexOf(colliding.get(i).toUpperCase(Locale.ROOT)));
+        }
+        assertEquals(-1, index.indexOf(colliding.get(3)));
+    }
+
+    @Test
+    void testRebuildAfterRemovalDropsServerAndKeepsChain() {
+        List<String> colliding = namesInSlot(CAPACITY_FOR_THREE - 1, 3);
+        List<ServerInfo> servers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            servers.add(server(colliding.get(i), i));
+        }
+        ServerIndex full = ServerIndex.of(servers);
+
+        servers.remove(0);
+        ServerIndex rebuilt = ServerIndex.of(servers);
+
+        assertEquals(0, full.indexOf(colliding.get(0)));
+        assertEquals(-1, rebuilt.indexOf(colliding.get(0)));
+        assertEquals(0, rebuilt.indexOf(colliding.get(1)));
+        assertEquals(1, rebuilt.indexOf(colliding.get(2)));
+        assertEquals(List.of(colliding.get(1), colliding.get(2)), rebuilt.serverNames());
+    }
+
+    private static List<String> namesInSlot(int slot, int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; names.size() < count; i++) {
+            String name = "server-" + i;
+            int hash = name.hashCode();
+            if (((hash ^ (hash >>> 16)) & (CAPACITY_FOR_THREE - 1)) == slot) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static ServerInfo server(String name, int online) {
+        return new ServerInfo(name, online, online + 10, 20.0, System.currentTimeMillis(), Map.of());
+    }
+}